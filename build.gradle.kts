@@ -35,6 +35,7 @@ val jeiVersion: String = "15.2.0.21"
 val patchouliVersion: String = "1.20.1-81-FORGE"
 val jadeVersion: String = "4614153"
 val topVersion: String = "4629624"
+val jmhVersion: String = "1.37"
 
 val modId: String = "tfc"
 val modVersion: String = System.getenv("VERSION") ?: "0.0.0-indev"
@@ -64,6 +65,15 @@ idea {
     }
 }
 
+sourceSets {
+    // Benchmarks, run with ./gradlew jmh
+    // Compiled against main, and the same (deobfuscated) Minecraft classpath, and run outside of Minecraft, in a bootstrapped environment
+    create("jmh") {
+        compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+        runtimeClasspath += sourceSets.main.get().output + sourceSets.main.get().runtimeClasspath
+    }
+}
+
 repositories {
     mavenCentral()
     mavenLocal()
@@ -118,6 +128,10 @@ dependencies {
     // There is not a testImplementation-like configuration, AFAIK, that is available at minecraft runtime, so we use minecraftLibrary
     minecraftLibrary("org.junit.jupiter:junit-jupiter-api:5.9.2")
     minecraftLibrary("org.junit.jupiter:junit-jupiter-engine:5.9.2")
+
+    // JMH
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:$jmhVersion")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
 }
 
 minecraft {
@@ -240,6 +254,23 @@ tasks {
         }
     }
 
+    // Runs all benchmarks, or those matching -Pjmh_include=<regex>, recording allocation rate with the gc profiler
+    // Results are written to build/jmh/results.json
+    register<JavaExec>("jmh") {
+        group = "verification"
+        description = "Runs the JMH world generation benchmarks"
+        dependsOn("jmhClasses")
+
+        classpath = sourceSets["jmh"].runtimeClasspath
+        mainClass.set("org.openjdk.jmh.Main")
+
+        val include: String = project.findProperty("jmh_include") as String? ?: ".*"
+        val results = layout.buildDirectory.file("jmh/results.json").get().asFile
+
+        doFirst { results.parentFile.mkdirs() }
+        args(include, "-prof", "gc", "-rf", "json", "-rff", results.absolutePath)
+    }
+
     jar {
         manifest {
             attributes["Implementation-Version"] = project.version
@@ -1474,6 +1474,25 @@ DEFAULT_LANG = {
     'tfc.commands.trim.not_armor': 'The metal specified does not have armor items',
     'tfc.commands.trim.bad_material': 'Material item not recognized',
     'tfc.commands.trim.bad_template': 'Template item not recognized',
+    'tfc.commands.pregen.started': 'Started pregenerating %s chunks in %s',
+    'tfc.commands.pregen.already_running': 'A pregeneration job already exists. Use /tfc pregen stop to cancel it first',
+    'tfc.commands.pregen.not_running': 'There is no pregeneration job running',
+    'tfc.commands.pregen.paused': 'Paused pregeneration after %s chunks',
+    'tfc.commands.pregen.resumed': 'Resumed pregeneration from chunk %s',
+    'tfc.commands.pregen.stopped': 'Stopped pregeneration',
+    'tfc.commands.pregen.status': 'Pregenerated %s / %s chunks (%s%%) at %s chunks/s, %s failed',
+    'tfc.commands.pregen.status_paused': 'Pregeneration is paused at %s / %s chunks',
+    'tfc.commands.pregen.status_timings': 'Average time per chunk: %s',
+    'tfc.commands.pregen.status_throttled': 'Pregeneration is currently waiting for the server to catch up',
+    'tfc.commands.worldgen.profile_enabled': 'Enabled the worldgen profiler',
+    'tfc.commands.worldgen.profile_disabled': 'Disabled the worldgen profiler',
+    'tfc.commands.worldgen.stats_empty': 'No worldgen timings recorded. Use /tfc worldgen profile on to start recording',
+    'tfc.commands.worldgen.stats_timing': '%s %s: %s calls, %sms total, %sus mean, %sus max',
+    'tfc.commands.worldgen.stats_cache': '%s cache: %s%% hit rate (%s hits, %s misses)',
+    'tfc.commands.worldgen.stats_chunk_data': 'Chunk data: %s chunks from prefetched batches, %s generated lazily',
+    'tfc.commands.worldgen.reset': 'Reset worldgen timings and cache statistics',
+    'tfc.commands.worldgen.dump': 'Wrote worldgen statistics to %s',
+    'tfc.commands.worldgen.dump_failed': 'Unable to write worldgen statistics: %s',
 
     # Create World Screen Options
     'tfc.settings.km': '%s km',
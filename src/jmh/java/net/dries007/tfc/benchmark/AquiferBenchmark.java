@@ -0,0 +1,111 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.levelgen.PositionalRandomFactory;
+import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
+import net.minecraft.world.level.levelgen.synth.NormalNoise;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.dries007.tfc.world.AquiferCells;
+import net.dries007.tfc.world.ChunkBaseBlockSource;
+import net.dries007.tfc.world.TFCAquifer;
+import net.dries007.tfc.world.TFCChunkGenerator;
+import net.dries007.tfc.world.biome.TFCBiomes;
+import net.dries007.tfc.world.chunkdata.RockData;
+
+/**
+ * Samples aquifer states for every block below the surface of a chunk, with a fresh aquifer per chunk, as done during noise filling.
+ * Chunks are visited in rows, so neighbouring chunks share aquifer cells when {@code cells = shared}. With {@code cells = private}, each chunk gets its own {@link AquiferCells}, which is how aquifers computed their cells before they were shared.
+ * The number of cell locations and entries computed are reported as auxiliary counters, alongside the number of chunks, so they can be compared per chunk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AquiferBenchmark
+{
+    private static final int MIN_Y = -64;
+    private static final int SURFACE_Y = 80;
+
+    @Param({"private", "shared"})
+    private String cells;
+
+    private PositionalRandomFactory fork;
+    private NormalNoise barrierNoise;
+    private AquiferCells sharedCells;
+    private int chunk;
+
+    @Setup
+    public void setup()
+    {
+        BenchmarkHelper.bootstrap();
+
+        fork = new XoroshiroRandomSource(BenchmarkHelper.SEED).forkPositional();
+        barrierNoise = NormalNoise.create(fork.fromHashOf("aquifer_barrier"), -3, 1.0); // Matches vanilla's aquifer_barrier noise parameters
+        sharedCells = createCells(1024);
+    }
+
+    @Benchmark
+    public void sampleState(Blackhole bh, Counters counters)
+    {
+        final ChunkPos pos = new ChunkPos(chunk & 63, chunk >> 6);
+        final ChunkBaseBlockSource source = new ChunkBaseBlockSource(new RockData(null), (x, z) -> TFCBiomes.PLAINS, Blocks.WATER.defaultBlockState(), Blocks.WATER.defaultBlockState());
+        final AquiferCells cells = this.cells.equals("shared") ? sharedCells : createCells(16);
+        final TFCAquifer aquifer = new TFCAquifer(pos, source, cells, barrierNoise);
+        final long locations = cells.locationsComputed(), entries = cells.entriesComputed();
+
+        chunk++;
+
+        final int[] surfaceHeights = new int[4 * 4];
+        Arrays.fill(surfaceHeights, SURFACE_Y);
+        aquifer.setSurfaceHeights(surfaceHeights);
+
+        for (int x = pos.getMinBlockX(); x <= pos.getMaxBlockX(); x++)
+        {
+            for (int z = pos.getMinBlockZ(); z <= pos.getMaxBlockZ(); z++)
+            {
+                for (int y = MIN_Y; y < SURFACE_Y; y++)
+                {
+                    // Caves everywhere, so every sample takes the full aquifer path
+                    bh.consume(aquifer.sampleState(x, y, z, -1));
+                }
+            }
+        }
+
+        counters.chunks++;
+        counters.locationsComputed += cells.locationsComputed() - locations;
+        counters.entriesComputed += cells.entriesComputed() - entries;
+    }
+
+    private AquiferCells createCells(int cacheSize)
+    {
+        return new AquiferCells(fork, MIN_Y, 320, TFCChunkGenerator.SEA_LEVEL_Y, cacheSize);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters
+    {
+        public long chunks;
+        public long locationsComputed;
+        public long entriesComputed;
+
+        @Setup(Level.Iteration)
+        public void reset()
+        {
+            chunks = locationsComputed = entriesComputed = 0;
+        }
+    }
+}
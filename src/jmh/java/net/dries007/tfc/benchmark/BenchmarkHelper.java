@@ -0,0 +1,77 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmark;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import net.minecraft.DetectedVersion;
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
+import net.minecraftforge.registries.GameData;
+
+import net.dries007.tfc.world.region.RegionGenerator;
+import net.dries007.tfc.world.settings.RockLayerSettings;
+import net.dries007.tfc.world.settings.RockSettings;
+import net.dries007.tfc.world.settings.Settings;
+
+/**
+ * Common setup for benchmarks. Benchmarks run outside of Minecraft, so like unit tests, they need to be bootstrapped before touching anything that references vanilla registries.
+ */
+public final class BenchmarkHelper
+{
+    public static final long SEED = 1923874123412L;
+
+    private static boolean bootstrapped = false;
+
+    public static synchronized void bootstrap()
+    {
+        if (!bootstrapped)
+        {
+            bootstrapped = true;
+            try
+            {
+                final Field field = SharedConstants.class.getDeclaredField("CURRENT_VERSION");
+                field.setAccessible(true);
+                field.set(null, DetectedVersion.BUILT_IN);
+            }
+            catch (NoSuchFieldException | IllegalAccessException e)
+            {
+                throw new IllegalStateException("Unable to set SharedConstants#CURRENT_VERSION", e);
+            }
+
+            Bootstrap.bootStrap();
+            GameData.unfreezeData();
+        }
+    }
+
+    public static Settings settings()
+    {
+        return new Settings(false, 0, 0, 0, 20_000, 0, 20_000, 0, rockLayerSettings(), 0.5f);
+    }
+
+    public static RegionGenerator regionGenerator()
+    {
+        return new RegionGenerator(settings(), new XoroshiroRandomSource(SEED));
+    }
+
+    public static RockLayerSettings rockLayerSettings()
+    {
+        return new RockLayerSettings.Data(
+            Map.of("rock", new RockSettings(Blocks.STONE, Blocks.DEEPSLATE, null, null, null, null, Optional.empty(), Optional.empty(), Optional.empty())),
+            List.of("rock"),
+            List.of(new RockLayerSettings.LayerData("base", Map.of("rock", "bottom"))),
+            List.of("base"),
+            List.of("base"),
+            List.of("base"),
+            List.of("base")
+        ).parse();
+    }
+}
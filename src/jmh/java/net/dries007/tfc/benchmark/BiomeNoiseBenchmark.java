@@ -0,0 +1,83 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+import net.dries007.tfc.world.biome.BiomeNoise;
+import net.dries007.tfc.world.noise.Noise2D;
+
+/**
+ * Samples each of the biome height functions over a 16x16 chunk of columns, which is how they are queried during noise filling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BiomeNoiseBenchmark
+{
+    @Param({"hills", "sharp_hills", "canyons", "mountains", "badlands", "bryce_canyon", "lowlands", "ocean", "ocean_ridge", "volcanoes"})
+    public String biome;
+
+    @Param({"false", "true"})
+    public boolean compiled;
+
+    private Noise2D noise;
+    private double[] grid;
+    private int chunk;
+
+    @Setup
+    public void setup()
+    {
+        final long seed = BenchmarkHelper.SEED;
+        noise = switch (biome)
+            {
+                case "hills" -> BiomeNoise.hills(seed, -5, 28);
+                case "sharp_hills" -> BiomeNoise.sharpHills(seed);
+                case "canyons" -> BiomeNoise.canyons(seed, -2, 40);
+                case "mountains" -> BiomeNoise.mountains(seed, 10, 70);
+                case "badlands" -> BiomeNoise.badlands(seed);
+                case "bryce_canyon" -> BiomeNoise.bryceCanyon(seed);
+                case "lowlands" -> BiomeNoise.lowlands(seed);
+                case "ocean" -> BiomeNoise.ocean(seed, -26, -12);
+                case "ocean_ridge" -> BiomeNoise.oceanRidge(seed, -30, -16);
+                case "volcanoes" -> BiomeNoise.addVolcanoes(seed, BiomeNoise.mountains(seed, 10, 70), 5, 25, 50);
+                default -> throw new IllegalArgumentException(biome);
+            };
+        if (compiled)
+        {
+            noise = noise.compiled();
+        }
+        grid = new double[16 * 16];
+    }
+
+    @Benchmark
+    public double sampleChunk()
+    {
+        final int chunkX = (chunk++ & 255) << 4;
+        double sum = 0;
+        for (int x = 0; x < 16; x++)
+        {
+            for (int z = 0; z < 16; z++)
+            {
+                sum += noise.noise(chunkX + x, z);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double[] fillChunk()
+    {
+        final int chunkX = (chunk++ & 255) << 4;
+        noise.fillGrid(chunkX, 0, 1, 1, 16, 16, grid);
+        return grid;
+    }
+}
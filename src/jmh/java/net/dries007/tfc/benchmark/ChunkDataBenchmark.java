@@ -0,0 +1,116 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import net.minecraft.world.level.ChunkPos;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.dries007.tfc.world.chunkdata.ChunkData;
+import net.dries007.tfc.world.chunkdata.RegionChunkDataGenerator;
+import net.dries007.tfc.world.chunkdata.RockLayerTable;
+import net.dries007.tfc.world.region.RegionGenerator;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChunkDataBenchmark
+{
+    private static final int AREA = 32; // Chunks, iterated in a square, which are all within the same few regions
+    private static final int[] SURFACE_HEIGHT = new int[16 * 16];
+
+    static
+    {
+        Arrays.fill(SURFACE_HEIGHT, 100);
+    }
+
+    private RegionChunkDataGenerator generator;
+    private RockLayerTable table;
+    private int chunk;
+
+    @Setup
+    public void setup()
+    {
+        BenchmarkHelper.bootstrap();
+
+        final RegionGenerator regionGenerator = BenchmarkHelper.regionGenerator();
+        generator = RegionChunkDataGenerator.create(BenchmarkHelper.SEED, BenchmarkHelper.rockLayerSettings(), regionGenerator);
+
+        // Warm the region cache, so we measure chunk data, not region generation
+        for (int i = 0; i < AREA * AREA; i++)
+        {
+            generator.generate(new ChunkData(nextChunk()));
+        }
+        table = generator.generateRockTable(new ChunkPos(0, 0), SURFACE_HEIGHT, -64, 320);
+    }
+
+    @Benchmark
+    public ChunkData generate()
+    {
+        final ChunkData data = new ChunkData(nextChunk());
+        generator.generate(data);
+        return data;
+    }
+
+    /**
+     * Samples the rock at every fourth block of a column, for each column in a chunk, directly from noise, as done by chunks saved without a table.
+     */
+    @Benchmark
+    public void generateRockNoTable(Blackhole bh)
+    {
+        final ChunkPos pos = nextChunk();
+        for (int x = pos.getMinBlockX(); x <= pos.getMaxBlockX(); x++)
+        {
+            for (int z = pos.getMinBlockZ(); z <= pos.getMaxBlockZ(); z++)
+            {
+                for (int y = -64; y < 100; y += 4)
+                {
+                    bh.consume(generator.generateRock(x, y, z, 100));
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the rock table for a whole chunk, as done once during noise filling.
+     */
+    @Benchmark
+    public RockLayerTable generateRockTable()
+    {
+        return generator.generateRockTable(nextChunk(), SURFACE_HEIGHT, -64, 320);
+    }
+
+    /**
+     * Samples the rock at every fourth block of a column, for each column in a chunk, from a prebuilt table, as done by all queries after noise filling.
+     */
+    @Benchmark
+    public void queryRockTable(Blackhole bh)
+    {
+        final ChunkPos pos = new ChunkPos(0, 0);
+        for (int x = pos.getMinBlockX(); x <= pos.getMaxBlockX(); x++)
+        {
+            for (int z = pos.getMinBlockZ(); z <= pos.getMaxBlockZ(); z++)
+            {
+                for (int y = -64; y < 100; y += 4)
+                {
+                    bh.consume(table.get(x, y, z));
+                }
+            }
+        }
+    }
+
+    private ChunkPos nextChunk()
+    {
+        final int index = chunk++ % (AREA * AREA);
+        return new ChunkPos(index % AREA, index / AREA);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.dries007.tfc.common.blockentities.FarmlandBlockEntity.NutrientType;
+import net.dries007.tfc.common.blocks.crop.CropGrowth;
+import net.dries007.tfc.common.blocks.crop.CropHelpers;
+import net.dries007.tfc.util.calendar.ICalendar;
+import net.dries007.tfc.util.climate.ClimateRange;
+import net.dries007.tfc.util.climate.OverworldClimateModel;
+import net.dries007.tfc.world.chunkdata.ChunkData;
+import net.dries007.tfc.world.chunkdata.ForestType;
+import net.dries007.tfc.world.chunkdata.LerpFloatLayer;
+
+/**
+ * Catches up a farm of crops, filling a chunk, which has been unloaded for {@code days}. Each crop last grew at a different tick, within the last {@link CropHelpers#UPDATE_INTERVAL} before unloading, as they would from random ticks.
+ * <ul>
+ *     <li>{@code iterative} advances each crop one {@link CropHelpers#UPDATE_INTERVAL} at a time, computing both temperatures of every interval, and updating the crop and farmland after every interval, as {@link CropHelpers#growthTickStep} does.</li>
+ *     <li>{@code caught_up} builds and samples a temperature timeline for each crop, and only writes the crop and farmland once, as {@link CropHelpers#catchUpGrowth} does. That needs a level, so the same steps are called directly.</li>
+ * </ul>
+ * Neither includes the hydration scan, which is done once per interval by the former, and once in total by the latter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CropCatchUpBenchmark
+{
+    private static final int DAYS_IN_MONTH = 8;
+
+    @Param({"30", "360"})
+    private int days;
+
+    @Param({"iterative", "caught_up"})
+    private String mode;
+
+    private OverworldClimateModel model;
+    private ChunkData data;
+    private BlockPos[] crops;
+    private long[] lastGrowthTicks;
+    private long thisCalendarTick;
+
+    @Setup
+    public void setup()
+    {
+        BenchmarkHelper.bootstrap();
+
+        final ChunkPos pos = new ChunkPos(12, -340);
+        model = new OverworldClimateModel();
+        data = new ChunkData(pos);
+        data.generatePartial(new LerpFloatLayer(250, 250, 300, 300), new LerpFloatLayer(14, 16, 15, 18), ForestType.NONE, 0, 0);
+        final Random random = new Random(BenchmarkHelper.SEED);
+        final long unloadCalendarTick = random.nextInt(1_000_000) * (long) ICalendar.TICKS_IN_DAY;
+        crops = new BlockPos[16 * 16];
+        lastGrowthTicks = new long[crops.length];
+        for (int i = 0; i < crops.length; i++)
+        {
+            crops[i] = new BlockPos(pos.getMinBlockX() + (i & 15), 64, pos.getMinBlockZ() + (i >> 4));
+            lastGrowthTicks[i] = unloadCalendarTick - random.nextLong(CropHelpers.UPDATE_INTERVAL);
+        }
+        thisCalendarTick = unloadCalendarTick + days * (long) ICalendar.TICKS_IN_DAY;
+    }
+
+    @Benchmark
+    public void catchUp(Blackhole bh)
+    {
+        final Random random = new Random(BenchmarkHelper.SEED);
+        for (int crop = 0; crop < crops.length; crop++)
+        {
+            final BlockPos pos = crops[crop];
+            final long[] calendarTicks = CropHelpers.growthIntervals(lastGrowthTicks[crop], thisCalendarTick);
+            final int steps = calendarTicks.length - 1;
+            final CropGrowth.Nutrients farmland = createFarmland();
+            if (mode.equals("iterative"))
+            {
+                float growth = 0, yield = 0, expiry = 0;
+                for (int i = 0; i < steps; i++)
+                {
+                    final long fromTick = calendarTicks[i], toTick = calendarTicks[i + 1];
+                    final float startTemperature = model.getTemperature(null, pos, data, fromTick, DAYS_IN_MONTH);
+                    final float endTemperature = model.getTemperature(null, pos, data, toTick, DAYS_IN_MONTH);
+                    final CropGrowth growthStep = createGrowth();
+                    growthStep.growth = growth;
+                    growthStep.yield = yield;
+                    growthStep.expiry = expiry;
+                    if (!growthStep.step(farmland, startTemperature, endTemperature, toTick - fromTick, uniform(random)))
+                    {
+                        break;
+                    }
+                    growth = growthStep.growth;
+                    yield = growthStep.yield;
+                    expiry = growthStep.expiry;
+                }
+                bh.consume(growth);
+            }
+            else
+            {
+                final OverworldClimateModel.Timeline timeline = (OverworldClimateModel.Timeline) model.getTemperatureTimeline(calendarTicks, DAYS_IN_MONTH);
+                final float[] temperatures = new float[steps + 1];
+                final CropGrowth.Nutrients nutrients = CropGrowth.copyNutrients(farmland);
+                final CropGrowth growth = createGrowth();
+                timeline.sample(pos, data, temperatures);
+                for (int i = 0; i < steps; i++)
+                {
+                    if (!growth.step(nutrients, temperatures[i], temperatures[i + 1], calendarTicks[i + 1] - calendarTicks[i], uniform(random)))
+                    {
+                        break;
+                    }
+                }
+                nutrients.writeTo(farmland);
+                bh.consume(growth.growth);
+            }
+            bh.consume(farmland.getNutrient(NutrientType.NITROGEN));
+        }
+    }
+
+    private CropGrowth createGrowth()
+    {
+        return new CropGrowth(ClimateRange.NOOP, NutrientType.NITROGEN, 50, CropHelpers.GROWTH_LIMIT, 1f, 1f);
+    }
+
+    /**
+     * Full farmland, which behaves identically to a {@link net.dries007.tfc.common.blockentities.FarmlandBlockEntity}, without syncing.
+     */
+    private static CropGrowth.Nutrients createFarmland()
+    {
+        final CropGrowth.Nutrients farmland = new CropGrowth.Nutrients();
+        for (NutrientType type : NutrientType.VALUES)
+        {
+            farmland.setNutrient(type, 1);
+        }
+        return farmland;
+    }
+
+    private static float uniform(Random random)
+    {
+        return random.nextFloat() * (1.1f - 0.9f) + 0.9f;
+    }
+}
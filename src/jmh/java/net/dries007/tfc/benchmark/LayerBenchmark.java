@@ -0,0 +1,93 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
+import org.openjdk.jmh.annotations.*;
+
+import net.dries007.tfc.util.IArtist;
+import net.dries007.tfc.world.layer.TFCLayers;
+import net.dries007.tfc.world.layer.framework.Area;
+import net.dries007.tfc.world.layer.framework.AreaFactory;
+import net.dries007.tfc.world.layer.framework.TiledArea;
+import net.dries007.tfc.world.region.RegionGenerator;
+
+/**
+ * Samples each of the {@link TFCLayers} area stacks over a quart-resolution chunk area, walking across the world so each iteration misses the area cache.
+ * Also compares evaluating a whole {@link TiledArea} tile point by point, against evaluating it at once via {@link Area#fill(int, int, int, int, int[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LayerBenchmark
+{
+    @Param({"biome", "rock", "forest", "uniform"})
+    public String layer;
+
+    private Area area;
+    private int chunk;
+    private int tile;
+    private final int[] tileValues = new int[TiledArea.TILE_SIZE * TiledArea.TILE_SIZE];
+
+    @Setup
+    public void setup()
+    {
+        BenchmarkHelper.bootstrap();
+
+        final RegionGenerator generator = BenchmarkHelper.regionGenerator();
+        final AreaFactory factory = switch (layer)
+            {
+                case "biome" -> TFCLayers.createRegionBiomeLayer(generator, BenchmarkHelper.SEED);
+                case "rock" -> TFCLayers.createOverworldRockLayer(generator, BenchmarkHelper.SEED);
+                case "forest" -> TFCLayers.createOverworldForestLayer(BenchmarkHelper.SEED, IArtist.nope());
+                case "uniform" -> TFCLayers.createUniformLayer(new XoroshiroRandomSource(BenchmarkHelper.SEED), 2);
+                default -> throw new IllegalArgumentException(layer);
+            };
+        area = factory.get();
+    }
+
+    @Benchmark
+    public int sampleChunk()
+    {
+        final int chunkX = chunk++ << 2;
+        int sum = 0;
+        for (int x = 0; x < 4; x++)
+        {
+            for (int z = 0; z < 4; z++)
+            {
+                sum += area.get(chunkX + x, z);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int sampleTile()
+    {
+        final int tileX = tile++ << TiledArea.TILE_BITS;
+        int sum = 0;
+        for (int x = 0; x < TiledArea.TILE_SIZE; x++)
+        {
+            for (int z = 0; z < TiledArea.TILE_SIZE; z++)
+            {
+                sum += area.get(tileX + x, z);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int[] fillTile()
+    {
+        area.fill(tile++ << TiledArea.TILE_BITS, 0, TiledArea.TILE_SIZE, TiledArea.TILE_SIZE, tileValues);
+        return tileValues;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.dries007.tfc.world.region.RegionGenerator;
+import net.dries007.tfc.world.region.Units;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RegionGeneratorBenchmark
+{
+    private RegionGenerator generator;
+    private int cell;
+
+    @Setup
+    public void setup()
+    {
+        BenchmarkHelper.bootstrap();
+        generator = BenchmarkHelper.regionGenerator();
+        cell = 0;
+    }
+
+    /**
+     * Runs the full task pipeline for a region, bypassing any caches. Walks across cells so each invocation generates a different region.
+     */
+    @Benchmark
+    public void createRegion(Blackhole bh)
+    {
+        final int gridX = Units.cellToGrid(cell++);
+        generator.visualizeRegion(gridX, 0, (task, region) -> bh.consume(region));
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
+import org.openjdk.jmh.annotations.*;
+
+import net.dries007.tfc.world.river.MidpointFractal;
+
+/**
+ * Queries the distance to a river fractal at each column of a chunk, in grid coordinates, as done for each nearby river edge during noise filling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RiverBenchmark
+{
+    @Param({"4", "6"})
+    public int bisections;
+
+    private MidpointFractal fractal;
+
+    @Setup
+    public void setup()
+    {
+        fractal = new MidpointFractal(new XoroshiroRandomSource(BenchmarkHelper.SEED), bisections, 0, 0, 2.7, 1.3);
+    }
+
+    @Benchmark
+    public double intersectDistance()
+    {
+        double min = Double.MAX_VALUE;
+        for (int x = 0; x < 16; x++)
+        {
+            for (int z = 0; z < 16; z++)
+            {
+                // One chunk is 1/8 of a grid cell
+                min = Math.min(min, fractal.intersectDistance(1 + x / 128d, 0.5 + z / 128d));
+            }
+        }
+        return min;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.IntTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.WorldGenLevel;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.level.levelgen.structure.templatesystem.BlockIgnoreProcessor;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructurePlaceSettings;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
+import org.openjdk.jmh.annotations.*;
+
+import net.dries007.tfc.world.feature.tree.CompiledTreeTemplate;
+import net.dries007.tfc.world.feature.tree.TreeHelpers;
+
+/**
+ * Places a single tree template, with a random rotation and mirror, either by processing the {@link StructureTemplate} as before, or from a {@link CompiledTreeTemplate}.
+ * The level is a minimal proxy which is always empty, so both measure the cost of placement, not of block access.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TreeTemplateBenchmark
+{
+    private static final int RADIUS = 3;
+    private static final int HEIGHT = 10;
+
+    private StructureTemplate template;
+    private CompiledTreeTemplate compiled;
+    private WorldGenLevel level;
+    private RandomSource random;
+    private int tree;
+
+    @Setup
+    public void setup()
+    {
+        BenchmarkHelper.bootstrap();
+
+        template = createTemplate();
+        compiled = CompiledTreeTemplate.compile(new ResourceLocation("tfc", "benchmark"), template);
+        level = (WorldGenLevel) Proxy.newProxyInstance(WorldGenLevel.class.getClassLoader(), new Class<?>[] {WorldGenLevel.class}, (proxy, method, args) -> switch (method.getName())
+            {
+                case "getBlockState" -> Blocks.AIR.defaultBlockState();
+                case "setBlock" -> true;
+                default -> throw new UnsupportedOperationException(method.toString());
+            });
+        random = new XoroshiroRandomSource(BenchmarkHelper.SEED);
+    }
+
+    @Benchmark
+    public void placeTemplate()
+    {
+        final BlockPos pos = nextPos();
+        TreeHelpers.placeTemplate(template, settings(pos), level, pos);
+    }
+
+    @Benchmark
+    public void placeCompiled()
+    {
+        final BlockPos pos = nextPos();
+        compiled.place(level, pos, settings(pos), random);
+    }
+
+    private BlockPos nextPos()
+    {
+        tree++;
+        return new BlockPos((tree & 63) * 5, 80, (tree >> 6 & 63) * 5);
+    }
+
+    private StructurePlaceSettings settings(BlockPos pos)
+    {
+        final ChunkPos chunkPos = new ChunkPos(pos);
+        final StructurePlaceSettings settings = new StructurePlaceSettings()
+            .setBoundingBox(new BoundingBox(chunkPos.getMinBlockX() - 16, -64, chunkPos.getMinBlockZ() - 16, chunkPos.getMaxBlockX() + 16, 320, chunkPos.getMaxBlockZ() + 16))
+            .setRandom(random)
+            .addProcessor(BlockIgnoreProcessor.STRUCTURE_AND_AIR);
+        TreeHelpers.randomize(settings, random);
+        return settings;
+    }
+
+    /**
+     * A typical tree template: a log trunk, with a roughly spherical crown of leaves, surrounded by air.
+     */
+    private StructureTemplate createTemplate()
+    {
+        final int width = 2 * RADIUS + 1;
+        final ListTag palette = new ListTag();
+        palette.add(NbtUtils.writeBlockState(Blocks.OAK_LOG.defaultBlockState()));
+        palette.add(NbtUtils.writeBlockState(Blocks.OAK_LEAVES.defaultBlockState()));
+        palette.add(NbtUtils.writeBlockState(Blocks.AIR.defaultBlockState()));
+
+        final ListTag blocks = new ListTag();
+        for (int x = 0; x < width; x++)
+        {
+            for (int y = 0; y < HEIGHT; y++)
+            {
+                for (int z = 0; z < width; z++)
+                {
+                    final int dx = x - RADIUS, dy = y - (HEIGHT - RADIUS - 1), dz = z - RADIUS;
+                    final int state = dx == 0 && dz == 0 && dy < 1 ? 0 : dx * dx + dy * dy + dz * dz <= RADIUS * RADIUS ? 1 : 2;
+                    final CompoundTag block = new CompoundTag();
+                    block.put("pos", intList(x, y, z));
+                    block.putInt("state", state);
+                    blocks.add(block);
+                }
+            }
+        }
+
+        final CompoundTag tag = new CompoundTag();
+        tag.put("size", intList(width, HEIGHT, width));
+        tag.put("palette", palette);
+        tag.put("blocks", blocks);
+        tag.put("entities", new ListTag());
+
+        final StructureTemplate template = new StructureTemplate();
+        template.load(BuiltInRegistries.BLOCK.asLookup(), tag);
+        return template;
+    }
+
+    private ListTag intList(int... values)
+    {
+        final ListTag tag = new ListTag();
+        for (int value : values)
+        {
+            tag.add(IntTag.valueOf(value));
+        }
+        return tag;
+    }
+}
@@ -115,6 +115,8 @@ import net.minecraftforge.event.level.ChunkEvent;
 import net.minecraftforge.event.level.ChunkWatchEvent;
 import net.minecraftforge.event.level.ExplosionEvent;
 import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.event.server.ServerStartedEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
 import net.minecraftforge.eventbus.api.Event;
 import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.IEventBus;
@@ -206,6 +208,7 @@ import net.dries007.tfc.util.PhysicalDamageType;
 import net.dries007.tfc.util.SelfTests;
 import net.dries007.tfc.util.Sluiceable;
 import net.dries007.tfc.util.Support;
+import net.dries007.tfc.util.SupportIndex;
 import net.dries007.tfc.util.calendar.ICalendar;
 import net.dries007.tfc.util.climate.Climate;
 import net.dries007.tfc.util.climate.ClimateModel;
@@ -222,6 +225,8 @@ import net.dries007.tfc.util.tracker.WorldTrackerCapability;
 import net.dries007.tfc.world.ChunkGeneratorExtension;
 import net.dries007.tfc.world.chunkdata.ChunkData;
 import net.dries007.tfc.world.chunkdata.ChunkDataCache;
+import net.dries007.tfc.world.feature.tree.TreeTemplates;
+import net.dries007.tfc.world.pregen.Pregenerator;
 
 public final class ForgeEventHandler
 {
@@ -252,6 +257,9 @@ public final class ForgeEventHandler
         bus.addListener(ForgeEventHandler::onExplosionDetonate);
         bus.addListener(ForgeEventHandler::onWorldTick);
         bus.addListener(ForgeEventHandler::onWorldLoad);
+        bus.addListener(ForgeEventHandler::onServerStarted);
+        bus.addListener(ForgeEventHandler::onServerStopping);
+        bus.addListener(ForgeEventHandler::onServerTick);
         bus.addListener(ForgeEventHandler::onCreateNetherPortal);
         bus.addListener(ForgeEventHandler::onFluidPlaceBlock);
         bus.addListener(ForgeEventHandler::onFluidCreateSource);
@@ -465,6 +473,7 @@ public final class ForgeEventHandler
         if (!Helpers.isClientSide(event.getLevel()) && !(event.getChunk() instanceof EmptyLevelChunk))
         {
             ChunkDataCache.SERVER.remove(event.getChunk().getPos());
+            SupportIndex.onChunkUnload(event.getLevel(), event.getChunk().getPos());
         }
     }
 
@@ -593,6 +602,26 @@ public final class ForgeEventHandler
         }
     }
 
+    public static void onServerStarted(ServerStartedEvent event)
+    {
+        Pregenerator.start(event.getServer());
+    }
+
+    public static void onServerStopping(ServerStoppingEvent event)
+    {
+        Pregenerator.halt();
+        TreeTemplates.clear();
+    }
+
+    public static void onServerTick(TickEvent.ServerTickEvent event)
+    {
+        final Pregenerator pregenerator = Pregenerator.active();
+        if (event.phase == TickEvent.Phase.END && pregenerator != null)
+        {
+            pregenerator.tick();
+        }
+    }
+
     public static void onWorldLoad(LevelEvent.Load event)
     {
         if (event.getLevel() instanceof final ServerLevel level)
@@ -1549,6 +1578,7 @@ public final class ForgeEventHandler
             // Then apply post reload actions which may query the cache
             Support.updateMaximumSupportRange();
             Metal.updateMetalFluidMap();
+            TreeTemplates.clear();
 
             ItemSizeManager.applyItemStackSizeOverrides();
             FoodCapability.markRecipeOutputsAsNonDecaying(event.getRegistryAccess(), manager);
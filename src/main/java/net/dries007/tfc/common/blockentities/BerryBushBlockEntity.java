@@ -13,18 +13,17 @@ import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
 
 import net.dries007.tfc.common.blocks.plant.fruit.IBushBlock;
+import net.dries007.tfc.util.calendar.CalendarCatchUp;
 import net.dries007.tfc.util.calendar.Calendars;
 import net.dries007.tfc.util.calendar.ICalendar;
 import net.dries007.tfc.util.calendar.ICalendarTickable;
 
+/**
+ * Bushes grow through random ticks, so they have no ticker, and are instead caught up by {@link CalendarCatchUp} when the calendar jumps.
+ */
 public class BerryBushBlockEntity extends TFCBlockEntity implements ICalendarTickable
 {
-    public static void serverTick(Level level, BlockPos pos, BlockState state, BerryBushBlockEntity bush)
-    {
-        bush.checkForCalendarUpdate();
-    }
-
-    private long lastTick; // The last tick this bush was ticked via the block entity's serverTick() method. A delta of > 1 is used to detect time skips
+    private long lastTick; // The last tick this bush was caught up to by CalendarCatchUp. A delta of > 1 is used to detect time skips
     private long lastUpdateTick; // The last tick the bush block was ticked via IBushBlock#onUpdate()
 
     public BerryBushBlockEntity(BlockPos pos, BlockState state)
@@ -59,10 +58,22 @@ public class BerryBushBlockEntity extends TFCBlockEntity implements ICalendarTic
     public void saveAdditional(CompoundTag nbt)
     {
         nbt.putLong("lastUpdateTick", lastUpdateTick);
-        nbt.putLong("lastTick", lastTick);
+        nbt.putLong("lastTick", CalendarCatchUp.lastUpdateTick(this));
         super.saveAdditional(nbt);
     }
 
+    @Override
+    protected void onLoadAdditional()
+    {
+        CalendarCatchUp.add(this);
+    }
+
+    @Override
+    protected void onUnloadAdditional()
+    {
+        CalendarCatchUp.remove(this);
+    }
+
     @Override
     public void onCalendarUpdate(long ticks)
     {
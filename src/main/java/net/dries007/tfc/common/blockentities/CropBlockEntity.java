@@ -8,35 +8,25 @@ package net.dries007.tfc.common.blockentities;
 
 import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
-import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
 
 import net.dries007.tfc.common.blocks.crop.DoubleCropBlock;
 import net.dries007.tfc.common.blocks.crop.ICropBlock;
+import net.dries007.tfc.util.calendar.CalendarCatchUp;
 import net.dries007.tfc.util.calendar.Calendars;
 import net.dries007.tfc.util.calendar.ICalendarTickable;
 
+/**
+ * Crops grow through random ticks, so they have no ticker, and are instead caught up by {@link CalendarCatchUp} when the calendar jumps.
+ */
 public class CropBlockEntity extends TFCBlockEntity implements ICalendarTickable
 {
-    public static void serverTick(Level level, BlockPos pos, BlockState state, CropBlockEntity crop)
-    {
-        crop.checkForCalendarUpdate();
-    }
-
-    public static void serverTickBottomPartOnly(Level level, BlockPos pos, BlockState state, CropBlockEntity crop)
-    {
-        if (state.getValue(DoubleCropBlock.PART) == DoubleCropBlock.Part.BOTTOM)
-        {
-            crop.checkForCalendarUpdate();
-        }
-    }
-
     private float growth;
     private float yield;
     private float expiry;
 
-    private long lastUpdateTick; // The last tick this crop was ticked via the block entity's tick() method. A delta of > 1 is used to detect time skips
+    private long lastUpdateTick; // The last tick this crop was caught up to by CalendarCatchUp. A delta of > 1 is used to detect time skips
     private long lastGrowthTick; // The last tick the crop block was ticked via ICropBlock#growthTick()
 
     public CropBlockEntity(BlockPos pos, BlockState state)
@@ -52,6 +42,22 @@ public class CropBlockEntity extends TFCBlockEntity implements ICalendarTickable
         lastGrowthTick = Calendars.SERVER.getTicks();
     }
 
+    @Override
+    protected void onLoadAdditional()
+    {
+        // Double crops only catch up from the bottom half
+        if (!getBlockState().hasProperty(DoubleCropBlock.PART) || getBlockState().getValue(DoubleCropBlock.PART) == DoubleCropBlock.Part.BOTTOM)
+        {
+            CalendarCatchUp.add(this);
+        }
+    }
+
+    @Override
+    protected void onUnloadAdditional()
+    {
+        CalendarCatchUp.remove(this);
+    }
+
     @Override
     public void onCalendarUpdate(long ticks)
     {
@@ -138,7 +144,7 @@ public class CropBlockEntity extends TFCBlockEntity implements ICalendarTickable
         nbt.putFloat("growth", growth);
         nbt.putFloat("yield", yield);
         nbt.putFloat("expiry", expiry);
-        nbt.putLong("tick", lastUpdateTick);
+        nbt.putLong("tick", CalendarCatchUp.lastUpdateTick(this));
         nbt.putLong("lastGrowthTick", lastGrowthTick);
         super.saveAdditional(nbt);
     }
@@ -9,25 +9,21 @@ package net.dries007.tfc.common.blockentities;
 import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
 
 import net.dries007.tfc.common.blocks.crop.DecayingBlock;
 import net.dries007.tfc.common.capabilities.food.FoodCapability;
+import net.dries007.tfc.common.capabilities.food.FoodHandler;
 import net.dries007.tfc.common.capabilities.food.IFood;
+import net.dries007.tfc.util.calendar.CalendarCatchUp;
+import net.dries007.tfc.util.calendar.Calendars;
 
+/**
+ * Rots the block once the food it holds rots. Rather than ticking, this schedules a single action with {@link CalendarCatchUp} for when the food will rot.
+ */
 public class DecayingBlockEntity extends TFCBlockEntity
 {
-    public static void serverTick(Level level, BlockPos pos, BlockState state, DecayingBlockEntity decaying)
-    {
-        if (level.getGameTime() % 20 == 0 && decaying.isRotten() && state.getBlock() instanceof DecayingBlock block)
-        {
-            decaying.setStack(ItemStack.EMPTY);
-            level.setBlockAndUpdate(pos, block.getRottedBlock().defaultBlockState());
-        }
-    }
-
     private ItemStack stack = ItemStack.EMPTY;
 
     public DecayingBlockEntity(BlockPos pos, BlockState state)
@@ -67,5 +63,45 @@ public class DecayingBlockEntity extends TFCBlockEntity
     public void setStack(ItemStack stack)
     {
         this.stack = stack.copyWithCount(1);
+        scheduleRot();
+    }
+
+    @Override
+    protected void onLoadAdditional()
+    {
+        scheduleRot();
+    }
+
+    @Override
+    protected void onUnloadAdditional()
+    {
+        CalendarCatchUp.remove(this);
+    }
+
+    private void scheduleRot()
+    {
+        if (level != null && !level.isClientSide())
+        {
+            final long rottenDate = isRotten() ? Calendars.SERVER.getTicks() : stack.getCapability(FoodCapability.CAPABILITY).map(IFood::getRottenDate).orElse(FoodHandler.NEVER_DECAY_DATE);
+            if (rottenDate != FoodHandler.NEVER_DECAY_DATE)
+            {
+                // Food is rotten once the current tick is past the rotten date
+                CalendarCatchUp.schedule(this, isRotten() ? rottenDate : rottenDate + 1, this::rot);
+            }
+        }
+    }
+
+    private void rot()
+    {
+        assert level != null;
+        if (!isRotten())
+        {
+            scheduleRot(); // The rotten date has moved, i.e. due to a change in config
+        }
+        else if (level.getBlockState(worldPosition).getBlock() instanceof DecayingBlock block)
+        {
+            stack = ItemStack.EMPTY;
+            level.setBlockAndUpdate(worldPosition, block.getRottedBlock().defaultBlockState());
+        }
     }
 }
@@ -16,7 +16,6 @@ import net.minecraft.world.level.block.SoundType;
 
 import net.minecraft.world.level.material.MapColor;
 
-import net.dries007.tfc.common.blockentities.CropBlockEntity;
 import net.dries007.tfc.common.blockentities.FarmlandBlockEntity.NutrientType;
 import net.dries007.tfc.common.blockentities.TFCBlockEntities;
 import net.dries007.tfc.common.blocks.ExtendedProperties;
@@ -57,12 +56,12 @@ public enum Crop implements StringRepresentable
 
     private static ExtendedProperties doubleCrop()
     {
-        return dead().blockEntity(TFCBlockEntities.CROP).serverTicks(CropBlockEntity::serverTickBottomPartOnly);
+        return dead().blockEntity(TFCBlockEntities.CROP);
     }
 
     private static ExtendedProperties crop()
     {
-        return dead().blockEntity(TFCBlockEntities.CROP).serverTicks(CropBlockEntity::serverTick);
+        return dead().blockEntity(TFCBlockEntities.CROP);
     }
 
     private static ExtendedProperties dead()
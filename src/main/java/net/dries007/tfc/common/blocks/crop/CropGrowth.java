@@ -0,0 +1,182 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.common.blocks.crop;
+
+import net.minecraft.util.Mth;
+import org.jetbrains.annotations.Nullable;
+
+import net.dries007.tfc.common.blockentities.CropBlockEntity;
+import net.dries007.tfc.common.blockentities.FarmlandBlockEntity.NutrientType;
+import net.dries007.tfc.common.blockentities.IFarmland;
+import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.util.climate.ClimateRange;
+
+import static net.dries007.tfc.common.blocks.crop.CropHelpers.*;
+
+/**
+ * The growth, yield and expiry of a crop, which can be advanced through many growth steps via {@link #step}, before being written back to the crop.
+ * Every input to a step which is constant over a catch up (the climate range, hydration, growth limit, and config values) is held here, so it is only computed once.
+ */
+public final class CropGrowth
+{
+    /**
+     * @return A copy of the nutrients of {@code farmland}, which can be consumed over many steps, and then {@linkplain Nutrients#writeTo(IFarmland) written back} once.
+     */
+    public static Nutrients copyNutrients(IFarmland farmland)
+    {
+        final Nutrients nutrients = new Nutrients();
+        for (NutrientType type : NutrientType.VALUES)
+        {
+            nutrients.setNutrient(type, farmland.getNutrient(type));
+        }
+        return nutrients;
+    }
+
+    private final ClimateRange range;
+    private final NutrientType primaryNutrient;
+    private final int hydration;
+    private final float growthLimit;
+    private final float growthModifier; // Higher = Slower growth
+    private final float expiryModifier; // Higher = Slower expiry
+
+    public float growth, yield, expiry;
+
+    public CropGrowth(CropBlockEntity crop, ClimateRange range, NutrientType primaryNutrient, int hydration, float growthLimit, float growthModifier, float expiryModifier)
+    {
+        this(range, primaryNutrient, hydration, growthLimit, growthModifier, expiryModifier);
+        this.growth = crop.getGrowth();
+        this.yield = crop.getYield();
+        this.expiry = crop.getExpiry();
+    }
+
+    public CropGrowth(ClimateRange range, NutrientType primaryNutrient, int hydration, float growthLimit, float growthModifier, float expiryModifier)
+    {
+        this.range = range;
+        this.primaryNutrient = primaryNutrient;
+        this.hydration = hydration;
+        this.growthLimit = growthLimit;
+        this.growthModifier = growthModifier;
+        this.expiryModifier = expiryModifier;
+    }
+
+    /**
+     * Advances the crop by a single step of {@code tickDelta} ticks.
+     *
+     * @param farmland         The farmland below the crop, which nutrients are consumed from, if present.
+     * @param randomFactor     A random value in [0.9, 1.1), scaling the total growth this step.
+     * @return {@code true} if the crop survived. If not, the crop should die, and {@link #growth} is the growth it reached.
+     */
+    public boolean step(@Nullable IFarmland farmland, float startTemperature, float endTemperature, long tickDelta, float randomFactor)
+    {
+        final boolean growing = checkClimate(range, hydration, startTemperature, endTemperature, false);
+        final boolean healthy = growing || checkClimate(range, hydration, startTemperature, endTemperature, true);
+
+        // Nutrients are consumed first, since they are independent of growth or health.
+        // As long as the crop exists it consumes nutrients.
+
+        float nutrientsAvailable = 0, nutrientsRequired = NUTRIENT_CONSUMPTION * tickDelta, nutrientsConsumed = 0;
+        if (farmland != null)
+        {
+            nutrientsAvailable = farmland.getNutrient(primaryNutrient);
+            nutrientsConsumed = farmland.consumeNutrientAndResupplyOthers(primaryNutrient, nutrientsRequired);
+        }
+
+        final float localExpiryLimit = EXPIRY_LIMIT * expiryModifier * (1f / growthModifier);
+
+        // Total growth is based on the ticks and the nutrients consumed. It is then allocated to actual growth or expiry based on other factors.
+        final float totalGrowthDelta = (1f / growthModifier) * randomFactor * tickDelta * GROWTH_FACTOR + nutrientsConsumed * NUTRIENT_GROWTH_FACTOR;
+        final float initialGrowth = growth;
+        float remainingGrowthDelta = totalGrowthDelta;
+
+        // Re-scale expiry to within our imaginary limits
+        expiry *= localExpiryLimit / EXPIRY_LIMIT;
+
+        if (remainingGrowthDelta > 0 && growing && growth < growthLimit)
+        {
+            // Allocate to growth
+            final float delta = Math.min(remainingGrowthDelta, growthLimit - growth);
+
+            growth += delta;
+            remainingGrowthDelta -= delta;
+        }
+        if (remainingGrowthDelta > 0)
+        {
+            // Allocate remaining growth to expiry
+            final float delta = Math.min(remainingGrowthDelta, localExpiryLimit - expiry);
+
+            expiry += delta;
+        }
+
+        // Calculate yield, which depends both on a flat rate per growth, and on the nutrient satisfaction, which is a measure of nutrient consumption over the growth time.
+        final float growthDelta = growth - initialGrowth;
+        final float nutrientSatisfaction;
+        if (growthDelta <= 0 || nutrientsRequired <= 0)
+        {
+            nutrientSatisfaction = 1; // Either condition causes the below formula to result in NaN
+        }
+        else
+        {
+            nutrientSatisfaction = Math.min(1, (totalGrowthDelta / growthDelta) * (nutrientsAvailable / nutrientsRequired));
+        }
+
+        yield += growthDelta * Helpers.lerp(nutrientSatisfaction, YIELD_MIN, YIELD_LIMIT);
+
+        // Check if the crop should've expired.
+        if (expiry >= localExpiryLimit || !healthy)
+        {
+            // Lenient here - instead of assuming it expired at the start of the duration, we assume at the end. Including growth during this period.
+            return false;
+        }
+
+        // Re-scale expiry to constant values to maintain invariance if the config value is updated
+        expiry *= EXPIRY_LIMIT / localExpiryLimit;
+        return true;
+    }
+
+    public void writeTo(CropBlockEntity crop)
+    {
+        crop.setGrowth(growth);
+        crop.setYield(yield);
+        crop.setExpiry(expiry);
+    }
+
+    private static boolean checkClimate(ClimateRange range, int hydration, float firstTemperature, float secondTemperature, boolean allowWiggle)
+    {
+        return range.checkBoth(hydration, firstTemperature, allowWiggle) && range.checkTemperature(secondTemperature, allowWiggle) == ClimateRange.Result.VALID;
+    }
+
+    /**
+     * Nutrients, which behave identically to those of {@link net.dries007.tfc.common.blockentities.FarmlandBlockEntity}, but without syncing every change.
+     */
+    public static final class Nutrients implements IFarmland
+    {
+        private final float[] values = new float[NutrientType.VALUES.length];
+
+        @Override
+        public float getNutrient(NutrientType type)
+        {
+            return values[type.ordinal()];
+        }
+
+        @Override
+        public void setNutrient(NutrientType type, float value)
+        {
+            values[type.ordinal()] = Mth.clamp(value, 0, 1);
+        }
+
+        public void writeTo(IFarmland farmland)
+        {
+            for (NutrientType type : NutrientType.VALUES)
+            {
+                if (farmland.getNutrient(type) != values[type.ordinal()])
+                {
+                    farmland.setNutrient(type, values[type.ordinal()]);
+                }
+            }
+        }
+    }
+}
@@ -6,7 +6,6 @@
 
 package net.dries007.tfc.common.blocks.crop;
 
-import java.util.Random;
 import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
@@ -30,7 +29,7 @@ import net.dries007.tfc.util.advancements.TFCAdvancements;
 import net.dries007.tfc.util.calendar.Calendars;
 import net.dries007.tfc.util.calendar.ICalendar;
 import net.dries007.tfc.util.climate.Climate;
-import net.dries007.tfc.util.climate.ClimateRange;
+import net.dries007.tfc.util.climate.TemperatureTimeline;
 
 /**
  * Common growth logic for crop blocks
@@ -59,16 +58,11 @@ public final class CropHelpers
     public static boolean growthTick(Level level, BlockPos pos, BlockState state, CropBlockEntity crop)
     {
         final long firstTick = crop.getLastGrowthTick(), thisTick = Calendars.SERVER.getTicks();
-        long tick = firstTick + CropHelpers.UPDATE_INTERVAL, lastTick = firstTick;
-        for (; tick < thisTick; tick += CropHelpers.UPDATE_INTERVAL)
+        if (thisTick - firstTick > UPDATE_INTERVAL)
         {
-            if (!CropHelpers.growthTickStep(level, pos, state, level.getRandom(), lastTick, tick, crop))
-            {
-                return false;
-            }
-            lastTick = tick;
+            return catchUpGrowth(level, pos, state, firstTick, thisTick, crop);
         }
-        return lastTick >= thisTick || CropHelpers.growthTickStep(level, pos, state, level.getRandom(), lastTick, thisTick, crop);
+        return firstTick >= thisTick || CropHelpers.growthTickStep(level, pos, state, level.getRandom(), firstTick, thisTick, crop);
     }
 
     public static boolean growthTickStep(Level level, BlockPos pos, BlockState state, RandomSource random, long fromTick, long toTick, CropBlockEntity crop)
@@ -76,93 +70,101 @@ public final class CropHelpers
         // Calculate invariants
         final ICalendar calendar = Calendars.get(level);
         final BlockPos sourcePos = pos.below();
-        final int hydration = FarmlandBlock.getHydration(level, sourcePos);
         final float startTemperature = Climate.getTemperature(level, pos, calendar, Calendars.SERVER.ticksToCalendarTicks(fromTick));
         final float endTemperature = Climate.getTemperature(level, pos, calendar, Calendars.SERVER.ticksToCalendarTicks(toTick));
-        final long tickDelta = toTick - fromTick;
 
         final ICropBlock cropBlock = (ICropBlock) state.getBlock();
-        final ClimateRange range = cropBlock.getClimateRange();
-        final boolean growing = checkClimate(range, hydration, startTemperature, endTemperature, false);
-        final boolean healthy = growing || checkClimate(range, hydration, startTemperature, endTemperature, true);
+        final CropGrowth growth = createGrowth(level, pos, state, cropBlock, crop);
+        final IFarmland farmland = level.getBlockEntity(sourcePos) instanceof IFarmland found ? found : null;
 
-        // Nutrients are consumed first, since they are independent of growth or health.
-        // As long as the crop exists it consumes nutrients.
-
-        final FarmlandBlockEntity.NutrientType primaryNutrient = cropBlock.getPrimaryNutrient();
-        float nutrientsAvailable = 0, nutrientsRequired = NUTRIENT_CONSUMPTION * tickDelta, nutrientsConsumed = 0;
-        if (level.getBlockEntity(sourcePos) instanceof IFarmland farmland)
+        if (!growth.step(farmland, startTemperature, endTemperature, toTick - fromTick, Helpers.uniform(random, 0.9f, 1.1f)))
         {
-            nutrientsAvailable = farmland.getNutrient(primaryNutrient);
-            nutrientsConsumed = farmland.consumeNutrientAndResupplyOthers(primaryNutrient, nutrientsRequired);
+            cropBlock.die(level, pos, state, growth.growth >= 1);
+            return false;
         }
 
-        final float growthModifier = TFCConfig.SERVER.cropGrowthModifier.get().floatValue(); // Higher = Slower growth
-        final float expiryModifier = TFCConfig.SERVER.cropExpiryModifier.get().floatValue(); // Higher = Slower expiry
-        final float localExpiryLimit = EXPIRY_LIMIT * expiryModifier * (1f / growthModifier);
+        growth.writeTo(crop);
+        crop.setLastGrowthTick(calendar.getTicks());
+        return true;
+    }
 
-        // Total growth is based on the ticks and the nutrients consumed. It is then allocated to actual growth or expiry based on other factors.
-        final float totalGrowthDelta = (1f / growthModifier) * Helpers.uniform(random, 0.9f, 1.1f) * tickDelta * CropHelpers.GROWTH_FACTOR + nutrientsConsumed * NUTRIENT_GROWTH_FACTOR;
-        final float initialGrowth = crop.getGrowth();
-        float remainingGrowthDelta = totalGrowthDelta;
-        float growth = initialGrowth, expiry = crop.getExpiry(), actualYield = crop.getYield();
+    /**
+     * Advances a crop through every {@link #UPDATE_INTERVAL} from {@code firstTick} to {@code thisTick} at once, with identical results to calling {@link #growthTickStep} for each interval.
+     * Everything which does not change between intervals - the hydration, growth limit, config, and the time dependent part of the temperature - is only computed once, and the crop and farmland are only updated (and synced) at the end.
+     *
+     * @return {@code true} if the crop survived.
+     */
+    public static boolean catchUpGrowth(Level level, BlockPos pos, BlockState state, long firstTick, long thisTick, CropBlockEntity crop)
+    {
+        final ICalendar calendar = Calendars.get(level);
+        final long[] ticks = growthIntervals(firstTick, thisTick);
+        final int steps = ticks.length - 1;
+        final float[] temperatures = new float[ticks.length];
 
-        // Re-scale expiry to within our imaginary limits
-        expiry *= localExpiryLimit / EXPIRY_LIMIT;
+        getTemperatureTimeline(level, calendar, ticks).sample(level, pos, temperatures);
 
-        final float growthLimit = cropBlock.getGrowthLimit(level, pos, state);
-        if (remainingGrowthDelta > 0 && growing && growth < growthLimit)
-        {
-            // Allocate to growth
-            final float delta = Math.min(remainingGrowthDelta, growthLimit - growth);
+        final ICropBlock cropBlock = (ICropBlock) state.getBlock();
+        final CropGrowth growth = createGrowth(level, pos, state, cropBlock, crop);
+        final IFarmland farmland = level.getBlockEntity(pos.below()) instanceof IFarmland found ? found : null;
+        final IFarmland nutrients = farmland instanceof FarmlandBlockEntity ? CropGrowth.copyNutrients(farmland) : farmland; // Only copy those we know behave identically
 
-            growth += delta;
-            remainingGrowthDelta -= delta;
-        }
-        if (remainingGrowthDelta > 0)
+        boolean alive = true;
+        for (int i = 0; i < steps && alive; i++)
         {
-            // Allocate remaining growth to expiry
-            final float delta = Math.min(remainingGrowthDelta, localExpiryLimit - expiry);
-
-            expiry += delta;
+            alive = growth.step(nutrients, temperatures[i], temperatures[i + 1], ticks[i + 1] - ticks[i], Helpers.uniform(level.getRandom(), 0.9f, 1.1f));
         }
 
-        // Calculate yield, which depends both on a flat rate per growth, and on the nutrient satisfaction, which is a measure of nutrient consumption over the growth time.
-        final float growthDelta = growth - initialGrowth;
-        final float nutrientSatisfaction;
-        if (growthDelta <= 0 || nutrientsRequired <= 0)
+        if (nutrients instanceof CropGrowth.Nutrients copy)
         {
-            nutrientSatisfaction = 1; // Either condition causes the below formula to result in NaN
+            copy.writeTo(farmland);
         }
-        else
+        if (!alive)
         {
-            nutrientSatisfaction = Math.min(1, (totalGrowthDelta / growthDelta) * (nutrientsAvailable / nutrientsRequired));
+            cropBlock.die(level, pos, state, growth.growth >= 1);
+            return false;
         }
 
-        actualYield += growthDelta * Helpers.lerp(nutrientSatisfaction, YIELD_MIN, YIELD_LIMIT);
+        growth.writeTo(crop);
+        crop.setLastGrowthTick(calendar.getTicks());
+        return true;
+    }
 
-        // Check if the crop should've expired.
-        if (expiry >= localExpiryLimit || !healthy)
+    /**
+     * The intervals a crop grows through, from {@code firstTick} to {@code thisTick}. Every interval is a full {@link #UPDATE_INTERVAL}, except the last, which ends at {@code thisTick}, and may be shorter.
+     *
+     * @return The ticks bounding each interval, so interval {@code i} is from {@code [i]} to {@code [i + 1]}. Contains only {@code firstTick} if there are no intervals.
+     */
+    public static long[] growthIntervals(long firstTick, long thisTick)
+    {
+        final int steps = thisTick > firstTick ? (int) ((thisTick - firstTick - 1) / UPDATE_INTERVAL) + 1 : 0;
+        final long[] ticks = new long[steps + 1];
+        for (int i = 0; i < steps; i++)
         {
-            // Lenient here - instead of assuming it expired at the start of the duration, we assume at the end. Including growth during this period.
-            cropBlock.die(level, pos, state, growth >= 1);
-            return false;
+            ticks[i] = firstTick + i * UPDATE_INTERVAL;
         }
+        ticks[steps] = steps > 0 ? thisTick : firstTick;
+        return ticks;
+    }
 
-        // Re-scale expiry to constant values to maintain invariance if the config value is updated
-        expiry *= EXPIRY_LIMIT / localExpiryLimit;
-
-        crop.setGrowth(growth);
-        crop.setYield(actualYield);
-        crop.setExpiry(expiry);
-        crop.setLastGrowthTick(calendar.getTicks());
-
-        return true;
+    private static CropGrowth createGrowth(Level level, BlockPos pos, BlockState state, ICropBlock cropBlock, CropBlockEntity crop)
+    {
+        return new CropGrowth(crop,
+            cropBlock.getClimateRange(),
+            cropBlock.getPrimaryNutrient(),
+            FarmlandBlock.getHydration(level, pos.below()),
+            cropBlock.getGrowthLimit(level, pos, state),
+            TFCConfig.SERVER.cropGrowthModifier.get().floatValue(),
+            TFCConfig.SERVER.cropExpiryModifier.get().floatValue());
     }
 
-    private static boolean checkClimate(ClimateRange range, int hydration, float firstTemperature, float secondTemperature, boolean allowWiggle)
+    private static TemperatureTimeline getTemperatureTimeline(Level level, ICalendar calendar, long[] ticks)
     {
-        return range.checkBoth(hydration, firstTemperature, allowWiggle) && range.checkTemperature(secondTemperature, allowWiggle) == ClimateRange.Result.VALID;
+        final long[] calendarTicks = new long[ticks.length];
+        for (int i = 0; i < ticks.length; i++)
+        {
+            calendarTicks[i] = Calendars.SERVER.ticksToCalendarTicks(ticks[i]);
+        }
+        return Climate.model(level).getTemperatureTimeline(calendarTicks, calendar.getCalendarDaysInMonth());
     }
 
     public static boolean useFertilizer(Level level, Player player, InteractionHand hand, BlockPos farmlandPos)
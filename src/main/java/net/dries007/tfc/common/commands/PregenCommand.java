@@ -0,0 +1,152 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.common.commands;
+
+import java.util.Locale;
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.network.chat.Component;
+
+import net.dries007.tfc.world.pregen.PregenWorldData;
+import net.dries007.tfc.world.pregen.Pregenerator;
+
+public final class PregenCommand
+{
+    private static final String STARTED = "tfc.commands.pregen.started";
+    private static final String ALREADY_RUNNING = "tfc.commands.pregen.already_running";
+    private static final String NOT_RUNNING = "tfc.commands.pregen.not_running";
+    private static final String PAUSED = "tfc.commands.pregen.paused";
+    private static final String RESUMED = "tfc.commands.pregen.resumed";
+    private static final String STOPPED = "tfc.commands.pregen.stopped";
+    private static final String STATUS = "tfc.commands.pregen.status";
+    private static final String STATUS_PAUSED = "tfc.commands.pregen.status_paused";
+    private static final String STATUS_TIMINGS = "tfc.commands.pregen.status_timings";
+    private static final String STATUS_THROTTLED = "tfc.commands.pregen.status_throttled";
+
+    public static LiteralArgumentBuilder<CommandSourceStack> create()
+    {
+        return Commands.literal("pregen")
+            .requires(source -> source.hasPermission(2))
+            .then(Commands.literal("start")
+                .then(Commands.argument("radius", IntegerArgumentType.integer(16, 1_000_000))
+                    .executes(context -> start(context.getSource(), IntegerArgumentType.getInteger(context, "radius")))
+                )
+            )
+            .then(Commands.literal("pause")
+                .executes(context -> pause(context.getSource()))
+            )
+            .then(Commands.literal("resume")
+                .executes(context -> resume(context.getSource()))
+            )
+            .then(Commands.literal("stop")
+                .executes(context -> stop(context.getSource()))
+            )
+            .then(Commands.literal("status")
+                .executes(context -> status(context.getSource()))
+            );
+    }
+
+    /**
+     * @param radius The radius, in blocks, around the source's position.
+     */
+    private static int start(CommandSourceStack source, int radius)
+    {
+        final PregenWorldData data = PregenWorldData.get(source.getServer());
+        if (data.getJob() != null)
+        {
+            source.sendFailure(Component.translatable(ALREADY_RUNNING));
+            return 0;
+        }
+
+        final BlockPos center = BlockPos.containing(source.getPosition());
+        final PregenWorldData.Job job = new PregenWorldData.Job(source.getLevel().dimension(), SectionPos.blockToSectionCoord(center.getX()), SectionPos.blockToSectionCoord(center.getZ()), SectionPos.blockToSectionCoord(radius + 15));
+
+        data.start(job);
+        Pregenerator.start(source.getServer());
+        source.sendSuccess(() -> Component.translatable(STARTED, job.order().size(), job.dimension().location().toString()), true);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int pause(CommandSourceStack source)
+    {
+        final PregenWorldData data = PregenWorldData.get(source.getServer());
+        if (data.getJob() == null || data.isPaused())
+        {
+            source.sendFailure(Component.translatable(NOT_RUNNING));
+            return 0;
+        }
+
+        Pregenerator.halt();
+        data.setPaused(true);
+        source.sendSuccess(() -> Component.translatable(PAUSED, data.getCursor()), true);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int resume(CommandSourceStack source)
+    {
+        final PregenWorldData data = PregenWorldData.get(source.getServer());
+        if (data.getJob() == null)
+        {
+            source.sendFailure(Component.translatable(NOT_RUNNING));
+            return 0;
+        }
+
+        data.setPaused(false);
+        Pregenerator.start(source.getServer());
+        source.sendSuccess(() -> Component.translatable(RESUMED, data.getCursor()), true);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int stop(CommandSourceStack source)
+    {
+        final PregenWorldData data = PregenWorldData.get(source.getServer());
+        if (data.getJob() == null)
+        {
+            source.sendFailure(Component.translatable(NOT_RUNNING));
+            return 0;
+        }
+
+        Pregenerator.halt();
+        data.clear();
+        source.sendSuccess(() -> Component.translatable(STOPPED), true);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int status(CommandSourceStack source)
+    {
+        final PregenWorldData data = PregenWorldData.get(source.getServer());
+        final PregenWorldData.Job job = data.getJob();
+        final Pregenerator pregenerator = Pregenerator.active();
+        if (job == null)
+        {
+            source.sendFailure(Component.translatable(NOT_RUNNING));
+            return 0;
+        }
+        if (pregenerator == null)
+        {
+            source.sendSuccess(() -> Component.translatable(STATUS_PAUSED, data.getCursor(), job.order().size()), false);
+            return Command.SINGLE_SUCCESS;
+        }
+
+        final long completed = pregenerator.completed(), total = pregenerator.total();
+        source.sendSuccess(() -> Component.translatable(STATUS, completed, total, String.format(Locale.ROOT, "%.1f", 100.0 * completed / total), String.format(Locale.ROOT, "%.1f", pregenerator.chunksPerSecond()), pregenerator.failed()), false);
+        if (!pregenerator.stageTimings().isEmpty())
+        {
+            source.sendSuccess(() -> Component.translatable(STATUS_TIMINGS, pregenerator.stageTimings()), false);
+        }
+        if (pregenerator.isThrottled())
+        {
+            source.sendSuccess(() -> Component.translatable(STATUS_THROTTLED), false);
+        }
+        return Command.SINGLE_SUCCESS;
+    }
+}
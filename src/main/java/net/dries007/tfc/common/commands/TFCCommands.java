@@ -34,6 +34,8 @@ public final class TFCCommands
             .then(PropickCommand.create())
             .then(ForgeCommand.create())
             .then(AddTrimCommand.create(context))
+            .then(PregenCommand.create())
+            .then(WorldgenCommand.create())
         );
 
         // For command modifications / replacements, we register directly
@@ -0,0 +1,151 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.common.commands;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import org.jetbrains.annotations.Nullable;
+
+import net.dries007.tfc.world.FastConcurrentCache;
+import net.dries007.tfc.world.TFCChunkGenerator;
+import net.dries007.tfc.world.chunkdata.ChunkDataProvider;
+import net.dries007.tfc.world.profiler.WorldgenProfiler;
+
+public final class WorldgenCommand
+{
+    private static final String PROFILE_ENABLED = "tfc.commands.worldgen.profile_enabled";
+    private static final String PROFILE_DISABLED = "tfc.commands.worldgen.profile_disabled";
+    private static final String STATS_EMPTY = "tfc.commands.worldgen.stats_empty";
+    private static final String STATS_TIMING = "tfc.commands.worldgen.stats_timing";
+    private static final String STATS_CACHE = "tfc.commands.worldgen.stats_cache";
+    private static final String STATS_CHUNK_DATA = "tfc.commands.worldgen.stats_chunk_data";
+    private static final String RESET = "tfc.commands.worldgen.reset";
+    private static final String DUMP = "tfc.commands.worldgen.dump";
+    private static final String DUMP_FAILED = "tfc.commands.worldgen.dump_failed";
+
+    private static final int MAX_TIMINGS_SHOWN = 10;
+    private static final DateTimeFormatter DUMP_FILE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH.mm.ss", Locale.ROOT);
+
+    public static LiteralArgumentBuilder<CommandSourceStack> create()
+    {
+        return Commands.literal("worldgen")
+            .requires(source -> source.hasPermission(2))
+            .then(Commands.literal("profile")
+                .then(Commands.literal("on")
+                    .executes(context -> profile(context.getSource(), true))
+                )
+                .then(Commands.literal("off")
+                    .executes(context -> profile(context.getSource(), false))
+                )
+            )
+            .then(Commands.literal("stats")
+                .executes(context -> stats(context.getSource()))
+            )
+            .then(Commands.literal("reset")
+                .executes(context -> reset(context.getSource()))
+            )
+            .then(Commands.literal("dump")
+                .executes(context -> dump(context.getSource()))
+            );
+    }
+
+    private static int profile(CommandSourceStack source, boolean enabled)
+    {
+        WorldgenProfiler.setEnabled(enabled);
+        source.sendSuccess(() -> Component.translatable(enabled ? PROFILE_ENABLED : PROFILE_DISABLED), true);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int stats(CommandSourceStack source)
+    {
+        final List<WorldgenProfiler.Timing> timings = WorldgenProfiler.snapshot();
+        if (timings.isEmpty())
+        {
+            source.sendSuccess(() -> Component.translatable(STATS_EMPTY), false);
+        }
+        for (WorldgenProfiler.Timing timing : timings.subList(0, Math.min(timings.size(), MAX_TIMINGS_SHOWN)))
+        {
+            source.sendSuccess(() -> Component.translatable(STATS_TIMING,
+                timing.category().getSerializedName(),
+                timing.name(),
+                timing.count(),
+                String.format(Locale.ROOT, "%.1f", timing.totalNanos() / 1e6),
+                String.format(Locale.ROOT, "%.1f", timing.meanNanos() / 1e3),
+                String.format(Locale.ROOT, "%.1f", timing.maxNanos() / 1e3)), false);
+        }
+        for (WorldgenProfiler.CacheStats cache : WorldgenProfiler.snapshotCaches(caches(source)))
+        {
+            source.sendSuccess(() -> Component.translatable(STATS_CACHE, cache.name(), String.format(Locale.ROOT, "%.1f", 100 * cache.hitRate()), cache.hits(), cache.misses()), false);
+        }
+        final ChunkDataProvider provider = chunkDataProvider(source);
+        if (provider != null)
+        {
+            source.sendSuccess(() -> Component.translatable(STATS_CHUNK_DATA, provider.batchedChunks(), provider.lazyChunks()), false);
+        }
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int reset(CommandSourceStack source)
+    {
+        WorldgenProfiler.reset();
+        caches(source).values().forEach(FastConcurrentCache::resetStats);
+        final ChunkDataProvider provider = chunkDataProvider(source);
+        if (provider != null)
+        {
+            provider.resetStats();
+        }
+        source.sendSuccess(() -> Component.translatable(RESET), true);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int dump(CommandSourceStack source)
+    {
+        final Path path = source.getServer().getFile("debug").toPath().resolve("tfc-worldgen-" + LocalDateTime.now().format(DUMP_FILE_FORMAT) + ".csv");
+        try
+        {
+            Files.createDirectories(path.getParent());
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8))
+            {
+                WorldgenProfiler.writeCsv(writer, WorldgenProfiler.snapshot(), WorldgenProfiler.snapshotCaches(caches(source)));
+            }
+        }
+        catch (IOException e)
+        {
+            source.sendFailure(Component.translatable(DUMP_FAILED, e.getMessage()));
+            return 0;
+        }
+        source.sendSuccess(() -> Component.translatable(DUMP, path.toString()), false);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    /**
+     * @return The caches used by the chunk generator of the source's level, if it is a TFC generator.
+     */
+    private static Map<String, FastConcurrentCache<?>> caches(CommandSourceStack source)
+    {
+        return source.getLevel().getChunkSource().getGenerator() instanceof TFCChunkGenerator generator ? generator.caches() : Map.of();
+    }
+
+    @Nullable
+    private static ChunkDataProvider chunkDataProvider(CommandSourceStack source)
+    {
+        return source.getLevel().getChunkSource().getGenerator() instanceof TFCChunkGenerator generator ? generator.chunkDataProvider() : null;
+    }
+}
@@ -27,6 +27,16 @@ public class CommonConfig
     public final ForgeConfigSpec.IntValue defaultMonthLength;
     public final ForgeConfigSpec.IntValue defaultCalendarStartDay;
 
+    // World Generation
+    public final ForgeConfigSpec.IntValue regionCacheSize;
+    public final ForgeConfigSpec.IntValue aquiferCacheSize;
+    public final ForgeConfigSpec.IntValue aquiferCellCacheSize;
+    public final ForgeConfigSpec.IntValue baseHeightCacheSize;
+    public final ForgeConfigSpec.IntValue veinCacheSize;
+    public final ForgeConfigSpec.IntValue chunkDataBatchCacheSize;
+    public final ForgeConfigSpec.BooleanValue enableRegionStore;
+    public final ForgeConfigSpec.BooleanValue parallelRegionGeneration;
+
     // Debug
     private final ForgeConfigSpec.BooleanValue enableNetworkDebugging;
     private boolean hasLoggedNetworkDebugInfoMessage = false;
@@ -52,6 +62,42 @@ public class CommonConfig
             "The default is (5 * daysInMonth) = 40, which starts at June 1, 1000 (with the default daysInMonth = 8)"
         ).define("defaultCalendarStartDay", (5 * 8), -1, Integer.MAX_VALUE);
 
+        builder.swap("worldgen");
+
+        regionCacheSize = builder.comment(
+            "The number of regions (and region partitions) that are kept in memory by the world generator. Regions are large (~12km), so this does not need to be large.",
+            "Rounded up to the nearest power of two."
+        ).define("regionCacheSize", 256, 16, 1 << 16);
+        aquiferCacheSize = builder.comment(
+            "The number of per-chunk aquifers that are kept in memory by the world generator.",
+            "Rounded up to the nearest power of two."
+        ).define("aquiferCacheSize", 256, 16, 1 << 16);
+        aquiferCellCacheSize = builder.comment(
+            "The number of chunk-sized columns of aquifer cells that are kept in memory by the world generator. These are shared between neighbouring chunks, so this should be larger than aquiferCacheSize.",
+            "Rounded up to the nearest power of two."
+        ).define("aquiferCellCacheSize", 1024, 16, 1 << 16);
+        baseHeightCacheSize = builder.comment(
+            "The number of per-chunk surface height maps that are kept in memory by the world generator, which are used to answer height queries from structure placement.",
+            "Rounded up to the nearest power of two."
+        ).define("baseHeightCacheSize", 1024, 16, 1 << 16);
+        veinCacheSize = builder.comment(
+            "The number of chunks, for each type of ore vein, for which the vein starting in that chunk (if any) is kept in memory by the world generator. Larger values help veins with a large radius.",
+            "Rounded up to the nearest power of two."
+        ).define("veinCacheSize", 1024, 16, 1 << 16);
+        chunkDataBatchCacheSize = builder.comment(
+            "The number of batches of chunk data (each 8x8 chunks) that are generated ahead of time, and kept in memory by the world generator, until the chunks in them are generated.",
+            "Set to 0 to disable batches, and instead generate chunk data separately for each chunk, when it is first needed.",
+            "Rounded up to the nearest power of two."
+        ).define("chunkDataBatchCacheSize", 256, 0, 1 << 16);
+        enableRegionStore = builder.comment(
+            "If enabled, generated regions are saved to the world's data folder (data/tfc/regions), and loaded from there instead of being regenerated after a restart.",
+            "Stored regions are automatically discarded if the world seed, or world generation settings change."
+        ).define("enableRegionStore", true);
+        parallelRegionGeneration = builder.comment(
+            "If enabled, each region is generated using multiple threads, running independent steps at the same time, and splitting some steps across the region.",
+            "The generated regions are identical either way. Disabling this generates each region entirely on the thread which first needed it."
+        ).define("parallelRegionGeneration", true);
+
         builder.swap("debug");
 
         enableNetworkDebugging = builder.comment(
@@ -34,6 +34,8 @@ public class ServerConfig
     public final ForgeConfigSpec.BooleanValue enableCalendarSensitiveMoonPhases;
     public final ForgeConfigSpec.BooleanValue enableLightning;
     public final ForgeConfigSpec.BooleanValue enableLightningStrippingLogs;
+    public final ForgeConfigSpec.IntValue pregenMaxChunksInFlight;
+    public final ForgeConfigSpec.IntValue pregenMaxTickTime;
 
     // Blocks - Farmland
     public final ForgeConfigSpec.BooleanValue enableFarmlandCreation;
@@ -47,6 +49,7 @@ public class ServerConfig
     public final ForgeConfigSpec.BooleanValue enableSnowSlowEntities;
     public final ForgeConfigSpec.IntValue snowAccumulateChance;
     public final ForgeConfigSpec.IntValue snowMeltChance;
+    public final ForgeConfigSpec.IntValue environmentTickBudget;
     // Blocks - Leaves
     public final ForgeConfigSpec.DoubleValue leavesMovementModifier;
     // Blocks - Plants
@@ -287,6 +290,14 @@ public class ServerConfig
         enableCalendarSensitiveMoonPhases = builder.comment("Enables TFC setting the moon phase based on the progress of the month. The etymology of the English word 'month' is in fact related to the word 'moon'.").define("enableCalendarSensitiveMoonPhases", true);
         enableLightning = builder.comment("If false, vanilla lightning will not strike.").define("enableLightning", true);
         enableLightningStrippingLogs = builder.comment("If true, lightning has a chance of stripping bark off of trees.").define("enableLightningStrippingLogs", true);
+        pregenMaxChunksInFlight = builder.comment(
+            "The maximum number of chunks that /tfc pregen will have requested, but not yet finished generating, at any one time.",
+            "Higher values keep more worker threads busy, at the cost of memory."
+        ).define("pregenMaxChunksInFlight", 64, 1, 4096);
+        pregenMaxTickTime = builder.comment(
+            "The average server tick time, in milliseconds, above which /tfc pregen will stop requesting new chunks until the server catches up.",
+            "The default (40ms) leaves some room before the server starts falling behind (50ms)."
+        ).define("pregenMaxTickTime", 40, 1, 1000);
 
         builder.swap("blocks").push("farmland");
 
@@ -309,6 +320,10 @@ public class ServerConfig
         enableSnowSlowEntities = builder.comment("[Requires MC Restart] If snow will slow players that move on top of it similar to soul sand or honey.").define("enableSnowSlowEntities", true);
         snowAccumulateChance = builder.comment("The chance that snow will accumulate during a storm. Lower values = faster snow accumulation, but also more block updates (aka lag).").define("snowAccumulateChance", 20, 1, Integer.MAX_VALUE);
         snowMeltChance = builder.comment("The chance that snow will melt during a storm. Lower values = faster snow melting, but also more block updates (aka lag).").define("snowMeltChance", 36, 1, Integer.MAX_VALUE);
+        environmentTickBudget = builder.comment(
+            "The maximum number of snow, ice and icicle updates per tick, in each dimension. Updates over this budget are deferred to the following ticks.",
+            "After a time skip of at least one day, each loaded chunk is updated as if it had just been loaded, which counts as 256 updates."
+        ).define("environmentTickBudget", 1024, 1, Integer.MAX_VALUE);
 
         builder.swap("plants");
 
@@ -6,12 +6,15 @@
 
 package net.dries007.tfc.mixin;
 
+import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.chunk.LevelChunk;
 
 import net.dries007.tfc.config.TFCConfig;
 import net.dries007.tfc.util.EnvironmentHelpers;
+import net.dries007.tfc.util.SupportIndex;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
@@ -45,4 +48,13 @@ public abstract class ServerLevelMixin
             EnvironmentHelpers.tickChunk(level, chunk, level.getProfiler());
         }
     }
+
+    /**
+     * Keep the index of supports up to date with every block change, as vanilla does with points of interest.
+     */
+    @Inject(method = "onBlockStateChange", at = @At("HEAD"))
+    private void updateSupportIndex(BlockPos pos, BlockState oldState, BlockState newState, CallbackInfo ci)
+    {
+        SupportIndex.onBlockStateChange((ServerLevel) (Object) this, pos, oldState, newState);
+    }
 }
@@ -0,0 +1,229 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.util;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.ImposterProtoChunk;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.jetbrains.annotations.Nullable;
+
+import net.dries007.tfc.config.TFCConfig;
+import net.dries007.tfc.util.calendar.Calendars;
+import net.dries007.tfc.util.calendar.ICalendar;
+import net.dries007.tfc.util.climate.Climate;
+import net.dries007.tfc.util.tracker.WorldTracker;
+import net.dries007.tfc.world.chunkdata.ChunkData;
+
+/**
+ * Runs the snow, ice and icicle updates of ticking chunks, chosen by {@link EnvironmentHelpers#tickChunk(ServerLevel, LevelChunk, net.minecraft.util.profiling.ProfilerFiller)}, within a per-tick budget.
+ * <ul>
+ *     <li>Updates are run immediately, until the budget for this tick is used. Any further updates are deferred to the following ticks, oldest first. Each chunk has at most one deferred update, which does every action chosen for it in the meantime.</li>
+ *     <li>When the calendar skips forward by at least a day, every chunk which was ticking is updated with the same rules as when it is loaded, by {@link Climate#onChunkLoad}, as it would have been had it been unloaded during the skip.</li>
+ * </ul>
+ * This is owned by the {@link WorldTracker}, and only exists on server.
+ */
+public class ChunkEnvironmentScheduler
+{
+    public static final int CATCH_UP = 1 << 8;
+    public static final int CATCH_UP_COST = 16 * 16;
+
+    private final Long2ObjectLinkedOpenHashMap<Deferred> deferred = new Long2ObjectLinkedOpenHashMap<>();
+    private final LongSet tickingChunks = new LongOpenHashSet(); // Chunks ticked since the last level tick
+    private long lastTick = Long.MIN_VALUE;
+    private int budget;
+
+    /**
+     * Called at the start of each level tick, before any chunks are ticked.
+     */
+    public void tick(ServerLevel level)
+    {
+        if (TFCConfig.SERVER.enableVanillaWeatherEffects.get())
+        {
+            deferred.clear();
+            tickingChunks.clear();
+            lastTick = Long.MIN_VALUE;
+            return;
+        }
+
+        startTick(Calendars.SERVER.getTicks(), TFCConfig.SERVER.environmentTickBudget.get());
+
+        Deferred update;
+        while ((update = pollDeferred()) != null)
+        {
+            final LevelChunk chunk = level.getChunkSource().getChunkNow(ChunkPos.getX(update.chunkPos), ChunkPos.getZ(update.chunkPos));
+            if (chunk != null)
+            {
+                spend(update.lcgPos, update.actions);
+                run(level, chunk, update.lcgPos, update.actions);
+            }
+        }
+    }
+
+    /**
+     * Called for each ticking chunk, with the actions chosen for it this tick, which may be none.
+     */
+    public void tickChunk(ServerLevel level, LevelChunk chunk, BlockPos lcgPos, int actions)
+    {
+        if (tickChunk(chunk.getPos().toLong(), lcgPos, actions))
+        {
+            run(level, chunk, lcgPos, actions);
+        }
+    }
+
+    /**
+     * Starts a level tick at the calendar tick {@code tick}, deferring a catch up for every chunk which ticked since the last level tick, if the calendar skipped at least a day.
+     */
+    public void startTick(long tick, int budget)
+    {
+        if (lastTick != Long.MIN_VALUE && tick - lastTick >= ICalendar.TICKS_IN_DAY)
+        {
+            for (LongIterator iterator = tickingChunks.iterator(); iterator.hasNext(); )
+            {
+                defer(iterator.nextLong(), null, CATCH_UP);
+            }
+        }
+        lastTick = tick;
+        tickingChunks.clear();
+        this.budget = budget;
+    }
+
+    /**
+     * @return The oldest deferred update, which is removed, or {@code null} if there are none, or the budget is used. The caller must {@link #spend} the budget for it, if it is run.
+     */
+    @Nullable
+    public Deferred pollDeferred()
+    {
+        if (budget > 0 && !deferred.isEmpty())
+        {
+            final long chunkPos = deferred.firstLongKey();
+            final Deferred update = deferred.removeFirst();
+            update.chunkPos = chunkPos;
+            return update;
+        }
+        return null;
+    }
+
+    /**
+     * Records that a chunk ticked with the chosen {@code actions}. They are run immediately if there is budget left, and nothing is deferred, otherwise they are merged into the chunk's deferred update.
+     *
+     * @return {@code true} if the caller should run the actions now, for which the budget has been spent.
+     */
+    public boolean tickChunk(long chunkPos, BlockPos lcgPos, int actions)
+    {
+        tickingChunks.add(chunkPos);
+        if (actions != 0)
+        {
+            if (budget > 0 && deferred.isEmpty())
+            {
+                spend(lcgPos, actions);
+                return true;
+            }
+            defer(chunkPos, lcgPos, actions);
+        }
+        return false;
+    }
+
+    /**
+     * Spends the budget for running {@code actions}: a catch up costs {@link #CATCH_UP_COST}, and any other actions together cost one.
+     */
+    public void spend(@Nullable BlockPos lcgPos, int actions)
+    {
+        if ((actions & CATCH_UP) != 0)
+        {
+            budget -= CATCH_UP_COST;
+        }
+        if (lcgPos != null && (actions & ~CATCH_UP) != 0)
+        {
+            budget--;
+        }
+    }
+
+    /**
+     * @return The budget left for this tick, which may be negative after a catch up.
+     */
+    public int budget()
+    {
+        return budget;
+    }
+
+    /**
+     * @return The number of chunks with a deferred update.
+     */
+    public int size()
+    {
+        return deferred.size();
+    }
+
+    private void run(ServerLevel level, LevelChunk chunk, @Nullable BlockPos lcgPos, int actions)
+    {
+        if ((actions & CATCH_UP) != 0)
+        {
+            level.getProfiler().push("tfcClimateCatchUp");
+            Climate.onChunkLoad(level, new ImposterProtoChunk(chunk, true), ChunkData.get(level, chunk.getPos()));
+            level.getProfiler().pop();
+        }
+        if (lcgPos != null && (actions & ~CATCH_UP) != 0)
+        {
+            EnvironmentHelpers.tickChunk(level, lcgPos, actions, level.getProfiler());
+        }
+    }
+
+    private void defer(long chunkPos, @Nullable BlockPos lcgPos, int actions)
+    {
+        final Deferred existing = deferred.get(chunkPos);
+        if (existing == null)
+        {
+            deferred.put(chunkPos, new Deferred(lcgPos, actions));
+        }
+        else
+        {
+            existing.actions |= actions;
+            if (existing.lcgPos == null)
+            {
+                existing.lcgPos = lcgPos;
+            }
+        }
+    }
+
+    /**
+     * The update of a chunk, which may merge several ticks' actions. Actions chosen more than once are only run once, at the first position chosen.
+     */
+    public static final class Deferred
+    {
+        @Nullable BlockPos lcgPos;
+        int actions;
+        long chunkPos;
+
+        Deferred(@Nullable BlockPos lcgPos, int actions)
+        {
+            this.lcgPos = lcgPos;
+            this.actions = actions;
+        }
+
+        public long chunkPos()
+        {
+            return chunkPos;
+        }
+
+        @Nullable
+        public BlockPos lcgPos()
+        {
+            return lcgPos;
+        }
+
+        public int actions()
+        {
+            return actions;
+        }
+    }
+}
@@ -37,6 +37,7 @@ import net.dries007.tfc.common.fluids.FluidHelpers;
 import net.dries007.tfc.config.TFCConfig;
 import net.dries007.tfc.util.climate.Climate;
 import net.dries007.tfc.util.climate.OverworldClimateModel;
+import net.dries007.tfc.util.tracker.WorldTracker;
 import net.dries007.tfc.util.tracker.WorldTrackerCapability;
 
 /**
@@ -50,6 +51,14 @@ public final class EnvironmentHelpers
     public static final int ICE_MELT_RANDOM_TICK_CHANCE = 200; // Ice practically never should form under overhangs, so this can be very low chance
     public static final int ICICLE_MAX_LENGTH = 7;
 
+    // Actions chosen for a chunk tick, by their random chance, before anything about the chunk is known
+    public static final int SNOW_ACCUMULATE = 1;
+    public static final int SNOW_MELT = 1 << 1;
+    public static final int ICE_FREEZE = 1 << 2;
+    public static final int ICE_MELT = 1 << 3;
+    public static final int ICE_MELT_NEAR_WATER = 1 << 4;
+    public static final int ICICLES = 1 << 5;
+
     /**
      * Ticks a chunk for environment specific effects.
      * Handles:
@@ -62,19 +71,80 @@ public final class EnvironmentHelpers
     {
         final ChunkPos chunkPos = chunk.getPos();
         final BlockPos lcgPos = level.getBlockRandomPos(chunkPos.getMinBlockX(), 0, chunkPos.getMinBlockZ(), 15);
+        final int actions = chooseActions(level.getRandom());
+        final WorldTracker tracker = level.getCapability(WorldTrackerCapability.CAPABILITY).resolve().orElse(null);
+        if (tracker != null)
+        {
+            tracker.getChunkEnvironment().tickChunk(level, chunk, lcgPos, actions);
+        }
+        else if (actions != 0)
+        {
+            tickChunk(level, lcgPos, actions, profiler);
+        }
+    }
+
+    /**
+     * Performs the chosen {@code actions}, if the climate at the surface above {@code lcgPos} allows them.
+     */
+    public static void tickChunk(ServerLevel level, BlockPos lcgPos, int actions, ProfilerFiller profiler)
+    {
         final BlockPos surfacePos = level.getHeightmapPos(Heightmap.Types.MOTION_BLOCKING, lcgPos);
         final BlockPos groundPos = surfacePos.below();
         final float temperature = Climate.getTemperature(level, surfacePos);
 
         profiler.push("tfcSnow");
-        doSnow(level, surfacePos, temperature);
+        doSnow(level, surfacePos, temperature, actions);
         profiler.popPush("tfcIce");
-        doIce(level, groundPos, temperature);
+        doIce(level, groundPos, temperature, actions);
         profiler.popPush("tfcIcicles");
-        doIcicles(level, surfacePos, temperature);
+        doIcicles(level, surfacePos, temperature, actions);
         profiler.pop();
     }
 
+    /**
+     * Each action only happens with a random chance, which does not depend on the chunk, so it is drawn first. Most chunk ticks choose no actions, and so skip looking at the chunk at all.
+     * Each chance is drawn independently, so the chance of each action happening is unchanged from drawing it only when needed.
+     *
+     * @return The actions to perform, which may be none.
+     */
+    public static int chooseActions(RandomSource random)
+    {
+        return chooseActions(random, TFCConfig.SERVER.snowAccumulateChance.get(), TFCConfig.SERVER.snowMeltChance.get());
+    }
+
+    /**
+     * @see #chooseActions(RandomSource)
+     */
+    public static int chooseActions(RandomSource random, int snowAccumulateChance, int snowMeltChance)
+    {
+        int actions = 0;
+        if (random.nextInt(snowAccumulateChance) == 0)
+        {
+            actions |= SNOW_ACCUMULATE;
+        }
+        if (random.nextInt(snowMeltChance) == 0)
+        {
+            actions |= SNOW_MELT;
+        }
+        if (random.nextInt(16) == 0)
+        {
+            actions |= ICE_FREEZE;
+        }
+        if (random.nextInt(600) == 0)
+        {
+            actions |= ICE_MELT;
+        }
+        else if (random.nextInt(12) == 0)
+        {
+            actions |= ICE_MELT_NEAR_WATER;
+        }
+        if (random.nextInt(16) == 0)
+        {
+            actions |= ICICLES;
+        }
+        return actions;
+    }
+
     public static boolean isSnow(BlockState state)
     {
         return Helpers.isBlock(state, Blocks.SNOW) || Helpers.isBlock(state, TFCBlocks.SNOW_PILE.get());
@@ -149,14 +219,14 @@ public final class EnvironmentHelpers
         return Mth.clampedMap(temperature, 2f, -26f, 0f, 7f);
     }
 
-    private static void doSnow(Level level, BlockPos surfacePos, float temperature)
+    private static void doSnow(Level level, BlockPos surfacePos, float temperature, int actions)
     {
         // Snow only accumulates during rain
         final RandomSource random = level.random;
         final int expectedLayers = (int) getExpectedSnowLayerHeight(temperature);
         if (temperature < OverworldClimateModel.SNOW_FREEZE_TEMPERATURE && isRainingOrSnowing(level, surfacePos))
         {
-            if (random.nextInt(TFCConfig.SERVER.snowAccumulateChance.get()) == 0)
+            if ((actions & SNOW_ACCUMULATE) != 0)
             {
                 // Handle smoother snow placement: if there's an adjacent position with less snow, switch to that position instead
                 // Additionally, handle up to two block tall plants if they can be piled
@@ -172,7 +242,7 @@ public final class EnvironmentHelpers
         }
         else
         {
-            if (random.nextInt(TFCConfig.SERVER.snowMeltChance.get()) == 0)
+            if ((actions & SNOW_MELT) != 0)
             {
                 // Snow melting - both snow and snow piles
                 final BlockState state = level.getBlockState(surfacePos);
@@ -284,13 +354,16 @@ public final class EnvironmentHelpers
         return pos;
     }
 
-    private static void doIce(Level level, BlockPos groundPos, float temperature)
+    private static void doIce(Level level, BlockPos groundPos, float temperature, int actions)
     {
-        final RandomSource random = level.getRandom();
+        if ((actions & (ICE_FREEZE | ICE_MELT | ICE_MELT_NEAR_WATER)) == 0)
+        {
+            return;
+        }
         BlockState groundState = level.getBlockState(groundPos);
         if (temperature < OverworldClimateModel.ICE_FREEZE_TEMPERATURE)
         {
-            if (random.nextInt(16) == 0)
+            if ((actions & ICE_FREEZE) != 0)
             {
                 // First, since we want to handle water with a single block above, if we find no water, but we find one below, we choose that instead
                 // However, we have to also exclude ice here, since we don't intend to freeze two layers down
@@ -313,7 +386,7 @@ public final class EnvironmentHelpers
             if (groundState.getBlock() == Blocks.ICE || groundState.getBlock() == TFCBlocks.ICE_PILE.get())
             {
                 // Apply a heuristic to try and make ice melting more smooth, in the same way ice freezing works
-                if (random.nextInt(600) == 0 || (random.nextInt(12) == 0 && isAdjacentToWater(level, groundPos)))
+                if ((actions & ICE_MELT) != 0 || ((actions & ICE_MELT_NEAR_WATER) != 0 && isAdjacentToWater(level, groundPos)))
                 {
                     IcePileBlock.removeIcePileOrIce(level, groundPos, groundState);
                 }
@@ -321,10 +394,10 @@ public final class EnvironmentHelpers
         }
     }
 
-    private static void doIcicles(Level level, BlockPos lcgPos, float temperature)
+    private static void doIcicles(Level level, BlockPos lcgPos, float temperature, int actions)
     {
         final RandomSource random = level.getRandom();
-        if (random.nextInt(16) == 0 && isRainingOrSnowing(level, lcgPos) && temperature < OverworldClimateModel.ICICLE_MAX_FREEZE_TEMPERATURE && temperature > OverworldClimateModel.ICICLE_MIN_FREEZE_TEMPERATURE)
+        if ((actions & ICICLES) != 0 && isRainingOrSnowing(level, lcgPos) && temperature < OverworldClimateModel.ICICLE_MAX_FREEZE_TEMPERATURE && temperature > OverworldClimateModel.ICICLE_MIN_FREEZE_TEMPERATURE)
         {
             // Place icicles under overhangs
             final BlockPos iciclePos = findIcicleLocation(level, lcgPos, random);
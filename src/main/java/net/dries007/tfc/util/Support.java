@@ -8,6 +8,7 @@ package net.dries007.tfc.util;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.function.Function;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import net.minecraft.core.BlockPos;
@@ -33,10 +34,24 @@ public final class Support
      */
     private static SupportRange RANGE = new SupportRange(0, 0, 0);
 
+    /**
+     * Incremented whenever supports are reloaded, so anything derived from them (i.e. {@link SupportIndex}) knows to be rebuilt.
+     */
+    private static int GENERATION = 0;
+
     /**
      * Finds all unsupported positions in a large area. It's more efficient than checking each block individually and calling {@link Support#isSupported(BlockGetter, BlockPos)}
      */
     public static Set<BlockPos> findUnsupportedPositions(BlockGetter worldIn, BlockPos from, BlockPos to)
+    {
+        final SupportIndex index = SupportIndex.get(worldIn);
+        return index != null ? index.findUnsupportedPositions(worldIn, from, to, RANGE) : findUnsupportedPositions(worldIn, from, to, RANGE, Support::get);
+    }
+
+    /**
+     * Finds all unsupported positions in a large area, by checking every block within {@code range} of it for a support.
+     */
+    public static Set<BlockPos> findUnsupportedPositions(BlockGetter worldIn, BlockPos from, BlockPos to, SupportRange range, Function<BlockState, Support> lookup)
     {
         Set<BlockPos> listSupported = new HashSet<>();
         Set<BlockPos> listUnsupported = new HashSet<>();
@@ -46,14 +61,14 @@ public final class Support
         int maxY = Math.max(from.getY(), to.getY());
         int minZ = Math.min(from.getZ(), to.getZ());
         int maxZ = Math.max(from.getZ(), to.getZ());
-        for (BlockPos searchingPoint : getMaximumSupportedAreaAround(new BlockPos(minX, minY, minZ), new BlockPos(maxX, maxY, maxZ)))
+        for (BlockPos searchingPoint : getMaximumSupportedAreaAround(new BlockPos(minX, minY, minZ), new BlockPos(maxX, maxY, maxZ), range))
         {
             if (!listSupported.contains(searchingPoint))
             {
                 listUnsupported.add(searchingPoint.immutable()); // Adding blocks that wasn't found supported
             }
             final BlockState supportState = worldIn.getBlockState(searchingPoint);
-            final Support support = get(supportState);
+            final Support support = lookup.apply(supportState);
             if (support != null)
             {
                 for (BlockPos supported : support.getSupportedArea(searchingPoint))
@@ -71,10 +86,19 @@ public final class Support
 
     public static boolean isSupported(BlockGetter world, BlockPos pos)
     {
-        for (BlockPos supportPos : getMaximumSupportedAreaAround(pos, pos))
+        final SupportIndex index = SupportIndex.get(world);
+        return index != null ? index.isSupported(world, pos, RANGE) : isSupported(world, pos, RANGE, Support::get);
+    }
+
+    /**
+     * Checks if {@code pos} is supported, by checking every block within {@code range} of it for a support.
+     */
+    public static boolean isSupported(BlockGetter world, BlockPos pos, SupportRange range, Function<BlockState, Support> lookup)
+    {
+        for (BlockPos supportPos : getMaximumSupportedAreaAround(pos, pos, range))
         {
             final BlockState supportState = world.getBlockState(supportPos);
-            final Support support = get(supportState);
+            final Support support = lookup.apply(supportState);
             if (support != null && support.canSupport(supportPos, pos))
             {
                 return true;
@@ -85,7 +109,17 @@ public final class Support
 
     public static Iterable<BlockPos> getMaximumSupportedAreaAround(BlockPos minPoint, BlockPos maxPoint)
     {
-        return BlockPos.betweenClosed(minPoint.offset(-RANGE.horizontal(), -RANGE.down(), -RANGE.horizontal()), maxPoint.offset(RANGE.horizontal(), RANGE.up(), RANGE.horizontal()));
+        return getMaximumSupportedAreaAround(minPoint, maxPoint, RANGE);
+    }
+
+    public static Iterable<BlockPos> getMaximumSupportedAreaAround(BlockPos minPoint, BlockPos maxPoint, SupportRange range)
+    {
+        return BlockPos.betweenClosed(minPoint.offset(-range.horizontal(), -range.down(), -range.horizontal()), maxPoint.offset(range.horizontal(), range.up(), range.horizontal()));
+    }
+
+    public static int generation()
+    {
+        return GENERATION;
     }
 
     @Nullable
@@ -113,6 +147,7 @@ public final class Support
         }
 
         RANGE = new SupportRange(up, down, horizontal);
+        GENERATION++;
     }
 
     private final ResourceLocation id;
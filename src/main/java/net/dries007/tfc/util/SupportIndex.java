@@ -0,0 +1,374 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.util;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.LevelHeightAccessor;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import org.jetbrains.annotations.Nullable;
+
+import net.dries007.tfc.util.tracker.WorldTracker;
+import net.dries007.tfc.util.tracker.WorldTrackerCapability;
+
+/**
+ * An index of the position of every {@link Support} block in the loaded chunks of a level, by chunk section, so support queries only need to look at the supports near them, rather than every block in range.
+ * <ul>
+ *     <li>Chunks are indexed when they are first queried, skipping any sections which cannot contain a support, and removed when they are unloaded.</li>
+ *     <li>Indexed chunks are kept up to date by every block change in the level, via {@link ServerLevel#onBlockStateChange(BlockPos, BlockState, BlockState)}.</li>
+ *     <li>Positions in chunks which are not indexed (i.e. not loaded) are checked block by block, as per {@link Support#isSupported(BlockGetter, BlockPos, Support.SupportRange, Function)}.</li>
+ * </ul>
+ * Queries give identical results to scanning every block in range. This is owned by the {@link WorldTracker}, and only used on the server thread.
+ */
+public class SupportIndex
+{
+    /**
+     * @return The index for {@code level}, or {@code null} if it should not be used, i.e. on client, or off the server thread.
+     */
+    @Nullable
+    public static SupportIndex get(BlockGetter level)
+    {
+        if (level instanceof ServerLevel serverLevel && serverLevel.getServer().isSameThread())
+        {
+            final SupportIndex index = serverLevel.getCapability(WorldTrackerCapability.CAPABILITY).resolve().map(WorldTracker::getSupportIndex).orElse(null);
+            if (index != null)
+            {
+                index.checkGeneration();
+            }
+            return index;
+        }
+        return null;
+    }
+
+    public static void onBlockStateChange(ServerLevel level, BlockPos pos, BlockState oldState, BlockState newState)
+    {
+        if (Support.get(oldState) != null || Support.get(newState) != null)
+        {
+            level.getCapability(WorldTrackerCapability.CAPABILITY).ifPresent(tracker -> tracker.getSupportIndex().update(pos, newState));
+        }
+    }
+
+    public static void onChunkUnload(LevelAccessor level, ChunkPos pos)
+    {
+        if (level instanceof ServerLevel serverLevel)
+        {
+            serverLevel.getCapability(WorldTrackerCapability.CAPABILITY).ifPresent(tracker -> tracker.getSupportIndex().removeChunk(serverLevel, pos.x, pos.z));
+        }
+    }
+
+    private final Function<BlockState, Support> lookup;
+    private final LongSet chunks = new LongOpenHashSet();
+    private final Long2ObjectMap<Long2ObjectMap<Support>> sections = new Long2ObjectOpenHashMap<>(); // Section -> Block -> Support
+    private int generation;
+
+    /**
+     * @param lookup Gets the support for a given state, or {@code null}.
+     */
+    public SupportIndex(Function<BlockState, Support> lookup)
+    {
+        this.lookup = lookup;
+        this.generation = Support.generation();
+    }
+
+    /**
+     * Equivalent to {@link Support#isSupported(BlockGetter, BlockPos, Support.SupportRange, Function)}.
+     */
+    public boolean isSupported(BlockGetter level, BlockPos pos, Support.SupportRange range)
+    {
+        final int minX = pos.getX() - range.horizontal(), minY = pos.getY() - range.down(), minZ = pos.getZ() - range.horizontal();
+        final int maxX = pos.getX() + range.horizontal(), maxY = pos.getY() + range.up(), maxZ = pos.getZ() + range.horizontal();
+        for (int chunkX = SectionPos.blockToSectionCoord(minX); chunkX <= SectionPos.blockToSectionCoord(maxX); chunkX++)
+        {
+            for (int chunkZ = SectionPos.blockToSectionCoord(minZ); chunkZ <= SectionPos.blockToSectionCoord(maxZ); chunkZ++)
+            {
+                if (isIndexed(level, chunkX, chunkZ))
+                {
+                    for (int sectionY = SectionPos.blockToSectionCoord(minY); sectionY <= SectionPos.blockToSectionCoord(maxY); sectionY++)
+                    {
+                        final Long2ObjectMap<Support> section = sections.get(SectionPos.asLong(chunkX, sectionY, chunkZ));
+                        if (section != null)
+                        {
+                            for (Long2ObjectMap.Entry<Support> entry : section.long2ObjectEntrySet())
+                            {
+                                final long supportPos = entry.getLongKey();
+                                final int x = BlockPos.getX(supportPos), y = BlockPos.getY(supportPos), z = BlockPos.getZ(supportPos);
+                                if (minX <= x && x <= maxX && minY <= y && y <= maxY && minZ <= z && z <= maxZ && entry.getValue().canSupport(BlockPos.of(supportPos), pos))
+                                {
+                                    return true;
+                                }
+                            }
+                        }
+                    }
+                }
+                else
+                {
+                    // Not indexed, so check each position in this chunk which is in range
+                    final BlockPos from = new BlockPos(Math.max(minX, SectionPos.sectionToBlockCoord(chunkX)), minY, Math.max(minZ, SectionPos.sectionToBlockCoord(chunkZ)));
+                    final BlockPos to = new BlockPos(Math.min(maxX, SectionPos.sectionToBlockCoord(chunkX, 15)), maxY, Math.min(maxZ, SectionPos.sectionToBlockCoord(chunkZ, 15)));
+                    for (BlockPos supportPos : BlockPos.betweenClosed(from, to))
+                    {
+                        final Support support = lookup.apply(level.getBlockState(supportPos));
+                        if (support != null && support.canSupport(supportPos, pos))
+                        {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Equivalent to {@link Support#findUnsupportedPositions(BlockGetter, BlockPos, BlockPos, Support.SupportRange, Function)}.
+     */
+    public Set<BlockPos> findUnsupportedPositions(BlockGetter level, BlockPos from, BlockPos to, Support.SupportRange range)
+    {
+        final int minX = Math.min(from.getX(), to.getX()), minY = Math.min(from.getY(), to.getY()), minZ = Math.min(from.getZ(), to.getZ());
+        final int sizeX = Math.max(from.getX(), to.getX()) - minX + 1, sizeY = Math.max(from.getY(), to.getY()) - minY + 1, sizeZ = Math.max(from.getZ(), to.getZ()) - minZ + 1;
+        final boolean[] supported = new boolean[sizeX * sizeY * sizeZ];
+
+        // Mark the area supported by every support in the same area that would be searched
+        final int searchMinX = minX - range.horizontal(), searchMinY = minY - range.down(), searchMinZ = minZ - range.horizontal();
+        final int searchMaxX = minX + sizeX - 1 + range.horizontal(), searchMaxY = minY + sizeY - 1 + range.up(), searchMaxZ = minZ + sizeZ - 1 + range.horizontal();
+        for (int chunkX = SectionPos.blockToSectionCoord(searchMinX); chunkX <= SectionPos.blockToSectionCoord(searchMaxX); chunkX++)
+        {
+            for (int chunkZ = SectionPos.blockToSectionCoord(searchMinZ); chunkZ <= SectionPos.blockToSectionCoord(searchMaxZ); chunkZ++)
+            {
+                if (isIndexed(level, chunkX, chunkZ))
+                {
+                    for (int sectionY = SectionPos.blockToSectionCoord(searchMinY); sectionY <= SectionPos.blockToSectionCoord(searchMaxY); sectionY++)
+                    {
+                        final Long2ObjectMap<Support> section = sections.get(SectionPos.asLong(chunkX, sectionY, chunkZ));
+                        if (section != null)
+                        {
+                            for (Long2ObjectMap.Entry<Support> entry : section.long2ObjectEntrySet())
+                            {
+                                final long supportPos = entry.getLongKey();
+                                final int x = BlockPos.getX(supportPos), y = BlockPos.getY(supportPos), z = BlockPos.getZ(supportPos);
+                                if (searchMinX <= x && x <= searchMaxX && searchMinY <= y && y <= searchMaxY && searchMinZ <= z && z <= searchMaxZ)
+                                {
+                                    markSupported(supported, entry.getValue(), x - minX, y - minY, z - minZ, sizeX, sizeY, sizeZ);
+                                }
+                            }
+                        }
+                    }
+                }
+                else
+                {
+                    final BlockPos searchFrom = new BlockPos(Math.max(searchMinX, SectionPos.sectionToBlockCoord(chunkX)), searchMinY, Math.max(searchMinZ, SectionPos.sectionToBlockCoord(chunkZ)));
+                    final BlockPos searchTo = new BlockPos(Math.min(searchMaxX, SectionPos.sectionToBlockCoord(chunkX, 15)), searchMaxY, Math.min(searchMaxZ, SectionPos.sectionToBlockCoord(chunkZ, 15)));
+                    for (BlockPos supportPos : BlockPos.betweenClosed(searchFrom, searchTo))
+                    {
+                        final Support support = lookup.apply(level.getBlockState(supportPos));
+                        if (support != null)
+                        {
+                            markSupported(supported, support, supportPos.getX() - minX, supportPos.getY() - minY, supportPos.getZ() - minZ, sizeX, sizeY, sizeZ);
+                        }
+                    }
+                }
+            }
+        }
+
+        final Set<BlockPos> unsupported = new HashSet<>();
+        for (int i = 0; i < supported.length; i++)
+        {
+            if (!supported[i])
+            {
+                unsupported.add(new BlockPos(minX + i % sizeX, minY + (i / sizeX) % sizeY, minZ + i / (sizeX * sizeY)));
+            }
+        }
+        return unsupported;
+    }
+
+    /**
+     * Adds, replaces, or removes the support at {@code pos}, if its chunk is indexed.
+     */
+    public void update(BlockPos pos, BlockState state)
+    {
+        if (chunks.contains(ChunkPos.asLong(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()))))
+        {
+            final Support support = lookup.apply(state);
+            if (support != null)
+            {
+                add(pos, support);
+            }
+            else
+            {
+                remove(pos);
+            }
+        }
+    }
+
+    /**
+     * Marks a chunk as indexed, without adding any supports. Any supports in the chunk must be {@linkplain #add added}.
+     */
+    public void addChunk(int chunkX, int chunkZ)
+    {
+        chunks.add(ChunkPos.asLong(chunkX, chunkZ));
+    }
+
+    /**
+     * Indexes every support in {@code chunk}.
+     */
+    public void addChunk(LevelChunk chunk)
+    {
+        addChunk(chunk.getPos().x, chunk.getPos().z, chunk.getSections(), chunk.getMinSection());
+    }
+
+    /**
+     * Indexes every support in the sections of a chunk, skipping any sections whose palette cannot contain a support.
+     *
+     * @param minSectionY The section y of {@code chunkSections[0]}.
+     */
+    public void addChunk(int chunkX, int chunkZ, LevelChunkSection[] chunkSections, int minSectionY)
+    {
+        final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        final int minX = SectionPos.sectionToBlockCoord(chunkX), minZ = SectionPos.sectionToBlockCoord(chunkZ);
+
+        addChunk(chunkX, chunkZ);
+        for (int i = 0; i < chunkSections.length; i++)
+        {
+            final LevelChunkSection section = chunkSections[i];
+            if (!section.hasOnlyAir() && section.maybeHas(state -> lookup.apply(state) != null))
+            {
+                final int minY = SectionPos.sectionToBlockCoord(minSectionY + i);
+                for (int y = 0; y < 16; y++)
+                {
+                    for (int z = 0; z < 16; z++)
+                    {
+                        for (int x = 0; x < 16; x++)
+                        {
+                            final Support support = lookup.apply(section.getBlockState(x, y, z));
+                            if (support != null)
+                            {
+                                add(cursor.set(minX + x, minY + y, minZ + z), support);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes a chunk, and every support in it, from the index.
+     *
+     * @param level The level the chunk is in, which bounds the sections that may contain supports.
+     */
+    public void removeChunk(LevelHeightAccessor level, int chunkX, int chunkZ)
+    {
+        if (chunks.remove(ChunkPos.asLong(chunkX, chunkZ)))
+        {
+            for (int sectionY = level.getMinSection(); sectionY < level.getMaxSection(); sectionY++)
+            {
+                sections.remove(SectionPos.asLong(chunkX, sectionY, chunkZ));
+            }
+        }
+    }
+
+    public void add(BlockPos pos, Support support)
+    {
+        sections.computeIfAbsent(SectionPos.asLong(pos), key -> new Long2ObjectOpenHashMap<>()).put(pos.asLong(), support);
+    }
+
+    public void remove(BlockPos pos)
+    {
+        final long key = SectionPos.asLong(pos);
+        final Long2ObjectMap<Support> section = sections.get(key);
+        if (section != null && section.remove(pos.asLong()) != null && section.isEmpty())
+        {
+            sections.remove(key);
+        }
+    }
+
+    /**
+     * @return {@code true} if the chunk is indexed.
+     */
+    public boolean contains(int chunkX, int chunkZ)
+    {
+        return chunks.contains(ChunkPos.asLong(chunkX, chunkZ));
+    }
+
+    /**
+     * @return The number of indexed supports.
+     */
+    public int size()
+    {
+        int size = 0;
+        for (Long2ObjectMap<Support> section : sections.values())
+        {
+            size += section.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return {@code true} if the chunk is indexed, indexing it first if it is loaded.
+     */
+    private boolean isIndexed(BlockGetter level, int chunkX, int chunkZ)
+    {
+        if (chunks.contains(ChunkPos.asLong(chunkX, chunkZ)))
+        {
+            return true;
+        }
+        if (level instanceof ServerLevel serverLevel)
+        {
+            final LevelChunk chunk = serverLevel.getChunkSource().getChunkNow(chunkX, chunkZ);
+            if (chunk != null)
+            {
+                addChunk(chunk);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Supports are reloaded with data, at which point any indexed supports may be out of date, so the index is cleared, and chunks are indexed again when next queried.
+     */
+    public void checkGeneration()
+    {
+        if (generation != Support.generation())
+        {
+            generation = Support.generation();
+            chunks.clear();
+            sections.clear();
+        }
+    }
+
+    private static void markSupported(boolean[] supported, Support support, int x, int y, int z, int sizeX, int sizeY, int sizeZ)
+    {
+        // Matches Support#getSupportedArea()
+        final int minX = Math.max(0, x - support.getSupportHorizontal()), maxX = Math.min(sizeX - 1, x + support.getSupportHorizontal());
+        final int minY = Math.max(0, y - support.getSupportDown()), maxY = Math.min(sizeY - 1, y + support.getSupportUp());
+        final int minZ = Math.max(0, z - support.getSupportHorizontal()), maxZ = Math.min(sizeZ - 1, z + support.getSupportHorizontal());
+        for (int dz = minZ; dz <= maxZ; dz++)
+        {
+            for (int dy = minY; dy <= maxY; dy++)
+            {
+                for (int dx = minX; dx <= maxX; dx++)
+                {
+                    supported[dx + sizeX * (dy + sizeY * dz)] = true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.util.calendar;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+
+import net.dries007.tfc.util.tracker.WorldTracker;
+import net.dries007.tfc.util.tracker.WorldTrackerCapability;
+
+/**
+ * A per-level registry of block entities which only need to act when calendar time passes in a way that normal ticking does not observe, so they do not need a ticker at all.
+ * <ul>
+ *     <li>{@link ICalendarTickable}s are caught up once when they are loaded, and again whenever the calendar does not advance by exactly one tick, i.e. by sleeping, or the {@code /time} command. This is the same condition as {@link ICalendarTickable#checkForCalendarUpdate()}, but is detected once per level tick, rather than by every block entity.</li>
+ *     <li>Block entities may {@linkplain #schedule(BlockEntity, long, Runnable) schedule} an action for a calendar tick, which runs on the first level tick at or after that tick. Each block entity has at most one scheduled action.</li>
+ * </ul>
+ * Block entities must be removed when they are unloaded. This is owned by the {@link WorldTracker}, and only exists on server.
+ */
+public class CalendarCatchUp
+{
+    /**
+     * Registers {@code entity}, if it is in a server level. Should be called from {@code onLoad()}.
+     */
+    public static <T extends BlockEntity & ICalendarTickable> void add(T entity)
+    {
+        get(entity).ifPresent(catchUp -> catchUp.addTickable(entity));
+    }
+
+    /**
+     * Removes {@code entity}, and any actions it has scheduled. Should be called whenever it is unloaded or removed.
+     */
+    public static void remove(BlockEntity entity)
+    {
+        get(entity).ifPresent(catchUp -> catchUp.removeEntity(entity));
+    }
+
+    /**
+     * Runs {@code action} on the first level tick once the calendar reaches {@code tick}, unless {@code entity} is removed, or schedules another action, first.
+     */
+    public static void schedule(BlockEntity entity, long tick, Runnable action)
+    {
+        get(entity).ifPresent(catchUp -> catchUp.scheduleAction(entity, tick, action));
+    }
+
+    /**
+     * Registered block entities are kept up to date, without updating their last tick each tick, so they must save this instead.
+     *
+     * @return The tick {@code entity} should save as its last calendar update tick.
+     */
+    @SuppressWarnings("deprecation")
+    public static <T extends BlockEntity & ICalendarTickable> long lastUpdateTick(T entity)
+    {
+        return get(entity)
+            .filter(catchUp -> catchUp.isUpToDate(entity))
+            .map(catchUp -> catchUp.lastTick)
+            .orElseGet(entity::getLastCalendarUpdateTick);
+    }
+
+    private static Optional<CalendarCatchUp> get(BlockEntity entity)
+    {
+        final Level level = entity.getLevel();
+        return level == null || level.isClientSide() ? Optional.empty() : level.getCapability(WorldTrackerCapability.CAPABILITY).resolve().map(WorldTracker::getCalendarCatchUp);
+    }
+
+    private final Set<ICalendarTickable> tickables = new ReferenceOpenHashSet<>();
+    private final Set<ICalendarTickable> loaded = new ReferenceLinkedOpenHashSet<>(); // Added since the last tick, and not yet caught up
+    private final PriorityQueue<Scheduled> scheduled = new PriorityQueue<>(Comparator.comparingLong(Scheduled::tick)); // May contain replaced or removed actions, which are skipped
+    private final Map<BlockEntity, Scheduled> pending = new Reference2ObjectOpenHashMap<>(); // The current action of each entity
+    private long lastTick = Long.MIN_VALUE;
+
+    /**
+     * Called at the start of each level tick.
+     */
+    public void tick()
+    {
+        tick(Calendars.SERVER.getTicks());
+    }
+
+    /**
+     * Catches up block entities, and runs scheduled actions, as of the calendar tick {@code tick}.
+     */
+    @SuppressWarnings("deprecation")
+    public void tick(long tick)
+    {
+        final long previousTick = lastTick;
+        final boolean jumped = previousTick != Long.MIN_VALUE && tick - previousTick != 1;
+
+        // Catching up may add or remove block entities, so iterate over a copy, and skip any that have since been removed
+        final ICalendarTickable[] justLoaded = loaded.toArray(new ICalendarTickable[0]);
+        final ICalendarTickable[] all = jumped ? tickables.toArray(new ICalendarTickable[0]) : null;
+        final Set<ICalendarTickable> justLoadedSet = jumped ? new ReferenceOpenHashSet<>(loaded) : null;
+        loaded.clear();
+        lastTick = tick;
+
+        for (ICalendarTickable entity : justLoaded)
+        {
+            if (isLoaded(entity))
+            {
+                catchUp(entity, entity.getLastCalendarUpdateTick(), tick);
+            }
+        }
+        if (all != null)
+        {
+            // The calendar jumped, so catch up everything that was already up to date as of the last tick
+            for (ICalendarTickable entity : all)
+            {
+                if (!justLoadedSet.contains(entity) && isLoaded(entity))
+                {
+                    catchUp(entity, previousTick, tick);
+                }
+            }
+        }
+
+        while (!scheduled.isEmpty() && scheduled.peek().tick <= tick)
+        {
+            final Scheduled next = scheduled.poll();
+            if (pending.get(next.entity) == next)
+            {
+                pending.remove(next.entity);
+                if (!next.entity.isRemoved())
+                {
+                    next.action.run();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The number of registered {@link ICalendarTickable}s.
+     */
+    public int size()
+    {
+        return tickables.size();
+    }
+
+    /**
+     * @return The number of actions in the queue, including replaced or removed actions which have not yet been compacted away.
+     */
+    public int queueSize()
+    {
+        return scheduled.size();
+    }
+
+    /**
+     * @see #add(BlockEntity)
+     */
+    public void addTickable(BlockEntity entity)
+    {
+        final ICalendarTickable tickable = (ICalendarTickable) entity;
+        if (tickables.add(tickable))
+        {
+            loaded.add(tickable);
+        }
+    }
+
+    /**
+     * @see #remove(BlockEntity)
+     */
+    public void removeEntity(BlockEntity entity)
+    {
+        if (entity instanceof ICalendarTickable tickable && tickables.remove(tickable))
+        {
+            loaded.remove(tickable);
+        }
+        if (pending.remove(entity) != null)
+        {
+            compact();
+        }
+    }
+
+    /**
+     * @see #schedule(BlockEntity, long, Runnable)
+     */
+    public void scheduleAction(BlockEntity entity, long tick, Runnable runnable)
+    {
+        final Scheduled action = new Scheduled(tick, entity, runnable);
+        scheduled.add(action);
+        if (pending.put(entity, action) != null)
+        {
+            compact();
+        }
+    }
+
+    /**
+     * Replaced and removed actions are left in the queue, and skipped when they are reached. If they outnumber the current actions, the queue is rebuilt, so it stays proportional to the number of scheduled actions.
+     */
+    private void compact()
+    {
+        if (scheduled.size() > 2 * pending.size() + 16)
+        {
+            scheduled.clear();
+            scheduled.addAll(pending.values());
+        }
+    }
+
+    /**
+     * Block entities are expected to remove themselves when removed, but are skipped if they have not yet, as scheduled actions are.
+     */
+    private boolean isLoaded(ICalendarTickable entity)
+    {
+        return tickables.contains(entity) && !((BlockEntity) entity).isRemoved();
+    }
+
+    private boolean isUpToDate(ICalendarTickable entity)
+    {
+        return lastTick != Long.MIN_VALUE && tickables.contains(entity) && !loaded.contains(entity);
+    }
+
+    /**
+     * Matches {@link ICalendarTickable#checkForCalendarUpdate()}, from the tick {@code entity} was last up to date.
+     */
+    @SuppressWarnings("deprecation")
+    private void catchUp(ICalendarTickable entity, long lastTick, long tick)
+    {
+        if (lastTick != Integer.MIN_VALUE && tick - lastTick != 1)
+        {
+            entity.onCalendarUpdate(tick - lastTick - 1);
+        }
+        if (entity.getLastCalendarUpdateTick() != tick)
+        {
+            entity.setLastCalendarUpdateTick(tick);
+            entity.markDirty();
+        }
+    }
+
+    record Scheduled(long tick, BlockEntity entity, Runnable action) {}
+}
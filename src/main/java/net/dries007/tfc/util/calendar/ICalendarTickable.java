@@ -13,6 +13,8 @@ import net.minecraft.world.level.block.entity.BlockEntity;
  * In order to implement this, a field `lastUpdateTick` should be added and serialized. Nothing else should access this field, or the provided accessors. Doing so is almost certainly a bug, as this field just represents the last tick the block entity has been actively ticked.
  * The default value of this field should be initialized to {@link Integer#MIN_VALUE}.
  * <p>
+ * Block entities which tick anyway should call {@link #checkForCalendarUpdate()} each tick. Block entities which would only tick to check for calendar updates should instead register with {@link CalendarCatchUp}, and need no ticker.
+ * <p>
  * Note: the default {@link #checkForCalendarUpdate()} casts the implementor to {@link BlockEntity}.
  */
 @SuppressWarnings("DeprecatedIsStillUsed")
@@ -21,7 +23,7 @@ public interface ICalendarTickable
     /**
      * Here we check every tick for a calendar discrepancy. This only checks for differences in player time, and calls {@link ICalendarTickable#onCalendarUpdate(long playerTickDelta)} as necessary.
      * <p>
-     * Implementations MUST call {@code checkForCalendarUpdate()} in their {@code serverTick} method.
+     * Implementations MUST call {@code checkForCalendarUpdate()} in their {@code serverTick} method, unless they are registered with {@link CalendarCatchUp}.
      */
     default void checkForCalendarUpdate()
     {
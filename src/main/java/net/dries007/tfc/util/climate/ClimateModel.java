@@ -41,6 +41,22 @@ public interface ClimateModel
      */
     float getTemperature(LevelReader level, BlockPos pos, long calendarTicks, int daysInMonth);
 
+    /**
+     * Used to query the temperature at many positions, over the same series of timestamps, i.e. when catching up the growth of many crops.
+     * Implementations may compute any parts of the temperature which only depend on time once, rather than for every position.
+     *
+     * @return A timeline, which when sampled is equal to {@link #getTemperature(LevelReader, BlockPos, long, int)} at each of {@code calendarTicks}.
+     */
+    default TemperatureTimeline getTemperatureTimeline(long[] calendarTicks, int daysInMonth)
+    {
+        return (level, pos, temperatures) -> {
+            for (int i = 0; i < calendarTicks.length; i++)
+            {
+                temperatures[i] = getTemperature(level, pos, calendarTicks[i], daysInMonth);
+            }
+        };
+    }
+
     /**
      * Get the average annual temperature for a given position.
      *
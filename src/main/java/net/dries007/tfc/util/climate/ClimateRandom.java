@@ -0,0 +1,68 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.util.climate;
+
+/**
+ * An allocation free equivalent to {@link java.util.Random}, where the state is passed around as a {@code long}, rather than held in a new {@code Random} for every query.
+ * Every value is identical to the same sequence of calls on a {@code new Random(seed)}:
+ * <pre>{@code
+ * long state = ClimateRandom.seed(seed);
+ * state = ClimateRandom.next(state);
+ * float value = ClimateRandom.nextFloat(state); // == random.nextFloat()
+ * }</pre>
+ */
+public final class ClimateRandom
+{
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    /**
+     * @return The initial state of {@code new Random(seed)}.
+     */
+    public static long seed(long seed)
+    {
+        return (seed ^ MULTIPLIER) & MASK;
+    }
+
+    /**
+     * @return The state after advancing {@code state} once. Every {@code next*()} method of {@link java.util.Random} used here advances the state once, before reading from it.
+     */
+    public static long next(long state)
+    {
+        return (state * MULTIPLIER + ADDEND) & MASK;
+    }
+
+    /**
+     * @return The value of {@link java.util.Random#nextFloat()}, from an already advanced {@code state}.
+     */
+    public static float nextFloat(long state)
+    {
+        return bits(state, 24) / ((float) (1 << 24));
+    }
+
+    /**
+     * @return The value of {@link java.util.Random#nextInt(int)}, from an already advanced {@code state}, or {@code -1} if {@code Random} would reject it and advance again.
+     */
+    public static int nextInt(long state, int bound)
+    {
+        final int bits = bits(state, 31);
+        if ((bound & -bound) == bound)
+        {
+            return (int) ((bound * (long) bits) >> 31);
+        }
+        final int value = bits % bound;
+        return bits - value + (bound - 1) < 0 ? -1 : value;
+    }
+
+    private static int bits(long state, int bits)
+    {
+        return (int) (state >>> (48 - bits));
+    }
+
+    private ClimateRandom() {}
+}
@@ -71,6 +71,10 @@ public class OverworldClimateModel implements WorldGenClimateModel
     public static final float FOGGY_RAINFALL_MINIMUM = 150f;
     public static final float FOGGY_RAINFALL_PEAK = 300f;
 
+    private static final long DAILY_TEMPERATURE_SALT = 1986239412341L;
+    private static final long FOG_AND_WIND_SALT = 129341623413L;
+    private static final int DAY_CACHE_SIZE = 16;
+
     public static float getAdjustedAverageTempByElevation(BlockPos pos, ChunkData chunkData)
     {
         return getAdjustedAverageTempByElevation(pos.getY(), chunkData.getAverageTemp(pos));
@@ -119,6 +123,10 @@ public class OverworldClimateModel implements WorldGenClimateModel
     private long climateSeed = 0;
     private float temperatureScale = 20_000f;
 
+    // Caches of terms which only depend on time, and the climate seed. Entries are immutable, so these are safe to read and replace from any thread.
+    private final Day[] days = new Day[DAY_CACHE_SIZE];
+    @Nullable private volatile Tick lastTick;
+
     // For world generation climate
     private Noise2D snowPatchNoise = (x, z) -> 0;
     private Noise2D icePatchNoise = (x, z) -> 0;
@@ -135,15 +143,27 @@ public class OverworldClimateModel implements WorldGenClimateModel
     @Override
     public float getTemperature(@Nullable LevelReader level, BlockPos pos, ChunkData data, long calendarTicks, int daysInMonth)
     {
-        // Month temperature
-        final Month currentMonth = ICalendar.getMonthOfYear(calendarTicks, daysInMonth);
-        final float delta = ICalendar.getFractionOfMonth(calendarTicks, daysInMonth);
-        final float monthFactor = Mth.lerp(delta, currentMonth.getTemperatureModifier(), currentMonth.next().getTemperatureModifier());
+        final Tick tick = getTick(calendarTicks, daysInMonth);
+        final float monthTemperature = calculateMonthlyTemperature(pos.getZ(), tick.monthFactor);
 
-        final float monthTemperature = calculateMonthlyTemperature(pos.getZ(), monthFactor);
-        final float dailyTemperature = calculateDailyTemperature(calendarTicks);
+        return adjustTemperatureByElevation(pos.getY(), data.getAverageTemp(pos), monthTemperature, tick.dailyTemperature);
+    }
 
-        return adjustTemperatureByElevation(pos.getY(), data.getAverageTemp(pos), monthTemperature, dailyTemperature);
+    /**
+     * The month and daily temperature only depend on time, so they are computed once for each tick, rather than once per position.
+     * Subclasses which override {@link #getTemperature(LevelReader, BlockPos, ChunkData, long, int)} should also override this.
+     */
+    @Override
+    public TemperatureTimeline getTemperatureTimeline(long[] calendarTicks, int daysInMonth)
+    {
+        final float[] monthFactors = new float[calendarTicks.length];
+        final float[] dailyTemperatures = new float[calendarTicks.length];
+        for (int i = 0; i < calendarTicks.length; i++)
+        {
+            monthFactors[i] = calculateMonthFactor(calendarTicks[i], daysInMonth);
+            dailyTemperatures[i] = calculateDailyTemperature(calendarTicks[i]);
+        }
+        return new Timeline(monthFactors, dailyTemperatures);
     }
 
     @Override
@@ -163,14 +183,13 @@ public class OverworldClimateModel implements WorldGenClimateModel
     public float getFogginess(LevelReader level, BlockPos pos, long calendarTime)
     {
         // seed as if we're 2 hours in the future, in order to start the cycle at 4am (2 hours before sunrise)
-        final long day = ICalendar.getTotalDays(calendarTime + (2 * ICalendar.TICKS_IN_HOUR));
-        final Random random = seededRandom(day, 129341623413L);
-        if (random.nextInt(FOGGY_DAY_RARITY) != 0)
+        final Day day = getDay(ICalendar.getTotalDays(calendarTime + (2 * ICalendar.TICKS_IN_HOUR)));
+        if (!day.foggy)
         {
             return 0;
         }
 
-        final float fogModifier = random.nextFloat(); // untransformed value of the fog
+        final float fogModifier = day.fogModifier; // untransformed value of the fog
 
         final long dayTime = Calendars.get(level).getCalendarDayTime();
         float scaledTime; // a value between 0 and 1
@@ -214,14 +233,12 @@ public class OverworldClimateModel implements WorldGenClimateModel
         final int y = pos.getY();
         if (y < SEA_LEVEL - 6)
             return Vec2.ZERO;
-        final Random random = seededRandom(ICalendar.getTotalDays(calendarTime), 129341623413L);
-        final float preventFrequentWindyDays = random.nextFloat() < 0.1f ? 1f : random.nextFloat();
-        final float intensity = Math.min(0.5f * random.nextFloat() * preventFrequentWindyDays
+        final Day day = getDay(ICalendar.getTotalDays(calendarTime));
+        final float intensity = Math.min(0.5f * day.windiness * day.preventFrequentWindyDays
             + 0.3f * Mth.clampedMap(y, SEA_LEVEL, SEA_LEVEL + 65, 0f, 1f)
             + 0.4f * level.getRainLevel(0f)
             + 0.3f * level.getThunderLevel(0f), 1f);
-        final float angle = random.nextFloat() * Mth.TWO_PI;
-        return new Vec2(Mth.cos(angle), Mth.sin(angle)).scale(intensity);
+        return new Vec2(day.windX, day.windZ).scale(intensity);
     }
 
     @Override
@@ -399,6 +416,16 @@ public class OverworldClimateModel implements WorldGenClimateModel
         }
     }
 
+    /**
+     * Calculates the month temperature modifier at a given time, interpolated between the current and next month.
+     */
+    protected float calculateMonthFactor(long calendarTicks, int daysInMonth)
+    {
+        final Month currentMonth = ICalendar.getMonthOfYear(calendarTicks, daysInMonth);
+        final float delta = ICalendar.getFractionOfMonth(calendarTicks, daysInMonth);
+        return Mth.lerp(delta, currentMonth.getTemperatureModifier(), currentMonth.next().getTemperatureModifier());
+    }
+
     /**
      * Calculates the monthly temperature for a given latitude and month modifier
      */
@@ -425,9 +452,18 @@ public class OverworldClimateModel implements WorldGenClimateModel
         float hourModifier = (hourOfDay / 6f) - 1f;
 
         // Note: this does not use world seed, as that is not synced from server - client, resulting in the seed being different
-        long day = ICalendar.getTotalDays(calendarTime);
-        final Random random = seededRandom(day, 1986239412341L);
-        return ((random.nextFloat() - random.nextFloat()) + 0.3f * hourModifier) * 3f;
+        final Day day = getDay(ICalendar.getTotalDays(calendarTime));
+        return (day.dailyVariation + 0.3f * hourModifier) * 3f;
+    }
+
+    /**
+     * Identical to the sequence of values produced by {@link #seededRandom(long, long)}, but without the allocation. See {@link ClimateRandom}.
+     */
+    protected long seededRandomState(long day, long salt)
+    {
+        long seed = LinearCongruentialGenerator.next(climateSeed, day);
+        seed = LinearCongruentialGenerator.next(seed, salt);
+        return ClimateRandom.seed(seed);
     }
 
     protected Random seededRandom(long day, long salt)
@@ -436,4 +472,126 @@ public class OverworldClimateModel implements WorldGenClimateModel
         seed = LinearCongruentialGenerator.next(seed, salt);
         return new Random(seed);
     }
+
+    /**
+     * @return The time dependent terms of the temperature at {@code calendarTicks}. Many temperature queries in a single tick (i.e. snow and ice, heat, crops) share the same tick.
+     */
+    protected Tick getTick(long calendarTicks, int daysInMonth)
+    {
+        Tick tick = lastTick;
+        if (tick == null || tick.calendarTicks != calendarTicks || tick.daysInMonth != daysInMonth || tick.climateSeed != climateSeed)
+        {
+            tick = new Tick(calendarTicks, daysInMonth, climateSeed, calculateMonthFactor(calendarTicks, daysInMonth), calculateDailyTemperature(calendarTicks));
+            lastTick = tick;
+        }
+        return tick;
+    }
+
+    /**
+     * @return The random, per-day terms of the climate on {@code day}.
+     */
+    protected Day getDay(long day)
+    {
+        final int index = (int) (day & (DAY_CACHE_SIZE - 1));
+        Day cached = days[index];
+        if (cached == null || cached.day != day || cached.climateSeed != climateSeed)
+        {
+            cached = new Day(day, climateSeed, seededRandomState(day, DAILY_TEMPERATURE_SALT), seededRandomState(day, FOG_AND_WIND_SALT));
+            days[index] = cached;
+        }
+        return cached;
+    }
+
+    /**
+     * A timeline of the month factor and daily temperature, which only need the average temperature of a position to be sampled.
+     */
+    public class Timeline implements TemperatureTimeline
+    {
+        private final float[] monthFactors;
+        private final float[] dailyTemperatures;
+
+        Timeline(float[] monthFactors, float[] dailyTemperatures)
+        {
+            this.monthFactors = monthFactors;
+            this.dailyTemperatures = dailyTemperatures;
+        }
+
+        @Override
+        public void sample(LevelReader level, BlockPos pos, float[] temperatures)
+        {
+            sample(pos, ChunkData.get(level, pos), temperatures);
+        }
+
+        /**
+         * Samples the timeline, equal to {@link #getTemperature(LevelReader, BlockPos, ChunkData, long, int)} at each timestamp.
+         */
+        public void sample(BlockPos pos, ChunkData data, float[] temperatures)
+        {
+            final float averageTemperature = data.getAverageTemp(pos);
+            for (int i = 0; i < monthFactors.length; i++)
+            {
+                temperatures[i] = adjustTemperatureByElevation(pos.getY(), averageTemperature, calculateMonthlyTemperature(pos.getZ(), monthFactors[i]), dailyTemperatures[i]);
+            }
+        }
+    }
+
+    /**
+     * The time dependent terms of the temperature at a single tick.
+     */
+    protected record Tick(long calendarTicks, int daysInMonth, long climateSeed, float monthFactor, float dailyTemperature) {}
+
+    /**
+     * The random terms of the climate for a single day. Each is drawn in the same order, from the same seeds, as it would be from {@link #seededRandom(long, long)}.
+     */
+    protected static final class Day
+    {
+        public final long day, climateSeed;
+        public final float dailyVariation;
+        public final boolean foggy;
+        public final float fogModifier;
+        public final float preventFrequentWindyDays, windiness, windX, windZ;
+
+        Day(long day, long climateSeed, long dailyTemperatureState, long fogAndWindState)
+        {
+            this.day = day;
+            this.climateSeed = climateSeed;
+
+            // Daily temperature variation
+            long state = ClimateRandom.next(dailyTemperatureState);
+            final float first = ClimateRandom.nextFloat(state);
+            state = ClimateRandom.next(state);
+            this.dailyVariation = first - ClimateRandom.nextFloat(state);
+
+            // Fog, which is seeded from the same salt as wind
+            int foggyValue;
+            state = fogAndWindState;
+            do
+            {
+                state = ClimateRandom.next(state);
+                foggyValue = ClimateRandom.nextInt(state, FOGGY_DAY_RARITY);
+            } while (foggyValue == -1);
+            state = ClimateRandom.next(state);
+            this.foggy = foggyValue == 0;
+            this.fogModifier = ClimateRandom.nextFloat(state);
+
+            // Wind
+            state = ClimateRandom.next(fogAndWindState);
+            final float windyDay = ClimateRandom.nextFloat(state);
+            if (windyDay < 0.1f)
+            {
+                this.preventFrequentWindyDays = 1f;
+            }
+            else
+            {
+                state = ClimateRandom.next(state);
+                this.preventFrequentWindyDays = ClimateRandom.nextFloat(state);
+            }
+            state = ClimateRandom.next(state);
+            this.windiness = ClimateRandom.nextFloat(state);
+            state = ClimateRandom.next(state);
+            final float angle = ClimateRandom.nextFloat(state) * Mth.TWO_PI;
+            this.windX = Mth.cos(angle);
+            this.windZ = Mth.sin(angle);
+        }
+    }
 }
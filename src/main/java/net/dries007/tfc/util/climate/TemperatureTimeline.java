@@ -0,0 +1,24 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.util.climate;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.LevelReader;
+
+/**
+ * The temperature over a fixed series of timestamps, which can be sampled at many positions.
+ *
+ * @see ClimateModel#getTemperatureTimeline(long[], int)
+ */
+@FunctionalInterface
+public interface TemperatureTimeline
+{
+    /**
+     * Fills {@code temperatures} with the temperature at {@code pos}, at each timestamp of this timeline.
+     */
+    void sample(LevelReader level, BlockPos pos, float[] temperatures);
+}
@@ -35,8 +35,12 @@ import net.dries007.tfc.common.recipes.LandslideRecipe;
 import net.dries007.tfc.config.TFCConfig;
 import net.dries007.tfc.network.PacketHandler;
 import net.dries007.tfc.network.RainfallUpdatePacket;
+import net.dries007.tfc.util.ChunkEnvironmentScheduler;
 import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.util.Support;
+import net.dries007.tfc.util.SupportIndex;
 import net.dries007.tfc.util.events.CollapseEvent;
+import net.dries007.tfc.util.calendar.CalendarCatchUp;
 import net.dries007.tfc.util.calendar.Calendars;
 import net.dries007.tfc.util.climate.BiomeBasedClimateModel;
 import net.dries007.tfc.util.climate.Climate;
@@ -62,6 +66,9 @@ public class WorldTracker implements ICapabilitySerializable<CompoundTag>
     @Nullable private ClimateModel climateModel;
 
     private final RotationNetworkManager rotationManager;
+    private final CalendarCatchUp calendarCatchUp;
+    private final ChunkEnvironmentScheduler chunkEnvironment;
+    private final SupportIndex supportIndex;
 
     private long rainStartTick, rainEndTick;
     private float rainIntensity;
@@ -76,6 +83,9 @@ public class WorldTracker implements ICapabilitySerializable<CompoundTag>
         this.isolatedPositions = new BufferedList<>();
         this.collapsesInProgress = new ArrayList<>();
         this.rotationManager = new RotationNetworkManager();
+        this.calendarCatchUp = new CalendarCatchUp();
+        this.chunkEnvironment = new ChunkEnvironmentScheduler();
+        this.supportIndex = new SupportIndex(Support::get);
     }
 
     public void addLandslidePos(BlockPos pos)
@@ -155,8 +165,26 @@ public class WorldTracker implements ICapabilitySerializable<CompoundTag>
         return rotationManager;
     }
 
+    public CalendarCatchUp getCalendarCatchUp()
+    {
+        return calendarCatchUp;
+    }
+
+    public ChunkEnvironmentScheduler getChunkEnvironment()
+    {
+        return chunkEnvironment;
+    }
+
+    public SupportIndex getSupportIndex()
+    {
+        return supportIndex;
+    }
+
     public void tick(ServerLevel level)
     {
+        calendarCatchUp.tick();
+        chunkEnvironment.tick(level);
+
         if (!collapsesInProgress.isEmpty() && random.nextInt(10) == 0)
         {
             for (Collapse collapse : collapsesInProgress)
@@ -0,0 +1,210 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world;
+
+import java.util.concurrent.atomic.LongAdder;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.levelgen.PositionalRandomFactory;
+import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
+
+import net.dries007.tfc.world.noise.Cellular3D;
+
+/**
+ * The aquifer grid cells of a world, shared between the {@link TFCAquifer}s of all chunks.
+ * <p>
+ * Each aquifer grid cell has a location, and an {@link TFCAquifer.AquiferEntry} (the fluid, and fluid level) at that location. Both only depend on the world position of the cell, and the aquifer surface height of the chunk containing it, so neighbouring chunks, which share most of their cells, can share them here rather than computing them again.
+ * Cells are {@link #GRID_WIDTH} wide, which is exactly one chunk, so they are stored in columns, one per chunk, which also hold the aquifer surface height of that chunk.
+ */
+public final class AquiferCells
+{
+    public static final int GRID_WIDTH = 16;
+    public static final int GRID_HEIGHT = 12;
+
+    static final int XZ_RANGE = 10;
+    static final int Y_RANGE = 8;
+
+    /** Marks an aquifer surface height which has not yet been computed. */
+    public static final int UNKNOWN_HEIGHT = Integer.MIN_VALUE;
+
+    static int gridXZ(int xz)
+    {
+        return Math.floorDiv(xz, GRID_WIDTH);
+    }
+
+    static int gridY(int y)
+    {
+        return Math.floorDiv(y, GRID_HEIGHT);
+    }
+
+    private final FastConcurrentCache<Column> columns;
+    private final PositionalRandomFactory fork;
+    private final long fluidCellSeed;
+    private final Cellular3D fluidCellNoise;
+
+    private final int minY;
+    private final int minGridY, gridSizeY;
+
+    private final TFCAquifer.AquiferEntry lavaLevelAquifer;
+    private final TFCAquifer.AquiferEntry seaLevelAquifer;
+
+    private final LongAdder locationsComputed = new LongAdder();
+    private final LongAdder entriesComputed = new LongAdder();
+
+    /**
+     * @param minY The minimum y level of the world, inclusive
+     * @param maxY The maximum y level of the world, exclusive
+     * @param cacheSize The number of columns to keep
+     */
+    public AquiferCells(PositionalRandomFactory fork, int minY, int maxY, int seaLevel, int cacheSize)
+    {
+        this.columns = new FastConcurrentCache<>(cacheSize);
+        this.fork = fork;
+
+        final RandomSource fluidCellNoiseFork = fork.fromHashOf("aquifer_fluid_cell_noise");
+        this.fluidCellSeed = fluidCellNoiseFork.nextLong();
+        this.fluidCellNoise = new Cellular3D(fluidCellNoiseFork.nextLong()).spread(0.015f);
+
+        this.minY = minY;
+        this.minGridY = gridY(minY) - 1;
+        this.gridSizeY = gridY(maxY) + 1 - minGridY + 1;
+
+        this.lavaLevelAquifer = new TFCAquifer.AquiferEntry(Blocks.LAVA.defaultBlockState(), minY + 10);
+        this.seaLevelAquifer = new TFCAquifer.AquiferEntry(Blocks.WATER.defaultBlockState(), seaLevel);
+    }
+
+    /**
+     * @return The column of cells at the grid position {@code (gridX, gridZ)}, which is also the chunk position of that column.
+     */
+    public Column column(int gridX, int gridZ)
+    {
+        return columns.computeIfAbsent(gridX, gridZ, () -> new Column(gridX, gridZ));
+    }
+
+    public FastConcurrentCache<Column> cache()
+    {
+        return columns;
+    }
+
+    /** @return The total number of cell locations which have been computed. */
+    public long locationsComputed()
+    {
+        return locationsComputed.sum();
+    }
+
+    /** @return The total number of cell aquifer entries which have been computed. */
+    public long entriesComputed()
+    {
+        return entriesComputed.sum();
+    }
+
+    TFCAquifer.AquiferEntry globalAquifer(int y)
+    {
+        return y < minY + 10 ? lavaLevelAquifer : seaLevelAquifer;
+    }
+
+    private long computeLocation(int gridX, int gridY, int gridZ)
+    {
+        final RandomSource random = fork.at(gridX, gridY, gridZ);
+        locationsComputed.increment();
+        return BlockPos.asLong(
+            gridX * GRID_WIDTH + random.nextInt(XZ_RANGE) + (GRID_WIDTH - XZ_RANGE) / 2,
+            gridY * GRID_HEIGHT + random.nextInt(Y_RANGE) + (GRID_HEIGHT - Y_RANGE) / 2,
+            gridZ * GRID_WIDTH + random.nextInt(XZ_RANGE) + (GRID_WIDTH - XZ_RANGE) / 2);
+    }
+
+    private TFCAquifer.AquiferEntry computeEntry(int x, int y, int z, int surfaceHeight)
+    {
+        entriesComputed.increment();
+        if (y >= surfaceHeight)
+        {
+            // Above surface height, all aquifers must be sea level
+            return seaLevelAquifer;
+        }
+
+        final Cellular3D.Cell cell = fluidCellNoise.cell(x, y / 0.6f, z);
+        final float cellNoise = (float) cell.noise();
+        final float cellY = (float) cell.y();
+
+        if (cellNoise < 0.25f || (cellY > TFCChunkGenerator.SEA_LEVEL_Y - 10 && cellNoise < 0.5f))
+        {
+            return new TFCAquifer.AquiferEntry(Blocks.WATER.defaultBlockState(), minY - 1);
+        }
+
+        final RandomSource random = new XoroshiroRandomSource(fluidCellSeed, Float.floatToIntBits(cellNoise));
+        final float aquiferY = Math.min((random.nextFloat() - random.nextFloat() - 2) * 5 + cellY, surfaceHeight);
+
+        final boolean lava = cellY < 40 && (random.nextInt(3) == 0);
+        return new TFCAquifer.AquiferEntry(lava ? Blocks.LAVA.defaultBlockState() : Blocks.WATER.defaultBlockState(), (int) aquiferY);
+    }
+
+    /**
+     * A vertical column of cells. Locations are computed eagerly, as they are cheap, and almost all are used. Entries, and the aquifer surface height, are computed lazily.
+     * Lazy values are deterministic, so threads which race to compute them will compute, and publish, identical values. Entries are immutable, so they are safely published through the array.
+     */
+    public final class Column
+    {
+        private final long[] locations;
+        private final TFCAquifer.AquiferEntry[] entries;
+        private int surfaceHeight = UNKNOWN_HEIGHT;
+
+        Column(int gridX, int gridZ)
+        {
+            this.locations = new long[gridSizeY];
+            this.entries = new TFCAquifer.AquiferEntry[gridSizeY];
+            for (int i = 0; i < gridSizeY; i++)
+            {
+                locations[i] = computeLocation(gridX, minGridY + i, gridZ);
+            }
+        }
+
+        /**
+         * @return The location of the aquifer in the cell at {@code gridY}, packed as a {@link BlockPos}.
+         */
+        public long location(int gridX, int gridY, int gridZ)
+        {
+            final int index = gridY - minGridY;
+            return index >= 0 && index < gridSizeY ? locations[index] : computeLocation(gridX, gridY, gridZ);
+        }
+
+        /**
+         * @param location The location of an aquifer in this column, as returned by {@link #location(int, int, int)}
+         * @param surfaceHeight The aquifer surface height of this column.
+         */
+        public TFCAquifer.AquiferEntry entry(long location, int surfaceHeight)
+        {
+            final int x = BlockPos.getX(location), y = BlockPos.getY(location), z = BlockPos.getZ(location);
+            final int index = gridY(y) - minGridY;
+            if (index < 0 || index >= gridSizeY)
+            {
+                return computeEntry(x, y, z, surfaceHeight);
+            }
+
+            TFCAquifer.AquiferEntry entry = entries[index];
+            if (entry == null)
+            {
+                entry = computeEntry(x, y, z, surfaceHeight);
+                entries[index] = entry;
+            }
+            return entry;
+        }
+
+        /**
+         * @return The aquifer surface height of this column (chunk), or {@link #UNKNOWN_HEIGHT} if it has not been computed yet.
+         */
+        public int surfaceHeight()
+        {
+            return surfaceHeight;
+        }
+
+        public void setSurfaceHeight(int surfaceHeight)
+        {
+            this.surfaceHeight = surfaceHeight;
+        }
+    }
+}
@@ -20,12 +20,32 @@ public interface BiomeNoiseSampler
     {
         return new BiomeNoiseSampler()
         {
+            private final double[] chunkHeights = new double[16 * 16];
+            private boolean chunkPrepared = false;
+            private int chunkMinX, chunkMinZ;
             private float height;
 
+            @Override
+            public void prepareChunk(int minX, int minZ)
+            {
+                heightNoise.fillGrid(minX, minZ, 1, 1, 16, 16, chunkHeights);
+                chunkPrepared = true;
+                chunkMinX = minX;
+                chunkMinZ = minZ;
+            }
+
             @Override
             public void setColumn(int x, int z)
             {
-                height = (float) heightNoise.noise(x, z);
+                final int localX = x - chunkMinX, localZ = z - chunkMinZ;
+                if (chunkPrepared && localX >= 0 && localX < 16 && localZ >= 0 && localZ < 16)
+                {
+                    height = (float) chunkHeights[localX + 16 * localZ];
+                }
+                else
+                {
+                    height = (float) heightNoise.noise(x, z);
+                }
             }
 
             @Override
@@ -42,6 +62,12 @@ public interface BiomeNoiseSampler
         };
     }
 
+    /**
+     * Optionally called before any columns within the chunk starting at {@code (minX, minZ)} are sampled, allowing implementations to evaluate their noise for the whole chunk at once via {@link Noise2D#fillGrid(double, double, double, double, int, int, double[])}.
+     * Columns outside of the prepared chunk must still be able to be sampled as normal.
+     */
+    default void prepareChunk(int minX, int minZ) {}
+
     void setColumn(int x, int z);
 
     double height();
@@ -24,13 +24,23 @@ public class ChunkBaseBlockSource
     private final Sampler<BiomeExtension> biomeSampler;
     private final BlockState[] cachedFluidStates;
 
-    private final BlockState freshWater = Blocks.WATER.defaultBlockState(), saltWater = TFCBlocks.SALT_WATER.get().defaultBlockState();
+    private final BlockState freshWater, saltWater;
 
     public ChunkBaseBlockSource(RockData rockData, Sampler<BiomeExtension> biomeSampler)
+    {
+        this(rockData, biomeSampler, Blocks.WATER.defaultBlockState(), TFCBlocks.SALT_WATER.get().defaultBlockState());
+    }
+
+    /**
+     * Allows the fluids to be specified, so this can be used outside of Minecraft i.e. in benchmarks, where registry objects are not present.
+     */
+    public ChunkBaseBlockSource(RockData rockData, Sampler<BiomeExtension> biomeSampler, BlockState freshWater, BlockState saltWater)
     {
         this.rockData = rockData;
         this.biomeSampler = biomeSampler;
         this.cachedFluidStates = new BlockState[16 * 16];
+        this.freshWater = freshWater;
+        this.saltWater = saltWater;
     }
 
     public void useAccurateBiome(int localX, int localZ, BiomeExtension biome)
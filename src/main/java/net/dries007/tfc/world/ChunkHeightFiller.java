@@ -6,7 +6,11 @@
 
 package net.dries007.tfc.world;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
 import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
 import it.unimi.dsi.fastutil.objects.Object2DoubleOpenHashMap;
 import net.minecraft.world.level.LevelHeightAccessor;
@@ -14,6 +18,7 @@ import net.minecraft.world.level.levelgen.Heightmap;
 import net.minecraft.world.level.levelgen.RandomState;
 
 import net.dries007.tfc.world.biome.BiomeExtension;
+import net.dries007.tfc.world.biome.TFCBiomes;
 
 /**
  * A high level stateless abstraction for height and biome sampling.
@@ -24,15 +29,17 @@ public class ChunkHeightFiller
     protected final Map<BiomeExtension, BiomeNoiseSampler> biomeNoiseSamplers; // Biome -> Noise Samplers
     protected final Object2DoubleMap<BiomeNoiseSampler> columnBiomeNoiseSamplers; // Per column weighted map of biome noises samplers
 
-    protected final Object2DoubleMap<BiomeExtension>[] sampledBiomeWeights; // 7x7 array of biome weights, at quart pos resolution
-    protected final Object2DoubleMap<BiomeExtension> biomeWeights1; // Local biome weights, for individual column adjustment
+    protected final int biomeCount; // The number of biome weights per sampled position, indexed by BiomeExtension.id()
+    protected final double[] sampledBiomeWeights; // 7x7 matrix of biome weights, at quart pos resolution, one row of biomeCount weights per position
+    protected final double[] biomeWeights1; // Local biome weights, for individual column adjustment
 
-    public ChunkHeightFiller(Map<BiomeExtension, BiomeNoiseSampler> biomeNoiseSamplers, Object2DoubleMap<BiomeExtension>[] sampledBiomeWeights)
+    public ChunkHeightFiller(Map<BiomeExtension, BiomeNoiseSampler> biomeNoiseSamplers, double[] sampledBiomeWeights)
     {
         this.biomeNoiseSamplers = biomeNoiseSamplers;
         this.columnBiomeNoiseSamplers = new Object2DoubleOpenHashMap<>();
+        this.biomeCount = TFCBiomes.getExtensionCount();
         this.sampledBiomeWeights = sampledBiomeWeights;
-        this.biomeWeights1 = new Object2DoubleOpenHashMap<>();
+        this.biomeWeights1 = new double[biomeCount];
     }
 
     /**
@@ -45,7 +52,37 @@ public class ChunkHeightFiller
     public double sampleHeight(int blockX, int blockZ)
     {
         prepareColumnBiomeWeights(blockX & 15, blockZ & 15);
-        return sampleColumnHeightAndBiome(biomeWeights1, blockX, blockZ, false);
+        return sampleColumnHeightAndBiome(biomeWeights1, 0, blockX, blockZ, false);
+    }
+
+    /**
+     * Prepares the noise samplers of every biome which may contribute to a column within the chunk, so their noise can be evaluated in batch for the whole chunk.
+     *
+     * @param chunkMinX The minimum block X of the chunk.
+     * @param chunkMinZ The minimum block Z of the chunk.
+     */
+    protected void prepareBiomeNoiseSamplers(int chunkMinX, int chunkMinZ)
+    {
+        final Set<BiomeNoiseSampler> prepared = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int x = 1; x <= 5; x++) // Columns within the chunk only interpolate between the interior 5x5 of sampled weights
+        {
+            for (int z = 1; z <= 5; z++)
+            {
+                final int offset = (x + z * 7) * biomeCount;
+                for (int id = 0; id < biomeCount; id++)
+                {
+                    if (sampledBiomeWeights[offset + id] == 0)
+                    {
+                        continue;
+                    }
+                    final BiomeNoiseSampler sampler = biomeNoiseSamplers.get(TFCBiomes.getExtension(id));
+                    if (sampler != null && prepared.add(sampler))
+                    {
+                        sampler.prepareChunk(chunkMinX, chunkMinZ);
+                    }
+                }
+            }
+        }
     }
 
     /**
@@ -62,22 +99,24 @@ public class ChunkHeightFiller
         final double lerpX = (localX - ((localX >> 2) << 2)) * (1 / 4d);
         final double lerpZ = (localZ - ((localZ >> 2) << 2)) * (1 / 4d);
 
-        biomeWeights1.clear();
-        TFCChunkGenerator.sampleBiomesCornerContribution(biomeWeights1, sampledBiomeWeights[index4X + index4Z * 7], (1 - lerpX) * (1 - lerpZ));
-        TFCChunkGenerator.sampleBiomesCornerContribution(biomeWeights1, sampledBiomeWeights[(index4X + 1) + index4Z * 7], lerpX * (1 - lerpZ));
-        TFCChunkGenerator.sampleBiomesCornerContribution(biomeWeights1, sampledBiomeWeights[index4X + (index4Z + 1) * 7], (1 - lerpX) * lerpZ);
-        TFCChunkGenerator.sampleBiomesCornerContribution(biomeWeights1, sampledBiomeWeights[(index4X + 1) + (index4Z + 1) * 7], lerpX * lerpZ);
+        Arrays.fill(biomeWeights1, 0);
+        TFCChunkGenerator.sampleBiomesCornerContribution(biomeWeights1, 0, sampledBiomeWeights, (index4X + index4Z * 7) * biomeCount, (1 - lerpX) * (1 - lerpZ));
+        TFCChunkGenerator.sampleBiomesCornerContribution(biomeWeights1, 0, sampledBiomeWeights, ((index4X + 1) + index4Z * 7) * biomeCount, lerpX * (1 - lerpZ));
+        TFCChunkGenerator.sampleBiomesCornerContribution(biomeWeights1, 0, sampledBiomeWeights, (index4X + (index4Z + 1) * 7) * biomeCount, (1 - lerpX) * lerpZ);
+        TFCChunkGenerator.sampleBiomesCornerContribution(biomeWeights1, 0, sampledBiomeWeights, ((index4X + 1) + (index4Z + 1) * 7) * biomeCount, lerpX * lerpZ);
     }
 
     /**
-     * For a given (x, z) position, samples the provided biome weight map to calculate the height at that location, and the biome
+     * For a given (x, z) position, samples the provided biome weights to calculate the height at that location, and the biome
      *
+     * @param biomeWeights A dense matrix of biome weights, indexed by {@link BiomeExtension#id()}.
+     * @param offset The offset of the row of weights for this position within {@code biomeWeights}.
      * @param blockX The block x value
      * @param blockZ The block z value
      * @param updateArrays If, in the stateful implementation, arrays corresponding to position within the chunk should be updated.
      * @return The maximum height at this location
      */
-    protected double sampleColumnHeightAndBiome(Object2DoubleMap<BiomeExtension> biomeWeights, int blockX, int blockZ, boolean updateArrays)
+    protected double sampleColumnHeightAndBiome(double[] biomeWeights, int offset, int blockX, int blockZ, boolean updateArrays)
     {
         columnBiomeNoiseSamplers.clear();
 
@@ -89,10 +128,15 @@ public class ChunkHeightFiller
 
         double maxOceanicWeight = 0; // Partition on ocean/non-ocean or water type.
 
-        for (Object2DoubleMap.Entry<BiomeExtension> entry : biomeWeights.object2DoubleEntrySet())
+        for (int id = 0; id < biomeCount; id++)
         {
-            final double weight = entry.getDoubleValue();
-            final BiomeExtension biome = entry.getKey();
+            final double weight = biomeWeights[offset + id];
+            if (weight == 0)
+            {
+                continue; // Biomes which were only sampled at the edge of the kernel have zero weight, and contribute nothing
+            }
+
+            final BiomeExtension biome = TFCBiomes.getExtension(id);
             final BiomeNoiseSampler sampler = biomeNoiseSamplers.get(biome);
 
             assert sampler != null : "Non-existent sampler for biome: " + biome.key();
@@ -116,13 +160,13 @@ public class ChunkHeightFiller
                 shoreWeight += weight;
                 if (maxShoreWeight < weight)
                 {
-                    shoreBiomeAt = entry.getKey();
+                    shoreBiomeAt = biome;
                     maxShoreWeight = weight;
                 }
             }
             else if (maxNormalWeight < weight)
             {
-                normalBiomeAt = entry.getKey();
+                normalBiomeAt = biome;
                 maxNormalWeight = weight;
             }
 
@@ -157,10 +201,10 @@ public class ChunkHeightFiller
 
         assert biomeAt != null;
 
-        return afterSampleColumnHeightAndBiome(biomeWeights, biomeAt, actualHeight, updateArrays);
+        return afterSampleColumnHeightAndBiome(biomeWeights, offset, biomeAt, actualHeight, updateArrays);
     }
 
-    protected double afterSampleColumnHeightAndBiome(Object2DoubleMap<BiomeExtension> biomeWeights, BiomeExtension biomeAt, double actualHeight, boolean updateArrays)
+    protected double afterSampleColumnHeightAndBiome(double[] biomeWeights, int offset, BiomeExtension biomeAt, double actualHeight, boolean updateArrays)
     {
         return actualHeight;
     }
@@ -7,10 +7,12 @@
 package net.dries007.tfc.world;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
 import net.minecraft.Util;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
 import net.minecraft.util.Mth;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
@@ -38,7 +40,6 @@ import net.dries007.tfc.world.region.RegionPartition;
 import net.dries007.tfc.world.region.RiverEdge;
 import net.dries007.tfc.world.region.Units;
 import net.dries007.tfc.world.river.Flow;
-import net.dries007.tfc.world.river.MidpointFractal;
 import net.dries007.tfc.world.river.RiverBlendType;
 import net.dries007.tfc.world.river.RiverInfo;
 import net.dries007.tfc.world.river.RiverNoiseSampler;
@@ -86,6 +87,7 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
     private final double[] riverBlendWeights; // Indexed by RiverBlendType.ordinal
     private final FluidState riverWater;
     private final @Nullable RiverInfo[] riverData; // 16 x 16 river info. May be null.
+    private double[] riverDistancesSq = new double[16]; // Scratch, distance to each river in a partition point
     private final Flow[] riverFlows; // 5 x 5 quart position sampled, pre-interpolated river flows. Not null.
 
     // Noise interpolation
@@ -102,10 +104,12 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
     private final TrilinearInterpolator noodleRidgeB;
 
     // Aquifer + Noise -> BlockState
+    private final AquiferCells aquiferCells;
     private final TFCAquifer aquifer;
     private final ChunkBaseBlockSource baseBlockSource;
 
     private final int[] surfaceHeight; // 16x16, block pos resolution
+    private final int[] baseSurfaceHeight; // 16x16, block pos resolution, before rivers are carved
     private final BiomeExtension[] localBiomes; // 16x16, block pos resolution
     private final BiomeExtension[] localBiomesNoRivers; // 16x16, block pos resolution
     private final double[] localBiomeWeights; // 16x16, block pos resolution
@@ -116,7 +120,7 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
     private double cellDeltaX, cellDeltaZ; // Delta within a noise cell
     private int lastCellZ; // Last cell Z, needed due to a quick in noise interpolator
 
-    public ChunkNoiseFiller(ProtoChunk chunk, Object2DoubleMap<BiomeExtension>[] sampledBiomeWeights, BiomeSourceExtension biomeSource, Map<BiomeExtension, BiomeNoiseSampler> biomeNoiseSamplers, Map<RiverBlendType, RiverNoiseSampler> riverNoiseSamplers, NoiseSampler sampler, ChunkBaseBlockSource baseBlockSource, ChunkNoiseSamplingSettings settings, int seaLevel, Beardifier beardifier)
+    public ChunkNoiseFiller(ProtoChunk chunk, double[] sampledBiomeWeights, BiomeSourceExtension biomeSource, Map<BiomeExtension, BiomeNoiseSampler> biomeNoiseSamplers, Map<RiverBlendType, RiverNoiseSampler> riverNoiseSamplers, NoiseSampler sampler, AquiferCells aquiferCells, ChunkBaseBlockSource baseBlockSource, ChunkNoiseSamplingSettings settings, int seaLevel, Beardifier beardifier)
     {
         super(biomeNoiseSamplers, sampledBiomeWeights);
 
@@ -153,9 +157,11 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
         this.noodleRidgeB = interpolator.add(sampler.noodleRidgeB);
 
         // Aquifer
-        this.aquifer = new TFCAquifer(chunk.getPos(), settings, baseBlockSource, seaLevel, sampler.positionalRandomFactory, sampler.barrierNoise);
+        this.aquiferCells = aquiferCells;
+        this.aquifer = new TFCAquifer(chunk.getPos(), baseBlockSource, aquiferCells, sampler.barrierNoise);
 
         this.surfaceHeight = new int[16 * 16];
+        this.baseSurfaceHeight = new int[16 * 16];
         this.localBiomes = new BiomeExtension[16 * 16];
         this.localBiomesNoRivers = new BiomeExtension[16 * 16];
         this.localBiomeWeights = new double[16 * 16];
@@ -171,6 +177,14 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
         return surfaceHeight;
     }
 
+    /**
+     * @return The surface height, before any river modifications. For each column, this is identical to {@link ChunkHeightFiller#sampleHeight(int, int)}, and is only valid after {@link #fillFromNoise()}.
+     */
+    public int[] baseSurfaceHeight()
+    {
+        return baseSurfaceHeight;
+    }
+
     public BiomeExtension[] localBiomes()
     {
         return localBiomes;
@@ -200,40 +214,25 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
         // At each position, we sample from a 5x5, at half chunk resolution (so a full chunk's distance away)
         // This requires sampling, in total, at half chunk resolution, from the (-2, -2) chunk to the (+3, +3) chunk, inclusive.
         // The total sampled area is 11x11
+        // The height of each chunk only depends on its position, so it is shared with neighbouring chunks via the aquifer cells, and we only sample the area around chunks which no neighbour has computed yet.
         final double[] sampledHeight = new double[11 * 11];
         final int[] aquiferSurfaceHeights = aquifer.surfaceHeights();
 
-        for (int x = 0; x < 11; x++)
-        {
-            for (int z = 0; z < 11; z++)
-            {
-                final int actualX = chunkMinX - 32 + (x << 3);
-                final int actualZ = chunkMinZ - 32 + (z << 3);
-                final BiomeExtension biome = biomeSampler.get(actualX, actualZ);
-                final BiomeNoiseSampler sampler = biomeNoiseSamplers.get(biome);
-
-                double aquiferSurfaceHeight = biome.getAquiferSurfaceHeight(sampler, actualX, actualZ);
-
-                if (aquiferSurfaceHeight > seaLevel - 24 && sampleRiverDistSq(actualX, actualZ) < 15 * 15)
-                {
-                    // When near a river, force aquifers below the river in a wide radius (15 blocks)
-                    aquiferSurfaceHeight = seaLevel - 24;
-                }
-
-                if (aquiferSurfaceHeight > seaLevel)
-                {
-                    // Above sea level, we reduce the overall height *above* sea level, to more eagerly prevent above-surface level fluid aquifers
-                    aquiferSurfaceHeight = 0.3 * seaLevel + 0.7 * aquiferSurfaceHeight;
-                }
-                sampledHeight[x + 11 * z] = aquiferSurfaceHeight;
-            }
-        }
+        Arrays.fill(sampledHeight, Double.NaN);
 
         // Then, for each region in the 4x4 aquifer surface heights, we populate it based on a 5x5 surrounding area
         for (int x = 0; x < 4; x++)
         {
             for (int z = 0; z < 4; z++)
             {
+                final AquiferCells.Column column = aquiferCells.column(SectionPos.blockToSectionCoord(chunkMinX) + x - 1, SectionPos.blockToSectionCoord(chunkMinZ) + z - 1);
+                final int knownAquiferSurfaceHeight = column.surfaceHeight();
+                if (knownAquiferSurfaceHeight != AquiferCells.UNKNOWN_HEIGHT)
+                {
+                    aquiferSurfaceHeights[x + 4 * z] = knownAquiferSurfaceHeight;
+                    continue;
+                }
+
                 double minAquiferSurfaceHeight = Double.MAX_VALUE;
 
                 final int xIndex = (1 + x) << 1;
@@ -243,11 +242,12 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
                 {
                     for (int dz = -2; dz <= 2; dz++)
                     {
-                        minAquiferSurfaceHeight = Math.min(minAquiferSurfaceHeight, sampledHeight[(xIndex + dx) + 11 * (zIndex + dz)]);
+                        minAquiferSurfaceHeight = Math.min(minAquiferSurfaceHeight, sampleAquiferSurfaceHeight(biomeSampler, sampledHeight, xIndex + dx, zIndex + dz));
                     }
                 }
 
                 aquiferSurfaceHeights[x + 4 * z] = (int) minAquiferSurfaceHeight;
+                column.setSurfaceHeight((int) minAquiferSurfaceHeight);
             }
         }
 
@@ -258,13 +258,46 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
                 for (int z = 0; z < 16; z++)
                 {
                     setupColumn(x, z);
-                    setDebugState((int) sampledHeight[((x >> 3) + 4) + 11 * ((z >> 3) + 4)], Blocks.YELLOW_STAINED_GLASS); // Sampled height
+                    setDebugState((int) sampleAquiferSurfaceHeight(biomeSampler, sampledHeight, (x >> 3) + 4, (z >> 3) + 4), Blocks.YELLOW_STAINED_GLASS); // Sampled height
                     setDebugState(aquiferSurfaceHeights[5], Blocks.LIME_STAINED_GLASS); // Aquifer surface height, per-chunk basis
                 }
             }
         }
     }
 
+    /**
+     * @param sampledHeight The 11x11, half chunk resolution, sampled heights, where {@code NaN} indicates a height that has not been sampled yet.
+     */
+    private double sampleAquiferSurfaceHeight(Sampler<BiomeExtension> biomeSampler, double[] sampledHeight, int x, int z)
+    {
+        final int index = x + 11 * z;
+        if (!Double.isNaN(sampledHeight[index]))
+        {
+            return sampledHeight[index];
+        }
+
+        final int actualX = chunkMinX - 32 + (x << 3);
+        final int actualZ = chunkMinZ - 32 + (z << 3);
+        final BiomeExtension biome = biomeSampler.get(actualX, actualZ);
+        final BiomeNoiseSampler sampler = biomeNoiseSamplers.get(biome);
+
+        double aquiferSurfaceHeight = biome.getAquiferSurfaceHeight(sampler, actualX, actualZ);
+
+        if (aquiferSurfaceHeight > seaLevel - 24 && isNearRiver(actualX, actualZ, 15))
+        {
+            // When near a river, force aquifers below the river in a wide radius (15 blocks)
+            aquiferSurfaceHeight = seaLevel - 24;
+        }
+
+        if (aquiferSurfaceHeight > seaLevel)
+        {
+            // Above sea level, we reduce the overall height *above* sea level, to more eagerly prevent above-surface level fluid aquifers
+            aquiferSurfaceHeight = 0.3 * seaLevel + 0.7 * aquiferSurfaceHeight;
+        }
+        sampledHeight[index] = aquiferSurfaceHeight;
+        return aquiferSurfaceHeight;
+    }
+
     /**
      * Builds a 6x6, 4x4 resolution slope map for a chunk
      * This is enough to do basic linear interpolation for every point within the chunk.
@@ -296,7 +329,7 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
             int z0 = chunkMinZ + ((z - 1) << 2);
 
             setupColumn(x0, z0);
-            quartSurfaceHeight[x + 7 * z] = (int) sampleColumnHeightAndBiome(sampledBiomeWeights[x + z * 7], blockX, blockZ, false);
+            quartSurfaceHeight[x + 7 * z] = (int) sampleColumnHeightAndBiome(sampledBiomeWeights, (x + z * 7) * biomeCount, blockX, blockZ, false);
         }
 
         double[] slopeMap = new double[6 * 6];
@@ -323,6 +356,7 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
      */
     public void fillFromNoise()
     {
+        prepareBiomeNoiseSamplers(chunkMinX, chunkMinZ);
         interpolator.initializeForFirstCellX();
         final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
         for (int cellX = 0; cellX < settings.cellCountXZ(); cellX++)
@@ -355,15 +389,20 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
     }
 
     @Override
-    protected double afterSampleColumnHeightAndBiome(Object2DoubleMap<BiomeExtension> biomeWeights, BiomeExtension biomeAt, double height, boolean updateArrays)
+    protected double afterSampleColumnHeightAndBiome(double[] biomeWeights, int offset, BiomeExtension biomeAt, double height, boolean updateArrays)
     {
         final int localIndex = localX + 16 * localZ;
+        final double heightNoRivers = height;
 
         // Sum weights by biome extension -> river blend type first
         Arrays.fill(riverBlendWeights, 0d);
-        for (Object2DoubleMap.Entry<BiomeExtension> entry : biomeWeights.object2DoubleEntrySet())
+        for (int id = 0; id < biomeCount; id++)
         {
-            riverBlendWeights[entry.getKey().riverBlendType().ordinal()] += entry.getDoubleValue();
+            final double weight = biomeWeights[offset + id];
+            if (weight != 0)
+            {
+                riverBlendWeights[TFCBiomes.getExtension(id).riverBlendType().ordinal()] += weight;
+            }
         }
 
         // Adjust bias for river cave to create sharp cutoffs at borders, helps prevent caves from breaking up rivers
@@ -437,8 +476,10 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
             }
 
             localBiomes[localIndex] = biomeAt;
-            localBiomeWeights[localIndex] = biomeWeights.getOrDefault(biomeAt, 0.5);
+            final double weightAt = biomeWeights[offset + biomeAt.id()];
+            localBiomeWeights[localIndex] = weightAt > 0 ? weightAt : 0.5; // Rivers are not sampled, so have no weight
             surfaceHeight[localIndex] = (int) height;
+            baseSurfaceHeight[localIndex] = (int) heightNoRivers;
 
             baseBlockSource.useAccurateBiome(localX, localZ, biomeAt);
         }
@@ -454,7 +495,7 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
         final boolean debugFillColumn = false;
 
         prepareColumnBiomeWeights(localX, localZ);
-        sampleColumnHeightAndBiome(biomeWeights1, blockX, blockZ, true);
+        sampleColumnHeightAndBiome(biomeWeights1, 0, blockX, blockZ, true);
 
         final int localIndex = localX + 16 * localZ;
         final int heightNoiseValue = surfaceHeight[localIndex]; // sample height, using the just-computed biome weights
@@ -690,7 +731,7 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
     }
 
     /**
-     * Initializes enough to call {@link #sampleColumnHeightAndBiome(Object2DoubleMap, int, int, boolean)}
+     * Initializes enough to call {@link #sampleColumnHeightAndBiome(double[], int, int, int, boolean)}
      */
     private void setupColumn(int x, int z)
     {
@@ -758,23 +799,25 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
         double exactGridX = Units.blockToGridExact(blockX);
         double exactGridZ = Units.blockToGridExact(blockZ);
 
-        for (RiverEdge edge : point.rivers())
+        // Query the distance to every river that is within the limit at once. Rivers further than this are never used, so their distance is not computed.
+        final List<RiverEdge> rivers = point.rivers();
+        final double[] distances = riverDistancesSq(rivers.size());
+        point.riverDistancesSq(exactGridX, exactGridZ, Math.sqrt(limitDistInGridSq), distances);
+
+        for (int i = 0; i < rivers.size(); i++)
         {
-            final MidpointFractal fractal = edge.fractal();
-            if (fractal.maybeIntersect(exactGridX, exactGridZ, minDist))
+            final RiverEdge edge = rivers.get(i);
+            final double dist = distances[i];
+            if (dist < limitDistInGridSq && edge.fractal().maybeIntersect(exactGridX, exactGridZ, minDist))
             {
                 // Minimum by square distance would get us the closest edge, but would fail in the case some edges are wider than others
                 // Since in most situations, we're actually concerned about distance / width, we want to have the one with the highest weight in that respect.
-                final double dist = fractal.intersectDistance(exactGridX, exactGridZ);
-                if (dist < limitDistInGridSq) // Extra check that we intersect at a shorter distance than can possibly affect this location
+                final double distAdjusted = dist / edge.widthSq();
+                if (distAdjusted < minDistAdjusted)
                 {
-                    final double distAdjusted = dist / edge.widthSq();
-                    if (distAdjusted < minDistAdjusted)
-                    {
-                        minDist = dist;
-                        minDistAdjusted = distAdjusted;
-                        minEdge = edge;
-                    }
+                    minDist = dist;
+                    minDistAdjusted = distAdjusted;
+                    minEdge = edge;
                 }
             }
         }
@@ -793,28 +836,22 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
         return null;
     }
 
-    private double sampleRiverDistSq(int blockX, int blockZ)
+    /**
+     * @return {@code true} if any river comes within {@code distance} blocks of the given position.
+     */
+    private boolean isNearRiver(int blockX, int blockZ, double distance)
     {
         final RegionPartition.Point point = biomeSource.getPartition(blockX, blockZ);
+        return point.anyRiverWithin(Units.blockToGridExact(blockX), Units.blockToGridExact(blockZ), Units.blockToGridExact(distance));
+    }
 
-        double minDist = Float.MAX_VALUE;
-
-        double exactGridX = Units.blockToGridExact(blockX);
-        double exactGridZ = Units.blockToGridExact(blockZ);
-
-        for (RiverEdge edge : point.rivers())
+    private double[] riverDistancesSq(int size)
+    {
+        if (riverDistancesSq.length < size)
         {
-            final MidpointFractal fractal = edge.fractal();
-            if (fractal.maybeIntersect(exactGridX, exactGridZ, minDist))
-            {
-                double dist = fractal.intersectDistance(exactGridX, exactGridZ);
-                if (dist < minDist)
-                {
-                    minDist = dist;
-                }
-            }
+            riverDistancesSq = new double[Math.max(size, riverDistancesSq.length << 1)];
         }
-        return minDist * Units.GRID_WIDTH_IN_BLOCK * Units.GRID_WIDTH_IN_BLOCK;
+        return riverDistancesSq;
     }
 
     private Flow calculateFlowAt(int cellX, int cellZ)
@@ -0,0 +1,138 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import it.unimi.dsi.fastutil.ints.IntArraySet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import net.minecraft.core.Holder;
+import net.minecraft.core.HolderSet;
+import net.minecraft.core.Registry;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.FeatureSorter;
+import net.minecraft.world.level.levelgen.placement.PlacedFeature;
+import net.minecraft.world.level.levelgen.structure.Structure;
+
+import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.world.biome.TFCBiomes;
+
+/**
+ * The structures and features to place, in order, for every decoration step of a chunk whose neighbourhood contains a specific set of biomes.
+ * <p>
+ * Building this requires resolving and sorting every feature of every biome in the neighbourhood, but there are only a small number of distinct neighbourhoods in a world, so plans are built once per neighbourhood and shared by all chunks.
+ * Each feature also carries the parts of its seed which do not depend on the chunk, so seeding it is two multiplications, rather than re-seeding the random from the chunk.
+ *
+ * @see Helpers#seedLargeFeatures(RandomSource, long, int, int)
+ */
+public final class DecorationPlan
+{
+    private static final long INDEX_MULTIPLIER = 203704237L;
+    private static final long DECORATION_MULTIPLIER = 758031792L;
+
+    public static DecorationPlan create(LevelAccessor level, Set<Biome> biomes, List<FeatureSorter.StepFeatureData> orderedFeatures)
+    {
+        final Registry<Structure> structures = level.registryAccess().registryOrThrow(Registries.STRUCTURE);
+        final Registry<PlacedFeature> placedFeatures = level.registryAccess().registryOrThrow(Registries.PLACED_FEATURE);
+        final Map<Integer, List<Structure>> structuresByStep = structures.stream()
+            .collect(Collectors.groupingBy(feature -> feature.step().ordinal()));
+
+        final Step[] steps = new Step[Math.max(TFCChunkGenerator.DECORATION_STEPS, orderedFeatures.size())];
+        for (int decorationIndex = 0; decorationIndex < steps.length; decorationIndex++)
+        {
+            final List<Structure> stepStructures = structuresByStep.getOrDefault(decorationIndex, List.of());
+            final List<Entry<Structure>> structureEntries = new ArrayList<>(stepStructures.size());
+            for (int featureIndex = 0; featureIndex < stepStructures.size(); featureIndex++)
+            {
+                final Structure structure = stepStructures.get(featureIndex);
+                final String name = structures.getResourceKey(structure).map(Object::toString).orElseGet(structure::toString);
+                structureEntries.add(new Entry<>(structure, () -> name, featureIndex * INDEX_MULTIPLIER));
+            }
+
+            final List<Entry<PlacedFeature>> featureEntries = new ArrayList<>();
+            if (decorationIndex < orderedFeatures.size())
+            {
+                final IntSet featureIndices = new IntArraySet();
+                for (Biome biome : biomes)
+                {
+                    final List<HolderSet<PlacedFeature>> featuresPerBiome = TFCBiomes.getExtensionOrThrow(level, biome).getFlattenedFeatures(biome);
+                    if (decorationIndex < featuresPerBiome.size())
+                    {
+                        final FeatureSorter.StepFeatureData stepIndex = orderedFeatures.get(decorationIndex);
+                        for (Holder<PlacedFeature> holder : featuresPerBiome.get(decorationIndex))
+                        {
+                            featureIndices.add(stepIndex.indexMapping().applyAsInt(holder.value()));
+                        }
+                    }
+                }
+
+                final int[] sortedIndices = featureIndices.toIntArray();
+                final FeatureSorter.StepFeatureData step = orderedFeatures.get(decorationIndex);
+
+                Arrays.sort(sortedIndices);
+                for (int featureIndex : sortedIndices)
+                {
+                    final PlacedFeature feature = step.features().get(featureIndex);
+                    final String name = placedFeatures.getResourceKey(feature).map(Object::toString).orElseGet(feature::toString);
+                    featureEntries.add(new Entry<>(feature, () -> name, featureIndex * INDEX_MULTIPLIER));
+                }
+            }
+
+            steps[decorationIndex] = new Step(decorationIndex * DECORATION_MULTIPLIER, List.copyOf(structureEntries), List.copyOf(featureEntries));
+        }
+        return new DecorationPlan(steps);
+    }
+
+    private final Step[] steps;
+
+    private DecorationPlan(Step[] steps)
+    {
+        this.steps = steps;
+    }
+
+    public Step[] steps()
+    {
+        return steps;
+    }
+
+    /**
+     * The per-chunk part of a feature's seed. Equivalent to {@link Helpers#seedLargeFeatures(RandomSource, long, int, int)}, as the two values drawn from the random depend only on the chunk.
+     */
+    public record ChunkSeed(long baseSeed, long indexSeed, long decorationSeed)
+    {
+        public static ChunkSeed of(RandomSource random, long baseSeed)
+        {
+            random.setSeed(baseSeed);
+            final long indexSeed = random.nextLong();
+            final long decorationSeed = random.nextLong();
+            return new ChunkSeed(baseSeed, indexSeed, decorationSeed);
+        }
+
+        public void seed(RandomSource random, Step step, Entry<?> entry)
+        {
+            random.setSeed((entry.indexFactor * indexSeed) ^ (step.decorationFactor * decorationSeed) ^ baseSeed);
+        }
+    }
+
+    /**
+     * @param decorationFactor The decoration index, pre-multiplied for seeding.
+     */
+    public record Step(long decorationFactor, List<Entry<Structure>> structures, List<Entry<PlacedFeature>> features) {}
+
+    /**
+     * @param indexFactor The feature index within this step, pre-multiplied for seeding.
+     */
+    public record Entry<T>(T value, Supplier<String> name, long indexFactor) {}
+}
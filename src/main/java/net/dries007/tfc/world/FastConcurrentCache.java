@@ -7,7 +7,12 @@
 package net.dries007.tfc.world;
 
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
 import it.unimi.dsi.fastutil.HashCommon;
 import net.minecraft.util.Mth;
 import net.minecraft.world.level.ChunkPos;
@@ -15,6 +20,10 @@ import org.jetbrains.annotations.Nullable;
 
 /**
  * A concurrent (safe to read and write between multiple threads) positional based, lossy, cache.
+ * <p>
+ * Reads are optimistic (a seqlock via {@link StampedLock#tryOptimisticRead()}), and only fall back to taking a read lock if they race with a write. Writes take the write lock, and are expected to be rare compared to reads.
+ * <p>
+ * {@link #computeIfAbsent(int, int, Supplier)} is single-flight: concurrent misses on the same key are coalesced onto one in-flight computation, so expensive values (i.e. a {@link net.dries007.tfc.world.region.Region}) are only built once, even when many worker threads ask for them at the same time.
  */
 public class FastConcurrentCache<T>
 {
@@ -24,6 +33,13 @@ public class FastConcurrentCache<T>
     private final T[] values;
     private final int mask;
 
+    private final ConcurrentHashMap<Long, CompletableFuture<T>> inFlight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+
     @SuppressWarnings("unchecked")
     public FastConcurrentCache(int size)
     {
@@ -32,36 +48,187 @@ public class FastConcurrentCache<T>
         this.mask = size - 1;
         this.keys = new long[size];
         this.values = (T[]) new Object[size];
+        this.inFlight = new ConcurrentHashMap<>();
 
         Arrays.fill(this.keys, Long.MIN_VALUE);
     }
 
     @Nullable
     public T getIfPresent(int x, int z)
+    {
+        return get(ChunkPos.asLong(x, z));
+    }
+
+    public void set(int x, int z, T value)
+    {
+        put(ChunkPos.asLong(x, z), value, false);
+    }
+
+    /**
+     * Removes the value at {@code (x, z)}, only if it is still {@code expected}.
+     *
+     * @return {@code true} if the value was removed.
+     */
+    public boolean remove(int x, int z, T expected)
+    {
+        final long key = ChunkPos.asLong(x, z);
+        final int index = index(key);
+        final long stamp = lock.writeLock();
+        try
+        {
+            if (keys[index] == key && values[index] == expected)
+            {
+                keys[index] = Long.MIN_VALUE;
+                values[index] = null;
+                return true;
+            }
+            return false;
+        }
+        finally
+        {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the value at {@code (x, z)}, computing it with {@code factory} if it is not present. If another thread is already computing the value for the same key, this waits for, and returns, that result instead of computing it again.
+     * Exceptions thrown by the factory are propagated to every thread waiting on that computation.
+     */
+    public T computeIfAbsent(int x, int z, Supplier<T> factory)
     {
         final long key = ChunkPos.asLong(x, z);
-        final int index = (int) HashCommon.mix(key) & mask;
-        final long stamp = lock.readLock();
 
-        T t = null;
-        if (keys[index] == key)
+        T value = get(key);
+        if (value != null)
+        {
+            hits.increment();
+            return value;
+        }
+
+        misses.increment();
+
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final CompletableFuture<T> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null)
         {
-            t = values[index];
+            coalesced.increment();
+            return join(existing);
         }
 
-        lock.unlockRead(stamp);
-        return t;
+        try
+        {
+            // Another thread may have published this key between our miss, and registering as the in-flight computation
+            value = get(key);
+            if (value == null)
+            {
+                value = factory.get();
+                put(key, value, true);
+            }
+            future.complete(value);
+            return value;
+        }
+        catch (Throwable e)
+        {
+            future.completeExceptionally(e);
+            throw e;
+        }
+        finally
+        {
+            inFlight.remove(key, future);
+        }
     }
 
-    public void set(int x, int z, T value)
+    /** @return The number of lookups through {@link #computeIfAbsent(int, int, Supplier)} that found a cached value. */
+    public long hits()
     {
-        final long key = ChunkPos.asLong(x, z);
-        final int index = (int) HashCommon.mix(key) & mask;
+        return hits.sum();
+    }
+
+    /** @return The number of lookups through {@link #computeIfAbsent(int, int, Supplier)} that did not find a cached value. */
+    public long misses()
+    {
+        return misses.sum();
+    }
+
+    /** @return The number of misses that were coalesced onto an existing in-flight computation, rather than computing the value again. */
+    public long coalesced()
+    {
+        return coalesced.sum();
+    }
+
+    /** @return The number of computed values which were published into a slot that already held the same key, i.e. work that was done twice. */
+    public long duplicates()
+    {
+        return duplicates.sum();
+    }
+
+    public void resetStats()
+    {
+        hits.reset();
+        misses.reset();
+        coalesced.reset();
+        duplicates.reset();
+    }
+
+    @Nullable
+    private T get(long key)
+    {
+        final int index = index(key);
+
+        long stamp = lock.tryOptimisticRead();
+        long foundKey = keys[index];
+        T value = values[index];
+        if (!lock.validate(stamp))
+        {
+            stamp = lock.readLock();
+            try
+            {
+                foundKey = keys[index];
+                value = values[index];
+            }
+            finally
+            {
+                lock.unlockRead(stamp);
+            }
+        }
+        return foundKey == key ? value : null;
+    }
+
+    private void put(long key, T value, boolean computed)
+    {
+        final int index = index(key);
         final long stamp = lock.writeLock();
+        try
+        {
+            if (computed && keys[index] == key && values[index] != null)
+            {
+                duplicates.increment();
+            }
+            keys[index] = key;
+            values[index] = value;
+        }
+        finally
+        {
+            lock.unlockWrite(stamp);
+        }
+    }
 
-        keys[index] = key;
-        values[index] = value;
+    private int index(long key)
+    {
+        return (int) HashCommon.mix(key) & mask;
+    }
 
-        lock.unlockWrite(stamp);
+    private static <T> T join(CompletableFuture<T> future)
+    {
+        try
+        {
+            return future.join();
+        }
+        catch (CompletionException e)
+        {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
     }
 }
@@ -6,46 +6,27 @@
 
 package net.dries007.tfc.world;
 
-import java.util.Arrays;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.SectionPos;
 import net.minecraft.util.Mth;
-import net.minecraft.util.RandomSource;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.levelgen.Aquifer;
 import net.minecraft.world.level.levelgen.DensityFunction;
-import net.minecraft.world.level.levelgen.PositionalRandomFactory;
-import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
 import net.minecraft.world.level.levelgen.synth.NormalNoise;
 import org.apache.commons.lang3.mutable.MutableDouble;
 import org.jetbrains.annotations.Nullable;
 
 import net.dries007.tfc.util.Helpers;
-import net.dries007.tfc.world.noise.Cellular3D;
-import net.dries007.tfc.world.noise.ChunkNoiseSamplingSettings;
 
+/**
+ * The aquifer of a single chunk. This is a thin view over the {@link AquiferCells} shared by all chunks, which only caches references to the cell columns it uses, and holds the aquifer surface heights of this, and the surrounding, chunks.
+ */
 public class TFCAquifer implements Aquifer
 {
-    private static final int GRID_WIDTH = 16;
-    private static final int GRID_HEIGHT = 12;
-
-    private static final int XZ_RANGE = 10;
-    private static final int Y_RANGE = 8;
-
     private static final double FLOWING_UPDATE_SIMILARITY = similarity(Mth.square(10), Mth.square(12));
 
-    private static int gridXZ(int xz)
-    {
-        return Math.floorDiv(xz, GRID_WIDTH);
-    }
-
-    private static int gridY(int y)
-    {
-        return Math.floorDiv(y, GRID_HEIGHT);
-    }
-
     /**
      * When the distances are very similar, returns values close to 1
      * When the distances are very different, returns values < 1
@@ -55,62 +36,36 @@ public class TFCAquifer implements Aquifer
         return 1 - Math.abs(secondDistance - firstDistance) / 25d;
     }
 
-    private final int minGridX, minGridY, minGridZ;
-    private final int gridSizeX, gridSizeZ;
+    private final int minGridX, minGridZ;
+    private final int gridSizeX;
     private final int minChunkX, minChunkZ;
-    private final int minY;
-    private final PositionalRandomFactory fork;
 
     private final ChunkBaseBlockSource baseBlockSource;
+    private final AquiferCells cells;
+    private final AquiferCells.Column[] columns;
 
     private final NormalNoise barrierNoise;
-    private final long fluidCellSeed;
-    private final Cellular3D fluidCellNoise;
-
-    private final AquiferEntry lavaLevelAquifer;
-    private final AquiferEntry seaLevelAquifer;
-
-    private final AquiferEntry[] aquifers;
-    private final long[] aquiferLocations;
 
     private int[] surfaceHeights;
     private boolean shouldScheduleFluidUpdate;
 
-    public TFCAquifer(ChunkPos chunkPos, ChunkNoiseSamplingSettings settings, ChunkBaseBlockSource baseBlockSource, int seaLevel, PositionalRandomFactory fork, NormalNoise barrierNoise)
+    public TFCAquifer(ChunkPos chunkPos, ChunkBaseBlockSource baseBlockSource, AquiferCells cells, NormalNoise barrierNoise)
     {
-        final int maxGridX = gridXZ(chunkPos.getMaxBlockX()) + 1;
-        final int maxGridY = gridY((settings.firstCellY() + settings.cellCountY()) * settings.cellHeight()) + 1;
-        final int maxGridZ = gridXZ(chunkPos.getMaxBlockZ()) + 1;
-
-        this.minGridX = gridXZ(chunkPos.getMinBlockX()) - 1;
-        this.minGridY = gridY(settings.firstCellY() * settings.cellHeight()) - 1;
-        this.minGridZ = gridXZ(chunkPos.getMinBlockZ()) - 1;
+        final int maxGridX = AquiferCells.gridXZ(chunkPos.getMaxBlockX()) + 1;
+        final int maxGridZ = AquiferCells.gridXZ(chunkPos.getMaxBlockZ()) + 1;
 
+        this.minGridX = AquiferCells.gridXZ(chunkPos.getMinBlockX()) - 1;
+        this.minGridZ = AquiferCells.gridXZ(chunkPos.getMinBlockZ()) - 1;
         this.gridSizeX = maxGridX - minGridX + 1;
-        final int gridSizeY = maxGridY - minGridY + 1;
-        this.gridSizeZ = maxGridZ - minGridZ + 1;
 
         this.minChunkX = chunkPos.getMinBlockX();
-        this.minY = settings.minY();
         this.minChunkZ = chunkPos.getMinBlockZ();
 
         this.surfaceHeights = new int[4 * 4];
         this.baseBlockSource = baseBlockSource;
-
-        this.fork = fork;
+        this.cells = cells;
+        this.columns = new AquiferCells.Column[gridSizeX * (maxGridZ - minGridZ + 1)];
         this.barrierNoise = barrierNoise;
-
-        final RandomSource fluidCellNoiseFork = fork.fromHashOf("aquifer_fluid_cell_noise");
-        this.fluidCellSeed = fluidCellNoiseFork.nextLong();
-        this.fluidCellNoise =  new Cellular3D(fluidCellNoiseFork.nextLong()).spread(0.015f);
-
-        this.lavaLevelAquifer = new AquiferEntry(Blocks.LAVA.defaultBlockState(), minY + 10);
-        this.seaLevelAquifer = new AquiferEntry(Blocks.WATER.defaultBlockState(), seaLevel);
-
-        this.aquifers = new AquiferEntry[gridSizeX * gridSizeY * gridSizeZ];
-        this.aquiferLocations = new long[gridSizeX * gridSizeY * gridSizeZ];
-
-        Arrays.fill(aquiferLocations, Long.MAX_VALUE);
     }
 
     public int[] surfaceHeights()
@@ -141,7 +96,7 @@ public class TFCAquifer implements Aquifer
         if (terrainNoise <= 0)
         {
             // < 0 would generate air block (and we checked the modified noise, including contributions from caves)
-            final AquiferEntry global = globalAquifer(y);
+            final AquiferEntry global = cells.globalAquifer(y);
 
             double aquiferNoiseContribution; // The contribution from aquifer borders to the noise
             BlockState state; // The result aquifer state
@@ -157,9 +112,9 @@ public class TFCAquifer implements Aquifer
             }
             else
             {
-                final int lowerGridX = Math.floorDiv(x - XZ_RANGE / 2, GRID_WIDTH);
-                final int lowerGridY = Math.floorDiv(y, GRID_HEIGHT);
-                final int lowerGridZ = Math.floorDiv(z - XZ_RANGE / 2, GRID_WIDTH);
+                final int lowerGridX = AquiferCells.gridXZ(x - AquiferCells.XZ_RANGE / 2);
+                final int lowerGridY = AquiferCells.gridY(y);
+                final int lowerGridZ = AquiferCells.gridXZ(z - AquiferCells.XZ_RANGE / 2);
 
                 // The closest three aquifers, by distance
                 int distance1 = Integer.MAX_VALUE, distance2 = Integer.MAX_VALUE, distance3 = Integer.MAX_VALUE;
@@ -175,19 +130,7 @@ public class TFCAquifer implements Aquifer
                             final int adjGridX = lowerGridX + offsetGridX;
                             final int adjGridY = lowerGridY + offsetGridY;
                             final int adjGridZ = lowerGridZ + offsetGridZ;
-                            final int adjIndex = getIndex(adjGridX, adjGridY, adjGridZ);
-
-                            long adjAquifer = aquiferLocations[adjIndex];
-                            if (adjAquifer == Long.MAX_VALUE)
-                            {
-                                // Compute and cache the aquifer location at this index
-                                final RandomSource random = fork.at(adjGridX, adjGridY, adjGridZ);
-                                adjAquifer = BlockPos.asLong(
-                                    adjGridX * GRID_WIDTH + random.nextInt(XZ_RANGE) + (GRID_WIDTH - XZ_RANGE) / 2,
-                                    adjGridY * GRID_HEIGHT + random.nextInt(Y_RANGE) + (GRID_HEIGHT - Y_RANGE) / 2,
-                                    adjGridZ * GRID_WIDTH + random.nextInt(XZ_RANGE) + (GRID_WIDTH - XZ_RANGE) / 2);
-                                aquiferLocations[adjIndex] = adjAquifer;
-                            }
+                            final long adjAquifer = column(adjGridX, adjGridZ).location(adjGridX, adjGridY, adjGridZ);
 
                             final int dx = BlockPos.getX(adjAquifer) - x;
                             final int dy = BlockPos.getY(adjAquifer) - y;
@@ -232,7 +175,7 @@ public class TFCAquifer implements Aquifer
                 final double similarity13 = similarity(distance1, distance3);
                 final double similarity23 = similarity(distance2, distance3);
 
-                if (Helpers.isBlock(entry1.at(y), Blocks.WATER) && Helpers.isBlock(globalAquifer(y - 1).at(y - 1), Blocks.LAVA))
+                if (Helpers.isBlock(entry1.at(y), Blocks.WATER) && Helpers.isBlock(cells.globalAquifer(y - 1).at(y - 1), Blocks.LAVA))
                 {
                     // Border lava and water with solid blocks.
                     aquiferNoiseContribution = 1;
@@ -334,60 +277,24 @@ public class TFCAquifer implements Aquifer
 
     private AquiferEntry getOrCreateAquifer(long location)
     {
-        // Queries the cache first, and generates if the cache isn't found
         final int x = BlockPos.getX(location);
-        final int y = BlockPos.getY(location);
         final int z = BlockPos.getZ(location);
-        final int gridIndex = getIndex(gridXZ(x), gridY(y), gridXZ(z));
-
-        AquiferEntry status = aquifers[gridIndex];
-        if (status == null)
-        {
-            status = createAquifer(x, y, z);
-            aquifers[gridIndex] = status;
-        }
-        return status;
-    }
-
-    private AquiferEntry createAquifer(int x, int y, int z)
-    {
         final int dx = x - minChunkX + 16, dz = z - minChunkZ + 16; // In [0, 48)
         final int surfaceIndex = SectionPos.blockToSectionCoord(dx) + 4 * SectionPos.blockToSectionCoord(dz);
-        final int surfaceHeight = surfaceHeights[surfaceIndex];
-
-        if (y >= surfaceHeight)
-        {
-            // Above surface height, all aquifers must be sea level
-            return seaLevelAquifer;
-        }
-
-        final Cellular3D.Cell cell = fluidCellNoise.cell(x, y / 0.6f, z);
-        final float cellNoise = (float) cell.noise();
-        final float cellY = (float) cell.y();
 
-        if (cellNoise < 0.25f || (cellY > TFCChunkGenerator.SEA_LEVEL_Y - 10 && cellNoise < 0.5f))
-        {
-            return new AquiferEntry(Blocks.WATER.defaultBlockState(), minY - 1);
-        }
-
-        final RandomSource random = new XoroshiroRandomSource(fluidCellSeed, Float.floatToIntBits(cellNoise));
-        final float aquiferY = Math.min((random.nextFloat() - random.nextFloat() - 2) * 5 + cellY, surfaceHeight);
-
-        final boolean lava = cellY < 40 && (random.nextInt(3) == 0);
-        return new AquiferEntry(lava ? Blocks.LAVA.defaultBlockState() : Blocks.WATER.defaultBlockState(), (int) aquiferY);
+        return column(AquiferCells.gridXZ(x), AquiferCells.gridXZ(z)).entry(location, surfaceHeights[surfaceIndex]);
     }
 
-    private AquiferEntry globalAquifer(int y)
+    private AquiferCells.Column column(int gridX, int gridZ)
     {
-        return y < minY + 10 ? lavaLevelAquifer : seaLevelAquifer;
-    }
-
-    private int getIndex(int x, int y, int z)
-    {
-        final int dx = x - minGridX;
-        final int dy = y - minGridY;
-        final int dz = z - minGridZ;
-        return (dy * gridSizeZ + dz) * gridSizeX + dx;
+        final int index = (gridX - minGridX) + gridSizeX * (gridZ - minGridZ);
+        AquiferCells.Column column = columns[index];
+        if (column == null)
+        {
+            column = cells.column(gridX, gridZ);
+            columns[index] = column;
+        }
+        return column;
     }
 
     record AquiferEntry(BlockState state, int fluidY)
@@ -6,38 +6,29 @@
 
 package net.dries007.tfc.world;
 
+import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
-import java.util.function.Function;
-import java.util.function.Supplier;
-import java.util.function.ToIntFunction;
 import java.util.function.UnaryOperator;
-import java.util.stream.Collectors;
 import com.google.common.collect.ImmutableMap;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.DataResult;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
-import it.unimi.dsi.fastutil.ints.IntArraySet;
-import it.unimi.dsi.fastutil.ints.IntSet;
-import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
-import it.unimi.dsi.fastutil.objects.Object2DoubleOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArraySet;
-import it.unimi.dsi.fastutil.objects.ObjectIterator;
 import net.minecraft.CrashReport;
 import net.minecraft.ReportedException;
 import net.minecraft.Util;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Holder;
-import net.minecraft.core.HolderSet;
 import net.minecraft.core.QuartPos;
-import net.minecraft.core.Registry;
 import net.minecraft.core.RegistryAccess;
 import net.minecraft.core.SectionPos;
 import net.minecraft.core.registries.Registries;
@@ -63,6 +54,7 @@ import net.minecraft.world.level.chunk.ChunkGenerator;
 import net.minecraft.world.level.chunk.ChunkGeneratorStructureState;
 import net.minecraft.world.level.chunk.LevelChunkSection;
 import net.minecraft.world.level.chunk.ProtoChunk;
+import net.minecraft.world.level.dimension.DimensionType;
 import net.minecraft.world.level.levelgen.Aquifer;
 import net.minecraft.world.level.levelgen.Beardifier;
 import net.minecraft.world.level.levelgen.GenerationStep;
@@ -83,8 +75,10 @@ import net.minecraft.world.level.levelgen.placement.PlacedFeature;
 import net.minecraft.world.level.levelgen.structure.BoundingBox;
 import net.minecraft.world.level.levelgen.structure.Structure;
 import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplateManager;
+import net.minecraft.world.level.storage.LevelResource;
 import net.minecraftforge.registries.DeferredRegister;
 
+import net.dries007.tfc.config.TFCConfig;
 import net.dries007.tfc.mixin.accessor.ChunkAccessAccessor;
 import net.dries007.tfc.mixin.accessor.ChunkGeneratorAccessor;
 import net.dries007.tfc.util.Helpers;
@@ -93,7 +87,6 @@ import net.dries007.tfc.world.biome.BiomeExtension;
 import net.dries007.tfc.world.biome.BiomeSourceExtension;
 import net.dries007.tfc.world.biome.TFCBiomes;
 import net.dries007.tfc.world.chunkdata.ChunkData;
-import net.dries007.tfc.world.chunkdata.ChunkDataGenerator;
 import net.dries007.tfc.world.chunkdata.ChunkDataProvider;
 import net.dries007.tfc.world.chunkdata.RegionChunkDataGenerator;
 import net.dries007.tfc.world.chunkdata.RockData;
@@ -103,7 +96,9 @@ import net.dries007.tfc.world.layer.framework.ConcurrentArea;
 import net.dries007.tfc.world.noise.ChunkNoiseSamplingSettings;
 import net.dries007.tfc.world.noise.Kernel;
 import net.dries007.tfc.world.noise.NoiseSampler;
+import net.dries007.tfc.world.profiler.WorldgenProfiler;
 import net.dries007.tfc.world.region.RegionGenerator;
+import net.dries007.tfc.world.region.RegionStore;
 import net.dries007.tfc.world.river.RiverBlendType;
 import net.dries007.tfc.world.river.RiverNoiseSampler;
 import net.dries007.tfc.world.settings.Settings;
@@ -122,73 +117,76 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
 
     public static final DeferredRegister<Codec<? extends ChunkGenerator>> CHUNK_GENERATOR = DeferredRegister.create(Registries.CHUNK_GENERATOR, MOD_ID);
     public static final int DECORATION_STEPS = GenerationStep.Decoration.values().length;
+
+    /**
+     * The number of distinct biome neighbourhoods is small in practice, but this bounds it in case biomes are very finely mixed.
+     */
+    private static final int MAX_DECORATION_PLANS = 4096;
     public static final int SEA_LEVEL_Y = 63; // Matches vanilla
     public static final Kernel KERNEL_9x9 = Kernel.create((x, z) -> 0.0211640211641D * (1 - 0.03125D * (z * z + x * x)), 4);
 
+    private static final ThreadLocal<BiomeWeightScratch> BIOME_WEIGHT_SCRATCH = ThreadLocal.withInitial(BiomeWeightScratch::new);
+
     static
     {
         CHUNK_GENERATOR.register("overworld", () -> CODEC);
     }
 
     /**
-     * Composes two levels of sampled weights. It takes two maps of two different resolutions, and re-weights the higher resolution one by replacing specific groups of samples with the respective weights from the lower resolution map.
-     * Each element of the higher resolution map is replaced with a proportional average of the same group which is present in the lower resolution map.
+     * Composes two levels of sampled weights. It takes two weight vectors of two different resolutions, and re-weights the higher resolution one by replacing specific groups of samples with the respective weights from the lower resolution vector.
+     * Each element of the higher resolution vector is replaced with a proportional average of the same group which is present in the lower resolution vector.
      * This has the effect of blending specific groups at closer distances than others, allowing for both smooth and sharp biome transitions.
      * <p>
      * Example:
      * - Low resolution: 30% Plains, 40% Mountains, 30% Hills, 10% River
      * - High resolution: 60% Plains, 40% River
      * - Groups are "River" and "Not River"
-     * - For each element in the high resolution map:
+     * - For each element in the high resolution vector:
      * - 60% Plains: Group "Not River", and is replaced with 60% * (30% Plains, 40% Mountains, 30% Hills) / 90%
      * - 50% River: Group "River", which is replaced with 40% * (10% River) / 10%
      * - Result: 18% Plains, 24% Mountains, 18% Hills, 40% River
+     * <p>
+     * Both vectors are dense, indexed by {@link BiomeExtension#id()}, and grouped by {@link BiomeExtension#biomeBlendType()}.
+     *
+     * @param groupTotals A scratch array, of at least {@code 2 * BiomeBlendType.SIZE} length.
      */
-    public static <T> void composeSampleWeights(Object2DoubleMap<T> weightMap, Object2DoubleMap<T> groupWeightMap, ToIntFunction<T> groupFunction, int groups)
+    public static void composeSampleWeights(double[] weights, int weightsOffset, double[] groupWeights, int groupWeightsOffset, double[] groupTotals)
     {
-        // First, we need to calculate the maximum weight per group
-        double[] maxWeights = new double[groups];
-        for (Object2DoubleMap.Entry<T> entry : groupWeightMap.object2DoubleEntrySet())
-        {
-            int group = groupFunction.applyAsInt(entry.getKey());
-            if (group != -1)
-            {
-                maxWeights[group] += entry.getDoubleValue();
-            }
-        }
+        final int biomes = TFCBiomes.getExtensionCount();
+        final int groups = BiomeBlendType.SIZE;
 
-        // Then, we iterate through the smaller weight map and identify the actual weight that needs to be replaced with each group
-        double[] actualWeights = new double[groups];
-        ObjectIterator<Object2DoubleMap.Entry<T>> iterator = weightMap.object2DoubleEntrySet().iterator();
-        while (iterator.hasNext())
+        // First, we need to calculate the maximum weight per group, in [0, groups)
+        // Then, we iterate through the smaller weight vector and identify the actual weight that needs to be replaced with each group, in [groups, 2 * groups)
+        Arrays.fill(groupTotals, 0, 2 * groups, 0);
+        for (int id = 0; id < biomes; id++)
         {
-            Object2DoubleMap.Entry<T> entry = iterator.next();
-            int group = groupFunction.applyAsInt(entry.getKey());
-            if (group != -1)
-            {
-                actualWeights[group] += entry.getDoubleValue();
-                iterator.remove();
-            }
+            final int group = TFCBiomes.getExtension(id).biomeBlendType().ordinal();
+            groupTotals[group] += groupWeights[groupWeightsOffset + id];
+            groupTotals[groups + group] += weights[weightsOffset + id];
         }
 
-        // Finally, insert the weights for each group as a portion of the actual weight
-        for (Object2DoubleMap.Entry<T> entry : groupWeightMap.object2DoubleEntrySet())
+        // Finally, replace the weights for each group as a portion of the actual weight
+        for (int id = 0; id < biomes; id++)
         {
-            int group = groupFunction.applyAsInt(entry.getKey());
-            if (group != -1 && actualWeights[group] > 0 && maxWeights[group] > 0)
-            {
-                weightMap.put(entry.getKey(), entry.getDoubleValue() * actualWeights[group] / maxWeights[group]);
-            }
+            final int group = TFCBiomes.getExtension(id).biomeBlendType().ordinal();
+            final double maxWeight = groupTotals[group], actualWeight = groupTotals[groups + group];
+            weights[weightsOffset + id] = actualWeight > 0 && maxWeight > 0
+                ? groupWeights[groupWeightsOffset + id] * actualWeight / maxWeight
+                : 0;
         }
     }
 
-    public static <T> void sampleBiomesCornerContribution(Object2DoubleMap<T> accumulator, Object2DoubleMap<T> corner, double t)
+    /**
+     * Adds the weights of {@code corner}, scaled by {@code t}, to {@code accumulator}. Both are dense weight vectors, indexed by {@link BiomeExtension#id()}.
+     */
+    public static void sampleBiomesCornerContribution(double[] accumulator, int accumulatorOffset, double[] corner, int cornerOffset, double t)
     {
         if (t > 0)
         {
-            for (Object2DoubleMap.Entry<T> entry : corner.object2DoubleEntrySet())
+            final int biomes = TFCBiomes.getExtensionCount();
+            for (int id = 0; id < biomes; id++)
             {
-                accumulator.mergeDouble(entry.getKey(), entry.getDoubleValue() * t, Double::sum);
+                accumulator[accumulatorOffset + id] += corner[cornerOffset + id] * t;
             }
         }
     }
@@ -199,41 +197,47 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
     }
 
     /**
-     * @param pos           The target chunk pos.
-     * @param biomeSampler  A sampler for biomes, in block coordinates.
-     * @param groupFunction A function to access a {@link BiomeBlendType} from a {@link Biome}.
-     * @return A 7x7 array of sampled biome weights, at quart pos resolution, where the (0, 0) index aligns to the (-1, -1) quart position relative to the target chunk.
+     * Biome weights are stored as a dense matrix, with one row per sampled position, each of which has {@link TFCBiomes#getExtensionCount()} weights indexed by {@link BiomeExtension#id()}.
+     * The row at index {@code i} starts at {@code i * TFCBiomes.getExtensionCount()}.
+     *
+     * @param pos          The target chunk pos.
+     * @param biomeSampler A sampler for biomes, in block coordinates.
+     * @return A 7x7 matrix of sampled biome weights, at quart pos resolution, where the (0, 0) row aligns to the (-1, -1) quart position relative to the target chunk.
      */
-    private static <T> Object2DoubleMap<T>[] sampleBiomes(ChunkPos pos, Sampler<T> biomeSampler, Function<T, BiomeBlendType> groupFunction)
+    private static double[] sampleBiomes(ChunkPos pos, Sampler<BiomeExtension> biomeSampler)
     {
+        final int biomes = TFCBiomes.getExtensionCount();
+        final BiomeWeightScratch scratch = BIOME_WEIGHT_SCRATCH.get();
+
         // First, sample biomes at chunk distance, in a 4x4 grid centered on the target chunk.
         // These are used to build the large-scale biome blending radius
-        final Object2DoubleMap<T>[] chunkBiomeWeightArray = newWeightArray(4 * 4);
+        final double[] chunkBiomeWeights = scratch.chunkBiomeWeights;
         final int chunkX = pos.getMinBlockX(), chunkZ = pos.getMinBlockZ(); // Block coordinates
+
+        Arrays.fill(chunkBiomeWeights, 0);
         for (int x = 0; x < 4; x++)
         {
             for (int z = 0; z < 4; z++)
             {
                 // x, z = 0, 0 is the -1, -1 chunk relative to chunkX, chunkZ
-                final Object2DoubleMap<T> chunkBiomeWeight = new Object2DoubleOpenHashMap<>();
-                chunkBiomeWeightArray[x | (z << 2)] = chunkBiomeWeight;
-                sampleBiomesAtPositionWithKernel(chunkBiomeWeight, biomeSampler, KERNEL_9x9, 4, chunkX, chunkZ, x - 1, z - 1);
+                sampleBiomesAtPositionWithKernel(chunkBiomeWeights, (x | (z << 2)) * biomes, biomeSampler, KERNEL_9x9, 4, chunkX, chunkZ, x - 1, z - 1);
             }
         }
 
         // A 7x7 grid, in quart positions relative to the target chunk, where (1, 1) is the target chunk origin.
-        final Object2DoubleMap<T>[] quartBiomeWeightArray = newWeightArray(7 * 7);
-        final Object2DoubleMap<T> chunkBiomeWeight = new Object2DoubleOpenHashMap<>();
+        // This is not scratch, as it is held by the filler, which may outlive this call on another thread.
+        final double[] quartBiomeWeights = new double[7 * 7 * biomes];
+        final double[] chunkBiomeWeight = scratch.chunkBiomeWeight;
 
         for (int x = 0; x < 7; x++)
         {
             for (int z = 0; z < 7; z++)
             {
                 // Reset
-                final Object2DoubleMap<T> quartBiomeWeight = new Object2DoubleOpenHashMap<>();
-                chunkBiomeWeight.clear();
+                final int quartOffset = (x + 7 * z) * biomes;
+                Arrays.fill(chunkBiomeWeight, 0);
 
-                sampleBiomesAtPositionWithKernel(quartBiomeWeight, biomeSampler, KERNEL_9x9, 2, chunkX, chunkZ, x - 1, z - 1);
+                sampleBiomesAtPositionWithKernel(quartBiomeWeights, quartOffset, biomeSampler, KERNEL_9x9, 2, chunkX, chunkZ, x - 1, z - 1);
 
                 // Calculate contribution from the four corners of the 16x16 grid. First, calculate the current grid cell coordinates.
                 final int x1 = chunkX + ((x - 1) << 2); // Block coordinates
@@ -245,27 +249,22 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
                 final double lerpX = (x1 - (coordX << 4)) * (1 / 16d); // Deltas, in the range [0, 1)
                 final double lerpZ = (z1 - (coordZ << 4)) * (1 / 16d);
 
-                final int index16X = ((x1 - chunkX) >> 4) + 1; // Index into chunkBiomeWeightArray
+                final int index16X = ((x1 - chunkX) >> 4) + 1; // Index into chunkBiomeWeights
                 final int index16Z = ((z1 - chunkZ) >> 4) + 1;
 
-                sampleBiomesCornerContribution(chunkBiomeWeight, chunkBiomeWeightArray[index16X | (index16Z << 2)], (1 - lerpX) * (1 - lerpZ));
-                sampleBiomesCornerContribution(chunkBiomeWeight, chunkBiomeWeightArray[(index16X + 1) | (index16Z << 2)], lerpX * (1 - lerpZ));
-                sampleBiomesCornerContribution(chunkBiomeWeight, chunkBiomeWeightArray[index16X | ((index16Z + 1) << 2)], (1 - lerpX) * lerpZ);
-                sampleBiomesCornerContribution(chunkBiomeWeight, chunkBiomeWeightArray[(index16X + 1) | ((index16Z + 1) << 2)], lerpX * lerpZ);
+                sampleBiomesCornerContribution(chunkBiomeWeight, 0, chunkBiomeWeights, (index16X | (index16Z << 2)) * biomes, (1 - lerpX) * (1 - lerpZ));
+                sampleBiomesCornerContribution(chunkBiomeWeight, 0, chunkBiomeWeights, ((index16X + 1) | (index16Z << 2)) * biomes, lerpX * (1 - lerpZ));
+                sampleBiomesCornerContribution(chunkBiomeWeight, 0, chunkBiomeWeights, (index16X | ((index16Z + 1) << 2)) * biomes, (1 - lerpX) * lerpZ);
+                sampleBiomesCornerContribution(chunkBiomeWeight, 0, chunkBiomeWeights, ((index16X + 1) | ((index16Z + 1) << 2)) * biomes, lerpX * lerpZ);
 
                 // Compose chunk weights -> wide quart weights.
-                composeSampleWeights(quartBiomeWeight, chunkBiomeWeight, biome -> {
-                    final BiomeBlendType group = groupFunction.apply(biome);
-                    return group.ordinal();
-                }, BiomeBlendType.SIZE);
-
-                quartBiomeWeightArray[x + 7 * z] = quartBiomeWeight;
+                composeSampleWeights(quartBiomeWeights, quartOffset, chunkBiomeWeight, 0, scratch.groupTotals);
             }
         }
-        return quartBiomeWeightArray;
+        return quartBiomeWeights;
     }
 
-    private static <T> void sampleBiomesAtPositionWithKernel(Object2DoubleMap<T> weights, Sampler<T> biomeSampler, Kernel kernel, int kernelBits, int chunkX, int chunkZ, int xOffsetInKernelBits, int zOffsetInKernelBits)
+    private static void sampleBiomesAtPositionWithKernel(double[] weights, int weightsOffset, Sampler<BiomeExtension> biomeSampler, Kernel kernel, int kernelBits, int chunkX, int chunkZ, int xOffsetInKernelBits, int zOffsetInKernelBits)
     {
         final int kernelRadius = kernel.radius();
         final int kernelWidth = kernel.width();
@@ -276,16 +275,20 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
                 final double weight = kernel.values()[(dx + kernelRadius) + (dz + kernelRadius) * kernelWidth];
                 final int blockX = chunkX + ((xOffsetInKernelBits + dx) << kernelBits); // Block positions
                 final int blockZ = chunkZ + ((zOffsetInKernelBits + dz) << kernelBits);
-                final T biome = biomeSampler.get(blockX, blockZ);
-                weights.mergeDouble(biome, weight, Double::sum);
+                final BiomeExtension biome = biomeSampler.get(blockX, blockZ);
+                weights[weightsOffset + biome.id()] += weight;
             }
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private static <T> Object2DoubleMap<T>[] newWeightArray(int size)
+    /**
+     * Intermediate weights used by {@link #sampleBiomes(ChunkPos, Sampler)}, which are re-used by each worker thread, as chunks are sampled concurrently.
+     */
+    private static final class BiomeWeightScratch
     {
-        return (Object2DoubleMap<T>[]) new Object2DoubleMap[size]; // Avoid generic array warnings / errors
+        final double[] chunkBiomeWeights = new double[4 * 4 * TFCBiomes.getExtensionCount()];
+        final double[] chunkBiomeWeight = new double[TFCBiomes.getExtensionCount()];
+        final double[] groupTotals = new double[2 * BiomeBlendType.SIZE];
     }
 
     // Properties set from codec
@@ -295,11 +298,15 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
 
     private final NoiseBasedChunkGenerator stupidMojangChunkGenerator; // Mojang fix your god awful deprecated carver nonsense
     private final FastConcurrentCache<TFCAquifer> aquiferCache;
+    private final FastConcurrentCache<int[]> baseHeightCache; // 16x16 surface heights per chunk, as returned by getBaseHeight()
+    private final Map<Set<Biome>, DecorationPlan> decorationPlans; // Keyed by the set of biomes in a chunk's neighbourhood
 
     private ChunkDataProvider chunkDataProvider;
     private long noiseSamplerSeed;
     private SurfaceManager surfaceManager;
     private NoiseSampler noiseSampler;
+    private AquiferCells aquiferCells;
+    private Map<String, FastConcurrentCache<?>> caches = Map.of();
 
     public TFCChunkGenerator(BiomeSourceExtension biomeSource, Holder<NoiseGeneratorSettings> noiseSettings, Settings settings)
     {
@@ -310,7 +317,9 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         this.settings = settings;
 
         this.stupidMojangChunkGenerator = new NoiseBasedChunkGenerator(biomeSource.self(), noiseSettings);
-        this.aquiferCache = new FastConcurrentCache<>(256);
+        this.aquiferCache = new FastConcurrentCache<>(TFCConfig.COMMON.aquiferCacheSize.get());
+        this.baseHeightCache = new FastConcurrentCache<>(TFCConfig.COMMON.baseHeightCacheSize.get());
+        this.decorationPlans = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -325,6 +334,11 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         this.settings = settings.apply(this.settings);
     }
 
+    public FastConcurrentCache<TFCAquifer> aquiferCache()
+    {
+        return aquiferCache;
+    }
+
     @Override
     public ChunkDataProvider chunkDataProvider()
     {
@@ -334,9 +348,8 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
     @Override
     public Aquifer getOrCreateAquifer(ChunkAccess chunk)
     {
-        final ChunkNoiseSamplingSettings settings = createNoiseSamplingSettingsForChunk(chunk);
         final ChunkBaseBlockSource baseBlockSource = createBaseBlockSourceForChunk(chunk);
-        return getOrCreateAquifer(chunk, settings, baseBlockSource);
+        return getOrCreateAquifer(chunk, baseBlockSource);
     }
 
     /**
@@ -352,25 +365,73 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         final long seed = level.getSeed();
         final RandomSource random = new XoroshiroRandomSource(seed);
 
-        final RegionGenerator regionGenerator = new RegionGenerator(settings, random);
-        final ChunkDataGenerator chunkDataGenerator = RegionChunkDataGenerator.create(random.nextLong(), settings.rockLayerSettings(), regionGenerator);
+        final RegionStore regionStore = TFCConfig.COMMON.enableRegionStore.get() ? new RegionStore(getRegionStoreFolder(level), seed, settings) : null;
+        final RegionGenerator regionGenerator = new RegionGenerator(settings, random, TFCConfig.COMMON.regionCacheSize.get(), regionStore, TFCConfig.COMMON.parallelRegionGeneration.get());
+        final RegionChunkDataGenerator chunkDataGenerator = RegionChunkDataGenerator.create(random.nextLong(), settings.rockLayerSettings(), regionGenerator);
         final AreaFactory factory = TFCLayers.createRegionBiomeLayer(regionGenerator, random.nextLong());
         final ConcurrentArea<BiomeExtension> biomeLayer = new ConcurrentArea<>(factory, TFCLayers::getFromLayerId);
 
         this.noiseSamplerSeed = seed;
         this.noiseSampler = new NoiseSampler(noiseSettings.get().noiseSettings(), random.nextLong(), level.registryAccess().lookupOrThrow(Registries.NOISE));
-        this.chunkDataProvider = new ChunkDataProvider(chunkDataGenerator);
+        this.aquiferCells = createAquiferCells(level);
+        this.chunkDataProvider = new ChunkDataProvider(chunkDataGenerator, TFCConfig.COMMON.chunkDataBatchCacheSize.get());
         this.surfaceManager = new SurfaceManager(seed);
 
         this.customBiomeSource.initRandomState(regionGenerator, biomeLayer);
+
+        final Map<String, FastConcurrentCache<?>> caches = new LinkedHashMap<>();
+        if (chunkDataProvider.batchCache() != null)
+        {
+            caches.put("chunk_data_batch", chunkDataProvider.batchCache());
+        }
+        caches.put("region", regionGenerator.regionCache());
+        caches.put("partition", regionGenerator.partitionCache());
+        caches.put("biome_layer", biomeLayer.area().cache());
+        caches.put("forest_layer", chunkDataGenerator.forestTypeLayer().area().cache());
+        caches.put("rock_layer", chunkDataGenerator.rockLayerArea().cache());
+        caches.put("aquifer", aquiferCache);
+        caches.put("aquifer_cells", aquiferCells.cache());
+        caches.put("base_height", baseHeightCache);
+        this.caches = caches;
+    }
+
+    /**
+     * @return Each of the caches used by this generator, by name, for reporting.
+     */
+    public Map<String, FastConcurrentCache<?>> caches()
+    {
+        return caches;
     }
 
     public ChunkHeightFiller createHeightFillerForChunk(ChunkPos pos)
     {
-        final Object2DoubleMap<BiomeExtension>[] biomeWeights = sampleBiomes(pos, this::sampleBiomeNoRiver, BiomeExtension::biomeBlendType);
+        final double[] biomeWeights = sampleBiomes(pos, this::sampleBiomeNoRiver);
         return new ChunkHeightFiller(createBiomeSamplersForChunk(), biomeWeights);
     }
 
+    /**
+     * Structure placement queries the height of the same chunk many times, so we sample the whole chunk at once, and cache it.
+     * Once a chunk is filled from noise, this is instead populated by {@link ChunkNoiseFiller#baseSurfaceHeight()}, which is identical.
+     *
+     * @return The surface height of every column in the chunk, as a 16x16 array.
+     */
+    private int[] sampleBaseHeight(ChunkPos pos)
+    {
+        final ChunkHeightFiller filler = createHeightFillerForChunk(pos);
+        final int minX = pos.getMinBlockX(), minZ = pos.getMinBlockZ();
+        final int[] baseHeight = new int[16 * 16];
+
+        filler.prepareBiomeNoiseSamplers(minX, minZ);
+        for (int x = 0; x < 16; x++)
+        {
+            for (int z = 0; z < 16; z++)
+            {
+                baseHeight[x + 16 * z] = (int) filler.sampleHeight(minX + x, minZ + z);
+            }
+        }
+        return baseHeight;
+    }
+
     @Override
     protected Codec<TFCChunkGenerator> codec()
     {
@@ -381,8 +442,11 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
     public CompletableFuture<ChunkAccess> createBiomes(Executor executor, RandomState state, Blender legacyTerrainBlender, StructureManager structureFeatureManager, ChunkAccess chunk)
     {
         return CompletableFuture.supplyAsync(() -> {
+            final long startNanos = System.nanoTime();
+            chunkDataProvider.prefetch(chunk.getPos());
             chunkDataProvider.get(chunk);
             chunk.fillBiomesFromNoise((quartX, quartY, quartZ, sampler) -> customBiomeSource.getBiome(quartX, quartZ), NoopClimateSampler.INSTANCE);
+            WorldgenStage.CHUNK_DATA.record(startNanos);
             return chunk;
         }, Util.backgroundExecutor());
     }
@@ -396,14 +460,14 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
             return;
         }
 
+        final long startNanos = System.nanoTime();
         final BiomeManager customBiomeManager = biomeManager.withDifferentSource((x, y, z) -> customBiomeSource.getBiome(x, z));
         final PositionalRandomFactory fork = new XoroshiroRandomSource(seed).forkPositional();
         final WorldgenRandom random = new WorldgenRandom(new LegacyRandomSource(RandomSupport.generateUniqueSeed()));
         final ChunkPos chunkPos = chunk.getPos();
 
-        final ChunkNoiseSamplingSettings settings = createNoiseSamplingSettingsForChunk(chunk);
         final ChunkBaseBlockSource baseBlockSource = createBaseBlockSourceForChunk(chunk);
-        final TFCAquifer aquifer = getOrCreateAquifer(chunk, settings, baseBlockSource);
+        final TFCAquifer aquifer = getOrCreateAquifer(chunk, baseBlockSource);
 
         @SuppressWarnings("ConstantConditions")
         final CarvingContext context = new CarvingContext(stupidMojangChunkGenerator, null, chunk.getHeightAccessorForGeneration(), null, state, this.noiseSettings.value().surfaceRule());
@@ -436,24 +500,20 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
                 }
             }
         }
+        WorldgenStage.CARVERS.record(startNanos);
     }
 
     @Override
     public void applyBiomeDecoration(WorldGenLevel level, ChunkAccess chunk, StructureManager structureFeatureManager)
     {
+        final long startNanos = System.nanoTime();
         final ChunkPos chunkPos = chunk.getPos();
         final SectionPos sectionPos = SectionPos.of(chunkPos, level.getMinSection());
         final BlockPos originPos = sectionPos.origin();
 
-        final Registry<Structure> structureFeatures = level.registryAccess().registryOrThrow(Registries.STRUCTURE);
-        final Registry<PlacedFeature> placedFeatures = level.registryAccess().registryOrThrow(Registries.PLACED_FEATURE);
-
-        final Map<Integer, List<Structure>> structureFeaturesByStep = structureFeatures.stream()
-            .collect(Collectors.groupingBy(feature -> feature.step().ordinal()));
-
         final List<FeatureSorter.StepFeatureData> orderedFeatures = ((ChunkGeneratorAccessor) this).accessor$getFeaturesPerStep().get();
         final WorldgenRandom random = new WorldgenRandom(new XoroshiroRandomSource(RandomSupport.generateUniqueSeed()));
-        final long baseSeed = Helpers.hash(128739412341L, originPos);
+        final DecorationPlan.ChunkSeed seed = DecorationPlan.ChunkSeed.of(random, Helpers.hash(128739412341L, originPos));
 
         final Set<Biome> allAdjacentBiomes = new ObjectArraySet<>();
         ChunkPos.rangeClosed(sectionPos.chunk(), 1).forEach((chunkPos1_) -> {
@@ -464,75 +524,63 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
             }
         });
 
-        for (int decorationIndex = 0; decorationIndex < Math.max(DECORATION_STEPS, orderedFeatures.size()); ++decorationIndex)
+        DecorationPlan plan = decorationPlans.get(allAdjacentBiomes);
+        if (plan == null)
+        {
+            if (decorationPlans.size() >= MAX_DECORATION_PLANS)
+            {
+                decorationPlans.clear();
+            }
+            plan = DecorationPlan.create(level, allAdjacentBiomes, orderedFeatures);
+            decorationPlans.put(Set.copyOf(allAdjacentBiomes), plan);
+        }
+
+        for (DecorationPlan.Step step : plan.steps())
         {
             if (structureFeatureManager.shouldGenerateStructures())
             {
-                int featureIndex = 0;
-                for (Structure feature : structureFeaturesByStep.getOrDefault(decorationIndex, Collections.emptyList()))
+                for (DecorationPlan.Entry<Structure> entry : step.structures())
                 {
-                    Helpers.seedLargeFeatures(random, baseSeed, featureIndex, decorationIndex);
-
-                    final Supplier<String> featureName = () -> structureFeatures.getResourceKey(feature).map(Object::toString).orElseGet(feature::toString);
+                    seed.seed(random, step, entry);
 
+                    final long featureStartNanos = WorldgenProfiler.start();
                     try
                     {
-                        level.setCurrentlyGenerating(featureName);
-                        structureFeatureManager.startsForStructure(sectionPos, feature).forEach(start -> start.placeInChunk(level, structureFeatureManager, this, random, getBoundingBoxForStructure(chunk), chunkPos));
+                        level.setCurrentlyGenerating(entry.name());
+                        structureFeatureManager.startsForStructure(sectionPos, entry.value()).forEach(start -> start.placeInChunk(level, structureFeatureManager, this, random, getBoundingBoxForStructure(chunk), chunkPos));
+                        WorldgenProfiler.record(WorldgenProfiler.Category.STRUCTURE, entry.name(), featureStartNanos);
                     }
                     catch (Exception e)
                     {
                         final CrashReport crash = CrashReport.forThrowable(e, "Feature placement");
-                        crash.addCategory("Feature").setDetail("Description", featureName::get);
+                        crash.addCategory("Feature").setDetail("Description", entry.name()::get);
                         throw new ReportedException(crash);
                     }
-
-                    featureIndex++;
                 }
             }
 
-            if (decorationIndex < orderedFeatures.size())
+            for (DecorationPlan.Entry<PlacedFeature> entry : step.features())
             {
-                final IntSet featureIndices = new IntArraySet();
-                for (Biome biome : allAdjacentBiomes)
+                seed.seed(random, step, entry);
+
+                final long featureStartNanos = WorldgenProfiler.start();
+                try
                 {
-                    List<HolderSet<PlacedFeature>> featuresPerBiome = TFCBiomes.getExtensionOrThrow(level, biome).getFlattenedFeatures(biome);
-                    if (decorationIndex < featuresPerBiome.size())
-                    {
-                        final HolderSet<PlacedFeature> featuresPerBiomeAtStep = featuresPerBiome.get(decorationIndex);
-                        final FeatureSorter.StepFeatureData stepIndex = orderedFeatures.get(decorationIndex);
-                        for (Holder<PlacedFeature> holder : featuresPerBiomeAtStep)
-                        {
-                            featureIndices.add(stepIndex.indexMapping().applyAsInt(holder.value()));
-                        }
-                    }
+                    level.setCurrentlyGenerating(entry.name());
+                    entry.value().placeWithBiomeCheck(level, this, random, originPos);
+                    WorldgenProfiler.record(WorldgenProfiler.Category.FEATURE, entry.name(), featureStartNanos);
                 }
-
-                final int[] sortedIndices = featureIndices.toIntArray();
-                final FeatureSorter.StepFeatureData step = orderedFeatures.get(decorationIndex);
-
-                Arrays.sort(sortedIndices);
-                for (int featureIndex : sortedIndices)
+                catch (Exception e)
                 {
-                    final PlacedFeature feature = step.features().get(featureIndex);
-                    Helpers.seedLargeFeatures(random, baseSeed, featureIndex, decorationIndex);
-                    final Supplier<String> featureName = () -> placedFeatures.getResourceKey(feature).map(Object::toString).orElseGet(feature::toString);
-                    try
-                    {
-                        level.setCurrentlyGenerating(featureName);
-                        feature.placeWithBiomeCheck(level, this, random, originPos);
-                    }
-                    catch (Exception e)
-                    {
-                        final CrashReport crash = CrashReport.forThrowable(e, "Feature placement");
-                        crash.addCategory("Feature").setDetail("Description", featureName);
-                        throw new ReportedException(crash);
-                    }
+                    final CrashReport crash = CrashReport.forThrowable(e, "Feature placement");
+                    crash.addCategory("Feature").setDetail("Description", entry.name()::get);
+                    throw new ReportedException(crash);
                 }
             }
         }
 
         level.setCurrentlyGenerating(null);
+        WorldgenStage.FEATURES.record(startNanos);
     }
 
     @Override
@@ -571,6 +619,7 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
     @Override
     public void createStructures(RegistryAccess dynamicRegistry, ChunkGeneratorStructureState structureState, StructureManager structureFeatureManager, ChunkAccess chunk, StructureTemplateManager templateManager)
     {
+        chunkDataProvider.prefetch(chunk.getPos()); // generate chunk data for nearby chunks ahead of time, this chunk only uses its batch if it is already done
         chunkDataProvider.get(chunk); // populate chunk data before references to enable placements
         super.createStructures(dynamicRegistry, structureState, structureFeatureManager, chunk, templateManager);
     }
@@ -599,24 +648,29 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
             sections.add(section);
         }
 
-        final Object2DoubleMap<BiomeExtension>[] biomeWeights = sampleBiomes(chunkPos, this::sampleBiomeNoRiver, BiomeExtension::biomeBlendType);
+        final double[] biomeWeights = sampleBiomes(chunkPos, this::sampleBiomeNoRiver);
         final ChunkBaseBlockSource baseBlockSource = createBaseBlockSourceForChunk(chunk);
-        final ChunkNoiseFiller filler = new ChunkNoiseFiller((ProtoChunk) chunk, biomeWeights, customBiomeSource, createBiomeSamplersForChunk(), createRiverSamplersForChunk(), noiseSampler, baseBlockSource, settings, getSeaLevel(), Beardifier.forStructuresInChunk(structureFeatureManager, chunkPos));
+        final ChunkNoiseFiller filler = new ChunkNoiseFiller((ProtoChunk) chunk, biomeWeights, customBiomeSource, createBiomeSamplersForChunk(), createRiverSamplersForChunk(), noiseSampler, aquiferCells, baseBlockSource, settings, getSeaLevel(), Beardifier.forStructuresInChunk(structureFeatureManager, chunkPos));
 
         return CompletableFuture.supplyAsync(() -> {
+            final long startNanos = System.nanoTime();
             filler.sampleAquiferSurfaceHeight(this::sampleBiomeNoRiver);
             chunkData.generateFull(filler.surfaceHeight(), filler.aquifer().surfaceHeights());
-            chunkData.getRockData().useCache(chunkPos);
+            chunkData.getRockData().generateTable(chunkPos, chunk.getMinBuildHeight(), chunk.getMaxBuildHeight());
             filler.fillFromNoise();
 
             aquiferCache.set(chunkPos.x, chunkPos.z, filler.aquifer());
+            baseHeightCache.set(chunkPos.x, chunkPos.z, filler.baseSurfaceHeight());
 
+            WorldgenStage.NOISE.record(startNanos);
             return chunk;
         }, Util.backgroundExecutor()).whenCompleteAsync((ret, error) -> {
             // Unlock before surfaces are built, as they use locks directly
             sections.forEach(LevelChunkSection::release);
 
+            final long startNanos = System.nanoTime();
             surfaceManager.buildSurface(actualLevel, chunk, rockLayerSettings(), chunkData, filler.localBiomes(), filler.localBiomesNoRivers(), filler.localBiomeWeights(), filler.createSlopeMap(), random, getSeaLevel(), settings.minY());
+            WorldgenStage.SURFACE.record(startNanos);
         }, mainExecutor);
     }
 
@@ -635,8 +689,9 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
     @Override
     public int getBaseHeight(int x, int z, Heightmap.Types type, LevelHeightAccessor level, RandomState state)
     {
-        final ChunkPos pos = new ChunkPos(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(z));
-        return (int) createHeightFillerForChunk(pos).sampleHeight(x, z);
+        final int chunkX = SectionPos.blockToSectionCoord(x), chunkZ = SectionPos.blockToSectionCoord(z);
+        final int[] baseHeight = baseHeightCache.computeIfAbsent(chunkX, chunkZ, () -> sampleBaseHeight(new ChunkPos(chunkX, chunkZ)));
+        return baseHeight[(x & 15) + 16 * (z & 15)];
     }
 
     @Override
@@ -681,6 +736,14 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         }
     }
 
+    private Path getRegionStoreFolder(ServerLevel level)
+    {
+        return DimensionType.getStorageFolder(level.dimension(), level.getServer().getWorldPath(LevelResource.ROOT))
+            .resolve("data")
+            .resolve(MOD_ID)
+            .resolve("regions");
+    }
+
     private BoundingBox getBoundingBoxForStructure(ChunkAccess chunk)
     {
         final ChunkPos pos = chunk.getPos();
@@ -700,6 +763,17 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         return new ChunkBaseBlockSource(rockData, this::sampleBiomeNoRiver);
     }
 
+    /**
+     * Aquifer cells cover the same vertical range as noise sampling, i.e. {@link #createNoiseSamplingSettingsForChunk(ChunkPos, LevelHeightAccessor)}.
+     */
+    private AquiferCells createAquiferCells(LevelHeightAccessor level)
+    {
+        final NoiseSettings noiseSettings = this.noiseSettings.value().noiseSettings();
+        final int minY = Math.max(noiseSettings.minY(), level.getMinBuildHeight());
+        final int maxY = Math.min(noiseSettings.minY() + noiseSettings.height(), level.getMaxBuildHeight());
+        return new AquiferCells(noiseSampler.positionalRandomFactory, minY, maxY, getSeaLevel(), TFCConfig.COMMON.aquiferCellCacheSize.get());
+    }
+
     private ChunkNoiseSamplingSettings createNoiseSamplingSettingsForChunk(ChunkAccess chunk)
     {
         return createNoiseSamplingSettingsForChunk(chunk.getPos(), chunk.getHeightAccessorForGeneration());
@@ -724,21 +798,17 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         return new ChunkNoiseSamplingSettings(minY, 16 / cellWidth, cellCountY, cellWidth, cellHeight, firstCellX, firstCellY, firstCellZ);
     }
 
-    private TFCAquifer getOrCreateAquifer(ChunkAccess chunk, ChunkNoiseSamplingSettings settings, ChunkBaseBlockSource baseBlockSource)
+    private TFCAquifer getOrCreateAquifer(ChunkAccess chunk, ChunkBaseBlockSource baseBlockSource)
     {
         final ChunkPos chunkPos = chunk.getPos();
 
-        TFCAquifer aquifer = aquiferCache.getIfPresent(chunkPos.x, chunkPos.z);
-        if (aquifer == null)
-        {
+        return aquiferCache.computeIfAbsent(chunkPos.x, chunkPos.z, () -> {
             final ChunkData chunkData = chunkDataProvider.get(chunk);
+            final TFCAquifer aquifer = new TFCAquifer(chunkPos, baseBlockSource, aquiferCells, noiseSampler.barrierNoise);
 
-            aquifer = new TFCAquifer(chunkPos, settings, baseBlockSource, getSeaLevel(), noiseSampler.positionalRandomFactory, noiseSampler.barrierNoise);
             aquifer.setSurfaceHeights(chunkData.getAquiferSurfaceHeight());
-
-            aquiferCache.set(chunkPos.x, chunkPos.z, aquifer);
-        }
-        return aquifer;
+            return aquifer;
+        });
     }
 
     private Map<BiomeExtension, BiomeNoiseSampler> createBiomeSamplersForChunk()
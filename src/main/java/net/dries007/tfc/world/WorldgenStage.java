@@ -0,0 +1,80 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import net.dries007.tfc.world.profiler.WorldgenProfiler;
+
+/**
+ * The coarse stages of chunk generation done by {@link TFCChunkGenerator}, each of which accumulates the total time spent in it, across all threads.
+ * These are always recorded, as the cost is two {@link LongAdder} increments per chunk per stage, and are reported by tools such as the pregenerator.
+ * When the {@link WorldgenProfiler} is enabled, each pass is also recorded there.
+ */
+public enum WorldgenStage
+{
+    CHUNK_DATA("chunk_data"),
+    NOISE("noise"),
+    SURFACE("surface"),
+    CARVERS("carvers"),
+    FEATURES("features");
+
+    private static final WorldgenStage[] VALUES = values();
+
+    /**
+     * @return A snapshot of the total time, in nanoseconds, spent in each stage, indexed by ordinal.
+     */
+    public static long[] snapshotNanos()
+    {
+        final long[] nanos = new long[VALUES.length];
+        for (WorldgenStage stage : VALUES)
+        {
+            nanos[stage.ordinal()] = stage.nanos.sum();
+        }
+        return nanos;
+    }
+
+    /**
+     * @return A snapshot of the number of times each stage has been recorded, indexed by ordinal.
+     */
+    public static long[] snapshotCounts()
+    {
+        final long[] counts = new long[VALUES.length];
+        for (WorldgenStage stage : VALUES)
+        {
+            counts[stage.ordinal()] = stage.count.sum();
+        }
+        return counts;
+    }
+
+    private final String serializedName;
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder count = new LongAdder();
+
+    WorldgenStage(String serializedName)
+    {
+        this.serializedName = serializedName;
+    }
+
+    /**
+     * Records a single pass through this stage.
+     *
+     * @param startNanos The value of {@link System#nanoTime()} when the stage was started.
+     */
+    public void record(long startNanos)
+    {
+        final long elapsed = System.nanoTime() - startNanos;
+        nanos.add(elapsed);
+        count.increment();
+        WorldgenProfiler.recordElapsed(WorldgenProfiler.Category.STAGE, serializedName, elapsed);
+    }
+
+    public String getSerializedName()
+    {
+        return serializedName;
+    }
+}
@@ -29,6 +29,7 @@ import net.dries007.tfc.world.surface.builder.SurfaceBuilderFactory;
 public class BiomeExtension
 {
     private final ResourceKey<Biome> key;
+    private final int id;
 
     @Nullable private final LongFunction<BiomeNoiseSampler> noiseFactory;
     private final AquiferLookahead aquiferSurfaceHeight;
@@ -49,9 +50,10 @@ public class BiomeExtension
     @Nullable private Set<PlacedFeature> flattenedFeatureSet;
     @Nullable private Biome prevBiome;
 
-    BiomeExtension(ResourceKey<Biome> key, @Nullable LongFunction<BiomeNoiseSampler> noiseFactory, SurfaceBuilderFactory surfaceBuilderFactory, AquiferLookahead aquiferSurfaceHeight, BiomeBlendType biomeBlendType, RiverBlendType riverBlendType, boolean salty, boolean volcanic, int volcanoRarity, int volcanoBasaltHeight, boolean spawnable, boolean rivers, boolean shore, boolean sandyRiverShores)
+    BiomeExtension(ResourceKey<Biome> key, int id, @Nullable LongFunction<BiomeNoiseSampler> noiseFactory, SurfaceBuilderFactory surfaceBuilderFactory, AquiferLookahead aquiferSurfaceHeight, BiomeBlendType biomeBlendType, RiverBlendType riverBlendType, boolean salty, boolean volcanic, int volcanoRarity, int volcanoBasaltHeight, boolean spawnable, boolean rivers, boolean shore, boolean sandyRiverShores)
     {
         this.key = key;
+        this.id = id;
         this.noiseFactory = noiseFactory;
         this.surfaceBuilderFactory = surfaceBuilderFactory;
         this.aquiferSurfaceHeight = aquiferSurfaceHeight;
@@ -72,6 +74,14 @@ public class BiomeExtension
         return key;
     }
 
+    /**
+     * @return A small integer id, unique to this extension, in the range {@code [0, TFCBiomes.getExtensionCount())}. Used to index dense arrays of per-biome values, such as biome blending weights.
+     */
+    public int id()
+    {
+        return id;
+    }
+
     public BiomeBlendType biomeBlendType()
     {
         return biomeBlendType;
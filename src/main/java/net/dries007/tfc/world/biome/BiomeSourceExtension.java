@@ -19,9 +19,7 @@ import net.dries007.tfc.TerraFirmaCraft;
 import net.dries007.tfc.world.layer.framework.ConcurrentArea;
 import net.dries007.tfc.world.region.RegionGenerator;
 import net.dries007.tfc.world.region.RegionPartition;
-import net.dries007.tfc.world.region.RiverEdge;
 import net.dries007.tfc.world.region.Units;
-import net.dries007.tfc.world.river.MidpointFractal;
 import net.dries007.tfc.world.settings.Settings;
 
 public interface BiomeSourceExtension
@@ -43,15 +41,10 @@ public interface BiomeSourceExtension
             final double exactGridX = Units.quartToGridExact(quartX);
             final double exactGridZ = Units.quartToGridExact(quartZ);
 
-            for (RiverEdge edge : partitionPoint.rivers())
+            // This is a heuristic, and doesn't need to be super accurate
+            if (partitionPoint.anyRiverWithin(exactGridX, exactGridZ, 0.08f))
             {
-                // This is a heuristic, and doesn't need to be super accurate
-                // maybeIntersect will skip the more expensive calculation if it fails
-                final MidpointFractal fractal = edge.fractal();
-                if (fractal.maybeIntersect(exactGridX, exactGridZ, 0.08f) && fractal.intersect(exactGridX, exactGridZ, 0.08f))
-                {
-                    return TFCBiomes.RIVER;
-                }
+                return TFCBiomes.RIVER;
             }
         }
         return biome;
@@ -6,8 +6,10 @@
 
 package net.dries007.tfc.world.biome;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import net.minecraft.core.Registry;
@@ -35,6 +37,7 @@ import static net.dries007.tfc.world.biome.BiomeBuilder.*;
 public final class TFCBiomes
 {
     private static final Map<ResourceKey<Biome>, BiomeExtension> EXTENSIONS = new IdentityHashMap<>();
+    private static final List<BiomeExtension> EXTENSIONS_BY_ID = new ArrayList<>();
 
     // Aquatic biomes
     public static final BiomeExtension OCEAN = register("ocean", builder().heightmap(seed -> BiomeNoise.ocean(seed, -26, -12)).surface(OceanSurfaceBuilder.INSTANCE).aquiferHeightOffset(-24).salty().type(BiomeBlendType.OCEAN).noRivers()); // Ocean biome found near continents.
@@ -109,6 +112,19 @@ public final class TFCBiomes
         return EXTENSIONS.values();
     }
 
+    /**
+     * @return The number of biome extensions, which is one greater than the largest {@link BiomeExtension#id()}.
+     */
+    public static int getExtensionCount()
+    {
+        return EXTENSIONS_BY_ID.size();
+    }
+
+    public static BiomeExtension getExtension(int id)
+    {
+        return EXTENSIONS_BY_ID.get(id);
+    }
+
     public static Collection<ResourceLocation> getExtensionKeys()
     {
         return EXTENSIONS.keySet().stream().map(ResourceKey::location).toList();
@@ -132,9 +148,10 @@ public final class TFCBiomes
     {
         final ResourceLocation id = Helpers.identifier(name);
         final ResourceKey<Biome> key = ResourceKey.create(Registries.BIOME, id);
-        final BiomeExtension variants = builder.build(key);
+        final BiomeExtension variants = builder.build(key, EXTENSIONS_BY_ID.size());
 
         EXTENSIONS.put(key, variants);
+        EXTENSIONS_BY_ID.add(variants);
 
         return variants;
     }
@@ -0,0 +1,28 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.chunkdata;
+
+/**
+ * A {@link ChunkDataGenerator} which can also generate the partial data of a square batch of chunks at once. {@link ChunkDataProvider} generates these batches ahead of time, when it is configured to.
+ */
+public interface BatchedChunkDataGenerator extends ChunkDataGenerator
+{
+    /**
+     * @return The width, in chunks, of the square batches generated by {@link #generateBatch(int, int)}. Must be positive.
+     */
+    int batchWidth();
+
+    /**
+     * Generate the partial data for a square batch of {@link #batchWidth()} x {@link #batchWidth()} chunks at once, which must be identical to generating each with {@link #generate(ChunkData)}.
+     * Implementations should share work between neighbouring chunks in the batch.
+     *
+     * @param batchX The x position of the batch, so the minimum chunk x is {@code batchX * batchWidth()}.
+     * @param batchZ The z position of the batch.
+     * @return The partial data of each chunk in the batch, indexed by {@code x + batchWidth() * z}, relative to the minimum chunk in the batch.
+     */
+    PartialChunkData[] generateBatch(int batchX, int batchZ);
+}
@@ -9,6 +9,7 @@ package net.dries007.tfc.world.chunkdata;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.LevelReader;
@@ -226,6 +227,12 @@ public class ChunkData implements ICapabilitySerializable<CompoundTag>
 
             nbt.putIntArray("surfaceHeight", rockData.getSurfaceHeight());
             nbt.putIntArray("aquiferSurfaceHeight", aquiferSurfaceHeight);
+
+            final RockLayerTable table = rockData.getTable();
+            if (table != null)
+            {
+                nbt.put("rockTable", table.write());
+            }
         }
         if (status == Status.FULL || status == Status.PARTIAL)
         {
@@ -251,6 +258,9 @@ public class ChunkData implements ICapabilitySerializable<CompoundTag>
 
             rockData.setSurfaceHeight(nbt.getIntArray("surfaceHeight"));
             aquiferSurfaceHeight = nbt.getIntArray("aquiferSurfaceHeight");
+
+            // Chunks saved without a table, or with rocks that no longer exist, fall back to generating rock from noise
+            rockData.setTable(nbt.contains("rockTable", Tag.TAG_COMPOUND) ? RockLayerTable.read(nbt.getCompound("rockTable"), generator.rockLayerSettings()) : null);
         }
         if (status == Status.FULL || status == Status.PARTIAL)
         {
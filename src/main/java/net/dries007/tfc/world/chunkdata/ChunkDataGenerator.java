@@ -8,11 +8,12 @@ package net.dries007.tfc.world.chunkdata;
 
 import java.util.List;
 import net.minecraft.core.BlockPos;
-import org.jetbrains.annotations.Nullable;
+import net.minecraft.world.level.ChunkPos;
 
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.world.ChunkGeneratorExtension;
 import net.dries007.tfc.world.region.Units;
+import net.dries007.tfc.world.settings.RockLayerSettings;
 import net.dries007.tfc.world.settings.RockSettings;
 
 /**
@@ -40,9 +41,34 @@ public interface ChunkDataGenerator
 
     /**
      * Generate the rock at the given {@code (x, y, z)} position. Coordinates must be <strong>block coordinates</strong>, not chunk-local. {@code surfaceY} should be the view provided in {@link RockData}
-     * @param cache An optional cache. If present, this will be used to reduce repeated computation when invoking {@code generateRock()} repeatedly on points within the same chunk.
      */
-    RockSettings generateRock(int x, int y, int z, int surfaceY, @Nullable ChunkRockDataCache cache);
+    RockSettings generateRock(int x, int y, int z, int surfaceY);
+
+    /**
+     * Generate the rock at every position in a chunk, between {@code minY} (inclusive) and {@code maxY} (exclusive). The table must give identical results to {@link #generateRock(int, int, int, int)} within that range.
+     * The default implementation simply queries every position, implementations are encouraged to override this with something more efficient.
+     *
+     * @param surfaceHeight The surface height of each column, indexed by {@link Units#index(int, int)}.
+     */
+    default RockLayerTable generateRockTable(ChunkPos pos, int[] surfaceHeight, int minY, int maxY)
+    {
+        final RockLayerTable.Builder builder = new RockLayerTable.Builder();
+        for (int i = 0; i < 16 * 16; i++)
+        {
+            final int x = pos.getMinBlockX() + (i & 15), z = pos.getMinBlockZ() + (i >> 4);
+            builder.beginColumn();
+            for (int y = minY; y < maxY; y++)
+            {
+                builder.add(y, generateRock(x, y, z, surfaceHeight[i]));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return The rock layer settings used by this generator, which all generated rocks are part of.
+     */
+    RockLayerSettings rockLayerSettings();
 
     default void displayDebugInfo(List<String> tooltip, BlockPos pos, int surfaceY) {}
 }
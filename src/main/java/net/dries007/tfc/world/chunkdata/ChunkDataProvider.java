@@ -7,7 +7,15 @@
 package net.dries007.tfc.world.chunkdata;
 
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import com.google.common.collect.MapMaker;
+import com.mojang.logging.LogUtils;
 import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.server.level.ServerChunkCache;
@@ -19,16 +27,29 @@ import net.minecraft.world.level.chunk.ImposterProtoChunk;
 import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.world.level.chunk.ProtoChunk;
 import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
 
 import net.dries007.tfc.world.ChunkGeneratorExtension;
+import net.dries007.tfc.world.FastConcurrentCache;
 import net.dries007.tfc.world.settings.RockLayerSettings;
 
 /**
  * This acts as a bridge between the {@link ChunkGenerator}, TFC's chunk data caches and tracking, and the {@link ChunkDataGenerator}.
  * In order to customize the chunk data generation, see {@link ChunkDataGenerator}
+ * <p>
+ * If the generator supports {@linkplain BatchedChunkDataGenerator batches}, then partial chunk data is generated ahead of time, a batch of chunks at once, on a dedicated executor, when chunks are {@linkplain #prefetch(ChunkPos) prefetched}.
+ * Any chunk data which is requested without its batch having been prefetched, before its batch has finished, or after its batch has been evicted, is instead generated lazily, on the requesting thread, so requests never wait on a batch.
  */
 public final class ChunkDataProvider
 {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final AtomicInteger BATCH_THREADS = new AtomicInteger();
+    private static final Executor BATCH_EXECUTOR = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 4), task -> {
+        final Thread thread = new Thread(task, "TFC Chunk Data #" + BATCH_THREADS.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
     public static ChunkDataProvider get(WorldGenLevel level)
     {
         return get(((ServerChunkCache) level.getChunkSource()).getGenerator());
@@ -44,13 +65,29 @@ public final class ChunkDataProvider
     }
 
     private final ChunkDataGenerator generator;
+    private final @Nullable BatchedChunkDataGenerator batchedGenerator;
+    private final int batchWidth;
+    private final @Nullable FastConcurrentCache<CompletableFuture<PartialChunkData[]>> batches;
+    private final LongAdder batchedChunks = new LongAdder();
+    private final LongAdder lazyChunks = new LongAdder();
 
     private final Map<ProtoChunk, ChunkData> partialChunkData;
     private final Map<ChunkPos, ProtoChunk> partialChunkLookup; // Needed in order to find pos -> chunks, as when we promote partial -> full, we don't have access to the protochunk.
 
     public ChunkDataProvider(ChunkDataGenerator generator)
+    {
+        this(generator, 0);
+    }
+
+    /**
+     * @param batchCacheSize The number of batches of partial chunk data to keep, or {@code 0} to not generate batches.
+     */
+    public ChunkDataProvider(ChunkDataGenerator generator, int batchCacheSize)
     {
         this.generator = generator;
+        this.batchedGenerator = generator instanceof BatchedChunkDataGenerator batched && batchCacheSize > 0 ? batched : null;
+        this.batchWidth = batchedGenerator != null ? batchedGenerator.batchWidth() : 0;
+        this.batches = batchedGenerator != null ? new FastConcurrentCache<>(batchCacheSize) : null;
 
         // All references to chunks are kept as weak, and thus are removed automatically.
         this.partialChunkData = new MapMaker().weakKeys().concurrencyLevel(4).makeMap();
@@ -96,7 +133,7 @@ public final class ChunkDataProvider
             });
             if (data.status() == ChunkData.Status.EMPTY)
             {
-                generator.generate(data);
+                generatePartial(data);
             }
             return data;
         }
@@ -109,6 +146,53 @@ public final class ChunkDataProvider
         throw new IllegalStateException("Cannot get chunk data from an unknown chunk: " + chunk.getClass() + " at " + chunk.getPos());
     }
 
+    /**
+     * Submits the batches of partial chunk data in, and around, {@code pos} for generation, if they have not been already, so they are ready ahead of when each chunk is generated.
+     * Does nothing if this provider does not generate batches.
+     */
+    public void prefetch(ChunkPos pos)
+    {
+        if (batches != null && batchedGenerator != null)
+        {
+            final int batchX = Math.floorDiv(pos.x, batchWidth), batchZ = Math.floorDiv(pos.z, batchWidth);
+            for (int x = -1; x <= 1; x++)
+            {
+                for (int z = -1; z <= 1; z++)
+                {
+                    final int neighborX = batchX + x, neighborZ = batchZ + z;
+                    batches.computeIfAbsent(neighborX, neighborZ, () -> CompletableFuture.supplyAsync(() -> batchedGenerator.generateBatch(neighborX, neighborZ), BATCH_EXECUTOR));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The cache of batches of partial chunk data, or {@code null} if this provider does not generate batches.
+     */
+    @Nullable
+    public FastConcurrentCache<?> batchCache()
+    {
+        return batches;
+    }
+
+    /** @return The number of chunks whose partial data was taken from a prefetched batch. */
+    public long batchedChunks()
+    {
+        return batchedChunks.sum();
+    }
+
+    /** @return The number of chunks whose partial data was generated lazily, as it was not available in a prefetched batch. */
+    public long lazyChunks()
+    {
+        return lazyChunks.sum();
+    }
+
+    public void resetStats()
+    {
+        batchedChunks.reset();
+        lazyChunks.reset();
+    }
+
     /**
      * Get chunk data, by looking up the position in the partial chunk lookup.
      * Use {@link #get(ChunkAccess)}, or one of the variants that uses a level if that is available as this may return an {@link ChunkData#EMPTY} instance.
@@ -163,6 +247,35 @@ public final class ChunkDataProvider
         return new ChunkData(generator, pos);
     }
 
+    private void generatePartial(ChunkData data)
+    {
+        final ChunkPos pos = data.getPos();
+        if (batches != null)
+        {
+            final int batchX = Math.floorDiv(pos.x, batchWidth), batchZ = Math.floorDiv(pos.z, batchWidth);
+            final CompletableFuture<PartialChunkData[]> batch = batches.getIfPresent(batchX, batchZ);
+            if (batch != null && batch.isDone())
+            {
+                try
+                {
+                    batch.join()[Math.floorMod(pos.x, batchWidth) + batchWidth * Math.floorMod(pos.z, batchWidth)].applyTo(data);
+                    batchedChunks.increment();
+                    return;
+                }
+                catch (CompletionException | CancellationException e)
+                {
+                    // Remove the failed batch, so the rest of the chunks in it are not failed as well, and generate this chunk lazily instead
+                    if (batches.remove(batchX, batchZ, batch))
+                    {
+                        LOGGER.warn("Failed to generate chunk data batch at {}, {}, falling back to generating each chunk", batchX, batchZ, e);
+                    }
+                }
+            }
+        }
+        generator.generate(data);
+        lazyChunks.increment();
+    }
+
     @Override
     public String toString()
     {
@@ -0,0 +1,20 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.chunkdata;
+
+/**
+ * The values which take a {@link ChunkData} to {@link ChunkData.Status#PARTIAL}, generated ahead of, and separately from, the chunk data itself.
+ *
+ * @see BatchedChunkDataGenerator#generateBatch(int, int)
+ */
+public record PartialChunkData(LerpFloatLayer rainfallLayer, LerpFloatLayer temperatureLayer, ForestType forestType, float forestWeirdness, float forestDensity)
+{
+    public void applyTo(ChunkData data)
+    {
+        data.generatePartial(rainfallLayer, temperatureLayer, forestType, forestWeirdness, forestDensity);
+    }
+}
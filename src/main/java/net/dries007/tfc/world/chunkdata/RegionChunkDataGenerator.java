@@ -6,6 +6,7 @@
 
 package net.dries007.tfc.world.chunkdata;
 
+import java.util.ArrayList;
 import java.util.List;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.registries.BuiltInRegistries;
@@ -14,12 +15,14 @@ import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
 import org.jetbrains.annotations.Nullable;
 
+import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.IArtist;
 import net.dries007.tfc.world.layer.TFCLayers;
-import net.dries007.tfc.world.layer.framework.Area;
 import net.dries007.tfc.world.layer.framework.ConcurrentArea;
+import net.dries007.tfc.world.layer.framework.TiledArea;
 import net.dries007.tfc.world.noise.Noise2D;
 import net.dries007.tfc.world.noise.OpenSimplex2D;
+import net.dries007.tfc.world.profiler.WorldgenProfiler;
 import net.dries007.tfc.world.region.ChooseRocks;
 import net.dries007.tfc.world.region.Region;
 import net.dries007.tfc.world.region.RegionGenerator;
@@ -31,13 +34,13 @@ public record RegionChunkDataGenerator(
     RegionGenerator regionGenerator,
     RockLayerSettings rockLayerSettings,
     ConcurrentArea<ForestType> forestTypeLayer,
-    ThreadLocal<Area> rockLayerArea,
+    TiledArea rockLayerArea,
     Noise2D layerHeightNoise,
     Noise2D layerSkewXNoise,
     Noise2D layerSkewZNoise,
     Noise2D forestWeirdnessNoise,
     Noise2D forestDensityNoise
-) implements ChunkDataGenerator
+) implements BatchedChunkDataGenerator
 {
     private static final int LAYER_OFFSET_BITS = 3;
     private static final int LAYER_OFFSET_MASK = (1 << LAYER_OFFSET_BITS) - 1;
@@ -45,6 +48,9 @@ public record RegionChunkDataGenerator(
 
     private static final float DELTA_Y_OFFSET = 12;
 
+    /** A batch is exactly one grid cell, so every chunk in it interpolates between the same four region points. */
+    private static final int BATCH_WIDTH = Units.GRID_WIDTH_IN_BLOCK >> 4;
+
     static
     {
         final RandomSource random = new XoroshiroRandomSource(1923874192341L);
@@ -69,7 +75,7 @@ public record RegionChunkDataGenerator(
         final RandomSource random = new XoroshiroRandomSource(worldSeed);
         random.setSeed(worldSeed ^ random.nextLong());
 
-        final ThreadLocal<Area> rockLayerArea = ThreadLocal.withInitial(TFCLayers.createOverworldRockLayer(regionGenerator, random.nextLong()));
+        final TiledArea rockLayerArea = new TiledArea(TFCLayers.createOverworldRockLayer(regionGenerator, random.nextLong()));
         final Noise2D layerHeightNoise = new OpenSimplex2D(random.nextInt()).octaves(3).scaled(43, 63).spread(0.014f);
         final Noise2D layerSkewXNoise = new OpenSimplex2D(random.nextInt()).octaves(2).scaled(-1.8f, 1.8f).spread(0.01f);
         final Noise2D layerSkewZNoise = new OpenSimplex2D(random.nextInt()).octaves(2).scaled(-1.8f, 1.8f).spread(0.01f);
@@ -85,6 +91,7 @@ public record RegionChunkDataGenerator(
     @Override
     public void generate(ChunkData data)
     {
+        final long startNanos = WorldgenProfiler.start();
         final ChunkPos pos = data.getPos();
         final int blockX = pos.getMinBlockX(), blockZ = pos.getMinBlockZ();
 
@@ -116,29 +123,183 @@ public record RegionChunkDataGenerator(
             forestWeirdness,
             forestDensity
         );
+        WorldgenProfiler.record(WorldgenProfiler.Category.CHUNK_DATA, "partial", startNanos);
+    }
+
+    @Override
+    public int batchWidth()
+    {
+        return BATCH_WIDTH;
     }
 
     @Override
-    public RockSettings generateRock(int x, int y, int z, int surfaceY, @Nullable ChunkRockDataCache cache)
+    public PartialChunkData[] generateBatch(int batchX, int batchZ)
     {
-        return generateRock(x, y, z, surfaceY, cache, null);
+        final long startNanos = WorldgenProfiler.start();
+        final int gridX = batchX, gridZ = batchZ;
+        final int minBlockX = gridX * Units.GRID_WIDTH_IN_BLOCK, minBlockZ = gridZ * Units.GRID_WIDTH_IN_BLOCK;
+
+        final Region.Point point00 = regionGenerator.getOrCreateRegionPoint(gridX, gridZ);
+        final Region.Point point01 = regionGenerator.getOrCreateRegionPoint(gridX, gridZ + 1);
+        final Region.Point point10 = regionGenerator.getOrCreateRegionPoint(gridX + 1, gridZ);
+        final Region.Point point11 = regionGenerator.getOrCreateRegionPoint(gridX + 1, gridZ + 1);
+
+        // Neighbouring chunks share the corners of their interpolated layers, so sample each corner once.
+        // The deltas are exactly those used by generate(), and so are the sampled corners, as every chunk in the batch has the same grid position.
+        final int corners = BATCH_WIDTH + 1;
+        final float[] rainfall = new float[corners * corners], temperature = new float[corners * corners];
+        for (int x = 0; x < corners; x++)
+        {
+            final double deltaX = Units.blockToGridExact(minBlockX + 16 * x) - gridX;
+            for (int z = 0; z < corners; z++)
+            {
+                final double deltaZ = Units.blockToGridExact(minBlockZ + 16 * z) - gridZ;
+                rainfall[x + corners * z] = (float) Helpers.lerp4(point00.rainfall, point01.rainfall, point10.rainfall, point11.rainfall, deltaX, deltaZ);
+                temperature[x + corners * z] = (float) Helpers.lerp4(point00.temperature, point01.temperature, point10.temperature, point11.temperature, deltaX, deltaZ);
+            }
+        }
+
+        // Forest noise is sampled at the center of each chunk
+        final double[] forestWeirdness = new double[BATCH_WIDTH * BATCH_WIDTH], forestDensity = new double[BATCH_WIDTH * BATCH_WIDTH];
+        forestWeirdnessNoise.fillGrid(minBlockX + 8, minBlockZ + 8, 16, 16, BATCH_WIDTH, BATCH_WIDTH, forestWeirdness);
+        forestDensityNoise.fillGrid(minBlockX + 8, minBlockZ + 8, 16, 16, BATCH_WIDTH, BATCH_WIDTH, forestDensity);
+
+        final PartialChunkData[] batch = new PartialChunkData[BATCH_WIDTH * BATCH_WIDTH];
+        for (int x = 0; x < BATCH_WIDTH; x++)
+        {
+            for (int z = 0; z < BATCH_WIDTH; z++)
+            {
+                final int corner = x + corners * z, index = x + BATCH_WIDTH * z;
+                batch[index] = new PartialChunkData(
+                    new LerpFloatLayer(rainfall[corner], rainfall[corner + corners], rainfall[corner + 1], rainfall[corner + corners + 1]),
+                    new LerpFloatLayer(temperature[corner], temperature[corner + corners], temperature[corner + 1], temperature[corner + corners + 1]),
+                    forestTypeLayer.get((minBlockX >> 4) + x, (minBlockZ >> 4) + z),
+                    (float) forestWeirdness[index],
+                    (float) forestDensity[index]
+                );
+            }
+        }
+        WorldgenProfiler.record(WorldgenProfiler.Category.CHUNK_DATA, "batch", startNanos);
+        return batch;
+    }
+
+    @Override
+    public RockSettings generateRock(int x, int y, int z, int surfaceY)
+    {
+        return generateRock(x, y, z, surfaceY, null);
+    }
+
+    @Override
+    public RockLayerTable generateRockTable(ChunkPos pos, int[] surfaceHeight, int minY, int maxY)
+    {
+        final long startNanos = WorldgenProfiler.start();
+        final int chunkX = pos.getMinBlockX(), chunkZ = pos.getMinBlockZ();
+        final RockLayerTable.Builder builder = new RockLayerTable.Builder();
+
+        // Layer height and skew noise, indexed by layer, then Units.index(), populated lazily for the whole chunk at once
+        final List<float[]> layerHeight = new ArrayList<>(), layerSkewX = new ArrayList<>(), layerSkewZ = new ArrayList<>();
+        final double[] grid = new double[16 * 16];
+
+        // The rock layer tile containing the last sampled point, as skewed points are almost always in the same tile
+        int[] tile = null;
+        int tileX = 0, tileZ = 0;
+
+        for (int i = 0; i < 16 * 16; i++)
+        {
+            final int x = chunkX + (i & 15), z = chunkZ + (i >> 4);
+            final float adjustedSurfaceY = adjustSurfaceY(surfaceHeight[i]);
+
+            int lastLayer = -1, lastPoint = 0;
+            RockSettings lastRock = null;
+
+            builder.beginColumn();
+            for (int y = minY; y < maxY; y++)
+            {
+                // Identical to generateRock(), but with layer noise pre-sampled
+                int layer = 0;
+                float deltaY = adjustedSurfaceY - y;
+                do
+                {
+                    while (layerHeight.size() <= layer)
+                    {
+                        final int populateLayer = layerHeight.size();
+                        final int layerX = chunkX + getOffsetX(populateLayer), layerZ = chunkZ + getOffsetZ(populateLayer);
+
+                        layerHeight.add(sampleLayerGrid(layerHeightNoise, layerX, layerZ, grid));
+                        layerSkewX.add(sampleLayerGrid(layerSkewXNoise, layerX, layerZ, grid));
+                        layerSkewZ.add(sampleLayerGrid(layerSkewZNoise, layerX, layerZ, grid));
+                    }
+                    final float height = layerHeight.get(layer)[i];
+                    if (deltaY <= height)
+                    {
+                        break;
+                    }
+                    deltaY -= height;
+                    layer++;
+                } while (deltaY > 0);
+
+                final int skewX = x + (int) (layerSkewX.get(layer)[i] * (deltaY + DELTA_Y_OFFSET));
+                final int skewZ = z + (int) (layerSkewZ.get(layer)[i] * (deltaY + DELTA_Y_OFFSET));
+                if (tile == null || tileX != skewX >> TiledArea.TILE_BITS || tileZ != skewZ >> TiledArea.TILE_BITS)
+                {
+                    tileX = skewX >> TiledArea.TILE_BITS;
+                    tileZ = skewZ >> TiledArea.TILE_BITS;
+                    tile = rockLayerArea.getTile(tileX, tileZ);
+                }
+                final int point = tile[TiledArea.index(skewX, skewZ)];
+
+                // Consecutive positions very often sample the same point and layer, and sampling a layer is not cheap
+                if (lastRock == null || point != lastPoint || layer != lastLayer)
+                {
+                    lastRock = rockLayerSettings.sampleAtLayer(point, layer);
+                    lastPoint = point;
+                    lastLayer = layer;
+                }
+                builder.add(y, lastRock);
+            }
+        }
+        final RockLayerTable table = builder.build();
+        WorldgenProfiler.record(WorldgenProfiler.Category.CHUNK_DATA, "rock_table", startNanos);
+        return table;
     }
 
     @Override
     public void displayDebugInfo(List<String> tooltip, BlockPos pos, int surfaceY)
     {
-        generateRock(pos.getX(), pos.getY(), pos.getZ(), surfaceY, null, tooltip);
+        generateRock(pos.getX(), pos.getY(), pos.getZ(), surfaceY, tooltip);
     }
 
-    @SuppressWarnings("deprecation")
-    private RockSettings generateRock(int x, int y, int z, int surfaceY, @Nullable ChunkRockDataCache cache, @Nullable List<String> tooltip)
+    /**
+     * Adjust surface Y so that really high mountains don't pull up the rock layers too much
+     */
+    private float adjustSurfaceY(int surfaceY)
     {
-        // Adjust surface Y so that really high mountains don't pull up the rock layers too much
         float adjustedSurfaceY = surfaceY;
         if (adjustedSurfaceY > 125)
         {
             adjustedSurfaceY = 125 + 0.3f * (surfaceY - 125);
         }
+        return adjustedSurfaceY;
+    }
+
+    /**
+     * Evaluates a noise over a chunk at once, into an array indexed identically to {@link Units#index(int, int)}.
+     */
+    private float[] sampleLayerGrid(Noise2D noise, int layerX, int layerZ, double[] grid)
+    {
+        final float[] values = new float[16 * 16];
+        noise.fillGrid(layerX, layerZ, 1, 1, 16, 16, grid);
+        for (int i = 0; i < 16 * 16; i++)
+        {
+            values[i] = (float) grid[i];
+        }
+        return values;
+    }
+
+    @SuppressWarnings("deprecation")
+    private RockSettings generateRock(int x, int y, int z, int surfaceY, @Nullable List<String> tooltip)
+    {
+        final float adjustedSurfaceY = adjustSurfaceY(surfaceY);
 
         // Iterate downwards to find the nth layer
         int layer = 0;
@@ -146,18 +307,10 @@ public record RegionChunkDataGenerator(
         float layerHeight;
         do
         {
-            if (cache != null)
-            {
-                populateLayerInCache(cache, layer);
-                layerHeight = cache.getLayerHeight(layer, x, z);
-            }
-            else
-            {
-                final int layerX = x + getOffsetX(layer);
-                final int layerZ = z + getOffsetZ(layer);
+            final int layerX = x + getOffsetX(layer);
+            final int layerZ = z + getOffsetZ(layer);
 
-                layerHeight = (float) layerHeightNoise.noise(layerX, layerZ);
-            }
+            layerHeight = (float) layerHeightNoise.noise(layerX, layerZ);
             if (deltaY <= layerHeight)
             {
                 break;
@@ -166,35 +319,20 @@ public record RegionChunkDataGenerator(
             layer++;
         } while (deltaY > 0);
 
-        final int offsetX, offsetZ;
-        final float skewNoiseX, skewNoiseZ;
-
-        if (cache != null)
-        {
-            // Unused, since we query cached skews directly
-            offsetX = offsetZ = 0;
+        // Layer count (from surface) is now known
+        // Sample (lateral) offset
+        final int offsetX = x + getOffsetX(layer);
+        final int offsetZ = z + getOffsetZ(layer);
 
-            // The cache is required to be populated as before as we iterated layers, we also populate the skew noise there
-            skewNoiseX = cache.getLayerSkewX(layer, x, z);
-            skewNoiseZ = cache.getLayerSkewZ(layer, x, z);
-        }
-        else
-        {
-            // Layer count (from surface) is now known
-            // Sample (lateral) offset
-            offsetX = x + getOffsetX(layer);
-            offsetZ = z + getOffsetZ(layer);
-
-            // Skew position after calculating the correct layer offset, and then skewing by deltaY
-            skewNoiseX = (float) layerSkewXNoise.noise(offsetX, offsetZ);
-            skewNoiseZ = (float) layerSkewZNoise.noise(offsetX, offsetZ);
-        }
+        // Skew position after calculating the correct layer offset, and then skewing by deltaY
+        final float skewNoiseX = (float) layerSkewXNoise.noise(offsetX, offsetZ);
+        final float skewNoiseZ = (float) layerSkewZNoise.noise(offsetX, offsetZ);
 
         final int skewX = x + (int) (skewNoiseX * (deltaY + DELTA_Y_OFFSET));
         final int skewZ = z + (int) (skewNoiseZ * (deltaY + DELTA_Y_OFFSET));
 
         // Rock seed (including type and seed) at this point in the layer
-        final int point = rockLayerArea.get().get(skewX, skewZ);
+        final int point = rockLayerArea.get(skewX, skewZ);
 
         // Sample the rock at this layer, progressing downwards according to the possible layered rocks
         final RockSettings rock = rockLayerSettings.sampleAtLayer(point, layer);
@@ -208,33 +346,4 @@ public record RegionChunkDataGenerator(
 
         return rock;
     }
-
-    private void populateLayerInCache(ChunkRockDataCache cache, int layer)
-    {
-        if (cache.layers() <= layer)
-        {
-            // Populate layers of layer height, and skew noise here
-            final int chunkX = cache.pos().getMinBlockX(), chunkZ = cache.pos().getMinBlockZ();
-            for (int populateLayer = cache.layers(); populateLayer <= layer; populateLayer++)
-            {
-                final float[] populatedLayerHeight = new float[16 * 16];
-                final float[] populatedLayerSkew = new float[16 * 16 * 2];
-                final int layerX = chunkX + getOffsetX(layer);
-                final int layerZ = chunkZ + getOffsetZ(layer);
-                for (int dx = 0; dx < 16; dx++)
-                {
-                    for (int dz = 0; dz < 16; dz++)
-                    {
-                        final int offsetX = layerX + dx, offsetZ = layerZ + dz;
-                        final int i = Units.index(dx, dz);
-
-                        populatedLayerHeight[i] = (float) layerHeightNoise.noise(offsetX, offsetZ);
-                        populatedLayerSkew[i << 1] = (float) layerSkewXNoise.noise(offsetX, offsetZ);
-                        populatedLayerSkew[(i << 1) | 0b1] = (float) layerSkewZNoise.noise(offsetX, offsetZ);
-                    }
-                }
-                cache.addLayer(populatedLayerHeight, populatedLayerSkew);
-            }
-        }
-    }
 }
@@ -13,27 +13,34 @@ import org.jetbrains.annotations.Nullable;
 import net.dries007.tfc.world.region.Units;
 import net.dries007.tfc.world.settings.RockSettings;
 
+/**
+ * The rock at each position in a chunk. Once the chunk's noise is generated, this is backed by a {@link RockLayerTable}, which is saved with the chunk data, so later queries never need to sample noise.
+ * Without a table (i.e. chunk data saved before tables existed), each query is generated directly from the {@link ChunkDataGenerator}.
+ */
 public class RockData
 {
     private final @Nullable ChunkDataGenerator generator;
     private int @Nullable [] surfaceHeight;
-    private @Nullable ChunkRockDataCache cache;
+    private @Nullable RockLayerTable table;
 
     public RockData(@Nullable ChunkDataGenerator generator)
     {
         this.generator = generator;
         this.surfaceHeight = null;
-        this.cache = null;
+        this.table = null;
     }
 
     /**
-     * Initializes the rock data's {@link ChunkRockDataCache}. This means that future queries into {@link #getRock(BlockPos)} or {@link #getRock(int, int, int)} will populate and re-use the cache for noise.
-     * <strong>N.B.</strong> Only use if this is used to query many positions in the chunk, otherwise the cost of populating the cache on the first few queries will be worse than with no cache.
-     * @param pos The current chunk position.
+     * Generates the {@link RockLayerTable} for this chunk, which is used for all future queries. Requires the surface height to be set.
+     *
+     * @param pos  The current chunk position.
+     * @param minY The minimum Y of the chunk, inclusive.
+     * @param maxY The maximum Y of the chunk, exclusive. Queries outside the range use the rock at the nearest position within it.
      */
-    public void useCache(ChunkPos pos)
+    public void generateTable(ChunkPos pos, int minY, int maxY)
     {
-        this.cache = new ChunkRockDataCache(pos);
+        assert generator != null && surfaceHeight != null;
+        this.table = generator.generateRockTable(pos, surfaceHeight, minY, maxY);
     }
 
     public RockSettings getRock(BlockPos pos)
@@ -43,8 +50,12 @@ public class RockData
 
     public RockSettings getRock(int x, int y, int z)
     {
+        if (table != null)
+        {
+            return table.get(x, y, z);
+        }
         assert generator != null && surfaceHeight != null;
-        return generator.generateRock(x, y, z, surfaceHeight[Units.index(x, z)], cache);
+        return generator.generateRock(x, y, z, surfaceHeight[Units.index(x, z)]);
     }
 
     public int[] getSurfaceHeight()
@@ -57,4 +68,15 @@ public class RockData
     {
         this.surfaceHeight = surfaceHeight;
     }
+
+    @Nullable
+    public RockLayerTable getTable()
+    {
+        return table;
+    }
+
+    public void setTable(@Nullable RockLayerTable table)
+    {
+        this.table = table;
+    }
 }
@@ -0,0 +1,187 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.chunkdata;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import it.unimi.dsi.fastutil.bytes.ByteArrayList;
+import it.unimi.dsi.fastutil.shorts.ShortArrayList;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.block.Block;
+import org.jetbrains.annotations.Nullable;
+
+import net.dries007.tfc.world.region.Units;
+import net.dries007.tfc.world.settings.RockLayerSettings;
+import net.dries007.tfc.world.settings.RockSettings;
+
+/**
+ * A precomputed table of the rock at every position in a chunk, so that querying rock is a binary search, rather than re-sampling the rock layer noise.
+ * <p>
+ * Each column is stored as a short list of runs, in ascending order of Y, where each run is the Y at which it starts, and an index into a per-chunk palette of rocks. The first run in each column also applies to every position below it, and the last run to every position above it.
+ * Runs for all columns are stored in two flat arrays, where the runs for column {@code i} (indexed by {@link Units#index(int, int)}) are {@code columnStart[i]} to {@code columnStart[i + 1] - 1}.
+ */
+public final class RockLayerTable
+{
+    /**
+     * @return The table stored in {@code nbt}, or {@code null} if it references rocks which are not present in {@code settings}, in which case the table needs to be discarded.
+     */
+    @Nullable
+    public static RockLayerTable read(CompoundTag nbt, RockLayerSettings settings)
+    {
+        final ListTag paletteTag = nbt.getList("palette", Tag.TAG_STRING);
+        final RockSettings[] palette = new RockSettings[paletteTag.size()];
+        for (int i = 0; i < palette.length; i++)
+        {
+            final Block block = BuiltInRegistries.BLOCK.get(new ResourceLocation(paletteTag.getString(i)));
+            final RockSettings rock = settings.getRock(block);
+            if (rock == null)
+            {
+                return null;
+            }
+            palette[i] = rock;
+        }
+
+        final int[] columnStart = nbt.getIntArray("columnStart");
+        final int[] runs = nbt.getIntArray("runs");
+        if (columnStart.length != 16 * 16 + 1 || runs.length != columnStart[16 * 16])
+        {
+            return null;
+        }
+
+        final short[] bottomY = new short[runs.length];
+        final byte[] rocks = new byte[runs.length];
+        for (int i = 0; i < runs.length; i++)
+        {
+            bottomY[i] = (short) (runs[i] >> 16);
+            rocks[i] = (byte) runs[i];
+            if ((rocks[i] & 0xFF) >= palette.length)
+            {
+                return null;
+            }
+        }
+        return new RockLayerTable(palette, columnStart, bottomY, rocks);
+    }
+
+    private final RockSettings[] palette;
+    private final int[] columnStart;
+    private final short[] bottomY;
+    private final byte[] rocks;
+
+    private RockLayerTable(RockSettings[] palette, int[] columnStart, short[] bottomY, byte[] rocks)
+    {
+        this.palette = palette;
+        this.columnStart = columnStart;
+        this.bottomY = bottomY;
+        this.rocks = rocks;
+    }
+
+    public RockSettings get(int x, int y, int z)
+    {
+        final int column = Units.index(x, z);
+
+        // Find the last run which starts at, or below, y
+        int low = columnStart[column], high = columnStart[column + 1] - 1;
+        while (low < high)
+        {
+            final int mid = (low + high + 1) >>> 1;
+            if (bottomY[mid] <= y)
+            {
+                low = mid;
+            }
+            else
+            {
+                high = mid - 1;
+            }
+        }
+        return palette[rocks[low] & 0xFF];
+    }
+
+    /**
+     * @return The total number of runs, across all columns.
+     */
+    public int size()
+    {
+        return bottomY.length;
+    }
+
+    public CompoundTag write()
+    {
+        final CompoundTag nbt = new CompoundTag();
+        final ListTag paletteTag = new ListTag();
+        for (RockSettings rock : palette)
+        {
+            paletteTag.add(StringTag.valueOf(BuiltInRegistries.BLOCK.getKey(rock.raw()).toString()));
+        }
+
+        final int[] runs = new int[bottomY.length];
+        for (int i = 0; i < runs.length; i++)
+        {
+            runs[i] = (bottomY[i] << 16) | (rocks[i] & 0xFF);
+        }
+
+        nbt.put("palette", paletteTag);
+        nbt.putIntArray("columnStart", columnStart);
+        nbt.putIntArray("runs", runs);
+        return nbt;
+    }
+
+    /**
+     * Builds a table, one column at a time, in order of {@link Units#index(int, int)}. Within each column, rocks must be added in ascending order of Y.
+     */
+    public static final class Builder
+    {
+        private final List<RockSettings> palette = new ArrayList<>();
+        private final Map<RockSettings, Integer> paletteIndex = new IdentityHashMap<>();
+        private final int[] columnStart = new int[16 * 16 + 1];
+        private final ShortArrayList bottomY = new ShortArrayList();
+        private final ByteArrayList rocks = new ByteArrayList();
+        private int column = -1;
+        private int lastRock = -1;
+
+        public void beginColumn()
+        {
+            column++;
+            lastRock = -1;
+            columnStart[column] = bottomY.size();
+        }
+
+        public void add(int y, RockSettings rock)
+        {
+            final int index = paletteIndex.computeIfAbsent(rock, key -> {
+                palette.add(key);
+                return palette.size() - 1;
+            });
+            if (index != lastRock)
+            {
+                if (index > 0xFF)
+                {
+                    throw new IllegalStateException("More than 256 distinct rocks in a single chunk");
+                }
+                bottomY.add((short) y);
+                rocks.add((byte) index);
+                lastRock = index;
+            }
+        }
+
+        public RockLayerTable build()
+        {
+            if (column != 16 * 16 - 1)
+            {
+                throw new IllegalStateException("Expected 256 columns, got " + (column + 1));
+            }
+            columnStart[16 * 16] = bottomY.size();
+            return new RockLayerTable(palette.toArray(new RockSettings[0]), columnStart, bottomY.toShortArray(), rocks.toByteArray());
+        }
+    }
+}
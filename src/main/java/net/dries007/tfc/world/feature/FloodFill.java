@@ -0,0 +1,365 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.feature;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.Predicate;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ChunkStatus;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A reusable, scanline flood fill over the blocks in a bounding box, for use by world generation features.
+ * <p>
+ * Filled positions are tracked in a {@link BitSet} over the box, and the fill proceeds in spans along the x axis, so there is no per-position allocation. Block states are read directly from chunk sections, bypassing the level.
+ * A fill {@linkplain #fill(int, int, int, int) fails} if the region it would fill escapes the box, or exceeds a maximum size. Successive fills accumulate, treating previously filled positions as already visited, and can be {@linkplain #rollback(int) rolled back}.
+ * <p>
+ * Instances are per-thread, obtained through {@link #begin(LevelAccessor, BoundingBox, Predicate, int)}, and must be {@linkplain #close() closed} after use, ideally via try-with-resources.
+ */
+public final class FloodFill implements AutoCloseable
+{
+    private static final ThreadLocal<FloodFill> INSTANCE = ThreadLocal.withInitial(FloodFill::new);
+
+    /**
+     * Begins a flood fill within {@code box}, reading block states from {@code level}.
+     *
+     * @param fillable A predicate for block states which may be filled.
+     * @param maxSize The maximum number of positions which may be filled, before a fill fails.
+     */
+    public static FloodFill begin(LevelAccessor level, BoundingBox box, Predicate<BlockState> fillable, int maxSize)
+    {
+        final FloodFill fill = INSTANCE.get();
+        fill.open(fill.chunks, box, fillable, maxSize);
+        fill.chunks.begin(level, box);
+        return fill;
+    }
+
+    /**
+     * As {@link #begin(LevelAccessor, BoundingBox, Predicate, int)}, but reading block states from {@code source}.
+     */
+    public static FloodFill begin(StateSource source, BoundingBox box, Predicate<BlockState> fillable, int maxSize)
+    {
+        return INSTANCE.get().open(source, box, fillable, maxSize);
+    }
+
+    private final BitSet filled = new BitSet();
+    private final ChunkStateSource chunks = new ChunkStateSource();
+
+    private int[] spans = new int[4 * 64]; // (minX, maxX, y, z) for each filled span
+    private int[] stack = new int[3 * 64]; // (x, y, z) for each seed position
+    private int spanCount, stackSize, size;
+
+    private boolean active;
+    private StateSource source = chunks;
+    private Predicate<BlockState> fillable = state -> false;
+    private int maxSize;
+    private int minX, minY, minZ, maxX, maxY, maxZ, sizeX, sizeZ;
+
+    private FloodFill() {}
+
+    /**
+     * Fills the region connected to {@code (x, y, z)}, not including any positions above {@code maxFillY}.
+     *
+     * @return {@code true} if the start position was fillable, and the region was filled. {@code false} if the start position was not fillable, or if the region escaped the box, or exceeded the maximum size, in which case the region is partially filled.
+     */
+    public boolean fill(int x, int y, int z, int maxFillY)
+    {
+        if (!isInside(x, y, z))
+        {
+            return false;
+        }
+        if (!fillable.test(source.getBlockState(x, y, z)))
+        {
+            return false;
+        }
+
+        stackSize = 0;
+        push(x, y, z);
+        while (stackSize > 0)
+        {
+            stackSize -= 3;
+            final int seedX = stack[stackSize], seedY = stack[stackSize + 1], seedZ = stack[stackSize + 2];
+            if (filled.get(index(seedX, seedY, seedZ)))
+            {
+                continue;
+            }
+
+            // Extend the span along the x axis, in both directions
+            int spanMinX = seedX, spanMaxX = seedX;
+            while (spanMinX > minX && isFillable(spanMinX - 1, seedY, seedZ))
+            {
+                spanMinX--;
+            }
+            while (spanMaxX < maxX && isFillable(spanMaxX + 1, seedY, seedZ))
+            {
+                spanMaxX++;
+            }
+            if ((spanMinX == minX && fillable.test(source.getBlockState(minX - 1, seedY, seedZ))) || (spanMaxX == maxX && fillable.test(source.getBlockState(maxX + 1, seedY, seedZ))))
+            {
+                return false; // Escaped the box
+            }
+
+            addSpan(spanMinX, spanMaxX, seedY, seedZ);
+            if (size > maxSize)
+            {
+                return false;
+            }
+
+            // Then seed each adjacent row, at the start of every fillable run
+            if (!seedRow(spanMinX, spanMaxX, seedY - 1, seedZ)
+                || (seedY + 1 <= maxFillY && !seedRow(spanMinX, spanMaxX, seedY + 1, seedZ))
+                || !seedRow(spanMinX, spanMaxX, seedY, seedZ - 1)
+                || !seedRow(spanMinX, spanMaxX, seedY, seedZ + 1))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return A marker of the current fill state, which can be passed to {@link #rollback(int)}.
+     */
+    public int mark()
+    {
+        return spanCount;
+    }
+
+    /**
+     * Un-fills every position which was filled after {@code mark} was obtained.
+     */
+    public void rollback(int mark)
+    {
+        while (spanCount > mark)
+        {
+            spanCount--;
+            clearSpan(spanCount);
+        }
+    }
+
+    /**
+     * @return The number of filled positions.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    public boolean contains(int x, int y, int z)
+    {
+        return isInside(x, y, z) && filled.get(index(x, y, z));
+    }
+
+    public void forEach(PositionConsumer action)
+    {
+        for (int i = 0; i < spanCount; i++)
+        {
+            final int spanMinX = spans[4 * i], spanMaxX = spans[4 * i + 1], y = spans[4 * i + 2], z = spans[4 * i + 3];
+            for (int x = spanMinX; x <= spanMaxX; x++)
+            {
+                action.accept(x, y, z);
+            }
+        }
+    }
+
+    /**
+     * Clears all filled positions, and releases any references to the level.
+     */
+    @Override
+    public void close()
+    {
+        rollback(0);
+        chunks.end();
+        source = chunks;
+        fillable = state -> false;
+        active = false;
+    }
+
+    private FloodFill open(StateSource source, BoundingBox box, Predicate<BlockState> fillable, int maxSize)
+    {
+        if (active)
+        {
+            throw new IllegalStateException("Flood fill is already in use on this thread");
+        }
+        this.active = true;
+        this.source = source;
+        this.fillable = fillable;
+        this.maxSize = maxSize;
+        this.minX = box.minX();
+        this.minY = box.minY();
+        this.minZ = box.minZ();
+        this.maxX = box.maxX();
+        this.maxY = box.maxY();
+        this.maxZ = box.maxZ();
+        this.sizeX = box.getXSpan();
+        this.sizeZ = box.getZSpan();
+        return this;
+    }
+
+    /**
+     * Seeds the run starts in row {@code (y, z)}, between {@code [spanMinX, spanMaxX]}.
+     *
+     * @return {@code false} if the row is outside the box, and any position in the row is fillable.
+     */
+    private boolean seedRow(int spanMinX, int spanMaxX, int y, int z)
+    {
+        if (y < minY || y > maxY || z < minZ || z > maxZ)
+        {
+            for (int x = spanMinX; x <= spanMaxX; x++)
+            {
+                if (fillable.test(source.getBlockState(x, y, z)))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean inRun = false;
+        for (int x = spanMinX; x <= spanMaxX; x++)
+        {
+            final boolean canFill = isFillable(x, y, z);
+            if (canFill && !inRun)
+            {
+                push(x, y, z);
+            }
+            inRun = canFill;
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code true} if the position, which must be inside the box, is not yet filled, and is fillable.
+     */
+    private boolean isFillable(int x, int y, int z)
+    {
+        return !filled.get(index(x, y, z)) && fillable.test(source.getBlockState(x, y, z));
+    }
+
+    private boolean isInside(int x, int y, int z)
+    {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+    }
+
+    private int index(int x, int y, int z)
+    {
+        return (x - minX) + sizeX * ((z - minZ) + sizeZ * (y - minY));
+    }
+
+    private void addSpan(int spanMinX, int spanMaxX, int y, int z)
+    {
+        if (4 * spanCount + 4 > spans.length)
+        {
+            spans = Arrays.copyOf(spans, spans.length << 1);
+        }
+        spans[4 * spanCount] = spanMinX;
+        spans[4 * spanCount + 1] = spanMaxX;
+        spans[4 * spanCount + 2] = y;
+        spans[4 * spanCount + 3] = z;
+        spanCount++;
+
+        final int start = index(spanMinX, y, z);
+        filled.set(start, start + spanMaxX - spanMinX + 1);
+        size += spanMaxX - spanMinX + 1;
+    }
+
+    private void clearSpan(int span)
+    {
+        final int spanMinX = spans[4 * span], spanMaxX = spans[4 * span + 1];
+        final int start = index(spanMinX, spans[4 * span + 2], spans[4 * span + 3]);
+        filled.clear(start, start + spanMaxX - spanMinX + 1);
+        size -= spanMaxX - spanMinX + 1;
+    }
+
+    private void push(int x, int y, int z)
+    {
+        if (stackSize + 3 > stack.length)
+        {
+            stack = Arrays.copyOf(stack, stack.length << 1);
+        }
+        stack[stackSize] = x;
+        stack[stackSize + 1] = y;
+        stack[stackSize + 2] = z;
+        stackSize += 3;
+    }
+
+    @FunctionalInterface
+    public interface StateSource
+    {
+        BlockState getBlockState(int x, int y, int z);
+    }
+
+    @FunctionalInterface
+    public interface PositionConsumer
+    {
+        void accept(int x, int y, int z);
+    }
+
+    /**
+     * Reads block states directly from the sections of chunks, caching each chunk in (and one block around) the box the first time it is accessed.
+     */
+    static final class ChunkStateSource implements StateSource
+    {
+        private static final BlockState VOID_AIR = Blocks.VOID_AIR.defaultBlockState();
+
+        @Nullable private LevelAccessor level;
+        private ChunkAccess[] chunks = new ChunkAccess[9];
+        private int minChunkX, minChunkZ, chunksX, chunksZ;
+
+        void begin(LevelAccessor level, BoundingBox box)
+        {
+            this.level = level;
+            this.minChunkX = SectionPos.blockToSectionCoord(box.minX() - 1);
+            this.minChunkZ = SectionPos.blockToSectionCoord(box.minZ() - 1);
+            this.chunksX = SectionPos.blockToSectionCoord(box.maxX() + 1) - minChunkX + 1;
+            this.chunksZ = SectionPos.blockToSectionCoord(box.maxZ() + 1) - minChunkZ + 1;
+            if (chunks.length < chunksX * chunksZ)
+            {
+                chunks = new ChunkAccess[chunksX * chunksZ];
+            }
+        }
+
+        void end()
+        {
+            level = null;
+            Arrays.fill(chunks, null);
+        }
+
+        @Override
+        public BlockState getBlockState(int x, int y, int z)
+        {
+            assert level != null;
+            if (level.isOutsideBuildHeight(y))
+            {
+                return VOID_AIR;
+            }
+
+            final int chunkX = SectionPos.blockToSectionCoord(x) - minChunkX, chunkZ = SectionPos.blockToSectionCoord(z) - minChunkZ;
+            final ChunkAccess chunk;
+            if (chunkX >= 0 && chunkX < chunksX && chunkZ >= 0 && chunkZ < chunksZ)
+            {
+                final int index = chunkX + chunksX * chunkZ;
+                if (chunks[index] == null)
+                {
+                    chunks[index] = level.getChunk(chunkX + minChunkX, chunkZ + minChunkZ, ChunkStatus.EMPTY);
+                }
+                chunk = chunks[index];
+            }
+            else
+            {
+                chunk = level.getChunk(chunkX + minChunkX, chunkZ + minChunkZ, ChunkStatus.EMPTY);
+            }
+            return chunk.getSection(chunk.getSectionIndex(y)).getBlockState(x & 15, y & 15, z & 15);
+        }
+    }
+}
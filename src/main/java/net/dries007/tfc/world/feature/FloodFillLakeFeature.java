@@ -6,12 +6,8 @@
 
 package net.dries007.tfc.world.feature;
 
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.Set;
 import com.mojang.serialization.Codec;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.Direction;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.WorldGenLevel;
 import net.minecraft.world.level.block.state.BlockState;
@@ -27,6 +23,8 @@ import net.dries007.tfc.common.blocks.wood.ILeavesBlock;
  * This fills in natural depressions using a localized flood fill.
  * It only operates within the allowed range of 3x3 chunks per the feature requirements.
  * If a potential location is unbounded within that area, the flood fill is aborted.
+ *
+ * @see FloodFill
  */
 public class FloodFillLakeFeature extends Feature<FloodFillLakeConfig>
 {
@@ -43,9 +41,8 @@ public class FloodFillLakeFeature extends Feature<FloodFillLakeConfig>
         final FloodFillLakeConfig config = context.config();
 
         final ChunkPos chunkPos = new ChunkPos(pos);
-        final BoundingBox box = new BoundingBox(chunkPos.getMinBlockX() - 14, Integer.MIN_VALUE, chunkPos.getMinBlockZ() - 14, chunkPos.getMaxBlockX() + 14, Integer.MAX_VALUE, chunkPos.getMaxBlockZ() + 14); // Leeway so we can check outside this box
+        final BoundingBox box = new BoundingBox(chunkPos.getMinBlockX() - 14, worldIn.getMinBuildHeight(), chunkPos.getMinBlockZ() - 14, chunkPos.getMaxBlockX() + 14, worldIn.getMaxBuildHeight() - 1, chunkPos.getMaxBlockZ() + 14); // Leeway so we can check outside this box
 
-        final Set<BlockPos> filled = new HashSet<>();
         final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
 
         // First, make sure we're currently at the lowest point in the column.
@@ -60,20 +57,20 @@ public class FloodFillLakeFeature extends Feature<FloodFillLakeConfig>
         final BlockPos startPos = pos.above();
         final BlockState fill = config.getState();
         final Fluid fluid = fill.getFluidState().getType();
-        if (floodFill(worldIn, startPos, box, filled, mutablePos, config))
+        try (FloodFill filled = FloodFill.begin(worldIn, box, state -> isFloodFillable(state, config), Integer.MAX_VALUE))
         {
             // Minimum size, don't fill awkward tiny lakes
-            if (filled.size() >= 20)
+            if (floodFill(filled, startPos, config) && filled.size() >= 20)
             {
-                for (BlockPos filledPos : filled)
-                {
+                filled.forEach((x, y, z) -> {
+                    final BlockPos filledPos = new BlockPos(x, y, z);
                     worldIn.setBlock(filledPos, fill, 2);
                     worldIn.scheduleTick(filledPos, fluid, 0);
 
                     // If we're at the bottom
-                    mutablePos.set(filledPos).move(0, -1, 0);
-                    if (!filled.contains(mutablePos))
+                    if (!filled.contains(x, y - 1, z))
                     {
+                        mutablePos.set(x, y - 1, z);
                         BlockState stateDown = worldIn.getBlockState(mutablePos);
                         if (stateDown.getBlock() instanceof IGrassBlock)
                         {
@@ -81,17 +78,18 @@ public class FloodFillLakeFeature extends Feature<FloodFillLakeConfig>
                             worldIn.setBlock(mutablePos, dirtState, 2);
                         }
                     }
-                }
+                });
                 return true;
             }
         }
         return false;
     }
 
-    private boolean floodFill(WorldGenLevel worldIn, BlockPos startPos, BoundingBox box, Set<BlockPos> filled, BlockPos.MutableBlockPos mutablePos, FloodFillLakeConfig config)
+    private boolean floodFill(FloodFill filled, BlockPos startPos, FloodFillLakeConfig config)
     {
-        boolean result = floodFillLayer(worldIn, startPos, box, filled, mutablePos, config);
-        if (!result)
+        final int x = startPos.getX(), z = startPos.getZ();
+        int y = startPos.getY();
+        if (!filled.fill(x, y, z, y))
         {
             return false; // Failed the initial flood fill, exit early
         }
@@ -100,68 +98,24 @@ public class FloodFillLakeFeature extends Feature<FloodFillLakeConfig>
             return true; // No overfilling, result is valid, return valid
         }
 
-        // Initial result is valid, overfill upwards
-        Set<BlockPos> nextFilled = new HashSet<>(filled);
-        startPos = startPos.above();
-        int prevSize = filled.size();
-
-        while (floodFillLayer(worldIn, startPos, box, nextFilled, mutablePos, config))
+        // Initial result is valid, overfill upwards, discarding the first layer which fails
+        y++;
+        final int prevSize = filled.size();
+        int mark = filled.mark();
+        while (filled.fill(x, y, z, y))
         {
-            filled.addAll(nextFilled);
             if (prevSize == filled.size())
             {
                 // The last move upwards added no new filled area. We abort here to not endlessly advance upwards
                 return true;
             }
-            startPos = startPos.above();
+            mark = filled.mark();
+            y++;
         }
+        filled.rollback(mark);
         return true;
     }
 
-    private boolean floodFillLayer(WorldGenLevel worldIn, BlockPos startPos, BoundingBox box, Set<BlockPos> filled, BlockPos.MutableBlockPos mutablePos, FloodFillLakeConfig config)
-    {
-        // First check the start position, this must be fillable
-        if (!isFloodFillable(worldIn.getBlockState(startPos), config))
-        {
-            return false;
-        }
-
-        final LinkedList<BlockPos> queue = new LinkedList<>();
-        final Direction[] directions = Direction.values();
-        final int maximumY = startPos.getY();
-        filled.add(startPos);
-        queue.addFirst(startPos);
-
-        while (!queue.isEmpty())
-        {
-            BlockPos posAt = queue.removeFirst();
-            for (Direction direction : directions)
-            {
-                mutablePos.set(posAt).move(direction);
-                if (!filled.contains(mutablePos) && mutablePos.getY() <= maximumY)
-                {
-                    final BlockState stateAt = worldIn.getBlockState(mutablePos);
-                    if (isFloodFillable(stateAt, config))
-                    {
-                        if (box.isInside(mutablePos))
-                        {
-                            // Valid flood fill location
-                            BlockPos posNext = mutablePos.immutable();
-                            queue.addFirst(posNext);
-                            filled.add(posNext);
-                        }
-                        else
-                        {
-                            // Invalid boundary condition
-                            return false;
-                        }
-                    }
-                }
-            }
-        }
-        return !filled.isEmpty();
-    }
-
     private boolean isFloodFillable(BlockState state, FloodFillLakeConfig config)
     {
         return !state.isSolid() && !(state.getBlock() instanceof ILeavesBlock) && config.shouldReplace(state.getFluidState().getType());
@@ -0,0 +1,168 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.feature.tree;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Vec3i;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.WorldGenLevel;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.Mirror;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.level.levelgen.structure.templatesystem.BlockIgnoreProcessor;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructurePlaceSettings;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
+
+import net.dries007.tfc.mixin.accessor.StructureTemplateAccessor;
+
+/**
+ * A {@link StructureTemplate} used by tree features, with every palette pre-transformed for every {@link Mirror} and {@link Rotation}.
+ * <p>
+ * Placing a template with {@link TreeHelpers#placeTemplate(StructureTemplate, StructurePlaceSettings, net.minecraft.world.level.ServerLevelAccessor, BlockPos)} processes, transforms and mirrors every block, every time a tree is placed.
+ * Here, that is done once per template, and placement just streams through a flat array of offsets and states. This assumes the settings were created by {@link TreeHelpers#getPlacementSettings}, so they ignore air and structure blocks ({@link BlockIgnoreProcessor#STRUCTURE_AND_AIR}) and rotate around the origin.
+ * The random is consumed identically to {@link TreeHelpers#placeTemplate}: once to pick a palette, then, if placing with an integrity, once per block.
+ *
+ * @see TreeTemplates
+ */
+public final class CompiledTreeTemplate
+{
+    private static final Mirror[] MIRRORS = Mirror.values();
+    private static final Rotation[] ROTATIONS = Rotation.values();
+
+    public static CompiledTreeTemplate compile(ResourceLocation id, StructureTemplate template)
+    {
+        final List<StructureTemplate.Palette> palettes = ((StructureTemplateAccessor) template).accessor$getPalettes();
+        if (palettes.isEmpty())
+        {
+            throw new IllegalStateException("Empty structure: " + id);
+        }
+
+        final Variant[] variants = new Variant[palettes.size() * MIRRORS.length * ROTATIONS.length];
+        for (int palette = 0; palette < palettes.size(); palette++)
+        {
+            final List<StructureTemplate.StructureBlockInfo> blocks = new ArrayList<>();
+            for (StructureTemplate.StructureBlockInfo block : palettes.get(palette).blocks())
+            {
+                if (!block.state().is(Blocks.STRUCTURE_BLOCK) && !block.state().is(Blocks.AIR))
+                {
+                    blocks.add(block);
+                }
+            }
+            for (Mirror mirror : MIRRORS)
+            {
+                for (Rotation rotation : ROTATIONS)
+                {
+                    variants[index(palette, mirror, rotation)] = Variant.create(blocks, mirror, rotation);
+                }
+            }
+        }
+        return new CompiledTreeTemplate(id, template.getSize(), palettes.size(), variants);
+    }
+
+    private static int index(int palette, Mirror mirror, Rotation rotation)
+    {
+        return (palette * MIRRORS.length + mirror.ordinal()) * ROTATIONS.length + rotation.ordinal();
+    }
+
+    private final ResourceLocation id;
+    private final Vec3i size;
+    private final int palettes;
+    private final Variant[] variants;
+
+    private CompiledTreeTemplate(ResourceLocation id, Vec3i size, int palettes, Variant[] variants)
+    {
+        this.id = id;
+        this.size = size;
+        this.palettes = palettes;
+        this.variants = variants;
+    }
+
+    public ResourceLocation id()
+    {
+        return id;
+    }
+
+    public Vec3i getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Places this template, replacing only blocks which are {@link TreeTemplates#canReplace(BlockState) replaceable}, and within the bounding box of {@code settings}.
+     *
+     * @param pos The position of the (untransformed) template origin.
+     */
+    public void place(WorldGenLevel level, BlockPos pos, StructurePlaceSettings settings, RandomSource random)
+    {
+        place(level, pos, settings, random, false, 1f);
+    }
+
+    /**
+     * As {@link #place(WorldGenLevel, BlockPos, StructurePlaceSettings, RandomSource)}, but each block is only placed with a probability of {@code integrity}, as by a {@link net.minecraft.world.level.levelgen.structure.templatesystem.BlockRotProcessor}.
+     */
+    public void place(WorldGenLevel level, BlockPos pos, StructurePlaceSettings settings, RandomSource random, float integrity)
+    {
+        place(level, pos, settings, random, true, integrity);
+    }
+
+    private void place(WorldGenLevel level, BlockPos pos, StructurePlaceSettings settings, RandomSource random, boolean useIntegrity, float integrity)
+    {
+        final Variant variant = variants[index(random.nextInt(palettes), settings.getMirror(), settings.getRotation())];
+        final BoundingBox box = settings.getBoundingBox();
+        final int[] offsets = variant.offsets;
+        final BlockState[] states = variant.states;
+        final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
+        for (int i = 0; i < states.length; i++)
+        {
+            if (useIntegrity && !(random.nextFloat() <= integrity))
+            {
+                continue;
+            }
+
+            final int x = pos.getX() + offsets[3 * i], y = pos.getY() + offsets[3 * i + 1], z = pos.getZ() + offsets[3 * i + 2];
+            if (box == null || box.isInside(x, y, z))
+            {
+                cursor.set(x, y, z);
+                if (TreeTemplates.canReplace(level.getBlockState(cursor)))
+                {
+                    level.setBlock(cursor, states[i], 2);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param offsets Packed {@code (x, y, z)} offsets of each block, relative to the template origin.
+     * @param states The mirrored and rotated state of each block.
+     */
+    record Variant(int[] offsets, BlockState[] states)
+    {
+        @SuppressWarnings("deprecation")
+        static Variant create(List<StructureTemplate.StructureBlockInfo> blocks, Mirror mirror, Rotation rotation)
+        {
+            final int[] offsets = new int[3 * blocks.size()];
+            final BlockState[] states = new BlockState[blocks.size()];
+            for (int i = 0; i < blocks.size(); i++)
+            {
+                final StructureTemplate.StructureBlockInfo block = blocks.get(i);
+                final BlockPos offset = TreeHelpers.transform(block.pos(), mirror, rotation);
+
+                offsets[3 * i] = offset.getX();
+                offsets[3 * i + 1] = offset.getY();
+                offsets[3 * i + 2] = offset.getZ();
+                states[i] = block.state().mirror(mirror).rotate(rotation); // No world, can't rotate with world context
+            }
+            return new Variant(offsets, states);
+        }
+    }
+}
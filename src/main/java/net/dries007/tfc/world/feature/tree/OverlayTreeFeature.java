@@ -12,10 +12,7 @@ import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.WorldGenLevel;
 import net.minecraft.world.level.levelgen.feature.Feature;
 import net.minecraft.world.level.levelgen.feature.FeaturePlaceContext;
-import net.minecraft.world.level.levelgen.structure.templatesystem.BlockRotProcessor;
 import net.minecraft.world.level.levelgen.structure.templatesystem.StructurePlaceSettings;
-import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
-import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplateManager;
 
 public class OverlayTreeFeature extends Feature<OverlayTreeConfig>
 {
@@ -34,10 +31,9 @@ public class OverlayTreeFeature extends Feature<OverlayTreeConfig>
 
         final ChunkPos chunkPos = new ChunkPos(pos);
         final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos().set(pos);
-        final StructureTemplateManager manager = TreeHelpers.getStructureManager(level);
         final StructurePlaceSettings settings = TreeHelpers.getPlacementSettings(level, chunkPos, random);
-        final StructureTemplate structureBase = manager.getOrCreate(config.base());
-        final StructureTemplate structureOverlay = manager.getOrCreate(config.overlay());
+        final CompiledTreeTemplate structureBase = TreeTemplates.get(level, config.base());
+        final CompiledTreeTemplate structureOverlay = TreeTemplates.get(level, config.overlay());
 
         if (TreeHelpers.isValidLocation(level, pos, settings, config.placement()))
         {
@@ -49,9 +45,8 @@ public class OverlayTreeFeature extends Feature<OverlayTreeConfig>
                     mutablePos.move(0, height, 0);
                 });
 
-                TreeHelpers.placeTemplate(structureBase, settings, level, mutablePos.subtract(TreeHelpers.transformCenter(structureBase.getSize(), settings)));
-                settings.addProcessor(new BlockRotProcessor(config.overlayIntegrity()));
-                TreeHelpers.placeTemplate(structureOverlay, settings, level, mutablePos.subtract(TreeHelpers.transformCenter(structureOverlay.getSize(), settings)));
+                structureBase.place(level, mutablePos.subtract(TreeHelpers.transformCenter(structureBase.getSize(), settings)), settings, random);
+                structureOverlay.place(level, mutablePos.subtract(TreeHelpers.transformCenter(structureOverlay.getSize(), settings)), settings, random, config.overlayIntegrity());
                 return true;
             }
             return false;
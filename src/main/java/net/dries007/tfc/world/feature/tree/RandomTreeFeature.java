@@ -15,10 +15,6 @@ import net.minecraft.world.level.WorldGenLevel;
 import net.minecraft.world.level.levelgen.feature.Feature;
 import net.minecraft.world.level.levelgen.feature.FeaturePlaceContext;
 import net.minecraft.world.level.levelgen.structure.templatesystem.StructurePlaceSettings;
-import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
-import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplateManager;
-
-import net.dries007.tfc.mixin.accessor.StructureTemplateAccessor;
 
 public class RandomTreeFeature extends Feature<RandomTreeConfig>
 {
@@ -37,14 +33,9 @@ public class RandomTreeFeature extends Feature<RandomTreeConfig>
 
         final ChunkPos chunkPos = new ChunkPos(pos);
         final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos().set(pos);
-        final StructureTemplateManager manager = TreeHelpers.getStructureManager(level);
         final StructurePlaceSettings settings = TreeHelpers.getPlacementSettings(level, chunkPos, random);
         final ResourceLocation structureId = config.structureNames().get(random.nextInt(config.structureNames().size()));
-        final StructureTemplate structure = manager.getOrCreate(structureId);
-        if (((StructureTemplateAccessor) structure).accessor$getPalettes().isEmpty())
-        {
-            throw new IllegalStateException("Empty structure: " + structureId);
-        }
+        final CompiledTreeTemplate structure = TreeTemplates.get(level, structureId);
 
         if (TreeHelpers.isValidLocation(level, pos, settings, config.placement()))
         {
@@ -55,7 +46,7 @@ public class RandomTreeFeature extends Feature<RandomTreeConfig>
                     final int height = TreeHelpers.placeTrunk(level, mutablePos, random, settings, trunk);
                     mutablePos.move(0, height, 0);
                 });
-                TreeHelpers.placeTemplate(structure, settings, level, mutablePos.subtract(TreeHelpers.transformCenter(structure.getSize(), settings)));
+                structure.place(level, mutablePos.subtract(TreeHelpers.transformCenter(structure.getSize(), settings)), settings, random);
                 return true;
             }
             return false;
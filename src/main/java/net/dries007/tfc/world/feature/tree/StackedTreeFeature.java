@@ -15,8 +15,6 @@ import net.minecraft.world.level.WorldGenLevel;
 import net.minecraft.world.level.levelgen.feature.Feature;
 import net.minecraft.world.level.levelgen.feature.FeaturePlaceContext;
 import net.minecraft.world.level.levelgen.structure.templatesystem.StructurePlaceSettings;
-import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
-import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplateManager;
 
 public class StackedTreeFeature extends Feature<StackedTreeConfig>
 {
@@ -35,7 +33,6 @@ public class StackedTreeFeature extends Feature<StackedTreeConfig>
 
         final ChunkPos chunkPos = new ChunkPos(pos);
         final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos().set(pos);
-        final StructureTemplateManager manager = TreeHelpers.getStructureManager(level);
         final StructurePlaceSettings settings = TreeHelpers.getPlacementSettings(level, chunkPos, random);
 
         if (TreeHelpers.isValidGround(level, pos, settings, config.placement()))
@@ -55,10 +52,10 @@ public class StackedTreeFeature extends Feature<StackedTreeConfig>
                     for (int i = 0; i < layerCount; i++)
                     {
                         final ResourceLocation structureId = layer.templates().get(random.nextInt(layer.templates().size()));
-                        final StructureTemplate structure = manager.getOrCreate(structureId);
+                        final CompiledTreeTemplate structure = TreeTemplates.get(level, structureId);
                         // todo: randomize the settings rotation + mirror before each layer.
                         // last time I tried this it broke something with 2x2 structures - they were offset by 1 and I hate fixing those issues
-                        TreeHelpers.placeTemplate(structure, settings, level, mutablePos.subtract(TreeHelpers.transformCenter(structure.getSize(), settings)));
+                        structure.place(level, mutablePos.subtract(TreeHelpers.transformCenter(structure.getSize(), settings)), settings, random);
                         mutablePos.move(0, structure.getSize().getY(), 0);
                     }
                 }
@@ -192,6 +192,8 @@ public final class TreeHelpers
     /**
      * A variant of {@link StructureTemplate#placeInWorld(ServerLevelAccessor, BlockPos, BlockPos, StructurePlaceSettings, RandomSource, int)} that is much simpler and faster for use in tree generation
      * Allows replacing leaves and air blocks
+     *
+     * @see CompiledTreeTemplate
      */
     public static void placeTemplate(StructureTemplate template, StructurePlaceSettings placementIn, ServerLevelAccessor level, BlockPos pos)
     {
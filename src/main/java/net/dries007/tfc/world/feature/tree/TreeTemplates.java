@@ -0,0 +1,92 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.feature.tree;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.world.level.WorldGenLevel;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplateManager;
+
+import net.dries007.tfc.util.EnvironmentHelpers;
+import net.dries007.tfc.util.Helpers;
+
+/**
+ * The {@link CompiledTreeTemplate}s used by tree features, compiled on first use from the server's {@link StructureTemplateManager}.
+ * <p>
+ * Both templates, and which blocks trees may replace, depend on data packs, so everything here is discarded via {@link #clear()} when data packs are reloaded, and when the server stops.
+ */
+public final class TreeTemplates
+{
+    private static final byte UNKNOWN = 0, REPLACEABLE = 1, NOT_REPLACEABLE = 2;
+
+    private static final Map<ResourceLocation, CompiledTreeTemplate> TEMPLATES = new ConcurrentHashMap<>();
+
+    /**
+     * A lazily populated mask of which block states may be replaced by trees, indexed by {@link Block#getId(BlockState)}. Races while populating this are benign, as every thread would write the same value.
+     */
+    private static volatile byte[] replaceable = new byte[0];
+
+    public static CompiledTreeTemplate get(WorldGenLevel level, ResourceLocation id)
+    {
+        final CompiledTreeTemplate template = TEMPLATES.get(id);
+        if (template != null)
+        {
+            return template;
+        }
+        final StructureTemplateManager manager = TreeHelpers.getStructureManager(level);
+        return TEMPLATES.computeIfAbsent(id, key -> CompiledTreeTemplate.compile(key, manager.getOrCreate(key)));
+    }
+
+    /**
+     * @return {@code true} if a tree may replace {@code state} when placing a template. This is equivalent to, but faster than, checking {@link EnvironmentHelpers#isWorldgenReplaceable(BlockState)} and {@link BlockTags#LEAVES}.
+     */
+    public static boolean canReplace(BlockState state)
+    {
+        final int id = Block.getId(state);
+        byte[] mask = replaceable;
+        if (id < 0 || id >= mask.length)
+        {
+            final int size = Block.BLOCK_STATE_REGISTRY.size();
+            if (id < 0 || id >= size)
+            {
+                return computeCanReplace(state); // Not (yet) registered, so don't try and cache it
+            }
+            synchronized (TreeTemplates.class)
+            {
+                mask = replaceable;
+                if (id >= mask.length)
+                {
+                    mask = replaceable = new byte[size];
+                }
+            }
+        }
+
+        final byte value = mask[id];
+        if (value == UNKNOWN)
+        {
+            final boolean result = computeCanReplace(state);
+            mask[id] = result ? REPLACEABLE : NOT_REPLACEABLE;
+            return result;
+        }
+        return value == REPLACEABLE;
+    }
+
+    public static synchronized void clear()
+    {
+        TEMPLATES.clear();
+        replaceable = new byte[0];
+    }
+
+    private static boolean computeCanReplace(BlockState state)
+    {
+        return EnvironmentHelpers.isWorldgenReplaceable(state) || Helpers.isBlock(state.getBlock(), BlockTags.LEAVES);
+    }
+}
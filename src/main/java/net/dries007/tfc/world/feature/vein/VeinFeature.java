@@ -8,7 +8,9 @@ package net.dries007.tfc.world.feature.vein;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
+import com.google.common.collect.MapMaker;
 import com.mojang.serialization.Codec;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Holder;
@@ -28,13 +30,25 @@ import net.minecraft.world.level.material.Fluids;
 import org.jetbrains.annotations.Nullable;
 
 import net.dries007.tfc.common.fluids.FluidHelpers;
+import net.dries007.tfc.config.TFCConfig;
 import net.dries007.tfc.util.EnvironmentHelpers;
 import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.world.FastConcurrentCache;
 
+/**
+ * A feature which places veins, which may span many chunks. Every chunk places the parts of all veins, starting within {@link IVeinConfig#chunkRadius()} chunks, which overlap itself.
+ * <p>
+ * As each vein is visited by every chunk within that radius, veins are cached by their origin chunk, per configuration. A vein is a pure function of the world seed, build height, configuration, and origin chunk, so the cache only saves repeated work, and never changes the result.
+ */
 public abstract class VeinFeature<C extends IVeinConfig, V extends IVein> extends Feature<C>
 {
     private static final int MAX_VEIN_Y_NO_ORE_PLACED = Integer.MIN_VALUE;
 
+    /**
+     * Caches of veins (or lack thereof) by origin chunk, for each configuration of this feature. Configurations are compared by identity, and held weakly, so caches for configurations which are no longer used (i.e. after a datapack reload) are discarded.
+     */
+    private final Map<C, FastConcurrentCache<CachedVein<V>>> veinCaches = new MapMaker().weakKeys().concurrencyLevel(4).makeMap();
+
     public VeinFeature(Codec<C> codec)
     {
         super(codec);
@@ -50,16 +64,28 @@ public abstract class VeinFeature<C extends IVeinConfig, V extends IVein> extend
         final WorldGenerationContext generationContext = new WorldGenerationContext(context.chunkGenerator(), level);
 
         final ChunkPos chunkPos = new ChunkPos(pos);
-        final List<V> veins = getNearbyVeins(level, generationContext, chunkPos, config.chunkRadius(), config, level::getBiome);
-        if (!veins.isEmpty())
+        final int blockX = chunkPos.getMinBlockX(), blockZ = chunkPos.getMinBlockZ();
+        final int radius = config.chunkRadius();
+        boolean placed = false;
+        for (int x = chunkPos.x - radius; x <= chunkPos.x + radius; x++)
         {
-            for (V vein : veins)
+            for (int z = chunkPos.z - radius; z <= chunkPos.z + radius; z++)
             {
-                place(level, random, chunkPos.getMinBlockX(), chunkPos.getMinBlockZ(), vein, config);
+                final CachedVein<V> cached = getCachedVein(level, generationContext, x, z, config);
+                final BoundingBox box = cached.box;
+
+                // Skip veins which cannot place any blocks in this chunk, before the (comparatively expensive) biome check.
+                // Placing these would not consume any randomness, so skipping them does not change the result.
+                if (cached.vein != null
+                    && box.intersects(blockX, blockZ, blockX + 15, blockZ + 15) && box.minY() <= config.maxY() && box.maxY() >= config.minY()
+                    && config.canSpawnAt(cached.vein.pos(), level::getBiome))
+                {
+                    place(level, random, blockX, blockZ, cached.vein, box, config);
+                    placed = true;
+                }
             }
-            return true;
         }
-        return false;
+        return placed;
     }
 
     public final List<V> getNearbyVeins(WorldGenLevel level, WorldGenerationContext context, ChunkPos pos, int radius, C config, Function<BlockPos, Holder<Biome>> biomeQuery)
@@ -77,24 +103,19 @@ public abstract class VeinFeature<C extends IVeinConfig, V extends IVein> extend
 
     public final void getVeinsAtChunk(WorldGenLevel level, WorldGenerationContext context, int chunkPosX, int chunkPosZ, List<V> veins, C config, Function<BlockPos, Holder<Biome>> biomeQuery)
     {
-        final RandomSource random = new XoroshiroRandomSource(level.getSeed() ^ chunkPosX * 61728364132L, config.config().seed() ^ chunkPosZ * 16298364123L);
-        if (random.nextInt(config.config().rarity()) == 0)
+        final CachedVein<V> cached = getCachedVein(level, context, chunkPosX, chunkPosZ, config);
+        if (cached.vein != null && config.canSpawnAt(cached.vein.pos(), biomeQuery))
         {
-            final V vein = createVein(context, chunkPosX << 4, chunkPosZ << 4, random, config);
-            if (config.canSpawnAt(vein.pos(), biomeQuery))
-            {
-                veins.add(vein);
-            }
+            veins.add(cached.vein);
         }
     }
 
-    protected void place(WorldGenLevel level, RandomSource random, int blockX, int blockZ, V vein, C config)
+    protected void place(WorldGenLevel level, RandomSource random, int blockX, int blockZ, V vein, BoundingBox box, C config)
     {
         final boolean debugIndicatorLocations = false;
 
         final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
         final BlockPos pos = vein.pos();
-        final BoundingBox box = getBoundingBox(config, vein).moved(pos.getX(), pos.getY(), pos.getZ());
 
         final int offsetX, offsetZ;
         if (config.config().projectOffset())
@@ -205,6 +226,36 @@ public abstract class VeinFeature<C extends IVeinConfig, V extends IVein> extend
         }
     }
 
+    /**
+     * @return The vein, if any, which originates in the given chunk, along with its bounding box, using the cached value if possible.
+     */
+    private CachedVein<V> getCachedVein(WorldGenLevel level, WorldGenerationContext context, int chunkPosX, int chunkPosZ, C config)
+    {
+        final long seed = level.getSeed();
+        final FastConcurrentCache<CachedVein<V>> cache = veinCaches.computeIfAbsent(config, key -> new FastConcurrentCache<>(TFCConfig.COMMON.veinCacheSize.get()));
+
+        CachedVein<V> cached = cache.getIfPresent(chunkPosX, chunkPosZ);
+        if (cached == null || !cached.matches(seed, context))
+        {
+            // Creating a vein is deterministic, so if two threads race to create the same vein, either result is fine
+            cached = createCachedVein(seed, context, chunkPosX, chunkPosZ, config);
+            cache.set(chunkPosX, chunkPosZ, cached);
+        }
+        return cached;
+    }
+
+    private CachedVein<V> createCachedVein(long seed, WorldGenerationContext context, int chunkPosX, int chunkPosZ, C config)
+    {
+        final RandomSource random = new XoroshiroRandomSource(seed ^ chunkPosX * 61728364132L, config.config().seed() ^ chunkPosZ * 16298364123L);
+        if (random.nextInt(config.config().rarity()) == 0)
+        {
+            final V vein = createVein(context, chunkPosX << 4, chunkPosZ << 4, random, config);
+            final BlockPos pos = vein.pos();
+            return new CachedVein<>(seed, context.getMinGenY(), context.getGenDepth(), vein, getBoundingBox(config, vein).moved(pos.getX(), pos.getY(), pos.getZ()));
+        }
+        return new CachedVein<>(seed, context.getMinGenY(), context.getGenDepth(), null, null);
+    }
+
     @Nullable
     protected BlockState getStateToGenerate(BlockState stoneState, RandomSource random, C config, int x, int y, int z)
     {
@@ -260,4 +311,20 @@ public abstract class VeinFeature<C extends IVeinConfig, V extends IVein> extend
         }
         return false;
     }
+
+    /**
+     * A cached vein, or the absence of one, at a given origin chunk.
+     *
+     * @param seed   The world seed this was created with.
+     * @param minY   The minimum y of the level this was created in. The same configuration may be used in levels with different build heights.
+     * @param height The height of the level this was created in.
+     * @param box    The absolute bounding box of the vein.
+     */
+    private record CachedVein<V extends IVein>(long seed, int minY, int height, @Nullable V vein, @Nullable BoundingBox box)
+    {
+        boolean matches(long seed, WorldGenerationContext context)
+        {
+            return this.seed == seed && minY == context.getMinGenY() && height == context.getGenDepth();
+        }
+    }
 }
@@ -73,5 +73,11 @@ public enum ZoomLayer implements TransformLayer
         return choose(context, northWest, area.get(parentX, parentZ + 1), area.get(parentX + 1, parentZ), area.get(parentX + 1, parentZ + 1));
     }
 
+    @Override
+    public int zoomBits()
+    {
+        return 1;
+    }
+
     public abstract int choose(AreaContext context, int first, int second, int third, int fourth);
 }
@@ -17,6 +17,7 @@ import net.minecraft.world.level.ChunkPos;
  * Additionally - and more importantly - is that most {@link AreaSource}s which use a {@link AreaContext} will throw on concurrent modification to the underlying random instance.
  *
  * @see ConcurrentArea
+ * @see TiledArea
  */
 public class Area
 {
@@ -53,4 +54,12 @@ public class Area
             return value;
         }
     }
+
+    /**
+     * Computes a rectangle of values at once, via {@link AreaSource#fill(int, int, int, int, int[])}. This bypasses (and does not populate) the point cache.
+     */
+    public void fill(int minX, int minZ, int width, int height, int[] out)
+    {
+        source.fill(minX, minZ, width, height, out);
+    }
 }
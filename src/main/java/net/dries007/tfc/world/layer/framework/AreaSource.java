@@ -13,4 +13,19 @@ package net.dries007.tfc.world.layer.framework;
 public interface AreaSource
 {
     int apply(int x, int z);
+
+    /**
+     * Computes every value in a rectangle at once, into {@code out}, indexed by {@code dx + width * dz}. The result must be identical to calling {@link #apply(int, int)} on each position.
+     * Sources which are built on other areas override this to compute the area they need from their parent as a single tile, rather than point by point.
+     */
+    default void fill(int minX, int minZ, int width, int height, int[] out)
+    {
+        for (int dz = 0; dz < height; dz++)
+        {
+            for (int dx = 0; dx < width; dx++)
+            {
+                out[dx + width * dz] = apply(minX + dx, minZ + dz);
+            }
+        }
+    }
 }
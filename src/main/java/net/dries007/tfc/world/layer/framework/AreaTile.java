@@ -0,0 +1,50 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.layer.framework;
+
+/**
+ * A rectangle of values computed from a parent {@link Area} in one {@link Area#fill(int, int, int, int, int[])}, which is passed to a layer in place of its parent when evaluating a whole tile.
+ * Any reads outside the rectangle fall back to the parent, so a layer which reads further than it declares is slower, but still correct.
+ */
+final class AreaTile extends Area
+{
+    /**
+     * @return A tile containing every value of {@code parent} in {@code [minX, maxX] x [minZ, maxZ]}, inclusive.
+     */
+    static AreaTile fill(Area parent, int minX, int minZ, int maxX, int maxZ)
+    {
+        final int width = maxX - minX + 1, height = maxZ - minZ + 1;
+        final int[] values = new int[width * height];
+        parent.fill(minX, minZ, width, height, values);
+        return new AreaTile(parent, minX, minZ, width, height, values);
+    }
+
+    private final int minX, minZ, width, height;
+    private final int[] values;
+
+    private AreaTile(Area parent, int minX, int minZ, int width, int height, int[] values)
+    {
+        super(parent::get, 1);
+
+        this.minX = minX;
+        this.minZ = minZ;
+        this.width = width;
+        this.height = height;
+        this.values = values;
+    }
+
+    @Override
+    public int get(int x, int z)
+    {
+        final int dx = x - minX, dz = z - minZ;
+        if (dx >= 0 && dz >= 0 && dx < width && dz < height)
+        {
+            return values[dx + width * dz];
+        }
+        return super.get(x, z);
+    }
+}
@@ -18,4 +18,10 @@ public interface CenterTransformLayer extends TransformLayer
     }
 
     int apply(AreaContext context, int value);
+
+    @Override
+    default int parentMargin()
+    {
+        return 0;
+    }
 }
@@ -9,22 +9,27 @@ package net.dries007.tfc.world.layer.framework;
 import java.util.function.IntFunction;
 
 /**
- * A concurrent wrapper around {@link Area} via the underlying {@link AreaFactory}.
+ * A concurrent wrapper around {@link Area} via the underlying {@link AreaFactory}, backed by a shared {@link TiledArea}.
  * Also supports simple mapping of the output to another type.
  */
 public class ConcurrentArea<T>
 {
-    private final ThreadLocal<Area> area;
+    private final TiledArea area;
     private final IntFunction<T> mappingFunction;
 
     public ConcurrentArea(AreaFactory factory, IntFunction<T> mappingFunction)
     {
-        this.area = ThreadLocal.withInitial(factory);
+        this.area = new TiledArea(factory);
         this.mappingFunction = mappingFunction;
     }
 
     public T get(int x, int z)
     {
-        return mappingFunction.apply(area.get().get(x, z));
+        return mappingFunction.apply(area.get(x, z));
+    }
+
+    public TiledArea area()
+    {
+        return area;
     }
 }
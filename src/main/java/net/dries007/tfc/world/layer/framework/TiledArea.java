@@ -0,0 +1,85 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.layer.framework;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import net.dries007.tfc.world.FastConcurrentCache;
+
+/**
+ * A thread safe wrapper around a stack of layers, which evaluates them a whole tile at a time via {@link Area#fill(int, int, int, int, int[])}, and keeps a small cache of recent tiles shared between all threads.
+ * <p>
+ * Compared to a {@link ThreadLocal} of {@link Area}s, each value is only computed (and stored) once no matter how many threads sample it, and a miss evaluates each parent layer once over the whole tile, rather than walking the parent layers again for every point that collides in a per-thread cache.
+ * The layer stacks used to compute tiles are pooled, so there are only as many as there have been concurrent tile computations.
+ */
+public class TiledArea
+{
+    public static final int TILE_BITS = 5;
+    public static final int TILE_SIZE = 1 << TILE_BITS;
+    public static final int DEFAULT_CACHE_SIZE = 256;
+
+    private static final int TILE_MASK = TILE_SIZE - 1;
+
+    private final AreaFactory factory;
+    private final Queue<Area> areas;
+    private final FastConcurrentCache<int[]> tiles;
+
+    public TiledArea(AreaFactory factory)
+    {
+        this(factory, DEFAULT_CACHE_SIZE);
+    }
+
+    public TiledArea(AreaFactory factory, int cacheSize)
+    {
+        this.factory = factory;
+        this.areas = new ConcurrentLinkedQueue<>();
+        this.tiles = new FastConcurrentCache<>(cacheSize);
+    }
+
+    /**
+     * @return The index of {@code (x, z)} within its tile.
+     */
+    public static int index(int x, int z)
+    {
+        return (x & TILE_MASK) | ((z & TILE_MASK) << TILE_BITS);
+    }
+
+    public int get(int x, int z)
+    {
+        return getTile(x >> TILE_BITS, z >> TILE_BITS)[index(x, z)];
+    }
+
+    /**
+     * Callers which sample many nearby points can hold on to a tile, rather than looking it up again for each point.
+     *
+     * @return The values in the tile at {@code (tileX, tileZ)}, indexed by {@link #index(int, int)}. This must not be modified.
+     */
+    public int[] getTile(int tileX, int tileZ)
+    {
+        return tiles.computeIfAbsent(tileX, tileZ, () -> createTile(tileX, tileZ));
+    }
+
+    public FastConcurrentCache<int[]> cache()
+    {
+        return tiles;
+    }
+
+    private int[] createTile(int tileX, int tileZ)
+    {
+        Area area = areas.poll();
+        if (area == null)
+        {
+            area = factory.get();
+        }
+
+        final int[] tile = new int[TILE_SIZE * TILE_SIZE];
+        area.fill(tileX << TILE_BITS, tileZ << TILE_BITS, TILE_SIZE, TILE_SIZE, tile);
+        areas.add(area);
+        return tile;
+    }
+}
@@ -9,20 +9,62 @@ package net.dries007.tfc.world.layer.framework;
 /**
  * A layer which transforms a single previous layer.
  * Most implementations will query local values of the previous layer.
+ * <p>
+ * When evaluated a tile at a time, the previous layer is first evaluated over the tile it is read from, as described by {@link #zoomBits()} and {@link #parentMargin()}.
  */
 public interface TransformLayer
 {
     default AreaFactory apply(long seed, AreaFactory prev)
     {
+        final TransformLayer layer = this;
         return () -> {
             final AreaContext context = new AreaContext(seed);
             final Area prevArea = prev.get();
-            return new Area((x, z) -> {
-                context.setSeed(x, z);
-                return apply(context, prevArea, x, z);
+            return new Area(new AreaSource()
+            {
+                @Override
+                public int apply(int x, int z)
+                {
+                    context.setSeed(x, z);
+                    return layer.apply(context, prevArea, x, z);
+                }
+
+                @Override
+                public void fill(int minX, int minZ, int width, int height, int[] out)
+                {
+                    final int zoom = layer.zoomBits(), margin = layer.parentMargin();
+                    final Area prevTile = AreaTile.fill(prevArea,
+                        (minX >> zoom) - margin, (minZ >> zoom) - margin,
+                        ((minX + width - 1) >> zoom) + margin, ((minZ + height - 1) >> zoom) + margin);
+
+                    for (int dz = 0; dz < height; dz++)
+                    {
+                        for (int dx = 0; dx < width; dx++)
+                        {
+                            context.setSeed(minX + dx, minZ + dz);
+                            out[dx + width * dz] = layer.apply(context, prevTile, minX + dx, minZ + dz);
+                        }
+                    }
+                }
             }, 1024);
         };
     }
 
     int apply(AreaContext context, Area area, int x, int z);
+
+    /**
+     * @return The number of times this layer zooms in on the previous layer. A position {@code (x, z)} reads the previous layer around {@code (x >> zoomBits, z >> zoomBits)}.
+     */
+    default int zoomBits()
+    {
+        return 0;
+    }
+
+    /**
+     * @return The maximum distance, in the previous layer, from {@code (x >> zoomBits, z >> zoomBits)} at which this layer reads the previous layer.
+     */
+    default int parentMargin()
+    {
+        return 1;
+    }
 }
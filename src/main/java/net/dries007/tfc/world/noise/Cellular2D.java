@@ -11,18 +11,24 @@ import it.unimi.dsi.fastutil.HashCommon;
 
 /**
  * Modified from {@link FastNoiseLite#SingleCellular(int, double, double)}
+ * Immutable, and safe to share between threads.
  */
 public class Cellular2D implements Noise2D
 {
     public static final double JITTER = 0.43701595f;
 
     private final int seed;
-    private double frequency;
+    private final double frequency;
 
     public Cellular2D(long seed)
     {
-        this.seed = HashCommon.long2int(seed);
-        this.frequency = 1;
+        this(HashCommon.long2int(seed), 1);
+    }
+
+    private Cellular2D(int seed, double frequency)
+    {
+        this.seed = seed;
+        this.frequency = frequency;
     }
 
     @Override
@@ -34,8 +40,7 @@ public class Cellular2D implements Noise2D
     @Override
     public Cellular2D spread(double scaleFactor)
     {
-        frequency *= scaleFactor;
-        return this;
+        return new Cellular2D(seed, frequency * scaleFactor);
     }
 
     public Noise2D then(ToDoubleFunction<Cell> f)
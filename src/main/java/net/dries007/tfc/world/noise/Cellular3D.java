@@ -10,16 +10,22 @@ import it.unimi.dsi.fastutil.HashCommon;
 
 /**
  * Modified from {@link FastNoiseLite#SingleCellular(int, double, double, double)}
+ * Immutable, and safe to share between threads.
  */
 public class Cellular3D implements Noise3D
 {
     private final int seed;
-    private double frequency;
+    private final double frequency;
 
     public Cellular3D(long seed)
     {
-        this.seed = HashCommon.long2int(seed);
-        this.frequency = 1;
+        this(HashCommon.long2int(seed), 1);
+    }
+
+    private Cellular3D(int seed, double frequency)
+    {
+        this.seed = seed;
+        this.frequency = frequency;
     }
 
     @Override
@@ -31,8 +37,7 @@ public class Cellular3D implements Noise3D
     @Override
     public Cellular3D spread(double scaleFactor)
     {
-        frequency *= scaleFactor;
-        return this;
+        return new Cellular3D(seed, frequency * scaleFactor);
     }
 
     public Cell cell(double x, double y, double z)
@@ -0,0 +1,310 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.noise;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
+import net.minecraft.util.Mth;
+
+/**
+ * A tree of {@link Noise2D} combinators, flattened into a single array of operations, which are evaluated by one (monomorphic) interpreter loop.
+ * <p>
+ * A noise built from combinators is a deep tree of small objects, and sampling it calls through a shared, megamorphic, {@link Noise2D#noise(double, double)} call site at every level, which the JIT gives up trying to inline. The compiled form instead stores each node as an opcode and operands, and {@link OpenSimplex2D} leaves are called directly.
+ * Anything which is not a known combinator (i.e. a lambda) is kept as an opaque leaf, and called as before.
+ * <p>
+ * Compiled noise gives bit-identical results to the tree it was compiled from. It is also immutable, and safe to share between threads, as long as the tree it was compiled from was.
+ * Batched evaluation via {@link #fill(double[], double[], double[], int)} is delegated to the original tree, which already evaluates one layer at a time over the whole batch.
+ */
+public final class CompiledNoise2D implements Noise2D
+{
+    private static final int OPAQUE = 0;
+    private static final int SIMPLEX = 1;
+    private static final int OCTAVES = 2;
+    private static final int SPREAD = 3;
+    private static final int WARPED = 4;
+    private static final int ADD = 5;
+    private static final int LAZY_PRODUCT = 6;
+    private static final int AFFINE = 7;
+    private static final int RIDGED = 8;
+    private static final int ABS = 9;
+    private static final int TERRACES = 10;
+    private static final int CLAMPED = 11;
+    private static final int MAPPED = 12;
+
+    /**
+     * @return A compiled form of {@code noise}, or {@code noise} itself if there is nothing to flatten.
+     */
+    public static Noise2D compile(Noise2D noise)
+    {
+        if (noise instanceof CompiledNoise2D || !isCombinator(noise))
+        {
+            return noise;
+        }
+        final Builder builder = new Builder();
+        final int root = builder.add(noise);
+        return new CompiledNoise2D(noise, builder, root);
+    }
+
+    private static boolean isCombinator(Noise2D noise)
+    {
+        return noise instanceof Noise2DCombinators.Octaves
+            || noise instanceof Noise2DCombinators.Spread
+            || noise instanceof Noise2DCombinators.Warped
+            || noise instanceof Noise2DCombinators.Add
+            || noise instanceof Noise2DCombinators.LazyProduct
+            || noise instanceof Noise2DCombinators.Transform;
+    }
+
+    private final Noise2D source;
+    private final int root;
+
+    // Indexed by node
+    private final int[] ops;
+    private final int[] first, second; // Child nodes
+    private final double[] param0, param1; // Scalar operands
+    private final double[][] array0, array1; // Array operands (octave frequencies and amplitudes)
+    private final OpenSimplex2D[] simplex;
+    private final Noise2D[] opaque;
+    private final DomainWarp2D[] warp;
+    private final DoubleUnaryOperator[] mapping;
+
+    private CompiledNoise2D(Noise2D source, Builder builder, int root)
+    {
+        final int size = builder.ops.size();
+
+        this.source = source;
+        this.root = root;
+        this.ops = new int[size];
+        this.first = new int[size];
+        this.second = new int[size];
+        this.param0 = new double[size];
+        this.param1 = new double[size];
+        this.array0 = new double[size][];
+        this.array1 = new double[size][];
+        this.simplex = new OpenSimplex2D[size];
+        this.opaque = new Noise2D[size];
+        this.warp = new DomainWarp2D[size];
+        this.mapping = new DoubleUnaryOperator[size];
+
+        for (int node = 0; node < size; node++)
+        {
+            final Builder.Node n = builder.ops.get(node);
+            ops[node] = n.op;
+            first[node] = n.first;
+            second[node] = n.second;
+            param0[node] = n.param0;
+            param1[node] = n.param1;
+            array0[node] = n.array0;
+            array1[node] = n.array1;
+            switch (n.op)
+            {
+                case SIMPLEX -> simplex[node] = (OpenSimplex2D) n.ref;
+                case OPAQUE -> opaque[node] = (Noise2D) n.ref;
+                case WARPED -> warp[node] = (DomainWarp2D) n.ref;
+                case MAPPED -> mapping[node] = (DoubleUnaryOperator) n.ref;
+            }
+        }
+    }
+
+    @Override
+    public double noise(double x, double z)
+    {
+        return eval(root, x, z);
+    }
+
+    @Override
+    public void fill(double[] xs, double[] zs, double[] out, int n)
+    {
+        source.fill(xs, zs, out, n);
+    }
+
+    /**
+     * @return The number of nodes in the flattened tree.
+     */
+    public int size()
+    {
+        return ops.length;
+    }
+
+    /**
+     * Each case must exactly mirror the arithmetic in the corresponding {@link Noise2DCombinators} implementation, in order to be bit-identical.
+     */
+    private double eval(int node, double x, double z)
+    {
+        switch (ops[node])
+        {
+            case SIMPLEX:
+                return simplex[node].noise(x, z);
+            case OCTAVES:
+            {
+                final double[] frequency = array0[node], amplitude = array1[node];
+                final int child = first[node];
+                double value = 0;
+                for (int i = 0; i < frequency.length; i++)
+                {
+                    value += eval(child, x / frequency[i], z / frequency[i]) * amplitude[i];
+                }
+                return value;
+            }
+            case SPREAD:
+            {
+                final double scaleFactor = param0[node];
+                return eval(first[node], x * scaleFactor, z * scaleFactor);
+            }
+            case WARPED:
+            {
+                final FastNoiseLite.Vector2 cursor = DomainWarp2D.scratch();
+                warp[node].warp(x, z, cursor);
+                return eval(first[node], cursor.x, cursor.y);
+            }
+            case ADD:
+                return eval(first[node], x, z) + eval(second[node], x, z);
+            case LAZY_PRODUCT:
+            {
+                final double value = eval(first[node], x, z);
+                return value == 0 ? 0 : value * eval(second[node], x, z);
+            }
+            case AFFINE:
+                return eval(first[node], x, z) * param0[node] + param1[node];
+            case RIDGED:
+            {
+                double value = eval(first[node], x, z);
+                value = value < 0 ? -value : value;
+                return 1f - 2f * value;
+            }
+            case ABS:
+                return Math.abs(eval(first[node], x, z));
+            case TERRACES:
+            {
+                final int levels = (int) param0[node];
+                double value = 0.5f * eval(first[node], x, z) + 0.5f;
+                double rounded = (int) (value * levels); // In range [0, levels)
+                return (rounded * 2f) / levels - 1f;
+            }
+            case CLAMPED:
+                return Mth.clamp(eval(first[node], x, z), param0[node], param1[node]);
+            case MAPPED:
+                return mapping[node].applyAsDouble(eval(first[node], x, z));
+            default:
+                return opaque[node].noise(x, z);
+        }
+    }
+
+    private static final class Builder
+    {
+        final List<Node> ops = new ArrayList<>();
+        final Map<Noise2D, Integer> visited = new IdentityHashMap<>();
+
+        /**
+         * Adds a noise, and all of its children, and returns the index of its node. Children are always added before their parents, and shared subtrees are only added once.
+         */
+        int add(Noise2D noise)
+        {
+            final Integer existing = visited.get(noise);
+            if (existing != null)
+            {
+                return existing;
+            }
+
+            final Node node = new Node();
+            if (noise instanceof OpenSimplex2D simplex)
+            {
+                node.op = SIMPLEX;
+                node.ref = simplex;
+            }
+            else if (noise instanceof Noise2DCombinators.Octaves octaves)
+            {
+                node.op = OCTAVES;
+                node.first = add(octaves.parent);
+                node.array0 = octaves.frequency;
+                node.array1 = octaves.amplitude;
+            }
+            else if (noise instanceof Noise2DCombinators.Spread spread)
+            {
+                node.op = SPREAD;
+                node.first = add(spread.parent);
+                node.param0 = spread.scaleFactor;
+            }
+            else if (noise instanceof Noise2DCombinators.Warped warped)
+            {
+                node.op = WARPED;
+                node.first = add(warped.parent);
+                node.ref = warped.warp;
+            }
+            else if (noise instanceof Noise2DCombinators.Add sum)
+            {
+                node.op = ADD;
+                node.first = add(sum.first);
+                node.second = add(sum.second);
+            }
+            else if (noise instanceof Noise2DCombinators.LazyProduct product)
+            {
+                node.op = LAZY_PRODUCT;
+                node.first = add(product.first);
+                node.second = add(product.second);
+            }
+            else if (noise instanceof Noise2DCombinators.Affine affine)
+            {
+                node.op = AFFINE;
+                node.first = add(affine.parent);
+                node.param0 = affine.scale;
+                node.param1 = affine.shift;
+            }
+            else if (noise instanceof Noise2DCombinators.Ridged ridged)
+            {
+                node.op = RIDGED;
+                node.first = add(ridged.parent);
+            }
+            else if (noise instanceof Noise2DCombinators.Abs abs)
+            {
+                node.op = ABS;
+                node.first = add(abs.parent);
+            }
+            else if (noise instanceof Noise2DCombinators.Terraces terraces)
+            {
+                node.op = TERRACES;
+                node.first = add(terraces.parent);
+                node.param0 = terraces.levels;
+            }
+            else if (noise instanceof Noise2DCombinators.Clamped clamped)
+            {
+                node.op = CLAMPED;
+                node.first = add(clamped.parent);
+                node.param0 = clamped.min;
+                node.param1 = clamped.max;
+            }
+            else if (noise instanceof Noise2DCombinators.Mapped mapped)
+            {
+                node.op = MAPPED;
+                node.first = add(mapped.parent);
+                node.ref = mapped.mappingFunction;
+            }
+            else
+            {
+                node.op = OPAQUE;
+                node.ref = noise;
+            }
+
+            final int index = ops.size();
+            ops.add(node);
+            visited.put(noise, index);
+            return index;
+        }
+
+        static final class Node
+        {
+            int op;
+            int first = -1, second = -1;
+            double param0, param1;
+            double[] array0, array1;
+            Object ref;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.noise;
+
+/**
+ * An immutable, thread-safe, 2D domain warp. Warped positions are written to caller provided scratch space, so a single instance may be used from any number of threads at once.
+ *
+ * @see OpenSimplex2D#asDomainWarp()
+ */
+public final class DomainWarp2D
+{
+    private static final ThreadLocal<FastNoiseLite.Vector2> SCRATCH = ThreadLocal.withInitial(() -> new FastNoiseLite.Vector2(0, 0));
+
+    /**
+     * @return A thread-confined position, for callers which have nowhere else to put the output of a single warp. The result must be read before the next call on the same thread.
+     */
+    static FastNoiseLite.Vector2 scratch()
+    {
+        return SCRATCH.get();
+    }
+
+    private final FastNoiseLite fnl; // Never modified after construction
+
+    DomainWarp2D(FastNoiseLite fnl)
+    {
+        this.fnl = fnl;
+    }
+
+    /**
+     * Warps the position {@code (x, z)}, writing the warped position into {@code output}.
+     */
+    public void warp(double x, double z, FastNoiseLite.Vector2 output)
+    {
+        output.x = x;
+        output.y = z;
+        fnl.DomainWarp(output);
+    }
+
+    /**
+     * Warps {@code n} positions, writing the warped positions into {@code outXs} and {@code outZs}. The output arrays may be the same as the input arrays.
+     */
+    public void warp(double[] xs, double[] zs, double[] outXs, double[] outZs, int n)
+    {
+        final FastNoiseLite.Vector2 cursor = new FastNoiseLite.Vector2(0, 0);
+        for (int i = 0; i < n; i++)
+        {
+            warp(xs[i], zs[i], cursor);
+            outXs[i] = cursor.x;
+            outZs[i] = cursor.y;
+        }
+    }
+}
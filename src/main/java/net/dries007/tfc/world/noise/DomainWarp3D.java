@@ -0,0 +1,58 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.noise;
+
+/**
+ * An immutable, thread-safe, 3D domain warp. Warped positions are written to caller provided scratch space, so a single instance may be used from any number of threads at once.
+ *
+ * @see OpenSimplex3D#asDomainWarp()
+ */
+public final class DomainWarp3D
+{
+    private static final ThreadLocal<FastNoiseLite.Vector3> SCRATCH = ThreadLocal.withInitial(() -> new FastNoiseLite.Vector3(0, 0, 0));
+
+    /**
+     * @return A thread-confined position, for callers which have nowhere else to put the output of a single warp. The result must be read before the next call on the same thread.
+     */
+    static FastNoiseLite.Vector3 scratch()
+    {
+        return SCRATCH.get();
+    }
+
+    private final FastNoiseLite fnl; // Never modified after construction
+
+    DomainWarp3D(FastNoiseLite fnl)
+    {
+        this.fnl = fnl;
+    }
+
+    /**
+     * Warps the position {@code (x, y, z)}, writing the warped position into {@code output}.
+     */
+    public void warp(double x, double y, double z, FastNoiseLite.Vector3 output)
+    {
+        output.x = x;
+        output.y = y;
+        output.z = z;
+        fnl.DomainWarp(output);
+    }
+
+    /**
+     * Warps {@code n} positions, writing the warped positions into {@code outXs}, {@code outYs} and {@code outZs}. The output arrays may be the same as the input arrays.
+     */
+    public void warp(double[] xs, double[] ys, double[] zs, double[] outXs, double[] outYs, double[] outZs, int n)
+    {
+        final FastNoiseLite.Vector3 cursor = new FastNoiseLite.Vector3(0, 0, 0);
+        for (int i = 0; i < n; i++)
+        {
+            warp(xs[i], ys[i], zs[i], cursor);
+            outXs[i] = cursor.x;
+            outYs[i] = cursor.y;
+            outZs[i] = cursor.z;
+        }
+    }
+}
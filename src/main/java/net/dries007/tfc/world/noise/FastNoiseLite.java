@@ -343,6 +343,47 @@ public class FastNoiseLite
         }
     }
 
+    /// <summary>
+    /// 2D noise at each of the given positions using current settings.
+    /// Identical to calling GetNoise(x, y) for each position, with the per-call setup hoisted out of the loop
+    /// </summary>
+    public void GetNoise(/*FNLfloat*/ double[] xs, /*FNLfloat*/ double[] ys, double[] output, int count)
+    {
+        final boolean skew = mNoiseType == NoiseType.OpenSimplex2 || mNoiseType == NoiseType.OpenSimplex2S;
+        final /*FNLfloat*/ double SQRT3 = (/*FNLfloat*/ double)1.7320508075688772935274463415059;
+        final /*FNLfloat*/ double F2 = 0.5f * (SQRT3 - 1);
+        final FractalType fractalType = mFractalType;
+
+        for (int i = 0; i < count; i++)
+        {
+            /*FNLfloat*/ double x = xs[i] * mFrequency;
+            /*FNLfloat*/ double y = ys[i] * mFrequency;
+
+            if (skew)
+            {
+                /*FNLfloat*/ double t = (x + y) * F2;
+                x += t;
+                y += t;
+            }
+
+            switch (fractalType)
+            {
+                default:
+                    output[i] = GenNoiseSingle(mSeed, x, y);
+                    break;
+                case FBm:
+                    output[i] = GenFractalFBm(x, y);
+                    break;
+                case Ridged:
+                    output[i] = GenFractalRidged(x, y);
+                    break;
+                case PingPong:
+                    output[i] = GenFractalPingPong(x, y);
+                    break;
+            }
+        }
+    }
+
     /// <summary>
     /// 3D noise at given position using current settings
     /// </summary>
@@ -7,7 +7,6 @@
 package net.dries007.tfc.world.noise;
 
 import java.util.function.DoubleUnaryOperator;
-import net.minecraft.util.Mth;
 
 /**
  * Wrapper for a 2D noise layer
@@ -18,25 +17,53 @@ public interface Noise2D
     double noise(double x, double z);
 
     /**
-     * @param octaves The number of octaves
+     * Evaluates this noise at {@code n} positions at once, writing {@code out[i] = noise(xs[i], zs[i])}. Implementations must produce exactly the same values as {@link #noise(double, double)}, and may not modify {@code xs} or {@code zs}.
+     * <p>
+     * The default implementation simply calls {@link #noise(double, double)} for each position. Combinators and {@link OpenSimplex2D} override this to evaluate each layer of the noise over the whole batch, which avoids walking the tree of noise functions once per position.
      */
-    default Noise2D octaves(int octaves)
+    default void fill(double[] xs, double[] zs, double[] out, int n)
     {
-        final double[] frequency = new double[octaves];
-        final double[] amplitude = new double[octaves];
-        for (int i = 0; i < octaves; i++)
+        for (int i = 0; i < n; i++)
         {
-            frequency[i] = 1 << i;
-            amplitude[i] = (double) Math.pow(0.5f, octaves - i);
+            out[i] = noise(xs[i], zs[i]);
         }
-        return (x, y) -> {
-            double value = 0;
-            for (int i = 0; i < octaves; i++)
+    }
+
+    /**
+     * Evaluates this noise over a {@code width x height} grid, where {@code out[x + width * z] = noise(x0 + x * stepX, z0 + z * stepZ)}.
+     */
+    default void fillGrid(double x0, double z0, double stepX, double stepZ, int width, int height, double[] out)
+    {
+        final int n = width * height;
+        final double[] xs = new double[n], zs = new double[n];
+        for (int z = 0; z < height; z++)
+        {
+            for (int x = 0; x < width; x++)
             {
-                value += Noise2D.this.noise(x / frequency[i], y / frequency[i]) * amplitude[i];
+                xs[x + width * z] = x0 + x * stepX;
+                zs[x + width * z] = z0 + z * stepZ;
             }
-            return value;
-        };
+        }
+        fill(xs, zs, out, n);
+    }
+
+    /**
+     * Flattens this noise, and all the combinators it is built from, into a single evaluator. The result is bit-identical to this noise, but avoids the overhead of calling through each combinator for every sample.
+     *
+     * @return a compiled noise function
+     * @see CompiledNoise2D
+     */
+    default Noise2D compiled()
+    {
+        return CompiledNoise2D.compile(this);
+    }
+
+    /**
+     * @param octaves The number of octaves
+     */
+    default Noise2D octaves(int octaves)
+    {
+        return new Noise2DCombinators.Octaves(this, octaves);
     }
 
     /**
@@ -46,11 +73,7 @@ public interface Noise2D
      */
     default Noise2D ridged()
     {
-        return (x, y) -> {
-            double value = Noise2D.this.noise(x, y);
-            value = value < 0 ? -value : value;
-            return 1f - 2f * value;
-        };
+        return new Noise2DCombinators.Ridged(this);
     }
 
     /**
@@ -60,7 +83,7 @@ public interface Noise2D
      */
     default Noise2D abs()
     {
-        return (x, y) -> Math.abs(Noise2D.this.noise(x, y));
+        return new Noise2DCombinators.Abs(this);
     }
 
     /**
@@ -72,11 +95,7 @@ public interface Noise2D
      */
     default Noise2D terraces(int levels)
     {
-        return (x, y) -> {
-            double value = 0.5f * Noise2D.this.noise(x, y) + 0.5f;
-            double rounded = (int) (value * levels); // In range [0, levels)
-            return (rounded * 2f) / levels - 1f;
-        };
+        return new Noise2DCombinators.Terraces(this, levels);
     }
 
     /**
@@ -87,7 +106,7 @@ public interface Noise2D
      */
     default Noise2D spread(double scaleFactor)
     {
-        return (x, y) -> Noise2D.this.noise(x * scaleFactor, y * scaleFactor);
+        return new Noise2DCombinators.Spread(this, scaleFactor);
     }
 
     default Noise2D scaled(double min, double max)
@@ -113,21 +132,22 @@ public interface Noise2D
 
     default Noise2D affine(double scale, double shift)
     {
-        return (x, y) -> Noise2D.this.noise(x, y) * scale + shift;
+        return new Noise2DCombinators.Affine(this, scale, shift);
     }
 
     default Noise2D warped(OpenSimplex2D warp)
     {
-        warp.fnl.SetDomainWarpType(FastNoiseLite.DomainWarpType.OpenSimplex2);
-        warp.fnl.SetFractalType(FastNoiseLite.FractalType.DomainWarpIndependent);
-        warp.fnl.SetDomainWarpAmp(warp.getAmplitude() * 2);
-        final FastNoiseLite.Vector2 cursor = new FastNoiseLite.Vector2(0, 0);
-        return (x, z) -> {
-            cursor.x = x;
-            cursor.y = z;
-            warp.fnl.DomainWarp(cursor);
-            return Noise2D.this.noise(cursor.x, cursor.y);
-        };
+        return warped(warp.asDomainWarp());
+    }
+
+    /**
+     * Warps the input position of this noise by the given domain warp
+     *
+     * @return a new noise function
+     */
+    default Noise2D warped(DomainWarp2D warp)
+    {
+        return new Noise2DCombinators.Warped(this, warp);
     }
 
     /**
@@ -139,7 +159,7 @@ public interface Noise2D
      */
     default Noise2D clamped(double min, double max)
     {
-        return (x, y) -> Mth.clamp(Noise2D.this.noise(x, y), min, max);
+        return new Noise2DCombinators.Clamped(this, min, max);
     }
 
     /**
@@ -147,7 +167,7 @@ public interface Noise2D
      */
     default Noise2D add(Noise2D other)
     {
-        return (x, y) -> Noise2D.this.noise(x, y) + other.noise(x, y);
+        return new Noise2DCombinators.Add(this, other);
     }
 
     /**
@@ -155,14 +175,11 @@ public interface Noise2D
      */
     default Noise2D lazyProduct(Noise2D other)
     {
-        return (x, y) -> {
-            final double value = Noise2D.this.noise(x, y);
-            return value == 0 ? 0 : value * other.noise(x, y);
-        };
+        return new Noise2DCombinators.LazyProduct(this, other);
     }
 
     default Noise2D map(DoubleUnaryOperator mappingFunction)
     {
-        return (x, y) -> mappingFunction.applyAsDouble(Noise2D.this.noise(x, y));
+        return new Noise2DCombinators.Mapped(this, mappingFunction);
     }
 }
\ No newline at end of file
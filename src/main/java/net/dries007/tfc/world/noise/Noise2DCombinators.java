@@ -0,0 +1,341 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.noise;
+
+import java.util.Arrays;
+import java.util.function.DoubleUnaryOperator;
+import net.minecraft.util.Mth;
+
+/**
+ * Implementations of the default {@link Noise2D} combinators. These are named classes, rather than lambdas, so that {@link CompiledNoise2D} is able to inspect, and flatten, a tree of combinators.
+ */
+final class Noise2DCombinators
+{
+    static final class Octaves implements Noise2D
+    {
+        final Noise2D parent;
+        final double[] frequency;
+        final double[] amplitude;
+
+        Octaves(Noise2D parent, int octaves)
+        {
+            this.parent = parent;
+            this.frequency = new double[octaves];
+            this.amplitude = new double[octaves];
+            for (int i = 0; i < octaves; i++)
+            {
+                frequency[i] = 1 << i;
+                amplitude[i] = (double) Math.pow(0.5f, octaves - i);
+            }
+        }
+
+        @Override
+        public double noise(double x, double y)
+        {
+            double value = 0;
+            for (int i = 0; i < frequency.length; i++)
+            {
+                value += parent.noise(x / frequency[i], y / frequency[i]) * amplitude[i];
+            }
+            return value;
+        }
+
+        @Override
+        public void fill(double[] xs, double[] zs, double[] out, int n)
+        {
+            final double[] octaveXs = new double[n], octaveZs = new double[n], octave = new double[n];
+            Arrays.fill(out, 0, n, 0);
+            for (int i = 0; i < frequency.length; i++)
+            {
+                for (int j = 0; j < n; j++)
+                {
+                    octaveXs[j] = xs[j] / frequency[i];
+                    octaveZs[j] = zs[j] / frequency[i];
+                }
+                parent.fill(octaveXs, octaveZs, octave, n);
+                for (int j = 0; j < n; j++)
+                {
+                    out[j] += octave[j] * amplitude[i];
+                }
+            }
+        }
+    }
+
+    static final class Spread implements Noise2D
+    {
+        final Noise2D parent;
+        final double scaleFactor;
+
+        Spread(Noise2D parent, double scaleFactor)
+        {
+            this.parent = parent;
+            this.scaleFactor = scaleFactor;
+        }
+
+        @Override
+        public double noise(double x, double y)
+        {
+            return parent.noise(x * scaleFactor, y * scaleFactor);
+        }
+
+        @Override
+        public void fill(double[] xs, double[] zs, double[] out, int n)
+        {
+            final double[] spreadXs = new double[n], spreadZs = new double[n];
+            for (int i = 0; i < n; i++)
+            {
+                spreadXs[i] = xs[i] * scaleFactor;
+                spreadZs[i] = zs[i] * scaleFactor;
+            }
+            parent.fill(spreadXs, spreadZs, out, n);
+        }
+    }
+
+    static final class Warped implements Noise2D
+    {
+        final Noise2D parent;
+        final DomainWarp2D warp;
+
+        Warped(Noise2D parent, DomainWarp2D warp)
+        {
+            this.parent = parent;
+            this.warp = warp;
+        }
+
+        @Override
+        public double noise(double x, double z)
+        {
+            final FastNoiseLite.Vector2 cursor = DomainWarp2D.scratch();
+            warp.warp(x, z, cursor);
+            return parent.noise(cursor.x, cursor.y); // Read before calling the parent, which may re-use the scratch
+        }
+
+        @Override
+        public void fill(double[] xs, double[] zs, double[] out, int n)
+        {
+            final double[] warpedXs = new double[n], warpedZs = new double[n];
+            warp.warp(xs, zs, warpedXs, warpedZs, n);
+            parent.fill(warpedXs, warpedZs, out, n);
+        }
+    }
+
+    static final class Add implements Noise2D
+    {
+        final Noise2D first, second;
+
+        Add(Noise2D first, Noise2D second)
+        {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public double noise(double x, double y)
+        {
+            return first.noise(x, y) + second.noise(x, y);
+        }
+
+        @Override
+        public void fill(double[] xs, double[] zs, double[] out, int n)
+        {
+            final double[] secondOut = new double[n];
+            first.fill(xs, zs, out, n);
+            second.fill(xs, zs, secondOut, n);
+            for (int i = 0; i < n; i++)
+            {
+                out[i] += secondOut[i];
+            }
+        }
+    }
+
+    static final class LazyProduct implements Noise2D
+    {
+        final Noise2D first, second;
+
+        LazyProduct(Noise2D first, Noise2D second)
+        {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public double noise(double x, double y)
+        {
+            final double value = first.noise(x, y);
+            return value == 0 ? 0 : value * second.noise(x, y);
+        }
+
+        @Override
+        public void fill(double[] xs, double[] zs, double[] out, int n)
+        {
+            first.fill(xs, zs, out, n);
+
+            // Gather only the non-zero positions, so the second noise is still lazily evaluated
+            final int[] indices = new int[n];
+            int count = 0;
+            for (int i = 0; i < n; i++)
+            {
+                if (out[i] == 0)
+                {
+                    out[i] = 0; // Normalizes -0
+                }
+                else
+                {
+                    indices[count++] = i;
+                }
+            }
+            if (count == 0)
+            {
+                return;
+            }
+
+            final double[] secondXs = new double[count], secondZs = new double[count], secondOut = new double[count];
+            for (int i = 0; i < count; i++)
+            {
+                secondXs[i] = xs[indices[i]];
+                secondZs[i] = zs[indices[i]];
+            }
+            second.fill(secondXs, secondZs, secondOut, count);
+            for (int i = 0; i < count; i++)
+            {
+                out[indices[i]] *= secondOut[i];
+            }
+        }
+    }
+
+    /**
+     * A combinator which only modifies the output value of its parent.
+     */
+    abstract static class Transform implements Noise2D
+    {
+        final Noise2D parent;
+
+        Transform(Noise2D parent)
+        {
+            this.parent = parent;
+        }
+
+        abstract double apply(double value);
+
+        @Override
+        public double noise(double x, double y)
+        {
+            return apply(parent.noise(x, y));
+        }
+
+        @Override
+        public void fill(double[] xs, double[] zs, double[] out, int n)
+        {
+            parent.fill(xs, zs, out, n);
+            for (int i = 0; i < n; i++)
+            {
+                out[i] = apply(out[i]);
+            }
+        }
+    }
+
+    static final class Affine extends Transform
+    {
+        final double scale, shift;
+
+        Affine(Noise2D parent, double scale, double shift)
+        {
+            super(parent);
+            this.scale = scale;
+            this.shift = shift;
+        }
+
+        @Override
+        double apply(double value)
+        {
+            return value * scale + shift;
+        }
+    }
+
+    static final class Ridged extends Transform
+    {
+        Ridged(Noise2D parent)
+        {
+            super(parent);
+        }
+
+        @Override
+        double apply(double value)
+        {
+            value = value < 0 ? -value : value;
+            return 1f - 2f * value;
+        }
+    }
+
+    static final class Abs extends Transform
+    {
+        Abs(Noise2D parent)
+        {
+            super(parent);
+        }
+
+        @Override
+        double apply(double value)
+        {
+            return Math.abs(value);
+        }
+    }
+
+    static final class Terraces extends Transform
+    {
+        final int levels;
+
+        Terraces(Noise2D parent, int levels)
+        {
+            super(parent);
+            this.levels = levels;
+        }
+
+        @Override
+        double apply(double noise)
+        {
+            double value = 0.5f * noise + 0.5f;
+            double rounded = (int) (value * levels); // In range [0, levels)
+            return (rounded * 2f) / levels - 1f;
+        }
+    }
+
+    static final class Clamped extends Transform
+    {
+        final double min, max;
+
+        Clamped(Noise2D parent, double min, double max)
+        {
+            super(parent);
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        double apply(double value)
+        {
+            return Mth.clamp(value, min, max);
+        }
+    }
+
+    static final class Mapped extends Transform
+    {
+        final DoubleUnaryOperator mappingFunction;
+
+        Mapped(Noise2D parent, DoubleUnaryOperator mappingFunction)
+        {
+            super(parent);
+            this.mappingFunction = mappingFunction;
+        }
+
+        @Override
+        double apply(double value)
+        {
+            return mappingFunction.applyAsDouble(value);
+        }
+    }
+}
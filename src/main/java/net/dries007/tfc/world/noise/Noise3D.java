@@ -6,6 +6,8 @@
 
 package net.dries007.tfc.world.noise;
 
+import java.util.Arrays;
+
 /**
  * Wrapper for a 3D Noise Layer
  */
@@ -14,6 +16,17 @@ public interface Noise3D
 {
     double noise(double x, double y, double z);
 
+    /**
+     * Evaluates this noise at {@code n} positions at once, writing {@code out[i] = noise(xs[i], ys[i], zs[i])}. Implementations must produce exactly the same values as {@link #noise(double, double, double)}, and may not modify the input arrays.
+     */
+    default void fill(double[] xs, double[] ys, double[] zs, double[] out, int n)
+    {
+        for (int i = 0; i < n; i++)
+        {
+            out[i] = noise(xs[i], ys[i], zs[i]);
+        }
+    }
+
     /**
      * @param octaves The number of octaves
      */
@@ -26,13 +39,39 @@ public interface Noise3D
             frequency[i] = 1 << i;
             amplitude[i] = (double) Math.pow(0.5f, octaves - i);
         }
-        return (x, y, z) -> {
-            double value = 0;
-            for (int i = 0; i < octaves; i++)
+        return new Noise3D()
+        {
+            @Override
+            public double noise(double x, double y, double z)
             {
-                value += Noise3D.this.noise(x / frequency[i], y / frequency[i], z / frequency[i]) * amplitude[i];
+                double value = 0;
+                for (int i = 0; i < octaves; i++)
+                {
+                    value += Noise3D.this.noise(x / frequency[i], y / frequency[i], z / frequency[i]) * amplitude[i];
+                }
+                return value;
+            }
+
+            @Override
+            public void fill(double[] xs, double[] ys, double[] zs, double[] out, int n)
+            {
+                final double[] octaveXs = new double[n], octaveYs = new double[n], octaveZs = new double[n], octave = new double[n];
+                Arrays.fill(out, 0, n, 0);
+                for (int i = 0; i < octaves; i++)
+                {
+                    for (int j = 0; j < n; j++)
+                    {
+                        octaveXs[j] = xs[j] / frequency[i];
+                        octaveYs[j] = ys[j] / frequency[i];
+                        octaveZs[j] = zs[j] / frequency[i];
+                    }
+                    Noise3D.this.fill(octaveXs, octaveYs, octaveZs, octave, n);
+                    for (int j = 0; j < n; j++)
+                    {
+                        out[j] += octave[j] * amplitude[i];
+                    }
+                }
             }
-            return value;
         };
     }
 
@@ -44,7 +83,27 @@ public interface Noise3D
      */
     default Noise3D spread(double scaleFactor)
     {
-        return (x, y, z) -> Noise3D.this.noise(x * scaleFactor, y * scaleFactor, z * scaleFactor);
+        return new Noise3D()
+        {
+            @Override
+            public double noise(double x, double y, double z)
+            {
+                return Noise3D.this.noise(x * scaleFactor, y * scaleFactor, z * scaleFactor);
+            }
+
+            @Override
+            public void fill(double[] xs, double[] ys, double[] zs, double[] out, int n)
+            {
+                final double[] spreadXs = new double[n], spreadYs = new double[n], spreadZs = new double[n];
+                for (int i = 0; i < n; i++)
+                {
+                    spreadXs[i] = xs[i] * scaleFactor;
+                    spreadYs[i] = ys[i] * scaleFactor;
+                    spreadZs[i] = zs[i] * scaleFactor;
+                }
+                Noise3D.this.fill(spreadXs, spreadYs, spreadZs, out, n);
+            }
+        };
     }
 
     default Noise3D scaled(double min, double max)
@@ -63,24 +122,56 @@ public interface Noise3D
      */
     default Noise3D scaled(double oldMin, double oldMax, double min, double max)
     {
-        return (x, y, z) -> {
-            double value = Noise3D.this.noise(x, y, z);
-            return (value - oldMin) / (oldMax - oldMin) * (max - min) + min;
+        return new Noise3D()
+        {
+            @Override
+            public double noise(double x, double y, double z)
+            {
+                double value = Noise3D.this.noise(x, y, z);
+                return (value - oldMin) / (oldMax - oldMin) * (max - min) + min;
+            }
+
+            @Override
+            public void fill(double[] xs, double[] ys, double[] zs, double[] out, int n)
+            {
+                Noise3D.this.fill(xs, ys, zs, out, n);
+                for (int i = 0; i < n; i++)
+                {
+                    out[i] = (out[i] - oldMin) / (oldMax - oldMin) * (max - min) + min;
+                }
+            }
         };
     }
 
     default Noise3D warped(OpenSimplex3D warp)
     {
-        warp.fnl.SetDomainWarpType(FastNoiseLite.DomainWarpType.OpenSimplex2);
-        warp.fnl.SetFractalType(FastNoiseLite.FractalType.DomainWarpIndependent);
-        warp.fnl.SetDomainWarpAmp(warp.getAmplitude() * 2);
-        final FastNoiseLite.Vector3 cursor = new FastNoiseLite.Vector3(0, 0, 0);
-        return (x, y, z) -> {
-            cursor.x = x;
-            cursor.y = y;
-            cursor.z = z;
-            warp.fnl.DomainWarp(cursor);
-            return Noise3D.this.noise(cursor.x, cursor.y, cursor.z);
+        return warped(warp.asDomainWarp());
+    }
+
+    /**
+     * Warps the input position of this noise by the given domain warp
+     *
+     * @return a new noise function
+     */
+    default Noise3D warped(DomainWarp3D warp)
+    {
+        return new Noise3D()
+        {
+            @Override
+            public double noise(double x, double y, double z)
+            {
+                final FastNoiseLite.Vector3 cursor = DomainWarp3D.scratch();
+                warp.warp(x, y, z, cursor);
+                return Noise3D.this.noise(cursor.x, cursor.y, cursor.z); // Read before calling the parent, which may re-use the scratch
+            }
+
+            @Override
+            public void fill(double[] xs, double[] ys, double[] zs, double[] out, int n)
+            {
+                final double[] warpedXs = new double[n], warpedYs = new double[n], warpedZs = new double[n];
+                warp.warp(xs, ys, zs, warpedXs, warpedYs, warpedZs, n);
+                Noise3D.this.fill(warpedXs, warpedYs, warpedZs, out, n);
+            }
         };
     }
-}
\ No newline at end of file
+}
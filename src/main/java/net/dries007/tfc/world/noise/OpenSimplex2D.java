@@ -6,11 +6,17 @@
 
 package net.dries007.tfc.world.noise;
 
+/**
+ * Immutable: every modifier returns a new instance, with its own {@link FastNoiseLite} configuration, which is never modified after construction. This makes instances safe to share between any number of threads.
+ */
 public class OpenSimplex2D implements Noise2D
 {
     final FastNoiseLite fnl;
-    private double frequency;
-    private double midpoint, amplitude;
+    private final int seed;
+    private final int octaves;
+    private final boolean fractal;
+    private final double frequency;
+    private final double midpoint, amplitude;
 
     public OpenSimplex2D(long seed)
     {
@@ -19,14 +25,18 @@ public class OpenSimplex2D implements Noise2D
 
     public OpenSimplex2D(int seed)
     {
-        fnl = new FastNoiseLite(seed);
-        fnl.SetFrequency(1f);
-        fnl.SetNoiseType(FastNoiseLite.NoiseType.OpenSimplex2S);
-        fnl.SetFractalOctaves(1);
+        this(seed, 1, false, 1, 0, 1);
+    }
 
-        frequency = 1;
-        midpoint = 0;
-        amplitude = 1;
+    private OpenSimplex2D(int seed, int octaves, boolean fractal, double frequency, double midpoint, double amplitude)
+    {
+        this.seed = seed;
+        this.octaves = octaves;
+        this.fractal = fractal;
+        this.frequency = frequency;
+        this.midpoint = midpoint;
+        this.amplitude = amplitude;
+        this.fnl = createFastNoiseLite();
     }
 
     @Override
@@ -35,20 +45,27 @@ public class OpenSimplex2D implements Noise2D
         return midpoint + fnl.GetNoise(x, z) * amplitude;
     }
 
+    @Override
+    public void fill(double[] xs, double[] zs, double[] out, int n)
+    {
+        fnl.GetNoise(xs, zs, out, n);
+        for (int i = 0; i < n; i++)
+        {
+            out[i] = midpoint + out[i] * amplitude;
+        }
+    }
+
     @Override
     public OpenSimplex2D octaves(int octaves)
     {
-        fnl.SetFractalOctaves(octaves);
-        fnl.SetFractalType(FastNoiseLite.FractalType.FBm);
-        return spread(1f / (1 << (octaves - 1))); // Due to legacy reasons, most callers expect this scale factor
+        return new OpenSimplex2D(seed, octaves, true, frequency, midpoint, amplitude)
+            .spread(1f / (1 << (octaves - 1))); // Due to legacy reasons, most callers expect this scale factor
     }
 
     @Override
     public OpenSimplex2D spread(double scaleFactor)
     {
-        frequency *= scaleFactor;
-        fnl.SetFrequency(frequency);
-        return this;
+        return new OpenSimplex2D(seed, octaves, fractal, frequency * scaleFactor, midpoint, amplitude);
     }
 
     @Override
@@ -61,13 +78,31 @@ public class OpenSimplex2D implements Noise2D
     public OpenSimplex2D scaled(double oldMin, double oldMax, double min, double max)
     {
         assert oldMin == -1 && oldMax == 1;
-        midpoint = (max + min) / 2;
-        amplitude = (max - min) / 2;
-        return this;
+        return new OpenSimplex2D(seed, octaves, fractal, frequency, (max + min) / 2, (max - min) / 2);
+    }
+
+    /**
+     * @return A domain warp with the same seed, frequency, and octaves as this noise, which displaces positions by up to twice this noise's amplitude.
+     */
+    public DomainWarp2D asDomainWarp()
+    {
+        final FastNoiseLite warp = createFastNoiseLite();
+        warp.SetDomainWarpType(FastNoiseLite.DomainWarpType.OpenSimplex2);
+        warp.SetFractalType(FastNoiseLite.FractalType.DomainWarpIndependent);
+        warp.SetDomainWarpAmp(amplitude * 2);
+        return new DomainWarp2D(warp);
     }
 
-    double getAmplitude()
+    private FastNoiseLite createFastNoiseLite()
     {
-        return amplitude;
+        final FastNoiseLite fnl = new FastNoiseLite(seed);
+        fnl.SetFrequency(frequency);
+        fnl.SetNoiseType(FastNoiseLite.NoiseType.OpenSimplex2S);
+        fnl.SetFractalOctaves(octaves);
+        if (fractal)
+        {
+            fnl.SetFractalType(FastNoiseLite.FractalType.FBm);
+        }
+        return fnl;
     }
 }
@@ -6,11 +6,17 @@
 
 package net.dries007.tfc.world.noise;
 
+/**
+ * Immutable: every modifier returns a new instance, with its own {@link FastNoiseLite} configuration, which is never modified after construction. This makes instances safe to share between any number of threads.
+ */
 public class OpenSimplex3D implements Noise3D
 {
     final FastNoiseLite fnl;
-    private double frequency;
-    private double midpoint, amplitude;
+    private final int seed;
+    private final int octaves;
+    private final boolean fractal;
+    private final double frequency;
+    private final double midpoint, amplitude;
 
     public OpenSimplex3D(long seed)
     {
@@ -19,15 +25,18 @@ public class OpenSimplex3D implements Noise3D
 
     public OpenSimplex3D(int seed)
     {
-        fnl = new FastNoiseLite(seed);
-        fnl.SetFrequency(1f);
-        fnl.SetNoiseType(FastNoiseLite.NoiseType.OpenSimplex2S);
-        fnl.SetFractalOctaves(1);
-        fnl.SetRotationType3D(FastNoiseLite.RotationType3D.ImproveXZPlanes);
+        this(seed, 1, false, 1, 0, 1);
+    }
 
-        frequency = 1;
-        midpoint = 0;
-        amplitude = 1;
+    private OpenSimplex3D(int seed, int octaves, boolean fractal, double frequency, double midpoint, double amplitude)
+    {
+        this.seed = seed;
+        this.octaves = octaves;
+        this.fractal = fractal;
+        this.frequency = frequency;
+        this.midpoint = midpoint;
+        this.amplitude = amplitude;
+        this.fnl = createFastNoiseLite();
     }
 
     @Override
@@ -36,20 +45,26 @@ public class OpenSimplex3D implements Noise3D
         return midpoint + fnl.GetNoise(x, y, z) * amplitude;
     }
 
+    @Override
+    public void fill(double[] xs, double[] ys, double[] zs, double[] out, int n)
+    {
+        for (int i = 0; i < n; i++)
+        {
+            out[i] = midpoint + fnl.GetNoise(xs[i], ys[i], zs[i]) * amplitude;
+        }
+    }
+
     @Override
     public OpenSimplex3D octaves(int octaves)
     {
-        fnl.SetFractalOctaves(octaves);
-        fnl.SetFractalType(FastNoiseLite.FractalType.FBm);
-        return spread(1f / (1 << (octaves - 1))); // Due to legacy reasons, most callers expect this scale factor
+        return new OpenSimplex3D(seed, octaves, true, frequency, midpoint, amplitude)
+            .spread(1f / (1 << (octaves - 1))); // Due to legacy reasons, most callers expect this scale factor
     }
 
     @Override
     public OpenSimplex3D spread(double scaleFactor)
     {
-        frequency *= scaleFactor;
-        fnl.SetFrequency(frequency);
-        return this;
+        return new OpenSimplex3D(seed, octaves, fractal, frequency * scaleFactor, midpoint, amplitude);
     }
 
     @Override
@@ -62,13 +77,32 @@ public class OpenSimplex3D implements Noise3D
     public OpenSimplex3D scaled(double oldMin, double oldMax, double min, double max)
     {
         assert oldMin == -1 && oldMax == 1;
-        midpoint = (max + min) / 2;
-        amplitude = (max - min) / 2;
-        return this;
+        return new OpenSimplex3D(seed, octaves, fractal, frequency, (max + min) / 2, (max - min) / 2);
+    }
+
+    /**
+     * @return A domain warp with the same seed, frequency, and octaves as this noise, which displaces positions by up to twice this noise's amplitude.
+     */
+    public DomainWarp3D asDomainWarp()
+    {
+        final FastNoiseLite warp = createFastNoiseLite();
+        warp.SetDomainWarpType(FastNoiseLite.DomainWarpType.OpenSimplex2);
+        warp.SetFractalType(FastNoiseLite.FractalType.DomainWarpIndependent);
+        warp.SetDomainWarpAmp(amplitude * 2);
+        return new DomainWarp3D(warp);
     }
 
-    double getAmplitude()
+    private FastNoiseLite createFastNoiseLite()
     {
-        return amplitude;
+        final FastNoiseLite fnl = new FastNoiseLite(seed);
+        fnl.SetFrequency(frequency);
+        fnl.SetNoiseType(FastNoiseLite.NoiseType.OpenSimplex2S);
+        fnl.SetFractalOctaves(octaves);
+        fnl.SetRotationType3D(FastNoiseLite.RotationType3D.ImproveXZPlanes);
+        if (fractal)
+        {
+            fnl.SetFractalType(FastNoiseLite.FractalType.FBm);
+        }
+        return fnl;
     }
 }
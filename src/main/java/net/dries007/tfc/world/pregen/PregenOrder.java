@@ -0,0 +1,108 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.pregen;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import net.minecraft.world.level.ChunkPos;
+
+import net.dries007.tfc.world.region.Units;
+
+/**
+ * A deterministic ordering of every chunk in a square area, which visits chunks in the same order that the world generator builds its own data.
+ * <p>
+ * The area is split into tiles which line up exactly with region partitions, and the tiles are visited one region cell at a time. Within a tile, chunks are visited in rows.
+ * This means that each region, and each partition, is generated once and then fully consumed, rather than being evicted from caches and regenerated as a naive spiral would do, and chunks which are adjacent (and so share partial chunk data) are generated close together.
+ * <p>
+ * The order is a pure function of the area, so an index into it is a stable, and compact, way to persist progress.
+ */
+public final class PregenOrder
+{
+    /** The width of a region partition, in chunks. */
+    public static final int TILE_WIDTH_IN_CHUNKS = Units.PARTITION_WIDTH_IN_GRID * Units.GRID_WIDTH_IN_BLOCK / 16;
+
+    /** The width of a region cell, in tiles. */
+    public static final int CELL_WIDTH_IN_TILES = Units.CELL_WIDTH_IN_PARTITION;
+
+    private final int minX, minZ, maxX, maxZ;
+    private final Tile[] tiles;
+    private final long[] tileStart; // Index of the first chunk in each tile, plus the total at the end
+
+    /**
+     * Creates an order over all chunks within {@code radius} (inclusive, on both axis) of a center chunk.
+     */
+    public PregenOrder(int centerX, int centerZ, int radius)
+    {
+        this.minX = centerX - radius;
+        this.minZ = centerZ - radius;
+        this.maxX = centerX + radius;
+        this.maxZ = centerZ + radius;
+
+        final List<Tile> tiles = new ArrayList<>();
+        for (int tileX = Math.floorDiv(minX, TILE_WIDTH_IN_CHUNKS); tileX <= Math.floorDiv(maxX, TILE_WIDTH_IN_CHUNKS); tileX++)
+        {
+            for (int tileZ = Math.floorDiv(minZ, TILE_WIDTH_IN_CHUNKS); tileZ <= Math.floorDiv(maxZ, TILE_WIDTH_IN_CHUNKS); tileZ++)
+            {
+                final int tileMinX = Math.max(minX, tileX * TILE_WIDTH_IN_CHUNKS), tileMaxX = Math.min(maxX, tileX * TILE_WIDTH_IN_CHUNKS + TILE_WIDTH_IN_CHUNKS - 1);
+                final int tileMinZ = Math.max(minZ, tileZ * TILE_WIDTH_IN_CHUNKS), tileMaxZ = Math.min(maxZ, tileZ * TILE_WIDTH_IN_CHUNKS + TILE_WIDTH_IN_CHUNKS - 1);
+                tiles.add(new Tile(tileX, tileZ, tileMinX, tileMinZ, tileMaxX - tileMinX + 1, tileMaxZ - tileMinZ + 1));
+            }
+        }
+        tiles.sort(Comparator.<Tile>comparingInt(tile -> Math.floorDiv(tile.tileZ, CELL_WIDTH_IN_TILES))
+            .thenComparingInt(tile -> Math.floorDiv(tile.tileX, CELL_WIDTH_IN_TILES))
+            .thenComparingInt(Tile::tileZ)
+            .thenComparingInt(Tile::tileX));
+
+        this.tiles = tiles.toArray(new Tile[0]);
+        this.tileStart = new long[this.tiles.length + 1];
+        for (int i = 0; i < this.tiles.length; i++)
+        {
+            tileStart[i + 1] = tileStart[i] + (long) this.tiles[i].width * this.tiles[i].height;
+        }
+    }
+
+    /**
+     * @return The total number of chunks in this order.
+     */
+    public long size()
+    {
+        return tileStart[tiles.length];
+    }
+
+    /**
+     * @return The chunk at {@code index} in this order, as a {@link ChunkPos#asLong(int, int)}.
+     */
+    public long get(long index)
+    {
+        if (index < 0 || index >= size())
+        {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size());
+        }
+
+        // Binary search for the last tile which starts at or before the index
+        int low = 0, high = tiles.length - 1;
+        while (low < high)
+        {
+            final int mid = (low + high + 1) >>> 1;
+            if (tileStart[mid] <= index)
+            {
+                low = mid;
+            }
+            else
+            {
+                high = mid - 1;
+            }
+        }
+
+        final Tile tile = tiles[low];
+        final int local = (int) (index - tileStart[low]);
+        return ChunkPos.asLong(tile.minX + local % tile.width, tile.minZ + local / tile.width);
+    }
+
+    record Tile(int tileX, int tileZ, int minX, int minZ, int width, int height) {}
+}
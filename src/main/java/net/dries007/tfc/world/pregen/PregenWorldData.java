@@ -0,0 +1,129 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.pregen;
+
+import net.minecraft.core.registries.Registries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.saveddata.SavedData;
+import org.jetbrains.annotations.Nullable;
+
+import static net.dries007.tfc.TerraFirmaCraft.MOD_ID;
+
+/**
+ * Persists the current pregeneration job, if any, so that it can be resumed after a restart. This is always stored with the overworld, regardless of which dimension is being generated.
+ * <p>
+ * Progress is stored as a cursor into the {@link PregenOrder} of the job: every chunk before the cursor is known to be generated.
+ */
+public class PregenWorldData extends SavedData
+{
+    private static final String NAME = MOD_ID + "_pregen";
+
+    public static PregenWorldData get(MinecraftServer server)
+    {
+        return server.overworld().getDataStorage().computeIfAbsent(PregenWorldData::load, PregenWorldData::new, NAME);
+    }
+
+    private static PregenWorldData load(CompoundTag nbt)
+    {
+        final PregenWorldData data = new PregenWorldData();
+        if (nbt.contains("job"))
+        {
+            final CompoundTag job = nbt.getCompound("job");
+            data.job = new Job(
+                ResourceKey.create(Registries.DIMENSION, new ResourceLocation(job.getString("dimension"))),
+                job.getInt("centerX"),
+                job.getInt("centerZ"),
+                job.getInt("radius")
+            );
+            data.cursor = job.getLong("cursor");
+            data.paused = job.getBoolean("paused");
+        }
+        return data;
+    }
+
+    @Nullable private Job job;
+    private long cursor;
+    private boolean paused;
+
+    @Override
+    public CompoundTag save(CompoundTag nbt)
+    {
+        if (job != null)
+        {
+            final CompoundTag tag = new CompoundTag();
+            tag.putString("dimension", job.dimension.location().toString());
+            tag.putInt("centerX", job.centerX);
+            tag.putInt("centerZ", job.centerZ);
+            tag.putInt("radius", job.radius);
+            tag.putLong("cursor", cursor);
+            tag.putBoolean("paused", paused);
+            nbt.put("job", tag);
+        }
+        return nbt;
+    }
+
+    @Nullable
+    public Job getJob()
+    {
+        return job;
+    }
+
+    public long getCursor()
+    {
+        return cursor;
+    }
+
+    public boolean isPaused()
+    {
+        return paused;
+    }
+
+    public void start(Job job)
+    {
+        this.job = job;
+        this.cursor = 0;
+        this.paused = false;
+        setDirty();
+    }
+
+    public void setCursor(long cursor)
+    {
+        this.cursor = cursor;
+        setDirty();
+    }
+
+    public void setPaused(boolean paused)
+    {
+        this.paused = paused;
+        setDirty();
+    }
+
+    public void clear()
+    {
+        this.job = null;
+        this.cursor = 0;
+        this.paused = false;
+        setDirty();
+    }
+
+    /**
+     * @param centerX The center chunk X.
+     * @param centerZ The center chunk Z.
+     * @param radius  The radius, in chunks.
+     */
+    public record Job(ResourceKey<Level> dimension, int centerX, int centerZ, int radius)
+    {
+        public PregenOrder order()
+        {
+            return new PregenOrder(centerX, centerZ, radius);
+        }
+    }
+}
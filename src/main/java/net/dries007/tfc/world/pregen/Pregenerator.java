@@ -0,0 +1,339 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.pregen;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import com.mojang.datafixers.util.Either;
+import com.mojang.logging.LogUtils;
+import it.unimi.dsi.fastutil.longs.LongRBTreeSet;
+import it.unimi.dsi.fastutil.longs.LongSortedSet;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ChunkHolder;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ChunkStatus;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+import net.dries007.tfc.config.TFCConfig;
+import net.dries007.tfc.world.WorldgenStage;
+
+/**
+ * Generates every chunk in an area, in the background, as quickly as the server can tolerate.
+ * <p>
+ * Chunks are requested in {@link PregenOrder}, so region and partition data is built once and fully consumed. A dedicated thread submits requests, keeping at most a fixed number of chunks in flight, and backs off entirely while the server's average tick time is above a configured limit.
+ * Each chunk is held by a ticket only until it reaches {@link ChunkStatus#FULL}, after which it is free to be saved and unloaded as normal.
+ * <p>
+ * Progress is tracked as a watermark: the lowest index in the order which has not yet completed. This is periodically written to {@link PregenWorldData}, so a job which is interrupted resumes from there, at the cost of re-requesting (and loading, not generating) at most one window of chunks.
+ * <p>
+ * All static methods, and {@link #tick()}, must be called on the server thread.
+ */
+public final class Pregenerator
+{
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final TicketType<ChunkPos> TICKET = TicketType.create("tfc_pregen", Comparator.comparingLong(ChunkPos::toLong));
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final long THROTTLE_SLEEP_MILLIS = 50;
+
+    @Nullable private static Pregenerator active;
+
+    @Nullable
+    public static Pregenerator active()
+    {
+        return active;
+    }
+
+    /**
+     * Starts the job stored in {@link PregenWorldData}, unless there is none, it is paused, or it is already running.
+     */
+    public static void start(MinecraftServer server)
+    {
+        if (active != null)
+        {
+            return;
+        }
+
+        final PregenWorldData data = PregenWorldData.get(server);
+        final PregenWorldData.Job job = data.getJob();
+        if (job == null || data.isPaused())
+        {
+            return;
+        }
+
+        final ServerLevel level = server.getLevel(job.dimension());
+        if (level == null)
+        {
+            LOGGER.warn("Unable to resume pregeneration in {}, as it does not exist", job.dimension().location());
+            data.clear();
+            return;
+        }
+
+        active = new Pregenerator(server, level, data, job.order());
+        active.begin();
+    }
+
+    /**
+     * Stops the running job, if there is one, saving its progress.
+     */
+    public static void halt()
+    {
+        if (active != null)
+        {
+            active.shutdown();
+            active = null;
+        }
+    }
+
+    private final MinecraftServer server;
+    private final ServerLevel level;
+    private final PregenWorldData data;
+    private final PregenOrder order;
+    private final long total;
+
+    private final ExecutorService executor;
+    private final Semaphore window;
+    private final LongSortedSet inFlight; // Guarded by itself
+    private final double maxTickTime;
+
+    private volatile boolean running;
+    private volatile boolean throttled;
+    private volatile long cursor;
+    private long submitted; // Guarded by inFlight
+
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    // Reporting, only accessed on the server thread
+    private long lastReportNanos;
+    private long lastReportGenerated;
+    private long[] lastStageNanos, lastStageCounts;
+    private double chunksPerSecond;
+    private String stageTimings = "";
+
+    private Pregenerator(MinecraftServer server, ServerLevel level, PregenWorldData data, PregenOrder order)
+    {
+        this.server = server;
+        this.level = level;
+        this.data = data;
+        this.order = order;
+        this.total = order.size();
+
+        this.executor = Executors.newSingleThreadExecutor(task -> {
+            final Thread thread = new Thread(task, "TFC Pregen");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.window = new Semaphore(TFCConfig.SERVER.pregenMaxChunksInFlight.get());
+        this.inFlight = new LongRBTreeSet();
+        this.maxTickTime = TFCConfig.SERVER.pregenMaxTickTime.get();
+
+        this.cursor = Math.min(data.getCursor(), total);
+        this.submitted = cursor;
+    }
+
+    public ServerLevel level()
+    {
+        return level;
+    }
+
+    public long total()
+    {
+        return total;
+    }
+
+    /**
+     * @return The number of chunks which are known to be complete.
+     */
+    public long completed()
+    {
+        return cursor;
+    }
+
+    public long failed()
+    {
+        return failed.get();
+    }
+
+    public boolean isThrottled()
+    {
+        return throttled;
+    }
+
+    /**
+     * @return The generation rate over the last reporting interval.
+     */
+    public double chunksPerSecond()
+    {
+        return chunksPerSecond;
+    }
+
+    /**
+     * @return The average time spent per chunk in each {@link WorldgenStage}, over the last reporting interval.
+     */
+    public String stageTimings()
+    {
+        return stageTimings;
+    }
+
+    /**
+     * Called at the end of every server tick. Updates the throttle, and periodically reports and saves progress.
+     */
+    public void tick()
+    {
+        throttled = server.getAverageTickTime() > maxTickTime;
+
+        final long now = System.nanoTime();
+        if (cursor >= total)
+        {
+            report(now);
+            LOGGER.info("Finished pregenerating {} chunks in {}, {} failed", total, level.dimension().location(), failed.get());
+            shutdown();
+            data.clear(); // After shutdown(), which saves the cursor
+            active = null;
+        }
+        else if (now - lastReportNanos >= REPORT_INTERVAL_NANOS)
+        {
+            report(now);
+            data.setCursor(cursor);
+            LOGGER.info("Pregenerated {} / {} chunks ({}%) at {} chunks/s, ETA {}{}, average stage time: {}",
+                cursor, total, String.format(Locale.ROOT, "%.1f", 100.0 * cursor / total), String.format(Locale.ROOT, "%.1f", chunksPerSecond),
+                formatEta((long) ((total - cursor) / Math.max(chunksPerSecond, 1e-3))), throttled ? " (throttled)" : "", stageTimings);
+        }
+    }
+
+    private void begin()
+    {
+        LOGGER.info("Pregenerating {} chunks in {}, starting at {}", total, level.dimension().location(), cursor);
+
+        running = true;
+        lastReportNanos = System.nanoTime();
+        lastStageNanos = WorldgenStage.snapshotNanos();
+        lastStageCounts = WorldgenStage.snapshotCounts();
+        executor.execute(this::run);
+    }
+
+    private void shutdown()
+    {
+        running = false;
+        executor.shutdownNow();
+        data.setCursor(cursor);
+    }
+
+    private void run()
+    {
+        try
+        {
+            while (running)
+            {
+                if (throttled)
+                {
+                    Thread.sleep(THROTTLE_SLEEP_MILLIS);
+                    continue;
+                }
+
+                window.acquire();
+
+                final long index;
+                synchronized (inFlight)
+                {
+                    if (!running || submitted >= total)
+                    {
+                        window.release();
+                        return;
+                    }
+                    index = submitted++;
+                    inFlight.add(index);
+                }
+
+                final ChunkPos pos = new ChunkPos(order.get(index));
+                server.execute(() -> request(index, pos));
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Adds a ticket for a single chunk, and waits for it to be fully generated. Must be called on the server thread.
+     */
+    private void request(long index, ChunkPos pos)
+    {
+        if (!running)
+        {
+            return;
+        }
+        level.getChunkSource().addRegionTicket(TICKET, pos, 0, pos);
+        level.getChunkSource().getChunkFuture(pos.x, pos.z, ChunkStatus.FULL, true)
+            .whenCompleteAsync((result, error) -> {
+                level.getChunkSource().removeRegionTicket(TICKET, pos, 0, pos);
+                complete(index, pos, result, error);
+            }, server);
+    }
+
+    private void complete(long index, ChunkPos pos, @Nullable Either<ChunkAccess, ChunkHolder.ChunkLoadingFailure> result, @Nullable Throwable error)
+    {
+        if (error != null || result == null || result.right().isPresent())
+        {
+            failed.incrementAndGet();
+            LOGGER.debug("Failed to pregenerate chunk {}: {}", pos, error != null ? error : result);
+        }
+        else
+        {
+            generated.incrementAndGet();
+        }
+
+        synchronized (inFlight)
+        {
+            inFlight.remove(index);
+            cursor = inFlight.isEmpty() ? submitted : inFlight.firstLong();
+        }
+        window.release();
+    }
+
+    private void report(long now)
+    {
+        final long[] stageNanos = WorldgenStage.snapshotNanos(), stageCounts = WorldgenStage.snapshotCounts();
+        final long generatedNow = generated.get();
+        final StringBuilder timings = new StringBuilder();
+        for (WorldgenStage stage : WorldgenStage.values())
+        {
+            final int i = stage.ordinal();
+            final long count = stageCounts[i] - lastStageCounts[i];
+            if (count > 0)
+            {
+                if (!timings.isEmpty())
+                {
+                    timings.append(", ");
+                }
+                timings.append(stage.getSerializedName()).append('=').append(String.format(Locale.ROOT, "%.2fms", (stageNanos[i] - lastStageNanos[i]) / (1e6 * count)));
+            }
+        }
+
+        chunksPerSecond = (generatedNow - lastReportGenerated) * 1e9 / Math.max(now - lastReportNanos, 1);
+        stageTimings = timings.toString();
+
+        lastReportNanos = now;
+        lastReportGenerated = generatedNow;
+        lastStageNanos = stageNanos;
+        lastStageCounts = stageCounts;
+    }
+
+    private static String formatEta(long seconds)
+    {
+        return String.format(Locale.ROOT, "%d:%02d:%02d", seconds / 3600, (seconds / 60) % 60, seconds % 60);
+    }
+}
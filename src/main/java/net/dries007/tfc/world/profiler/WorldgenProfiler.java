@@ -0,0 +1,210 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.profiler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import net.dries007.tfc.world.FastConcurrentCache;
+import net.dries007.tfc.world.WorldgenStage;
+
+/**
+ * A fine-grained, opt-in, profiler for world generation, which accumulates the time spent in individually named steps (i.e. each placed feature, or each region task) across all threads.
+ * <p>
+ * While disabled, instrumented code pays for a single volatile read per step: {@link #start()} returns {@code 0} and {@link #record(Category, String, long)} ignores it. While enabled, each step is timed, accumulated, and emitted as a {@link WorldgenTimingEvent} if a JFR recording is running.
+ * Results are reported via {@code /tfc worldgen}, and can be written as CSV with {@link #writeCsv(Writer, List, List)}.
+ */
+public final class WorldgenProfiler
+{
+    private static final Category[] CATEGORIES = Category.values();
+
+    @SuppressWarnings("unchecked")
+    private static final Map<String, Timer>[] TIMERS = new Map[CATEGORIES.length];
+
+    private static volatile boolean enabled;
+
+    static
+    {
+        for (int i = 0; i < TIMERS.length; i++)
+        {
+            TIMERS[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled)
+    {
+        WorldgenProfiler.enabled = enabled;
+    }
+
+    /**
+     * @return The start time for a step, to be passed to {@link #record(Category, String, long)}, or {@code 0} if the profiler is disabled.
+     */
+    public static long start()
+    {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records a single pass through a step.
+     *
+     * @param startNanos The result of {@link #start()} when the step began.
+     */
+    public static void record(Category category, String name, long startNanos)
+    {
+        if (startNanos != 0)
+        {
+            recordElapsed(category, name, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * As {@link #record(Category, String, long)}, but the name is only computed if the profiler was enabled when the step began.
+     */
+    public static void record(Category category, Supplier<String> name, long startNanos)
+    {
+        if (startNanos != 0)
+        {
+            recordElapsed(category, name.get(), System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Records a single pass through a step, that was timed by the caller. Ignored if the profiler is disabled.
+     */
+    public static void recordElapsed(Category category, String name, long nanos)
+    {
+        if (enabled)
+        {
+            TIMERS[category.ordinal()].computeIfAbsent(name, key -> new Timer()).add(nanos);
+            WorldgenTimingEvent.emit(category, name, nanos);
+        }
+    }
+
+    public static void reset()
+    {
+        for (Map<String, Timer> timers : TIMERS)
+        {
+            timers.clear();
+        }
+    }
+
+    /**
+     * @return A snapshot of every step which has been recorded since the last {@link #reset()}, in descending order of total time.
+     */
+    public static List<Timing> snapshot()
+    {
+        final List<Timing> timings = new ArrayList<>();
+        for (Category category : CATEGORIES)
+        {
+            TIMERS[category.ordinal()].forEach((name, timer) -> timings.add(new Timing(category, name, timer.count.sum(), timer.nanos.sum(), timer.max.get())));
+        }
+        timings.sort(Comparator.comparingLong(Timing::totalNanos).reversed());
+        return timings;
+    }
+
+    /**
+     * @return A snapshot of the hit rates of each of {@code caches}, in iteration order.
+     */
+    public static List<CacheStats> snapshotCaches(Map<String, FastConcurrentCache<?>> caches)
+    {
+        final List<CacheStats> stats = new ArrayList<>(caches.size());
+        caches.forEach((name, cache) -> stats.add(new CacheStats(name, cache.hits(), cache.misses(), cache.coalesced(), cache.duplicates())));
+        return stats;
+    }
+
+    /**
+     * Writes timings and cache statistics as a single CSV table, with one row per timed step or cache.
+     */
+    public static void writeCsv(Writer writer, List<Timing> timings, List<CacheStats> caches) throws IOException
+    {
+        writer.write("category,name,count,total_ms,mean_us,max_us,hits,misses,hit_rate\n");
+        for (Timing timing : timings)
+        {
+            writer.write(String.format(Locale.ROOT, "%s,%s,%d,%.3f,%.3f,%.3f,,,\n", timing.category.getSerializedName(), escapeCsv(timing.name), timing.count, timing.totalNanos / 1e6, timing.meanNanos() / 1e3, timing.maxNanos / 1e3));
+        }
+        for (CacheStats cache : caches)
+        {
+            writer.write(String.format(Locale.ROOT, "cache,%s,%d,,,,%d,%d,%.4f\n", escapeCsv(cache.name), cache.hits + cache.misses, cache.hits, cache.misses, cache.hitRate()));
+        }
+    }
+
+    private static String escapeCsv(String value)
+    {
+        return value.indexOf(',') >= 0 || value.indexOf('"') >= 0 ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    public enum Category
+    {
+        /** The coarse {@link WorldgenStage}s of chunk generation. */
+        STAGE("stage"),
+        /** Each placed feature, during feature decoration. */
+        FEATURE("feature"),
+        /** Each structure, during feature decoration. */
+        STRUCTURE("structure"),
+        /** Each {@link net.dries007.tfc.world.region.RegionGenerator.Task} of building a region. */
+        REGION_TASK("region_task"),
+        /** Generating partial, and rock, chunk data. */
+        CHUNK_DATA("chunk_data");
+
+        private final String serializedName;
+
+        Category(String serializedName)
+        {
+            this.serializedName = serializedName;
+        }
+
+        public String getSerializedName()
+        {
+            return serializedName;
+        }
+    }
+
+    public record Timing(Category category, String name, long count, long totalNanos, long maxNanos)
+    {
+        public double meanNanos()
+        {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+    }
+
+    public record CacheStats(String name, long hits, long misses, long coalesced, long duplicates)
+    {
+        public double hitRate()
+        {
+            final long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+    static final class Timer
+    {
+        final LongAdder nanos = new LongAdder();
+        final LongAdder count = new LongAdder();
+        final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        void add(long elapsed)
+        {
+            nanos.add(elapsed);
+            count.increment();
+            max.accumulate(elapsed);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.profiler;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A JFR event for a single timing recorded by {@link WorldgenProfiler}, which is only emitted while the profiler is enabled.
+ */
+@Name("tfc.WorldgenTiming")
+@Label("Worldgen Timing")
+@Category({"TerraFirmaCraft", "World Generation"})
+@Description("Time spent in one pass of an instrumented world generation step")
+@StackTrace(false)
+public class WorldgenTimingEvent extends Event
+{
+    static void emit(WorldgenProfiler.Category category, String name, long nanos)
+    {
+        final WorldgenTimingEvent event = new WorldgenTimingEvent();
+        if (event.shouldCommit())
+        {
+            event.category = category.getSerializedName();
+            event.name = name;
+            event.time = nanos;
+            event.commit();
+        }
+    }
+
+    @Label("Category")
+    public String category;
+
+    @Label("Name")
+    public String name;
+
+    @Label("Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long time;
+}
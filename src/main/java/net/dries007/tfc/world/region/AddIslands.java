@@ -12,6 +12,12 @@ public enum AddIslands implements RegionTask
 {
     INSTANCE;
 
+    @Override
+    public boolean usesRandom()
+    {
+        return true;
+    }
+
     @Override
     public void apply(RegionGenerator.Context context)
     {
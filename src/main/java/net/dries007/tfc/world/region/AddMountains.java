@@ -16,6 +16,12 @@ public enum AddMountains implements RegionTask
 {
     INSTANCE;
 
+    @Override
+    public boolean usesRandom()
+    {
+        return true;
+    }
+
     @Override
     public void apply(RegionGenerator.Context context)
     {
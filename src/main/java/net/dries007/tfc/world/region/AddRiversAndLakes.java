@@ -24,6 +24,12 @@ public enum AddRiversAndLakes implements RegionTask
     public static final int RIVER_DEPTH = 17;
     public static final float RIVER_FEATHER = 0.8f;
 
+    @Override
+    public boolean usesRandom()
+    {
+        return true;
+    }
+
     @Override
     public void apply(RegionGenerator.Context context)
     {
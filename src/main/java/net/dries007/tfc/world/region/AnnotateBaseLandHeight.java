@@ -18,6 +18,18 @@ public enum AnnotateBaseLandHeight implements RegionTask
 
     private static final int ISLAND_SEED_DEPTH = 3;
 
+    @Override
+    public Parallelism parallelism()
+    {
+        return Parallelism.FLOOD;
+    }
+
+    @Override
+    public boolean usesRandom()
+    {
+        return true;
+    }
+
     @Override
     public void apply(RegionGenerator.Context context)
     {
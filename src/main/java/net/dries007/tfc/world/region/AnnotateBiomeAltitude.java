@@ -16,6 +16,18 @@ public enum AnnotateBiomeAltitude implements RegionTask
 
     public static final int WIDTH = 4;
 
+    @Override
+    public Parallelism parallelism()
+    {
+        return Parallelism.FLOOD;
+    }
+
+    @Override
+    public boolean usesRandom()
+    {
+        return true;
+    }
+
     @Override
     public void apply(RegionGenerator.Context context)
     {
@@ -8,16 +8,17 @@ package net.dries007.tfc.world.region;
 
 import net.minecraft.util.Mth;
 
-public enum AnnotateClimate implements RegionTask
+public enum AnnotateClimate implements PointTask
 {
     INSTANCE;
 
     @Override
-    public void apply(RegionGenerator.Context context)
+    public void applyColumn(RegionGenerator.Context context, long seed, int localX)
     {
         final Region region = context.region;
+        final int x = region.minX() + localX;
 
-        for (int x = region.minX(); x < region.maxX(); x++)
+        if (x < region.maxX())
         {
             for (int z = region.minZ(); z < region.maxZ(); z++)
             {
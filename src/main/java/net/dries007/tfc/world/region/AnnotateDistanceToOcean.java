@@ -13,6 +13,12 @@ public enum AnnotateDistanceToOcean implements RegionTask
 {
     INSTANCE;
 
+    @Override
+    public Parallelism parallelism()
+    {
+        return Parallelism.FLOOD;
+    }
+
     @Override
     public void apply(RegionGenerator.Context context)
     {
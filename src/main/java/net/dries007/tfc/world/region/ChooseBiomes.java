@@ -6,11 +6,11 @@
 
 package net.dries007.tfc.world.region;
 
-import net.dries007.tfc.world.layer.framework.Area;
+import net.dries007.tfc.world.layer.framework.TiledArea;
 
 import static net.dries007.tfc.world.layer.TFCLayers.*;
 
-public enum ChooseBiomes implements RegionTask
+public enum ChooseBiomes implements PointTask
 {
     INSTANCE;
 
@@ -23,54 +23,62 @@ public enum ChooseBiomes implements RegionTask
     private static final int[] MID_DEPTH_OCEAN_BIOMES = {DEEP_OCEAN, OCEAN, OCEAN, OCEAN_REEF, OCEAN_REEF, OCEAN_REEF};
 
     @Override
-    public void apply(RegionGenerator.Context context)
+    public boolean usesRandom()
+    {
+        return true;
+    }
+
+    @Override
+    public long prepare(RegionGenerator.Context context)
+    {
+        return context.random.nextLong();
+    }
+
+    @Override
+    public void applyColumn(RegionGenerator.Context context, long rngSeed, int dx)
     {
         final Region region = context.region;
-        final Area blobArea = context.generator().biomeArea.get();
-        final long rngSeed = context.random.nextLong();
+        final TiledArea blobArea = context.generator().biomeArea;
 
-        for (int dx = 0; dx < region.sizeX(); dx++)
+        for (int dz = 0; dz < region.sizeZ(); dz++)
         {
-            for (int dz = 0; dz < region.sizeZ(); dz++)
+            final int index = dx + region.sizeX() * dz;
+            final Region.Point point = region.data()[index];
+            final int areaSeed = blobArea.get(region.minX() + dx, region.minZ() + dz);
+            if (point != null)
             {
-                final int index = dx + region.sizeX() * dz;
-                final Region.Point point = region.data()[index];
-                final int areaSeed = blobArea.get(region.minX() + dx, region.minZ() + dz);
-                if (point != null)
+                if (point.island())
+                {
+                    point.biome = randomSeededFrom(rngSeed, areaSeed, ISLAND_BIOMES);
+                }
+                else if (point.mountain())
+                {
+                    point.biome = randomSeededFrom(rngSeed, areaSeed, point.coastalMountain() ? OCEANIC_MOUNTAIN_ALTITUDE_BIOMES : MOUNTAIN_ALTITUDE_BIOMES);
+                }
+                else if (point.land())
+                {
+                    point.biome = randomSeededFrom(rngSeed, areaSeed, switch (point.discreteBiomeAltitude()) {
+                        case 2 -> HIGH_ALTITUDE_BIOMES;
+                        case 1 -> MID_ALTITUDE_BIOMES;
+                        case 0 -> LOW_ALTITUDE_BIOMES;
+                        default -> throw new IllegalStateException("Invalid: " + point.discreteBiomeAltitude());
+                    });
+                }
+                else if (point.baseOceanDepth < 3)
+                {
+                    point.biome = OCEAN;
+                }
+                else if (point.baseOceanDepth > 9)
+                {
+                    point.biome = DEEP_OCEAN_TRENCH;
+                }
+                else if (point.baseOceanDepth >= 5 || point.distanceToEdge < 2)
+                {
+                    point.biome = DEEP_OCEAN;
+                }
+                else
                 {
-                    if (point.island())
-                    {
-                        point.biome = randomSeededFrom(rngSeed, areaSeed, ISLAND_BIOMES);
-                    }
-                    else if (point.mountain())
-                    {
-                        point.biome = randomSeededFrom(rngSeed, areaSeed, point.coastalMountain() ? OCEANIC_MOUNTAIN_ALTITUDE_BIOMES : MOUNTAIN_ALTITUDE_BIOMES);
-                    }
-                    else if (point.land())
-                    {
-                        point.biome = randomSeededFrom(rngSeed, areaSeed, switch (point.discreteBiomeAltitude()) {
-                            case 2 -> HIGH_ALTITUDE_BIOMES;
-                            case 1 -> MID_ALTITUDE_BIOMES;
-                            case 0 -> LOW_ALTITUDE_BIOMES;
-                            default -> throw new IllegalStateException("Invalid: " + point.discreteBiomeAltitude());
-                        });
-                    }
-                    else if (point.baseOceanDepth < 3)
-                    {
-                        point.biome = OCEAN;
-                    }
-                    else if (point.baseOceanDepth > 9)
-                    {
-                        point.biome = DEEP_OCEAN_TRENCH;
-                    }
-                    else if (point.baseOceanDepth >= 5 || point.distanceToEdge < 2)
-                    {
-                        point.biome = DEEP_OCEAN;
-                    }
-                    else
-                    {
-                        point.biome = randomSeededFrom(rngSeed, areaSeed, MID_DEPTH_OCEAN_BIOMES);
-                    }
+                    point.biome = randomSeededFrom(rngSeed, areaSeed, MID_DEPTH_OCEAN_BIOMES);
                 }
             }
         }
@@ -6,9 +6,9 @@
 
 package net.dries007.tfc.world.region;
 
-import net.dries007.tfc.world.layer.framework.Area;
+import net.dries007.tfc.world.layer.framework.TiledArea;
 
-public enum ChooseRocks implements RegionTask
+public enum ChooseRocks implements PointTask
 {
     INSTANCE;
 
@@ -21,23 +21,20 @@ public enum ChooseRocks implements RegionTask
     public static final int TYPE_MASK = (1 << TYPE_BITS) - 1; // 0b11
 
     @Override
-    public void apply(RegionGenerator.Context context)
+    public void applyColumn(RegionGenerator.Context context, long seed, int dx)
     {
         final Region region = context.region;
-        final Area rockArea = context.generator().rockArea.get();
+        final TiledArea rockArea = context.generator().rockArea;
 
-        for (int dx = 0; dx < region.sizeX(); dx++)
+        for (int dz = 0; dz < region.sizeZ(); dz++)
         {
-            for (int dz = 0; dz < region.sizeZ(); dz++)
+            final int index = dx + region.sizeX() * dz;
+            final Region.Point point = region.data()[index];
+            if (point != null)
             {
-                final int index = dx + region.sizeX() * dz;
-                final Region.Point point = region.data()[index];
-                if (point != null)
-                {
-                    // Lower two bits are the supertype, upper bits are seed
-                    point.rock = (rockArea.get(region.minX() + dx, region.minZ() + dz) << TYPE_BITS)
-                        | findClosestType(region, point, index);
-                }
+                // Lower two bits are the supertype, upper bits are seed
+                point.rock = (rockArea.get(region.minX() + dx, region.minZ() + dz) << TYPE_BITS)
+                    | findClosestType(region, point, index);
             }
         }
     }
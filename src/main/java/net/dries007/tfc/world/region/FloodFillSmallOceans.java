@@ -17,6 +17,12 @@ public enum FloodFillSmallOceans implements RegionTask
 
     private static final int SMALL_OCEAN_FILL_THRESHOLD = 180;
 
+    @Override
+    public Parallelism parallelism()
+    {
+        return Parallelism.FLOOD;
+    }
+
     @Override
     public void apply(RegionGenerator.Context context)
     {
@@ -0,0 +1,47 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.region;
+
+/**
+ * A {@link RegionTask} which is independent for each point in the region, so it can be applied to each column of the region in parallel, with identical results.
+ * Each column must only write to points in that column, and only read values which this task does not write.
+ */
+public interface PointTask extends RegionTask
+{
+    /**
+     * Called once, before any columns are applied. Anything drawn from the region's random must be drawn here, so it is consumed identically however the columns are applied.
+     *
+     * @return A seed, which is passed to every column.
+     */
+    default long prepare(RegionGenerator.Context context)
+    {
+        return 0;
+    }
+
+    /**
+     * Applies this task to every point in a column of the region.
+     *
+     * @param localX The x position of the column, relative to the region, in {@code [0, region.sizeX())}.
+     */
+    void applyColumn(RegionGenerator.Context context, long seed, int localX);
+
+    @Override
+    default void apply(RegionGenerator.Context context)
+    {
+        final long seed = prepare(context);
+        for (int localX = 0; localX < context.region.sizeX(); localX++)
+        {
+            applyColumn(context, seed, localX);
+        }
+    }
+
+    @Override
+    default Parallelism parallelism()
+    {
+        return Parallelism.PER_POINT;
+    }
+}
@@ -47,6 +47,18 @@ public final class Region
         this.data = new Point[Units.REGION_WIDTH_IN_GRID * Units.REGION_WIDTH_IN_GRID];
     }
 
+    /**
+     * Creates a region that was already generated, i.e. read from a {@link RegionStore}.
+     */
+    Region(double cellX, double cellY, double noise, Point[] data, int minX, int minZ, int maxX, int maxZ, List<RiverEdge> rivers)
+    {
+        this.cellX = cellX;
+        this.cellY = cellY;
+        this.noise = noise;
+        this.rivers = rivers;
+        setRegionArea(data, minX, minZ, maxX, maxZ);
+    }
+
     public Point atInit(int gridX, int gridZ)
     {
         final int index = index(gridX, gridZ);
@@ -113,6 +125,8 @@ public final class Region
         return localX + sizeX * localZ;
     }
 
+    public double cellX() { return cellX; }
+    public double cellY() { return cellY; }
     public double noise() { return noise; }
 
     public int minX() { return minX; }
@@ -186,6 +200,9 @@ public final class Region
 
         public int discreteBiomeAltitude() { return Math.floorDiv(biomeAltitude, AnnotateBiomeAltitude.WIDTH); }
 
+        short flags() { return flags; }
+        void setFlags(short flags) { this.flags = flags; }
+
         public void setLand() { flags |= FLAG_LAND; }
         public void setIsland() { flags |= FLAG_ISLAND; }
         public void setShore() { distanceToOcean = -2; }
@@ -8,27 +8,44 @@ package net.dries007.tfc.world.region;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
 import net.minecraft.util.Mth;
 import net.minecraft.util.RandomSource;
 import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
 import org.jetbrains.annotations.VisibleForTesting;
 
 import net.dries007.tfc.world.FastConcurrentCache;
 import net.dries007.tfc.world.layer.TFCLayers;
-import net.dries007.tfc.world.layer.framework.Area;
 import net.dries007.tfc.world.layer.framework.AreaFactory;
+import net.dries007.tfc.world.layer.framework.TiledArea;
 import net.dries007.tfc.world.noise.Cellular2D;
 import net.dries007.tfc.world.noise.Noise2D;
 import net.dries007.tfc.world.noise.OpenSimplex2D;
+import net.dries007.tfc.world.profiler.WorldgenProfiler;
 import net.dries007.tfc.world.settings.Settings;
 
 /**
  * This is a single-instance, threadsafe (accessible from multiple threads concurrently), generator. As such, all query-able fields of this class need to support concurrent access, either by being concurrent i.e. {@link FastConcurrentCache}, thread local {@link ThreadLocal}, or immutable / stateless i.e. {@link Noise2D}
+ * <p>
+ * Regions are built by running each {@link Task} in order. If parallel, tasks instead run on a shared pool as soon as the tasks they depend on are complete, and {@linkplain RegionTask.Parallelism#PER_POINT per point} tasks are split across columns of the region. Both produce identical regions.
  */
 public class RegionGenerator
 {
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+        final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("TFC Region Worker #" + thread.getPoolIndex());
+        thread.setContextClassLoader(RegionGenerator.class.getClassLoader());
+        thread.setDaemon(true);
+        return thread;
+    }, null, false);
+
     private static double triangle(double frequency, double value)
     {
         return Math.abs(4f * frequency * value + 1f - 4f * Mth.floor(frequency * value + 0.75f)) - 1f;
@@ -47,52 +64,69 @@ public class RegionGenerator
     final Noise2D temperatureNoise;
     final Noise2D rainfallNoise;
 
-    final ThreadLocal<Area> biomeArea;
-    final ThreadLocal<Area> rockArea;
+    final TiledArea biomeArea;
+    final TiledArea rockArea;
 
     private final long seed;
     private final FastConcurrentCache<Region> cellCache;
     private final FastConcurrentCache<RegionPartition> partitionCache;
 
     private final Cellular2D cellNoise;
+    private final @Nullable RegionStore store;
+    private final boolean parallel;
 
     public RegionGenerator(Settings settings, RandomSource random)
     {
+        this(settings, random, 256, null, false);
+    }
+
+    /**
+     * @param cacheSize The size of the in-memory region and partition caches.
+     * @param store     If present, a persistent store which is checked for regions before generating them, and which newly generated regions are saved to.
+     * @param parallel  If regions are generated in parallel, on a shared pool, rather than on the thread which first requested them.
+     */
+    public RegionGenerator(Settings settings, RandomSource random, int cacheSize, @Nullable RegionStore store, boolean parallel)
+    {
+        this.store = store;
+        this.parallel = parallel;
         this.seed = random.nextLong();
 
         this.cellNoise = new Cellular2D(random.nextLong()).spread(1f / Units.CELL_WIDTH_IN_GRID);
 
         // Both of these caches are queried, and cached, on a cell-coordinate basis
         // Since cells are large (~12km), a small concurrent cache should be enough
-        this.cellCache = new FastConcurrentCache<>(256);
-        this.partitionCache = new FastConcurrentCache<>(256);
+        this.cellCache = new FastConcurrentCache<>(cacheSize);
+        this.partitionCache = new FastConcurrentCache<>(cacheSize);
 
         float min = settings.continentalness() * 10f - 2.5f; // range [0, 1], default 0.5 -> 2.5 continentalness
         this.continentNoise = cellNoise.then(c -> 1 - c.f1() / (0.37f + c.f2()))
             .lazyProduct(new OpenSimplex2D(random.nextLong())
                 .spread(0.24f)
                 .scaled(min, 8.7f)
-                .octaves(4));
+                .octaves(4))
+            .compiled();
 
         this.temperatureNoise = baseNoise(false, settings.temperatureScale(), settings.temperatureConstant())
             .scaled(-20f, 30f)
             .add(new OpenSimplex2D(random.nextInt())
                 .octaves(2)
                 .spread(0.15f)
-                .scaled(-3f, 3f));
+                .scaled(-3f, 3f))
+            .compiled();
 
         this.rainfallNoise = baseNoise(true, settings.temperatureScale(), settings.temperatureConstant())
             .scaled(0f, 500f)
             .add(new OpenSimplex2D(random.nextInt())
                 .octaves(2)
                 .spread(0.15f)
-                .scaled(-40f, 40f));
+                .scaled(-40f, 40f))
+            .compiled();
 
         final AreaFactory biomeAreaFactory = TFCLayers.createUniformLayer(random, 2);
         final AreaFactory rockAreaFactory = TFCLayers.createUniformLayer(random, 3);
 
-        biomeArea = ThreadLocal.withInitial(biomeAreaFactory);
-        rockArea = ThreadLocal.withInitial(rockAreaFactory);
+        biomeArea = new TiledArea(biomeAreaFactory);
+        rockArea = new TiledArea(rockAreaFactory);
     }
 
     public long seed()
@@ -100,6 +134,16 @@ public class RegionGenerator
         return seed;
     }
 
+    public FastConcurrentCache<Region> regionCache()
+    {
+        return cellCache;
+    }
+
+    public FastConcurrentCache<RegionPartition> partitionCache()
+    {
+        return partitionCache;
+    }
+
     public RegionPartition.Point getOrCreatePartitionPoint(int gridX, int gridZ)
     {
         return getOrCreatePartition(gridX, gridZ).get(gridX, gridZ);
@@ -110,24 +154,20 @@ public class RegionGenerator
         final int cellX = Units.gridToCell(gridX);
         final int cellZ = Units.gridToCell(gridZ);
 
-        RegionPartition entry = partitionCache.getIfPresent(cellX, cellZ);
-        if (entry == null)
-        {
-            entry = createPartition(cellX, cellZ);
-            partitionCache.set(cellX, cellZ, entry);
-        }
-        return entry;
+        return partitionCache.computeIfAbsent(cellX, cellZ, () -> createPartition(cellX, cellZ));
     }
 
     private RegionPartition createPartition(int cellX, int cellZ)
     {
         final List<Region> nearbyRegions = getAllRegionsIn3x3CellArea(cellX, cellZ);
         final RegionPartition partition = new RegionPartition(cellX, cellZ);
+        final List<RiverEdge> edges = new ArrayList<>();
 
         for (Region region : nearbyRegions)
         {
             for (RiverEdge edge : region.rivers())
             {
+                boolean inPartition = false;
                 for (int partX = edge.minPartX; partX <= edge.maxPartX; partX++)
                 {
                     for (int partZ = edge.minPartZ; partZ <= edge.maxPartZ; partZ++)
@@ -135,11 +175,17 @@ public class RegionGenerator
                         if (partition.isIn(partX, partZ))
                         {
                             partition.getFromPart(partX, partZ).rivers().add(edge);
+                            inPartition = true;
                         }
                     }
                 }
+                if (inPartition)
+                {
+                    edges.add(edge);
+                }
             }
         }
+        partition.buildRiverIndex(edges);
         return partition;
     }
 
@@ -173,13 +219,26 @@ public class RegionGenerator
         final int cellX = Float.floatToIntBits((float) cell.x());
         final int cellZ = Float.floatToIntBits((float) cell.y());
 
-        Region entry = cellCache.getIfPresent(cellX, cellZ);
-        if (entry == null)
+        return cellCache.computeIfAbsent(cellX, cellZ, () -> loadOrCreateRegion(cell));
+    }
+
+    private Region loadOrCreateRegion(Cellular2D.Cell cell)
+    {
+        if (store != null)
+        {
+            final Region stored = store.load(cell);
+            if (stored != null)
+            {
+                return stored;
+            }
+        }
+
+        final Region region = parallel ? new Context((id, r) -> {}, cell, seed).runTasksInParallel().region : createRegion(cell, (id, r) -> {});
+        if (store != null)
         {
-            entry = createRegion(cell, (id, r) -> {});
-            cellCache.set(cellX, cellZ, entry);
+            store.save(cell, region);
         }
-        return entry;
+        return region;
     }
 
     private Region createRegion(Cellular2D.Cell regionCell, BiConsumer<Task, Region> viewer)
@@ -198,32 +257,55 @@ public class RegionGenerator
         createRegion(sampleCell(gridX, gridZ), viewer);
     }
 
+    /**
+     * Each task declares the earlier tasks it depends on: those which write any data it reads, or read any data it writes.
+     * Data is tracked per field of each point, and per flag, so a task may read a flag concurrently with another task setting a different flag.
+     */
     public enum Task
     {
         INIT(c -> {}),
-        ADD_CONTINENTS(AddContinents.INSTANCE),
-        SHRINK_TO_CELL(ShrinkToCell.INSTANCE),
-        ANNOTATE_DISTANCE_TO_CELL_EDGE(AnnotateDistanceToCellEdge.INSTANCE),
-        FLOOD_FILL_SMALL_OCEANS(FloodFillSmallOceans.INSTANCE),
-        ADD_ISLANDS(AddIslands.INSTANCE),
-        ANNOTATE_DISTANCE_TO_OCEAN(AnnotateDistanceToOcean.INSTANCE),
-        ANNOTATE_BASE_LAND_HEIGHT(AnnotateBaseLandHeight.INSTANCE),
-        ADD_MOUNTAINS(AddMountains.INSTANCE),
-        ANNOTATE_BIOME_ALTITUDE(AnnotateBiomeAltitude.INSTANCE),
-        ANNOTATE_CLIMATE(AnnotateClimate.INSTANCE),
-        ANNOTATE_RAINFALL(c -> {}),
-        CHOOSE_BIOMES(ChooseBiomes.INSTANCE),
-        CHOOSE_ROCKS(ChooseRocks.INSTANCE),
-        ADD_RIVERS_AND_LAKES(AddRiversAndLakes.INSTANCE),
+        ADD_CONTINENTS(AddContinents.INSTANCE, INIT),
+        SHRINK_TO_CELL(ShrinkToCell.INSTANCE, ADD_CONTINENTS),
+        ANNOTATE_DISTANCE_TO_CELL_EDGE(AnnotateDistanceToCellEdge.INSTANCE, SHRINK_TO_CELL),
+        FLOOD_FILL_SMALL_OCEANS(FloodFillSmallOceans.INSTANCE, SHRINK_TO_CELL),
+        ADD_ISLANDS(AddIslands.INSTANCE, ANNOTATE_DISTANCE_TO_CELL_EDGE, FLOOD_FILL_SMALL_OCEANS),
+        ANNOTATE_DISTANCE_TO_OCEAN(AnnotateDistanceToOcean.INSTANCE, ADD_ISLANDS),
+        ANNOTATE_BASE_LAND_HEIGHT(AnnotateBaseLandHeight.INSTANCE, ANNOTATE_DISTANCE_TO_OCEAN),
+        ADD_MOUNTAINS(AddMountains.INSTANCE, ANNOTATE_BASE_LAND_HEIGHT),
+        ANNOTATE_BIOME_ALTITUDE(AnnotateBiomeAltitude.INSTANCE, ADD_MOUNTAINS),
+        ANNOTATE_CLIMATE(AnnotateClimate.INSTANCE, ANNOTATE_DISTANCE_TO_OCEAN),
+        ANNOTATE_RAINFALL(c -> {}, ANNOTATE_CLIMATE),
+        CHOOSE_BIOMES(ChooseBiomes.INSTANCE, ANNOTATE_BIOME_ALTITUDE),
+        CHOOSE_ROCKS(ChooseRocks.INSTANCE, ADD_MOUNTAINS),
+        ADD_RIVERS_AND_LAKES(AddRiversAndLakes.INSTANCE, CHOOSE_BIOMES),
         ;
 
         private static final Task[] VALUES = values();
 
         private final RegionTask task;
+        private final Task[] dependencies;
+        private final String serializedName;
 
-        Task(RegionTask task)
+        Task(RegionTask task, Task... dependencies)
         {
             this.task = task;
+            this.dependencies = dependencies;
+            this.serializedName = name().toLowerCase(Locale.ROOT);
+        }
+
+        public RegionTask.Parallelism parallelism()
+        {
+            return task.parallelism();
+        }
+
+        public boolean usesRandom()
+        {
+            return task.usesRandom();
+        }
+
+        public List<Task> dependencies()
+        {
+            return List.of(dependencies);
         }
     }
 
@@ -255,14 +337,52 @@ public class RegionGenerator
         {
             for (Task task : Task.VALUES)
             {
-                run(task);
+                run(task, false);
             }
             return this;
         }
 
-        void run(Task task)
+        /**
+         * Runs each task on the pool once its dependencies are complete, and once all previous tasks which use the region's random are complete, so the random is consumed in the same order as {@link #runTasks()}.
+         * The viewer may be called from any thread, in any order consistent with task dependencies.
+         */
+        Context runTasksInParallel()
         {
-            task.task.apply(this);
+            final CompletableFuture<?>[] completed = new CompletableFuture<?>[Task.VALUES.length];
+            CompletableFuture<?> lastRandomTask = CompletableFuture.completedFuture(null);
+            for (Task task : Task.VALUES)
+            {
+                final CompletableFuture<?>[] dependencies = new CompletableFuture<?>[task.dependencies.length + 1];
+                for (int i = 0; i < task.dependencies.length; i++)
+                {
+                    dependencies[i] = completed[task.dependencies[i].ordinal()];
+                }
+                dependencies[task.dependencies.length] = task.usesRandom() ? lastRandomTask : CompletableFuture.completedFuture(null);
+
+                final CompletableFuture<?> future = CompletableFuture.allOf(dependencies).thenRunAsync(() -> run(task, true), POOL);
+                completed[task.ordinal()] = future;
+                if (task.usesRandom())
+                {
+                    lastRandomTask = future;
+                }
+            }
+            CompletableFuture.allOf(completed).join();
+            return this;
+        }
+
+        void run(Task task, boolean parallel)
+        {
+            final long startNanos = WorldgenProfiler.start();
+            if (parallel && task.task instanceof PointTask pointTask)
+            {
+                final long seed = pointTask.prepare(this);
+                IntStream.range(0, region.sizeX()).parallel().forEach(localX -> pointTask.applyColumn(this, seed, localX));
+            }
+            else
+            {
+                task.task.apply(this);
+            }
+            WorldgenProfiler.record(WorldgenProfiler.Category.REGION_TASK, task.serializedName, startNanos);
             viewer.accept(task, region);
         }
 
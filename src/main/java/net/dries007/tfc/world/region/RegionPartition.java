@@ -7,11 +7,15 @@
 package net.dries007.tfc.world.region;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * This represents a <strong>partition</strong> of a single {@link Region} into a larger coordinate scale. At each point in the partition, we collect river segments that may influence that point.
  * Ultimately this allows querying rivers at a much smaller scale than on a per-region basis, which is essential to generate rivers as part of terrain.
+ * <p>
+ * Distance queries against rivers are answered through a {@link RiverSegmentIndex} over the entire partition, which is shared by every point.
  */
 public record RegionPartition(int minPartX, int minPartZ, Point[] data)
 {
@@ -21,7 +25,35 @@ public record RegionPartition(int minPartX, int minPartZ, Point[] data)
 
         for (int i = 0; i < data.length; i++)
         {
-            data[i] = new Point(new ArrayList<>());
+            data[i] = new Point(new ArrayList<>(), EMPTY_EDGE_IDS, RiverSegmentIndex.EMPTY);
+        }
+    }
+
+    private static final int[] EMPTY_EDGE_IDS = new int[0];
+
+    /**
+     * Builds the river index, once every point has been populated with rivers.
+     *
+     * @param edges Every edge present in this partition, in the order they were added to each point.
+     */
+    void buildRiverIndex(List<RiverEdge> edges)
+    {
+        final RiverSegmentIndex index = RiverSegmentIndex.create(edges, Units.partToGrid(minPartX), Units.partToGrid(minPartZ), Units.CELL_WIDTH_IN_GRID);
+        final Map<RiverEdge, Integer> edgeIds = new IdentityHashMap<>();
+        for (int i = 0; i < edges.size(); i++)
+        {
+            edgeIds.put(edges.get(i), i);
+        }
+
+        for (int i = 0; i < data.length; i++)
+        {
+            final List<RiverEdge> rivers = data[i].rivers;
+            final int[] ids = new int[rivers.size()];
+            for (int j = 0; j < ids.length; j++)
+            {
+                ids[j] = edgeIds.get(rivers.get(j)); // In ascending order, as edges were added to each point in order
+            }
+            data[i] = new Point(rivers, ids, index);
         }
     }
 
@@ -48,5 +80,30 @@ public record RegionPartition(int minPartX, int minPartZ, Point[] data)
         return (partX & Units.PARTITION_BIT_MASK) | ((partZ & Units.PARTITION_BIT_MASK) << Units.PARTITION_BITS);
     }
 
-    public record Point(List<RiverEdge> rivers) {}
+    /**
+     * @param rivers  The river edges which may influence this point.
+     * @param edgeIds The id of each of {@code rivers} in the {@code index}.
+     * @param index   The river index of the entire partition.
+     */
+    public record Point(List<RiverEdge> rivers, int[] edgeIds, RiverSegmentIndex index)
+    {
+        /**
+         * Computes the square distance, in grid units, from {@code (gridX, gridZ)} to each of {@link #rivers()}, for all rivers within {@code maxDistance} grid units.
+         * Rivers which are further away are assigned {@link Double#MAX_VALUE}.
+         *
+         * @param distances An array, of at least {@code rivers().size()}, which will be filled with the distances, in the same order as {@link #rivers()}.
+         */
+        public void riverDistancesSq(double gridX, double gridZ, double maxDistance, double[] distances)
+        {
+            index.distancesSq(gridX, gridZ, maxDistance, edgeIds, distances);
+        }
+
+        /**
+         * @return {@code true} if any of {@link #rivers()} comes within {@code distance} grid units of {@code (gridX, gridZ)}.
+         */
+        public boolean anyRiverWithin(double gridX, double gridZ, double distance)
+        {
+            return index.anyWithin(gridX, gridZ, distance, edgeIds);
+        }
+    }
 }
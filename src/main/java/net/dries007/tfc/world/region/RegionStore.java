@@ -0,0 +1,288 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.region;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import com.google.gson.JsonElement;
+import com.mojang.logging.LogUtils;
+import com.mojang.serialization.JsonOps;
+import net.minecraft.Util;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+
+import net.dries007.tfc.world.noise.Cellular2D;
+import net.dries007.tfc.world.river.MidpointFractal;
+import net.dries007.tfc.world.river.River;
+import net.dries007.tfc.world.settings.Settings;
+
+/**
+ * A persistent, on-disk store of fully generated {@link Region}s, which is consulted by the {@link RegionGenerator} before running the full task pipeline.
+ * <p>
+ * Each region is stored in a single compressed file, named by its cell. Every file starts with a header containing the world seed, and a fingerprint of the {@link Settings} and {@link RegionGenerator.Task} list, so any change to either invalidates the stored regions, which are then regenerated and overwritten.
+ * {@link RegionPartition}s are not stored, as they are cheap to rebuild from the (stored) regions of the surrounding cells.
+ */
+public final class RegionStore
+{
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    /** Magic number identifying a region file */
+    private static final int MAGIC = 0x54464352; // 'TFCR'
+
+    /**
+     * Bump this whenever the output of a {@link RegionTask} changes in a way that is not captured by the task list, or the format of the file changes.
+     */
+    private static final int VERSION = 1;
+
+    private final Path directory;
+    private final long seed;
+    private final long fingerprint;
+
+    public RegionStore(Path directory, long seed, Settings settings)
+    {
+        this.directory = directory;
+        this.seed = seed;
+        this.fingerprint = fingerprint(settings);
+    }
+
+    /**
+     * @return The region stored for the given cell, or {@code null} if none exists, or it was generated with a different seed, settings, or task list.
+     */
+    @Nullable
+    public Region load(Cellular2D.Cell cell)
+    {
+        final Path path = path(cell);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(path)))))
+        {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readLong() != seed || in.readLong() != fingerprint)
+            {
+                return null; // Stale, will be overwritten when the region is regenerated
+            }
+            return readRegion(in);
+        }
+        catch (NoSuchFileException e)
+        {
+            return null;
+        }
+        catch (IOException | RuntimeException e)
+        {
+            LOGGER.warn("Unable to read region from {}, it will be regenerated", path, e);
+            return null;
+        }
+    }
+
+    /**
+     * Saves a region, asynchronously, to the store. The region must not be modified after this point.
+     */
+    public void save(Cellular2D.Cell cell, Region region)
+    {
+        Util.ioPool().execute(() -> {
+            final Path path = path(cell);
+            try
+            {
+                Files.createDirectories(directory);
+
+                final Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temp)))))
+                {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeLong(seed);
+                    out.writeLong(fingerprint);
+                    writeRegion(out, region);
+                }
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (IOException e)
+            {
+                LOGGER.warn("Unable to save region to {}", path, e);
+            }
+        });
+    }
+
+    private Path path(Cellular2D.Cell cell)
+    {
+        // Matches the key used by the in-memory region cache
+        return directory.resolve("%08x.%08x.region".formatted(Float.floatToIntBits((float) cell.x()), Float.floatToIntBits((float) cell.y())));
+    }
+
+    private static long fingerprint(Settings settings)
+    {
+        long hash = VERSION;
+        final JsonElement json = Settings.CODEC.codec().encodeStart(JsonOps.INSTANCE, settings).result().orElseThrow();
+        hash = 31 * hash + json.toString().hashCode();
+        for (RegionGenerator.Task task : RegionGenerator.Task.values())
+        {
+            hash = 31 * hash + task.name().hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * @return The region, encoded exactly as it would be stored, without compression.
+     */
+    @VisibleForTesting
+    public static byte[] encode(Region region)
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes))
+        {
+            writeRegion(out, region);
+        }
+        catch (IOException e)
+        {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeRegion(DataOutputStream out, Region region) throws IOException
+    {
+        out.writeDouble(region.cellX());
+        out.writeDouble(region.cellY());
+        out.writeDouble(region.noise());
+        out.writeInt(region.minX());
+        out.writeInt(region.minZ());
+        out.writeInt(region.maxX());
+        out.writeInt(region.maxZ());
+
+        for (Region.Point point : region.data())
+        {
+            out.writeBoolean(point != null);
+            if (point != null)
+            {
+                out.writeByte(point.distanceToOcean);
+                out.writeByte(point.distanceToEdge);
+                out.writeByte(point.baseOceanDepth);
+                out.writeByte(point.baseLandHeight);
+                out.writeByte(point.biomeAltitude);
+                out.writeFloat(point.rainfall);
+                out.writeFloat(point.temperature);
+                out.writeInt(point.biome);
+                out.writeInt(point.rock);
+                out.writeShort(point.flags());
+            }
+        }
+
+        final List<RiverEdge> rivers = region.rivers();
+        final Map<RiverEdge, Integer> indices = new IdentityHashMap<>();
+        for (int i = 0; i < rivers.size(); i++)
+        {
+            indices.put(rivers.get(i), i);
+        }
+
+        out.writeInt(rivers.size());
+        for (RiverEdge edge : rivers)
+        {
+            writeVertex(out, edge.source());
+            writeVertex(out, edge.drain());
+
+            final MidpointFractal fractal = edge.fractal();
+            out.writeDouble(fractal.norm());
+            out.writeInt(fractal.segments.length);
+            for (double value : fractal.segments)
+            {
+                out.writeDouble(value);
+            }
+
+            out.writeInt(edge.width);
+            out.writeInt(edge.drainEdge() == null ? -1 : indices.getOrDefault(edge.drainEdge(), -1));
+        }
+    }
+
+    private static Region readRegion(DataInputStream in) throws IOException
+    {
+        final double cellX = in.readDouble();
+        final double cellY = in.readDouble();
+        final double noise = in.readDouble();
+        final int minX = in.readInt();
+        final int minZ = in.readInt();
+        final int maxX = in.readInt();
+        final int maxZ = in.readInt();
+
+        final Region.Point[] data = new Region.Point[(1 + maxX - minX) * (1 + maxZ - minZ)];
+        for (int i = 0; i < data.length; i++)
+        {
+            if (in.readBoolean())
+            {
+                final Region.Point point = new Region.Point();
+                point.distanceToOcean = in.readByte();
+                point.distanceToEdge = in.readByte();
+                point.baseOceanDepth = in.readByte();
+                point.baseLandHeight = in.readByte();
+                point.biomeAltitude = in.readByte();
+                point.rainfall = in.readFloat();
+                point.temperature = in.readFloat();
+                point.biome = in.readInt();
+                point.rock = in.readInt();
+                point.setFlags(in.readShort());
+                data[i] = point;
+            }
+        }
+
+        final int riverCount = in.readInt();
+        final List<RiverEdge> rivers = new ArrayList<>(riverCount);
+        final int[] drains = new int[riverCount];
+        for (int i = 0; i < riverCount; i++)
+        {
+            final River.Vertex source = readVertex(in);
+            final River.Vertex drain = readVertex(in);
+
+            final double norm = in.readDouble();
+            final double[] segments = new double[in.readInt()];
+            for (int j = 0; j < segments.length; j++)
+            {
+                segments[j] = in.readDouble();
+            }
+
+            final RiverEdge edge = new RiverEdge(source, drain, new MidpointFractal(segments, norm));
+            edge.width = in.readInt();
+            drains[i] = in.readInt();
+            rivers.add(edge);
+        }
+
+        // Link after all edges are read, as drains may appear after their sources
+        for (int i = 0; i < riverCount; i++)
+        {
+            if (drains[i] != -1)
+            {
+                rivers.get(i).linkToDrain(rivers.get(drains[i]));
+            }
+        }
+
+        return new Region(cellX, cellY, noise, data, minX, minZ, maxX, maxZ, rivers);
+    }
+
+    private static void writeVertex(DataOutputStream out, River.Vertex vertex) throws IOException
+    {
+        out.writeDouble(vertex.x());
+        out.writeDouble(vertex.y());
+        out.writeDouble(vertex.angle());
+        out.writeDouble(vertex.length());
+        out.writeInt(vertex.distance());
+    }
+
+    private static River.Vertex readVertex(DataInputStream in) throws IOException
+    {
+        return new River.Vertex(in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(), in.readInt());
+    }
+}
@@ -9,4 +9,30 @@ package net.dries007.tfc.world.region;
 public interface RegionTask
 {
     void apply(RegionGenerator.Context context);
+
+    /**
+     * @return How this task may be parallelized.
+     */
+    default Parallelism parallelism()
+    {
+        return Parallelism.GLOBAL;
+    }
+
+    /**
+     * @return {@code true} if this task draws from the region's random. Such tasks are always run in order, so the random is consumed identically however the other tasks are scheduled.
+     */
+    default boolean usesRandom()
+    {
+        return false;
+    }
+
+    enum Parallelism
+    {
+        /** The task operates on the region as a whole, and must run on a single thread. */
+        GLOBAL,
+        /** The task floods outwards across the region, so the order in which points are visited matters, and it must run on a single thread. */
+        FLOOD,
+        /** The task is independent for each point, so the columns of the region may be processed in parallel. Tasks with this parallelism implement {@link PointTask}. */
+        PER_POINT
+    }
 }
@@ -33,12 +33,17 @@ public final class RiverEdge
 
     public RiverEdge(River.Edge edge, RandomSource random)
     {
-        this.source = edge.source();
-        this.drain = edge.drain();
-        this.fractal = edge.fractal(random, 4);
+        this(edge.source(), edge.drain(), edge.fractal(random, 4));
+    }
+
+    RiverEdge(River.Vertex source, River.Vertex drain, MidpointFractal fractal)
+    {
+        this.source = source;
+        this.drain = drain;
+        this.fractal = fractal;
 
-        final int centerGridX = (int) Math.round(0.5f * (edge.source().x() + edge.drain().x()));
-        final int centerGridZ = (int) Math.round(0.5f * (edge.source().y() + edge.drain().y()));
+        final int centerGridX = (int) Math.round(0.5f * (source.x() + drain.x()));
+        final int centerGridZ = (int) Math.round(0.5f * (source.y() + drain.y()));
 
         this.minPartX = Units.gridToPart(centerGridX - MAX_AFFECTING_GRID_DISTANCE);
         this.minPartZ = Units.gridToPart(centerGridZ - MAX_AFFECTING_GRID_DISTANCE);
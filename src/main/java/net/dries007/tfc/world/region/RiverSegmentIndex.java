@@ -0,0 +1,213 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.region;
+
+import java.util.Arrays;
+import java.util.List;
+
+import net.dries007.tfc.world.river.RiverHelpers;
+
+/**
+ * A uniform grid over the bisected line segments of every {@link RiverEdge} in a {@link RegionPartition}, so nearest river queries only visit segments which are nearby, rather than every segment of every edge in a partition point.
+ * <p>
+ * All coordinates are in exact grid units. Each cell of the index is one grid unit wide, and the cells are stored in a compressed layout, where the segments in cell {@code i} are {@code cellSegments[cellStart[i]]} to {@code cellSegments[cellStart[i + 1] - 1]}.
+ * Segments (and queries) which fall outside the index are clamped to the border cells, so results are always correct, but the index is only efficient for queries within the partition.
+ */
+public final class RiverSegmentIndex
+{
+    public static final RiverSegmentIndex EMPTY = new RiverSegmentIndex(0, 0, 1, new int[] {0, 0}, new int[0], new double[0], new int[0]);
+
+    /** Width of the border, in cells, which is indexed outside the partition. Queries from river sampling may land slightly outside the partition point they sample. */
+    private static final int BORDER = 1;
+
+    /** Extra distance, in grid units, added to the reach of each query, so that rounding error can never exclude a segment which is just within range. */
+    private static final double PADDING = 1e-3;
+
+    /**
+     * @param edges      Every edge in the partition. The index of an edge in this list is its id.
+     * @param minGridX   The minimum grid X of the partition.
+     * @param minGridZ   The minimum grid Z of the partition.
+     * @param widthInGrid The width of the partition, in grid units.
+     */
+    static RiverSegmentIndex create(List<RiverEdge> edges, int minGridX, int minGridZ, int widthInGrid)
+    {
+        int segmentCount = 0;
+        for (RiverEdge edge : edges)
+        {
+            segmentCount += (edge.fractal().segments.length >> 1) - 1;
+        }
+        if (segmentCount == 0)
+        {
+            return EMPTY;
+        }
+
+        final int width = widthInGrid + 2 * BORDER;
+        final double minX = minGridX - BORDER, minZ = minGridZ - BORDER;
+
+        // Flatten all segments, as (x0, z0, x1, z1), and the edge they belong to
+        final double[] segments = new double[segmentCount << 2];
+        final int[] segmentEdges = new int[segmentCount];
+        int segment = 0;
+        for (int edgeId = 0; edgeId < edges.size(); edgeId++)
+        {
+            final double[] points = edges.get(edgeId).fractal().segments;
+            for (int i = 0; i < points.length - 2; i += 2)
+            {
+                System.arraycopy(points, i, segments, segment << 2, 4);
+                segmentEdges[segment] = edgeId;
+                segment++;
+            }
+        }
+
+        // Count the segments overlapping each cell, and convert the counts into offsets
+        final int[] cellStart = new int[width * width + 1];
+        for (int i = 0; i < segmentCount; i++)
+        {
+            final int[] bounds = cellBounds(segments, i, minX, minZ, width);
+            for (int cellX = bounds[0]; cellX <= bounds[1]; cellX++)
+            {
+                for (int cellZ = bounds[2]; cellZ <= bounds[3]; cellZ++)
+                {
+                    cellStart[cellX + width * cellZ + 1]++;
+                }
+            }
+        }
+        for (int i = 0; i < width * width; i++)
+        {
+            cellStart[i + 1] += cellStart[i];
+        }
+
+        // Then insert each segment into every cell it overlaps
+        final int[] cellSegments = new int[cellStart[width * width]];
+        final int[] cursor = Arrays.copyOf(cellStart, width * width);
+        for (int i = 0; i < segmentCount; i++)
+        {
+            final int[] bounds = cellBounds(segments, i, minX, minZ, width);
+            for (int cellX = bounds[0]; cellX <= bounds[1]; cellX++)
+            {
+                for (int cellZ = bounds[2]; cellZ <= bounds[3]; cellZ++)
+                {
+                    cellSegments[cursor[cellX + width * cellZ]++] = i;
+                }
+            }
+        }
+
+        return new RiverSegmentIndex(minX, minZ, width, cellStart, cellSegments, segments, segmentEdges);
+    }
+
+    /**
+     * @return The range of cells overlapped by the bounding box of a segment, as {@code [minX, maxX, minZ, maxZ]}, inclusive.
+     */
+    private static int[] cellBounds(double[] segments, int segment, double minX, double minZ, int width)
+    {
+        final int offset = segment << 2;
+        final double x0 = segments[offset], z0 = segments[offset + 1], x1 = segments[offset + 2], z1 = segments[offset + 3];
+        return new int[] {
+            cell(Math.min(x0, x1), minX, width), cell(Math.max(x0, x1), minX, width),
+            cell(Math.min(z0, z1), minZ, width), cell(Math.max(z0, z1), minZ, width)
+        };
+    }
+
+    private static int cell(double value, double min, int width)
+    {
+        final int cell = (int) Math.floor(value - min);
+        return cell < 0 ? 0 : (cell >= width ? width - 1 : cell);
+    }
+
+    private final double minX, minZ;
+    private final int width;
+    private final int[] cellStart;
+    private final int[] cellSegments;
+    private final double[] segments;
+    private final int[] segmentEdges;
+
+    private RiverSegmentIndex(double minX, double minZ, int width, int[] cellStart, int[] cellSegments, double[] segments, int[] segmentEdges)
+    {
+        this.minX = minX;
+        this.minZ = minZ;
+        this.width = width;
+        this.cellStart = cellStart;
+        this.cellSegments = cellSegments;
+        this.segments = segments;
+        this.segmentEdges = segmentEdges;
+    }
+
+    /**
+     * Computes the square distance from a point to each of a subset of edges, but only for edges which come within {@code maxDistance} of the point.
+     * For those edges, the distance is exactly that returned by {@link net.dries007.tfc.world.river.MidpointFractal#intersectDistance(double, double)}. All other edges are assigned {@link Double#MAX_VALUE}.
+     *
+     * @param edgeIds   The ids of the edges to query, in ascending order.
+     * @param distances An array, of at least {@code edgeIds.length}, which is filled with the square distance to each respective edge.
+     */
+    void distancesSq(double x, double z, double maxDistance, int[] edgeIds, double[] distances)
+    {
+        Arrays.fill(distances, 0, edgeIds.length, Double.MAX_VALUE);
+        if (edgeIds.length == 0)
+        {
+            return;
+        }
+
+        final double reach = maxDistance + PADDING;
+        final int cellMinX = cell(x - reach, minX, width), cellMaxX = cell(x + reach, minX, width);
+        final int cellMinZ = cell(z - reach, minZ, width), cellMaxZ = cell(z + reach, minZ, width);
+        for (int cellZ = cellMinZ; cellZ <= cellMaxZ; cellZ++)
+        {
+            for (int cellX = cellMinX; cellX <= cellMaxX; cellX++)
+            {
+                final int index = cellX + width * cellZ;
+                for (int i = cellStart[index]; i < cellStart[index + 1]; i++)
+                {
+                    final int segment = cellSegments[i];
+                    final int local = Arrays.binarySearch(edgeIds, segmentEdges[segment]);
+                    if (local >= 0)
+                    {
+                        final int offset = segment << 2;
+                        final double distance = RiverHelpers.distancePointToLineSq(segments[offset], segments[offset + 1], segments[offset + 2], segments[offset + 3], x, z);
+                        if (distance < distances[local])
+                        {
+                            distances[local] = distance;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param edgeIds The ids of the edges to query, in ascending order.
+     * @return {@code true} if any segment of the given edges comes within {@code distance} of the point.
+     */
+    boolean anyWithin(double x, double z, double distance, int[] edgeIds)
+    {
+        if (edgeIds.length == 0)
+        {
+            return false;
+        }
+
+        final double distanceSq = distance * distance;
+        final double reach = distance + PADDING;
+        final int cellMinX = cell(x - reach, minX, width), cellMaxX = cell(x + reach, minX, width);
+        final int cellMinZ = cell(z - reach, minZ, width), cellMaxZ = cell(z + reach, minZ, width);
+        for (int cellZ = cellMinZ; cellZ <= cellMaxZ; cellZ++)
+        {
+            for (int cellX = cellMinX; cellX <= cellMaxX; cellX++)
+            {
+                final int index = cellX + width * cellZ;
+                for (int i = cellStart[index]; i < cellStart[index + 1]; i++)
+                {
+                    final int segment = cellSegments[i];
+                    final int offset = segment << 2;
+                    if (Arrays.binarySearch(edgeIds, segmentEdges[segment]) >= 0 && RiverHelpers.distancePointToLineSq(segments[offset], segments[offset + 1], segments[offset + 2], segments[offset + 3], x, z) < distanceSq)
+                    {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -100,6 +100,20 @@ public class MidpointFractal
         this.norm = ENCOMPASSING_RANGES[bisections] * RiverHelpers.normInf(sourceX - drainX, sourceY - drainY);
     }
 
+    /**
+     * Creates a fractal from already bisected segments, and their encompassing norm, i.e. when read from disk.
+     */
+    public MidpointFractal(double[] segments, double norm)
+    {
+        this.segments = segments;
+        this.norm = norm;
+    }
+
+    public double norm()
+    {
+        return norm;
+    }
+
     /**
      * Checks if a given point (x, y) comes within a minimum {@code distance} of the bounding box of the fractal.
      * Faster and more efficient than checking {@link #intersect(double, double, double)}.
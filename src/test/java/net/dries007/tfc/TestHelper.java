@@ -7,6 +7,10 @@
 package net.dries007.tfc;
 
 import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicBoolean;
 import net.minecraft.DetectedVersion;
@@ -18,12 +22,16 @@ import net.minecraft.world.inventory.AbstractContainerMenu;
 import net.minecraft.world.inventory.CraftingContainer;
 import net.minecraft.world.inventory.TransientCraftingContainer;
 import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
 import net.minecraftforge.registries.GameData;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.BeforeAll;
 
 import net.dries007.tfc.common.recipes.ingredients.TFCIngredients;
 import net.dries007.tfc.common.recipes.outputs.ItemStackModifiers;
+import net.dries007.tfc.world.settings.RockLayerSettings;
+import net.dries007.tfc.world.settings.RockSettings;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -93,4 +101,31 @@ public class TestHelper
             public void slotsChanged(@NotNull Container container) {}
         }, width, height);
     }
+
+    /**
+     * @return Rock layer settings with a single layer, containing each of {@code rocks}, and {@code bottom} as the only bottom rock.
+     */
+    public static RockLayerSettings rockLayerSettings(Map<String, Block> rocks, String bottom)
+    {
+        final Map<String, RockSettings> rockSettings = new HashMap<>();
+        final Map<String, String> layer = new HashMap<>();
+        rocks.forEach((name, raw) -> {
+            rockSettings.put(name, rock(raw));
+            layer.put(name, "bottom");
+        });
+        return new RockLayerSettings.Data(
+            rockSettings,
+            List.of(bottom),
+            List.of(new RockLayerSettings.LayerData("base", layer)),
+            List.of("base"),
+            List.of("base"),
+            List.of("base"),
+            List.of("base")
+        ).parse();
+    }
+
+    public static RockSettings rock(Block raw)
+    {
+        return new RockSettings(raw, Blocks.DEEPSLATE, null, null, null, null, Optional.empty(), Optional.empty(), Optional.empty());
+    }
 }
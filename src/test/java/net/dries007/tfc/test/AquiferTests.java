@@ -0,0 +1,79 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test;
+
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.levelgen.PositionalRandomFactory;
+import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
+import net.minecraft.world.level.levelgen.synth.NormalNoise;
+import org.junit.jupiter.api.Test;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.AquiferCells;
+import net.dries007.tfc.world.ChunkBaseBlockSource;
+import net.dries007.tfc.world.TFCAquifer;
+import net.dries007.tfc.world.TFCChunkGenerator;
+import net.dries007.tfc.world.biome.TFCBiomes;
+import net.dries007.tfc.world.chunkdata.RockData;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AquiferTests extends TestHelper
+{
+    private static final int MIN_Y = -64;
+    private static final int MAX_Y = 320;
+
+    private final PositionalRandomFactory fork = new XoroshiroRandomSource(seed()).forkPositional();
+    private final NormalNoise barrierNoise = NormalNoise.create(fork.fromHashOf("aquifer_barrier"), -3, 1.0);
+
+    @Test
+    public void testSharedCellsMatchPrivateCells()
+    {
+        final AquiferCells sharedCells = new AquiferCells(fork, MIN_Y, MAX_Y, TFCChunkGenerator.SEA_LEVEL_Y, 4096);
+        for (int chunkX = -2; chunkX <= 1; chunkX++)
+        {
+            for (int chunkZ = 3; chunkZ <= 4; chunkZ++)
+            {
+                final ChunkPos pos = new ChunkPos(chunkX, chunkZ);
+                final TFCAquifer shared = aquifer(pos, sharedCells);
+                final TFCAquifer separate = aquifer(pos, new AquiferCells(fork, MIN_Y, MAX_Y, TFCChunkGenerator.SEA_LEVEL_Y, 64));
+
+                for (int x = pos.getMinBlockX(); x <= pos.getMaxBlockX(); x += 3)
+                {
+                    for (int z = pos.getMinBlockZ(); z <= pos.getMaxBlockZ(); z += 3)
+                    {
+                        for (int y = MIN_Y; y < 100; y += 2)
+                        {
+                            assertEquals(separate.sampleState(x, y, z, -0.1), shared.sampleState(x, y, z, -0.1), "x = " + x + ", y = " + y + ", z = " + z);
+                            assertEquals(separate.shouldScheduleFluidUpdate(), shared.shouldScheduleFluidUpdate());
+                        }
+                    }
+                }
+            }
+        }
+
+        // 8 chunks touch 6x4 columns, rather than 8 * 3x3 with separate cells. The cache is lossy, so allow for a few collisions.
+        assertTrue(sharedCells.cache().misses() < 8 * 9 / 2, "Columns computed: " + sharedCells.cache().misses());
+    }
+
+    private TFCAquifer aquifer(ChunkPos pos, AquiferCells cells)
+    {
+        final ChunkBaseBlockSource source = new ChunkBaseBlockSource(new RockData(null), (x, z) -> TFCBiomes.PLAINS, Blocks.WATER.defaultBlockState(), Blocks.WATER.defaultBlockState());
+        final TFCAquifer aquifer = new TFCAquifer(pos, source, cells, barrierNoise);
+        final int[] surfaceHeights = aquifer.surfaceHeights();
+        for (int x = 0; x < 4; x++)
+        {
+            for (int z = 0; z < 4; z++)
+            {
+                // Aquifer surface heights depend only on the absolute chunk position
+                surfaceHeights[x + 4 * z] = 40 + Math.floorMod(31 * (pos.x + x - 1) + 17 * (pos.z + z - 1), 50);
+            }
+        }
+        return aquifer;
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import org.junit.jupiter.api.Test;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.util.calendar.CalendarCatchUp;
+import net.dries007.tfc.util.calendar.ICalendarTickable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CalendarCatchUpTests extends TestHelper
+{
+    private static final long[] DELTAS = {1, 1, 1, 1, 1, 1, 0, 2, 3, 40, 24000, -5};
+
+    @Test
+    public void testFirstTickAfterLoad()
+    {
+        final CalendarCatchUp catchUp = new CalendarCatchUp();
+        final Tickable behind = new Tickable(100), current = new Tickable(999), same = new Tickable(1000), fresh = new Tickable(Integer.MIN_VALUE);
+        for (Tickable entity : List.of(behind, current, same, fresh))
+        {
+            catchUp.addTickable(entity);
+        }
+
+        // Nothing has been observed yet, so this is not a jump, but each entity catches up from its own saved tick
+        catchUp.tick(1000);
+        assertEquals(List.of(899L), behind.updates);
+        assertEquals(List.of(), current.updates);
+        assertEquals(List.of(-1L), same.updates);
+        assertEquals(List.of(), fresh.updates);
+
+        catchUp.tick(1001);
+        assertEquals(List.of(899L), behind.updates);
+        assertEquals(List.of(), fresh.updates);
+
+        catchUp.tick(1100);
+        assertEquals(List.of(899L, 98L), behind.updates);
+        assertEquals(List.of(98L), current.updates);
+        assertEquals(List.of(-1L, 98L), same.updates);
+        assertEquals(List.of(98L), fresh.updates);
+    }
+
+    @Test
+    public void testCatchUpMatchesCheckForCalendarUpdate()
+    {
+        final Random random = new Random(seed());
+        final CalendarCatchUp catchUp = new CalendarCatchUp();
+        final List<Tickable> entities = new ArrayList<>();
+        final List<Expected> expected = new ArrayList<>();
+
+        long tick = 1000 + random.nextInt(1000);
+        for (int i = 0; i < 2000; i++)
+        {
+            // Load, and unload, entities between ticks, as chunks would
+            if (random.nextInt(4) == 0)
+            {
+                final long savedTick = random.nextInt(5) == 0 ? Integer.MIN_VALUE : tick - random.nextInt(100);
+                final Tickable entity = new Tickable(savedTick);
+                entities.add(entity);
+                expected.add(new Expected(savedTick));
+                catchUp.addTickable(entity);
+            }
+            if (!entities.isEmpty() && random.nextInt(6) == 0)
+            {
+                final int index = random.nextInt(entities.size());
+                final Tickable entity = entities.get(index);
+                if (!entity.isRemoved())
+                {
+                    entity.setRemoved();
+                    catchUp.removeEntity(entity);
+                }
+            }
+
+            tick += DELTAS[random.nextInt(DELTAS.length)];
+            catchUp.tick(tick);
+            for (int j = 0; j < entities.size(); j++)
+            {
+                if (!entities.get(j).isRemoved())
+                {
+                    expected.get(j).checkForCalendarUpdate(tick);
+                }
+            }
+        }
+
+        for (int i = 0; i < entities.size(); i++)
+        {
+            assertEquals(expected.get(i).updates, entities.get(i).updates, "Calendar updates of entity " + i);
+        }
+    }
+
+    @Test
+    public void testOneActionPerEntity()
+    {
+        final CalendarCatchUp catchUp = new CalendarCatchUp();
+        final Tickable first = new Tickable(0), second = new Tickable(0);
+        final List<String> ran = new ArrayList<>();
+
+        catchUp.scheduleAction(first, 10, () -> ran.add("first at 10"));
+        catchUp.scheduleAction(second, 15, () -> ran.add("second at 15"));
+        catchUp.scheduleAction(first, 20, () -> ran.add("first at 20")); // Replaces the action at 10
+
+        catchUp.tick(5);
+        assertEquals(List.of(), ran);
+        catchUp.tick(12);
+        assertEquals(List.of(), ran);
+        catchUp.tick(15);
+        assertEquals(List.of("second at 15"), ran);
+        catchUp.tick(40);
+        assertEquals(List.of("second at 15", "first at 20"), ran);
+
+        // Rescheduling earlier also replaces the later action
+        catchUp.scheduleAction(first, 60, () -> ran.add("first at 60"));
+        catchUp.scheduleAction(first, 50, () -> ran.add("first at 50"));
+        catchUp.tick(100);
+        assertEquals(List.of("second at 15", "first at 20", "first at 50"), ran);
+    }
+
+    @Test
+    public void testRemovedEntitiesAreNotCalled()
+    {
+        final CalendarCatchUp catchUp = new CalendarCatchUp();
+        final Tickable unloaded = new Tickable(0), removed = new Tickable(0), kept = new Tickable(0);
+        final List<String> ran = new ArrayList<>();
+
+        for (Tickable entity : List.of(unloaded, removed, kept))
+        {
+            catchUp.addTickable(entity);
+        }
+        catchUp.tick(1);
+        catchUp.scheduleAction(unloaded, 5, () -> ran.add("unloaded"));
+        catchUp.scheduleAction(removed, 5, () -> ran.add("removed"));
+        catchUp.scheduleAction(kept, 5, () -> ran.add("kept"));
+
+        // Unloaded through the catch up, and removed from the level without unregistering
+        catchUp.removeEntity(unloaded);
+        removed.setRemoved();
+        assertEquals(2, catchUp.size());
+
+        catchUp.tick(100);
+        assertEquals(List.of("kept"), ran);
+        assertEquals(List.of(), unloaded.updates);
+        assertEquals(List.of(98L), kept.updates);
+
+        // Unloading before the first tick skips the load catch up as well
+        final Tickable loaded = new Tickable(0);
+        catchUp.addTickable(loaded);
+        catchUp.removeEntity(loaded);
+        catchUp.tick(101);
+        assertEquals(List.of(), loaded.updates);
+    }
+
+    @Test
+    public void testCompact()
+    {
+        final CalendarCatchUp catchUp = new CalendarCatchUp();
+        final Tickable entity = new Tickable(0);
+        final int[] ran = {0};
+
+        // Rescheduling leaves replaced actions in the queue, up to a bound
+        for (int i = 0; i < 1000; i++)
+        {
+            catchUp.scheduleAction(entity, 10 + i, () -> ran[0]++);
+            assertTrue(catchUp.queueSize() <= 2 + 16 + 1, "Queue size " + catchUp.queueSize() + " after " + (i + 1) + " schedules");
+        }
+
+        // As do removed entities
+        final List<Tickable> others = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+        {
+            final Tickable other = new Tickable(0);
+            catchUp.scheduleAction(other, 5000, () -> fail("Removed entity was called"));
+            others.add(other);
+        }
+        for (Tickable other : others)
+        {
+            catchUp.removeEntity(other);
+        }
+        assertTrue(catchUp.queueSize() <= 2 + 16 + 1, "Queue size " + catchUp.queueSize() + " after removing entities");
+
+        // Compacting keeps the current action
+        catchUp.tick(1008);
+        assertEquals(0, ran[0]);
+        catchUp.tick(1009);
+        assertEquals(1, ran[0]);
+        catchUp.tick(10000);
+        assertEquals(1, ran[0]);
+        assertEquals(0, catchUp.queueSize());
+    }
+
+    /**
+     * {@link ICalendarTickable#checkForCalendarUpdate()}, called every tick.
+     */
+    static class Expected
+    {
+        final List<Long> updates = new ArrayList<>();
+        long lastTick;
+
+        Expected(long lastTick)
+        {
+            this.lastTick = lastTick;
+        }
+
+        void checkForCalendarUpdate(long tick)
+        {
+            final long tickDelta = tick - lastTick;
+            if (lastTick != Integer.MIN_VALUE && tickDelta != 1)
+            {
+                updates.add(tickDelta - 1);
+            }
+            lastTick = tick;
+        }
+    }
+
+    static class Tickable extends BlockEntity implements ICalendarTickable
+    {
+        final List<Long> updates = new ArrayList<>();
+        long lastUpdateTick;
+
+        Tickable(long lastUpdateTick)
+        {
+            super(BlockEntityType.CHEST, BlockPos.ZERO, Blocks.CHEST.defaultBlockState());
+            this.lastUpdateTick = lastUpdateTick;
+        }
+
+        @Override
+        public void onCalendarUpdate(long ticks)
+        {
+            assertFalse(isRemoved(), "Removed entity was called");
+            updates.add(ticks);
+        }
+
+        @Override
+        public long getLastCalendarUpdateTick()
+        {
+            return lastUpdateTick;
+        }
+
+        @Override
+        public void setLastCalendarUpdateTick(long tick)
+        {
+            lastUpdateTick = tick;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.ChunkPos;
+import org.junit.jupiter.api.Test;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.util.ChunkEnvironmentScheduler;
+import net.dries007.tfc.util.calendar.ICalendar;
+
+import static net.dries007.tfc.util.ChunkEnvironmentScheduler.*;
+import static net.dries007.tfc.util.EnvironmentHelpers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChunkEnvironmentSchedulerTests extends TestHelper
+{
+    private static final long A = ChunkPos.asLong(0, 0), B = ChunkPos.asLong(1, 0), C = ChunkPos.asLong(0, 1), D = ChunkPos.asLong(1, 1);
+    private static final BlockPos POS_1 = new BlockPos(1, 0, 1), POS_2 = new BlockPos(2, 0, 2);
+
+    @Test
+    public void testRunsWithinBudget()
+    {
+        final ChunkEnvironmentScheduler scheduler = new ChunkEnvironmentScheduler();
+
+        scheduler.startTick(0, 2);
+        assertTrue(scheduler.tickChunk(A, POS_1, SNOW_MELT));
+        assertFalse(scheduler.tickChunk(B, POS_1, 0), "Chunks with no actions use no budget");
+        assertTrue(scheduler.tickChunk(C, POS_1, SNOW_MELT | ICE_FREEZE | ICICLES), "Any number of actions costs one");
+        assertEquals(0, scheduler.budget());
+        assertFalse(scheduler.tickChunk(D, POS_1, ICE_FREEZE));
+        assertFalse(scheduler.tickChunk(A, POS_2, ICICLES));
+        assertEquals(2, scheduler.size());
+
+        // Deferred updates are run, oldest first, before any chunk runs its actions immediately
+        scheduler.startTick(1, 1);
+        assertDeferred(scheduler.pollDeferred(), D, POS_1, ICE_FREEZE);
+        scheduler.spend(POS_1, ICE_FREEZE);
+        assertNull(scheduler.pollDeferred());
+        assertFalse(scheduler.tickChunk(B, POS_1, SNOW_MELT));
+        assertEquals(2, scheduler.size());
+
+        // An update for a chunk which is not loaded is not spent, so the next runs in the same tick
+        scheduler.startTick(2, 1);
+        assertDeferred(scheduler.pollDeferred(), A, POS_2, ICICLES);
+        assertDeferred(scheduler.pollDeferred(), B, POS_1, SNOW_MELT);
+        scheduler.spend(POS_1, SNOW_MELT);
+        assertNull(scheduler.pollDeferred());
+        assertEquals(0, scheduler.size());
+
+        assertFalse(scheduler.tickChunk(A, POS_1, SNOW_MELT), "Nothing is deferred, but no budget is left");
+        assertEquals(1, scheduler.size());
+    }
+
+    @Test
+    public void testDeferredActionsAreMerged()
+    {
+        final ChunkEnvironmentScheduler scheduler = new ChunkEnvironmentScheduler();
+
+        scheduler.startTick(0, 0);
+        assertFalse(scheduler.tickChunk(A, POS_1, SNOW_MELT));
+        assertFalse(scheduler.tickChunk(B, POS_1, ICE_FREEZE));
+        scheduler.startTick(1, 0);
+        assertFalse(scheduler.tickChunk(B, POS_2, ICE_FREEZE | ICICLES));
+        assertFalse(scheduler.tickChunk(A, POS_2, SNOW_MELT | ICE_MELT));
+        assertEquals(2, scheduler.size());
+
+        // Chunks keep their place in the queue, and the first position. Actions chosen twice are only run once.
+        scheduler.startTick(2, 10);
+        assertDeferred(scheduler.pollDeferred(), A, POS_1, SNOW_MELT | ICE_MELT);
+        scheduler.spend(POS_1, SNOW_MELT | ICE_MELT);
+        assertDeferred(scheduler.pollDeferred(), B, POS_1, ICE_FREEZE | ICICLES);
+        scheduler.spend(POS_1, ICE_FREEZE | ICICLES);
+        assertNull(scheduler.pollDeferred());
+        assertEquals(8, scheduler.budget());
+    }
+
+    @Test
+    public void testCatchUpAfterCalendarSkip()
+    {
+        final ChunkEnvironmentScheduler scheduler = new ChunkEnvironmentScheduler();
+
+        scheduler.startTick(0, 0);
+        scheduler.tickChunk(A, POS_1, 0);
+        scheduler.tickChunk(B, POS_1, ICE_FREEZE);
+        scheduler.tickChunk(C, POS_1, 0);
+
+        // Less than a day, and only chunks ticked since the last tick are caught up
+        scheduler.startTick(ICalendar.TICKS_IN_DAY - 1, 0);
+        assertEquals(1, scheduler.size());
+        scheduler.tickChunk(A, POS_1, 0);
+        scheduler.tickChunk(B, POS_1, 0);
+
+        scheduler.startTick(2L * ICalendar.TICKS_IN_DAY, 300);
+        assertEquals(2, scheduler.size());
+
+        // Merged into the existing update, and costs a whole chunk
+        assertDeferred(scheduler.pollDeferred(), B, POS_1, ICE_FREEZE | CATCH_UP);
+        scheduler.spend(POS_1, ICE_FREEZE | CATCH_UP);
+        assertEquals(300 - CATCH_UP_COST - 1, scheduler.budget());
+
+        assertDeferred(scheduler.pollDeferred(), A, null, CATCH_UP);
+        scheduler.spend(null, CATCH_UP);
+        assertTrue(scheduler.budget() < 0);
+        assertNull(scheduler.pollDeferred());
+
+        // A catch up only runs once per tick with a smaller budget, and actions for other chunks queue behind it
+        scheduler.tickChunk(A, POS_1, 0);
+        scheduler.tickChunk(C, POS_1, 0);
+
+        final List<Long> order = new ArrayList<>();
+        for (int tick = 0; tick < 3; tick++)
+        {
+            scheduler.startTick(3L * ICalendar.TICKS_IN_DAY + tick, 10);
+            ChunkEnvironmentScheduler.Deferred update;
+            while ((update = scheduler.pollDeferred()) != null)
+            {
+                order.add(update.chunkPos());
+                scheduler.spend(update.lcgPos(), update.actions());
+            }
+            order.add(null);
+            if (tick == 0)
+            {
+                assertFalse(scheduler.tickChunk(D, POS_2, SNOW_MELT));
+            }
+        }
+
+        assertEquals(6, order.size(), "Order: " + order);
+        assertEquals(Set.of(A, C), Set.of(order.get(0), order.get(2)), "Order: " + order);
+        assertNull(order.get(1));
+        assertNull(order.get(3));
+        assertEquals(D, order.get(4));
+        assertNull(order.get(5));
+    }
+
+    @Test
+    public void testChooseActionsProbabilities()
+    {
+        final RandomSource random = RandomSource.create(seed());
+        final int snowAccumulateChance = 20, snowMeltChance = 36, samples = 2_000_000;
+        final int[] counts = new int[6];
+        int iceMelt = 0, snowAndIcicles = 0;
+
+        for (int i = 0; i < samples; i++)
+        {
+            final int actions = chooseActions(random, snowAccumulateChance, snowMeltChance);
+            for (int bit = 0; bit < counts.length; bit++)
+            {
+                if ((actions & (1 << bit)) != 0)
+                {
+                    counts[bit]++;
+                }
+            }
+            assertFalse((actions & ICE_MELT) != 0 && (actions & ICE_MELT_NEAR_WATER) != 0, "Ice melt near water is only drawn if ice melt is not");
+            if ((actions & (ICE_MELT | ICE_MELT_NEAR_WATER)) != 0)
+            {
+                iceMelt++;
+            }
+            if ((actions & SNOW_ACCUMULATE) != 0 && (actions & ICICLES) != 0)
+            {
+                snowAndIcicles++;
+            }
+        }
+
+        assertProbability(1d / snowAccumulateChance, counts[0], samples, "snow accumulate");
+        assertProbability(1d / snowMeltChance, counts[1], samples, "snow melt");
+        assertProbability(1d / 16, counts[2], samples, "ice freeze");
+        assertProbability(1d / 600, counts[3], samples, "ice melt");
+        assertProbability((599d / 600) / 12, counts[4], samples, "ice melt near water");
+        assertProbability(1d / 16, counts[5], samples, "icicles");
+
+        // Next to water, ice melts if either draw passes, as in 'nextInt(600) == 0 || (nextInt(12) == 0 && isAdjacentToWater(...))'
+        assertProbability(1d / 600 + (599d / 600) / 12, iceMelt, samples, "ice melt next to water");
+        assertProbability(1d / (snowAccumulateChance * 16), snowAndIcicles, samples, "snow accumulate and icicles");
+    }
+
+    private static void assertDeferred(ChunkEnvironmentScheduler.Deferred update, long chunkPos, BlockPos lcgPos, int actions)
+    {
+        assertNotNull(update);
+        assertEquals(chunkPos, update.chunkPos());
+        assertEquals(lcgPos, update.lcgPos());
+        assertEquals(actions, update.actions());
+    }
+
+    private static void assertProbability(double expected, int count, int samples, String name)
+    {
+        final double error = 6 * Math.sqrt(expected * (1 - expected) / samples);
+        assertEquals(expected, (double) count / samples, error, "Chance of " + name);
+    }
+}
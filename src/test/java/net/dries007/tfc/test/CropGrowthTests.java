@@ -0,0 +1,310 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import io.netty.buffer.Unpooled;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.Mth;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.ChunkPos;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.common.blockentities.FarmlandBlockEntity.NutrientType;
+import net.dries007.tfc.common.blockentities.IFarmland;
+import net.dries007.tfc.common.blocks.crop.CropGrowth;
+import net.dries007.tfc.common.blocks.crop.CropHelpers;
+import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.util.calendar.ICalendar;
+import net.dries007.tfc.util.climate.ClimateRange;
+import net.dries007.tfc.util.climate.OverworldClimateModel;
+import net.dries007.tfc.world.chunkdata.ChunkData;
+import net.dries007.tfc.world.chunkdata.ForestType;
+import net.dries007.tfc.world.chunkdata.LerpFloatLayer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CropGrowthTests extends TestHelper
+{
+    @Test
+    public void testTimelineMatchesGetTemperature()
+    {
+        final Random random = new Random(seed());
+        final OverworldClimateModel model = new OverworldClimateModel();
+        final ChunkPos chunkPos = new ChunkPos(37, -1204);
+        final ChunkData data = new ChunkData(chunkPos);
+        data.generatePartial(new LerpFloatLayer(100, 200, 300, 400), new LerpFloatLayer(-12, 4, 18, 27), ForestType.NONE, 0, 0);
+
+        final int daysInMonth = 8;
+        final long[] calendarTicks = new long[200];
+        calendarTicks[0] = random.nextLong(1_000_000_000L);
+        for (int i = 1; i < calendarTicks.length; i++)
+        {
+            calendarTicks[i] = calendarTicks[i - 1] + CropHelpers.UPDATE_INTERVAL + random.nextInt(ICalendar.TICKS_IN_DAY);
+        }
+
+        final OverworldClimateModel.Timeline timeline = (OverworldClimateModel.Timeline) model.getTemperatureTimeline(calendarTicks, daysInMonth);
+        final float[] temperatures = new float[calendarTicks.length];
+        for (int i = 0; i < 20; i++)
+        {
+            final BlockPos pos = new BlockPos(chunkPos.getMinBlockX() + random.nextInt(16), -64 + random.nextInt(384), chunkPos.getMinBlockZ() + random.nextInt(16));
+            timeline.sample(pos, data, temperatures);
+            for (int j = 0; j < calendarTicks.length; j++)
+            {
+                assertEquals(model.getTemperature(null, pos, data, calendarTicks[j], daysInMonth), temperatures[j], "Temperature at " + pos + " and " + calendarTicks[j]);
+            }
+        }
+    }
+
+    @Test
+    public void testGrowthIntervalsMatchLoop()
+    {
+        final Random random = new Random(seed());
+        final long interval = CropHelpers.UPDATE_INTERVAL;
+        final long[] deltas = {0, 1, interval - 1, interval, interval + 1, 2 * interval - 1, 2 * interval, 2 * interval + 1, 100 * interval, 100 * interval + 7};
+        for (long delta : deltas)
+        {
+            final long firstTick = random.nextLong(1_000_000_000L);
+            assertArrayEquals(loopIntervals(firstTick, firstTick + delta), CropHelpers.growthIntervals(firstTick, firstTick + delta), "Intervals over " + delta + " ticks");
+        }
+        for (int i = 0; i < 1000; i++)
+        {
+            final long firstTick = random.nextLong(1_000_000_000L), delta = random.nextLong(500 * interval);
+            assertArrayEquals(loopIntervals(firstTick, firstTick + delta), CropHelpers.growthIntervals(firstTick, firstTick + delta), "Intervals over " + delta + " ticks");
+        }
+    }
+
+    @Test
+    public void testCatchUpMatchesOriginalGrowthTick()
+    {
+        final Random random = new Random(seed());
+        int gatedRuns = 0;
+        for (int i = 0; i < 200; i++)
+        {
+            final long seed = random.nextLong();
+            final long firstTick = random.nextLong(1_000_000_000L), thisTick = firstTick + CropHelpers.UPDATE_INTERVAL + 1 + random.nextLong(250 * CropHelpers.UPDATE_INTERVAL);
+            final float[] nutrients = {random.nextFloat(), random.nextFloat(), random.nextFloat()};
+            final NutrientType primaryNutrient = NutrientType.VALUES[random.nextInt(3)];
+            final float growthLimit = random.nextBoolean() ? CropHelpers.GROWTH_LIMIT : random.nextFloat();
+            final float growthModifier = 0.5f + random.nextFloat(), expiryModifier = 0.5f + random.nextFloat();
+
+            // Temperature varies over a year, with a random offset and swing, and the range admits part of it, so growth is gated on and off. Narrow wiggle ranges also let crops die of the cold.
+            final float baseTemperature = -10 + 30 * random.nextFloat(), swing = 2 + 15 * random.nextFloat();
+            final long period = 12L * 8 * ICalendar.TICKS_IN_DAY, phase = random.nextLong(period);
+            final LongToFloat temperature = tick -> baseTemperature + swing * (float) Math.sin(2 * Math.PI * ((tick + phase) % period) / period);
+            final ClimateRange range = climateRange(baseTemperature - swing * random.nextFloat(), baseTemperature + swing * (0.5f + random.nextFloat()), swing * random.nextFloat() * 1.2f, 20 + random.nextInt(20), 80, 10);
+            final int hydration = 10 + random.nextInt(80);
+
+            // Original: each interval from the original CropHelpers#growthTick loop, through the original CropHelpers#growthTickStep, reading and writing the crop and farmland every step
+            final SyncingFarmland originalFarmland = new SyncingFarmland(nutrients);
+            final RandomSource originalRandom = RandomSource.create(seed);
+            final long[] loopTicks = loopIntervals(firstTick, thisTick);
+            final OriginalCrop original = new OriginalCrop();
+            boolean originalAlive = true, anyGrowing = false, anyNotGrowing = false;
+            for (int step = 0; step < loopTicks.length - 1 && originalAlive; step++)
+            {
+                final float startTemperature = temperature.apply(loopTicks[step]), endTemperature = temperature.apply(loopTicks[step + 1]);
+                if (range.checkBoth(hydration, startTemperature, false) && range.checkTemperature(endTemperature, false) == ClimateRange.Result.VALID)
+                {
+                    anyGrowing = true;
+                }
+                else
+                {
+                    anyNotGrowing = true;
+                }
+                originalAlive = original.growthTickStep(originalFarmland, originalRandom, range, primaryNutrient, hydration, growthLimit, growthModifier, expiryModifier, startTemperature, endTemperature, loopTicks[step + 1] - loopTicks[step]);
+            }
+            if (anyGrowing && anyNotGrowing)
+            {
+                gatedRuns++;
+            }
+
+            // Caught up: as per CropHelpers#catchUpGrowth, with temperatures at the ends of each interval, and nutrients only written back at the end
+            final SyncingFarmland caughtUpFarmland = new SyncingFarmland(nutrients);
+            final CropGrowth.Nutrients copy = CropGrowth.copyNutrients(caughtUpFarmland);
+            final RandomSource caughtUpRandom = RandomSource.create(seed);
+            final long[] ticks = CropHelpers.growthIntervals(firstTick, thisTick);
+            final float[] temperatures = new float[ticks.length];
+            for (int step = 0; step < ticks.length; step++)
+            {
+                temperatures[step] = temperature.apply(ticks[step]);
+            }
+            final CropGrowth crop = new CropGrowth(range, primaryNutrient, hydration, growthLimit, growthModifier, expiryModifier);
+            boolean caughtUpAlive = true;
+            for (int step = 0; step < ticks.length - 1 && caughtUpAlive; step++)
+            {
+                caughtUpAlive = crop.step(copy, temperatures[step], temperatures[step + 1], ticks[step + 1] - ticks[step], Helpers.uniform(caughtUpRandom, 0.9f, 1.1f));
+            }
+            copy.writeTo(caughtUpFarmland);
+
+            assertEquals(originalAlive, caughtUpAlive, "Alive");
+            if (originalAlive)
+            {
+                assertEquals(original.growth, crop.growth, "Growth");
+                assertEquals(original.yield, crop.yield, "Yield");
+                assertEquals(original.expiry, crop.expiry, "Expiry");
+            }
+            else
+            {
+                assertEquals(original.diedMature, crop.growth >= 1, "Died mature");
+            }
+            for (NutrientType type : NutrientType.VALUES)
+            {
+                assertEquals(originalFarmland.getNutrient(type), caughtUpFarmland.getNutrient(type), "Nutrient " + type);
+            }
+            assertTrue(caughtUpFarmland.syncs <= NutrientType.VALUES.length, "Expected at most one sync per nutrient, got " + caughtUpFarmland.syncs);
+        }
+        assertTrue(gatedRuns > 0, "Expected some crops to both grow and not grow");
+    }
+
+    /**
+     * The intervals stepped through by the original loop in {@link CropHelpers#growthTick}, before it caught up all intervals at once.
+     */
+    private static long[] loopIntervals(long firstTick, long thisTick)
+    {
+        final List<Long> ticks = new ArrayList<>();
+        ticks.add(firstTick);
+        long tick = firstTick + CropHelpers.UPDATE_INTERVAL, lastTick = firstTick;
+        for (; tick < thisTick; tick += CropHelpers.UPDATE_INTERVAL)
+        {
+            ticks.add(tick);
+            lastTick = tick;
+        }
+        if (lastTick < thisTick)
+        {
+            ticks.add(thisTick);
+        }
+        return ticks.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static ClimateRange climateRange(float minTemperature, float maxTemperature, float temperatureWiggleRange, int minHydration, int maxHydration, int hydrationWiggleRange)
+    {
+        final FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+        buffer.writeVarInt(minHydration);
+        buffer.writeVarInt(maxHydration);
+        buffer.writeVarInt(hydrationWiggleRange);
+        buffer.writeFloat(minTemperature);
+        buffer.writeFloat(maxTemperature);
+        buffer.writeFloat(temperatureWiggleRange);
+        return ClimateRange.MANAGER.rawFromNetwork(new ResourceLocation("tfc", "test"), buffer).get();
+    }
+
+    @FunctionalInterface
+    interface LongToFloat
+    {
+        float apply(long value);
+    }
+
+    /**
+     * A crop, grown by a copy of {@link CropHelpers#growthTickStep} as it was before growth was split into {@link CropGrowth}, with the level lookups replaced by parameters.
+     */
+    static class OriginalCrop
+    {
+        float growth, yield, expiry;
+        boolean diedMature;
+
+        boolean growthTickStep(@Nullable IFarmland farmland, RandomSource random, ClimateRange range, NutrientType primaryNutrient, int hydration, float growthLimit, float growthModifier, float expiryModifier, float startTemperature, float endTemperature, long tickDelta)
+        {
+            final boolean growing = checkClimate(range, hydration, startTemperature, endTemperature, false);
+            final boolean healthy = growing || checkClimate(range, hydration, startTemperature, endTemperature, true);
+
+            float nutrientsAvailable = 0, nutrientsRequired = CropHelpers.NUTRIENT_CONSUMPTION * tickDelta, nutrientsConsumed = 0;
+            if (farmland != null)
+            {
+                nutrientsAvailable = farmland.getNutrient(primaryNutrient);
+                nutrientsConsumed = farmland.consumeNutrientAndResupplyOthers(primaryNutrient, nutrientsRequired);
+            }
+
+            final float localExpiryLimit = CropHelpers.EXPIRY_LIMIT * expiryModifier * (1f / growthModifier);
+
+            final float totalGrowthDelta = (1f / growthModifier) * Helpers.uniform(random, 0.9f, 1.1f) * tickDelta * CropHelpers.GROWTH_FACTOR + nutrientsConsumed * CropHelpers.NUTRIENT_GROWTH_FACTOR;
+            final float initialGrowth = this.growth;
+            float remainingGrowthDelta = totalGrowthDelta;
+            float growth = initialGrowth, expiry = this.expiry, actualYield = this.yield;
+
+            expiry *= localExpiryLimit / CropHelpers.EXPIRY_LIMIT;
+
+            if (remainingGrowthDelta > 0 && growing && growth < growthLimit)
+            {
+                final float delta = Math.min(remainingGrowthDelta, growthLimit - growth);
+
+                growth += delta;
+                remainingGrowthDelta -= delta;
+            }
+            if (remainingGrowthDelta > 0)
+            {
+                final float delta = Math.min(remainingGrowthDelta, localExpiryLimit - expiry);
+
+                expiry += delta;
+            }
+
+            final float growthDelta = growth - initialGrowth;
+            final float nutrientSatisfaction;
+            if (growthDelta <= 0 || nutrientsRequired <= 0)
+            {
+                nutrientSatisfaction = 1;
+            }
+            else
+            {
+                nutrientSatisfaction = Math.min(1, (totalGrowthDelta / growthDelta) * (nutrientsAvailable / nutrientsRequired));
+            }
+
+            actualYield += growthDelta * Helpers.lerp(nutrientSatisfaction, CropHelpers.YIELD_MIN, CropHelpers.YIELD_LIMIT);
+
+            if (expiry >= localExpiryLimit || !healthy)
+            {
+                diedMature = growth >= 1;
+                return false;
+            }
+
+            expiry *= CropHelpers.EXPIRY_LIMIT / localExpiryLimit;
+
+            this.growth = growth;
+            this.yield = actualYield;
+            this.expiry = expiry;
+            return true;
+        }
+
+        private static boolean checkClimate(ClimateRange range, int hydration, float firstTemperature, float secondTemperature, boolean allowWiggle)
+        {
+            return range.checkBoth(hydration, firstTemperature, allowWiggle) && range.checkTemperature(secondTemperature, allowWiggle) == ClimateRange.Result.VALID;
+        }
+    }
+
+    /**
+     * Matches {@link net.dries007.tfc.common.blockentities.FarmlandBlockEntity}, counting the syncs it would send.
+     */
+    static class SyncingFarmland implements IFarmland
+    {
+        final float[] values;
+        int syncs;
+
+        SyncingFarmland(float[] values)
+        {
+            this.values = values.clone();
+        }
+
+        @Override
+        public float getNutrient(NutrientType type)
+        {
+            return values[type.ordinal()];
+        }
+
+        @Override
+        public void setNutrient(NutrientType type, float value)
+        {
+            values[type.ordinal()] = Mth.clamp(value, 0, 1);
+            syncs++;
+        }
+    }
+}
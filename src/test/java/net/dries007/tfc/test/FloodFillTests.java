@@ -0,0 +1,148 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import org.junit.jupiter.api.Test;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.feature.FloodFill;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FloodFillTests extends TestHelper
+{
+    private static final BoundingBox BOX = new BoundingBox(-8, 0, -8, 7, 15, 7);
+
+    @Test
+    public void testFillMatchesReference()
+    {
+        final Random random = new Random(seed());
+        for (int i = 0; i < 200; i++)
+        {
+            final Terrain terrain = new RandomTerrain(random.nextLong(), 0.3f + 0.4f * random.nextFloat());
+            final int x = random.nextInt(16) - 8, y = random.nextInt(16), z = random.nextInt(16) - 8, maxY = y + random.nextInt(4);
+
+            final Set<BlockPos> expected = new HashSet<>();
+            final boolean expectedResult = referenceFill(terrain, x, y, z, maxY, expected);
+            try (FloodFill fill = FloodFill.begin(terrain, BOX, BlockState::isAir, Integer.MAX_VALUE))
+            {
+                final boolean result = fill.fill(x, y, z, maxY);
+                assertEquals(expectedResult, result, "Terrain " + i);
+                if (result)
+                {
+                    final Set<BlockPos> actual = new HashSet<>();
+                    fill.forEach((fx, fy, fz) -> assertTrue(actual.add(new BlockPos(fx, fy, fz)), "Filled twice"));
+                    assertEquals(expected, actual, "Terrain " + i);
+                    assertEquals(expected.size(), fill.size());
+                    for (BlockPos pos : expected)
+                    {
+                        assertTrue(fill.contains(pos.getX(), pos.getY(), pos.getZ()));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRollbackAndClose()
+    {
+        final Terrain bowl = (x, y, z) -> y == 0 || x == -8 || x == 7 || z == -8 || z == 7 ? Blocks.STONE.defaultBlockState() : Blocks.AIR.defaultBlockState();
+        try (FloodFill fill = FloodFill.begin(bowl, BOX, BlockState::isAir, Integer.MAX_VALUE))
+        {
+            assertTrue(fill.fill(0, 1, 0, 1));
+            assertEquals(14 * 14, fill.size());
+
+            final int mark = fill.mark();
+            assertTrue(fill.fill(0, 2, 0, 3));
+            assertEquals(3 * 14 * 14, fill.size());
+
+            fill.rollback(mark);
+            assertEquals(14 * 14, fill.size());
+            assertFalse(fill.contains(0, 2, 0));
+            assertTrue(fill.contains(0, 1, 0));
+
+            // Filling above the rim of the bowl escapes the box
+            assertFalse(fill.fill(0, 15, 0, 16));
+        }
+        try (FloodFill fill = FloodFill.begin(bowl, BOX, BlockState::isAir, 50))
+        {
+            assertEquals(0, fill.size(), "Closing should clear the fill");
+            assertFalse(fill.contains(0, 1, 0));
+            assertFalse(fill.fill(0, 1, 0, 1), "Exceeds the maximum size");
+        }
+    }
+
+    @Test
+    public void testBeginTwice()
+    {
+        final Terrain air = (x, y, z) -> Blocks.AIR.defaultBlockState();
+        try (FloodFill ignored = FloodFill.begin(air, BOX, BlockState::isAir, Integer.MAX_VALUE))
+        {
+            assertThrows(IllegalStateException.class, () -> FloodFill.begin(air, BOX, BlockState::isAir, Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * A breadth first flood fill, equivalent to {@link FloodFill#fill(int, int, int, int)}.
+     */
+    private boolean referenceFill(Terrain terrain, int x, int y, int z, int maxY, Set<BlockPos> filled)
+    {
+        final BlockPos start = new BlockPos(x, y, z);
+        if (!terrain.getBlockState(x, y, z).isAir())
+        {
+            return false;
+        }
+        final ArrayDeque<BlockPos> queue = new ArrayDeque<>();
+        filled.add(start);
+        queue.add(start);
+        while (!queue.isEmpty())
+        {
+            final BlockPos pos = queue.poll();
+            for (Direction direction : Direction.values())
+            {
+                final BlockPos next = pos.relative(direction);
+                if (!filled.contains(next) && next.getY() <= maxY && terrain.getBlockState(next.getX(), next.getY(), next.getZ()).isAir())
+                {
+                    if (!BOX.isInside(next))
+                    {
+                        return false;
+                    }
+                    filled.add(next);
+                    queue.add(next);
+                }
+            }
+        }
+        return true;
+    }
+
+    @FunctionalInterface
+    interface Terrain extends FloodFill.StateSource {}
+
+    /**
+     * Random stone and air, with a solid floor, and walls which are mostly, but not entirely, solid.
+     */
+    record RandomTerrain(long seed, float air) implements Terrain
+    {
+        @Override
+        public BlockState getBlockState(int x, int y, int z)
+        {
+            final long hash = BlockPos.asLong(x, y, z) * 0x9E3779B97F4A7C15L + seed;
+            final float value = (float) ((hash ^ (hash >>> 29)) * 0xBF58476D1CE4E5B9L >>> 40) / (1 << 24);
+            final boolean wall = y <= 0 || x <= -8 || x >= 7 || z <= -8 || z >= 7;
+            return value < (wall ? air * 0.1f : air) ? Blocks.AIR.defaultBlockState() : Blocks.STONE.defaultBlockState();
+        }
+    }
+}
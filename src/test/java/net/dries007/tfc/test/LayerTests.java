@@ -0,0 +1,101 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
+import org.junit.jupiter.api.Test;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.util.IArtist;
+import net.dries007.tfc.world.layer.TFCLayers;
+import net.dries007.tfc.world.layer.framework.Area;
+import net.dries007.tfc.world.layer.framework.AreaFactory;
+import net.dries007.tfc.world.layer.framework.TiledArea;
+import net.dries007.tfc.world.layer.framework.TransformLayer;
+import net.dries007.tfc.world.region.RegionGenerator;
+import net.dries007.tfc.world.settings.Settings;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LayerTests extends TestHelper
+{
+    @Test
+    public void testFillMatchesGet()
+    {
+        final RegionGenerator generator = new RegionGenerator(new Settings(false, 0, 0, 0, 20_000, 0, 20_000, 0, null, 0.5f), new XoroshiroRandomSource(1234));
+
+        assertFillMatchesGet(TFCLayers.createOverworldForestLayer(1234, IArtist.nope()));
+        assertFillMatchesGet(TFCLayers.createUniformLayer(new XoroshiroRandomSource(1234), 3));
+        assertFillMatchesGet(TFCLayers.createOverworldRockLayer(generator, 1234));
+        assertFillMatchesGet(TFCLayers.createRegionBiomeLayer(generator, 1234));
+    }
+
+    @Test
+    public void testFillReadingOutsideMargin()
+    {
+        // Reads further than the default margin of one, which must fall back to the previous area
+        final TransformLayer layer = (context, area, x, z) -> area.get(x - 3, z + 2) * 31 + area.get(x, z) + context.random().nextInt(7);
+        final AreaFactory factory = layer.apply(1234, layer.apply(5678, TFCLayers.createUniformLayer(new XoroshiroRandomSource(1234), 1)));
+
+        assertFillMatchesGet(factory);
+    }
+
+    @Test
+    public void testTiledAreaMatchesGet() throws Exception
+    {
+        final AreaFactory factory = TFCLayers.createOverworldForestLayer(1234, IArtist.nope());
+        final TiledArea tiled = new TiledArea(factory, 4); // Small, so tiles are evicted and recomputed
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++)
+            {
+                final int offset = thread * 37;
+                futures.add(executor.submit(() -> {
+                    final Area area = factory.get();
+                    for (int x = -150 + offset; x < 150; x += 3)
+                    {
+                        for (int z = -150; z < 150 - offset; z += 5)
+                        {
+                            assertEquals(area.get(x, z), tiled.get(x, z), "x = " + x + ", z = " + z);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures)
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    private void assertFillMatchesGet(AreaFactory factory)
+    {
+        final Area area = factory.get();
+        final int minX = -45, minZ = -19, width = 61, height = 37;
+        final int[] actual = new int[width * height];
+
+        factory.get().fill(minX, minZ, width, height, actual);
+        for (int dx = 0; dx < width; dx++)
+        {
+            for (int dz = 0; dz < height; dz++)
+            {
+                assertEquals(area.get(minX + dx, minZ + dz), actual[dx + width * dz], "x = " + (minX + dx) + ", z = " + (minZ + dz));
+            }
+        }
+    }
+}
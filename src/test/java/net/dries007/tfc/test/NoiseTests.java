@@ -0,0 +1,198 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.noise.CompiledNoise2D;
+import net.dries007.tfc.world.noise.Noise2D;
+import net.dries007.tfc.world.noise.Noise3D;
+import net.dries007.tfc.world.noise.OpenSimplex2D;
+import net.dries007.tfc.world.noise.OpenSimplex3D;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NoiseTests extends TestHelper
+{
+    @Test
+    public void testOpenSimplex2DFillMatchesNoise()
+    {
+        assertFillMatchesNoise(new OpenSimplex2D(1234).octaves(4).spread(0.03f).scaled(-10, 40));
+    }
+
+    @Test
+    public void testCombinatorsFillMatchesNoise()
+    {
+        final Noise2D base = new OpenSimplex2D(1234).spread(0.05f).affine(1, 0); // Wrapped, so the combinators below are used, rather than the OpenSimplex2D overrides
+
+        assertFillMatchesNoise(base.octaves(3));
+        assertFillMatchesNoise(base.ridged());
+        assertFillMatchesNoise(base.abs());
+        assertFillMatchesNoise(base.terraces(5));
+        assertFillMatchesNoise(base.spread(0.3f));
+        assertFillMatchesNoise(base.affine(3, -2));
+        assertFillMatchesNoise(base.clamped(-0.2, 0.4));
+        assertFillMatchesNoise(base.add(new OpenSimplex2D(5678).spread(0.1f)));
+        assertFillMatchesNoise(base.clamped(0, 1).lazyProduct(new OpenSimplex2D(5678).spread(0.1f)));
+        assertFillMatchesNoise(base.map(value -> value * value));
+        assertFillMatchesNoise(base.warped(new OpenSimplex2D(91011).spread(0.02f).scaled(-20, 20)));
+        assertFillMatchesNoise((x, z) -> x * 0.1 - z * 0.2); // Default implementation
+    }
+
+    @Test
+    public void testCompiledMatchesNoise()
+    {
+        final Noise2D base = new OpenSimplex2D(1234).octaves(4).spread(0.05f);
+        final Noise2D other = new OpenSimplex2D(5678).spread(0.1f).affine(1, 0).octaves(2).ridged();
+        final Noise2D lambda = (x, z) -> Math.sin(x * 0.01) * z;
+
+        assertCompiledMatchesNoise(base.affine(1, 0).terraces(6).abs().clamped(-0.1, 0.7), 5);
+        assertCompiledMatchesNoise(base.clamped(0, 1).lazyProduct(other).add(base).map(value -> value * 3), 9);
+        assertCompiledMatchesNoise(other.add(lambda).warped(new OpenSimplex2D(91011).spread(0.02f).scaled(-20, 20)).spread(0.5f), 8);
+        assertCompiledMatchesNoise(lambda.scaled(0, 10).octaves(3), 3);
+    }
+
+    @Test
+    public void testCompiledIgnoresLeaves()
+    {
+        final Noise2D simplex = new OpenSimplex2D(1234);
+        final Noise2D lambda = (x, z) -> x;
+
+        assertSame(simplex, simplex.compiled());
+        assertSame(lambda, lambda.compiled());
+    }
+
+    @Test
+    public void testModifiersDoNotMutate()
+    {
+        final OpenSimplex2D noise = new OpenSimplex2D(1234);
+        final double before = noise.noise(17.5, -3.25);
+
+        assertNotSame(noise, noise.spread(0.1f));
+        assertNotSame(noise, noise.octaves(3));
+        assertNotSame(noise, noise.scaled(-5, 5));
+        noise.spread(0.1f).octaves(3).scaled(-5, 5).asDomainWarp();
+
+        assertEquals(before, noise.noise(17.5, -3.25));
+    }
+
+    @Test
+    public void testWarpedNoiseIsThreadSafe() throws Exception
+    {
+        final OpenSimplex2D warp = new OpenSimplex2D(91011).octaves(4).spread(0.03f).scaled(-100, 100);
+        final Noise2D noise = new OpenSimplex2D(1234).octaves(4).spread(0.06f).warped(warp).warped(warp).spread(0.5f);
+        final Noise2D compiled = noise.compiled();
+        final int n = 4000;
+        final double[] expected = new double[n];
+        for (int i = 0; i < n; i++)
+        {
+            expected[i] = noise.noise(i * 1.5, i * -0.75);
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (int task = 0; task < 16; task++)
+            {
+                final Noise2D sampled = task % 2 == 0 ? noise : compiled;
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < n; i++)
+                    {
+                        if (sampled.noise(i * 1.5, i * -0.75) != expected[i])
+                        {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results)
+            {
+                assertTrue(result.get());
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testFillGridMatchesNoise()
+    {
+        final Noise2D noise = new OpenSimplex2D(1234).octaves(2).spread(0.05f).affine(2, 1).abs();
+        final double[] out = new double[16 * 8];
+
+        noise.fillGrid(-37, 1049, 1, 4, 16, 8, out);
+        for (int x = 0; x < 16; x++)
+        {
+            for (int z = 0; z < 8; z++)
+            {
+                assertEquals(noise.noise(-37 + x, 1049 + z * 4), out[x + 16 * z]);
+            }
+        }
+    }
+
+    @Test
+    public void testNoise3DFillMatchesNoise()
+    {
+        final Noise3D base = new OpenSimplex3D(1234).octaves(2).spread(0.07f)::noise; // Wrapped, so the combinators below are used
+        final Noise3D noise = base.octaves(2).spread(0.5f).scaled(-1, 1, 0, 5);
+        final int n = 200;
+        final double[] xs = new double[n], ys = new double[n], zs = new double[n], out = new double[n];
+        for (int i = 0; i < n; i++)
+        {
+            xs[i] = i * 1.7 - 90;
+            ys[i] = i % 13 - 64;
+            zs[i] = i * -0.3 + 14;
+        }
+
+        noise.fill(xs, ys, zs, out, n);
+        for (int i = 0; i < n; i++)
+        {
+            assertEquals(noise.noise(xs[i], ys[i], zs[i]), out[i]);
+        }
+    }
+
+    private void assertCompiledMatchesNoise(Noise2D noise, int expectedSize)
+    {
+        final Noise2D compiled = noise.compiled();
+
+        assertInstanceOf(CompiledNoise2D.class, compiled);
+        assertEquals(expectedSize, ((CompiledNoise2D) compiled).size());
+        for (int i = 0; i < 1000; i++)
+        {
+            final double x = (i % 40) * 13.25 - 2000, z = (i / 40) * 9.5 + 512;
+            assertEquals(Double.doubleToRawLongBits(noise.noise(x, z)), Double.doubleToRawLongBits(compiled.noise(x, z)), "Mismatch at (" + x + ", " + z + ")");
+        }
+        assertFillMatchesNoise(compiled);
+    }
+
+    private void assertFillMatchesNoise(Noise2D noise)
+    {
+        final int n = 300;
+        final double[] xs = new double[n], zs = new double[n], out = new double[n];
+        for (int i = 0; i < n; i++)
+        {
+            xs[i] = (i % 20) * 3.5 - 1000;
+            zs[i] = (i / 20) * 7 + 256.25;
+        }
+
+        noise.fill(xs, zs, out, n);
+        for (int i = 0; i < n; i++)
+        {
+            assertEquals(Double.doubleToRawLongBits(noise.noise(xs[i], zs[i])), Double.doubleToRawLongBits(out[i]), "Mismatch at (" + xs[i] + ", " + zs[i] + ")");
+        }
+    }
+}
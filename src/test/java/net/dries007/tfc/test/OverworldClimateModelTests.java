@@ -0,0 +1,177 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test;
+
+import java.util.Random;
+import io.netty.buffer.Unpooled;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.ChunkPos;
+import org.junit.jupiter.api.Test;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.util.calendar.ICalendar;
+import net.dries007.tfc.util.calendar.Month;
+import net.dries007.tfc.util.climate.ClimateRandom;
+import net.dries007.tfc.util.climate.OverworldClimateModel;
+import net.dries007.tfc.world.chunkdata.ChunkData;
+import net.dries007.tfc.world.chunkdata.ForestType;
+import net.dries007.tfc.world.chunkdata.LerpFloatLayer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OverworldClimateModelTests extends TestHelper
+{
+    @Test
+    public void testClimateRandomMatchesRandom()
+    {
+        final Random seeds = new Random(seed());
+        for (int i = 0; i < 10_000; i++)
+        {
+            final long seed = seeds.nextLong();
+            final Random random = new Random(seed);
+            long state = ClimateRandom.seed(seed);
+            for (int j = 0; j < 8; j++)
+            {
+                if ((j & 1) == 0)
+                {
+                    state = ClimateRandom.next(state);
+                    assertEquals(random.nextFloat(), ClimateRandom.nextFloat(state), "nextFloat() #" + j + " of " + seed);
+                }
+                else
+                {
+                    final int bound = j == 1 ? 10 : j == 3 ? 64 : 1_500_000_000; // Including a bound which is rejected often
+                    int value;
+                    do
+                    {
+                        state = ClimateRandom.next(state);
+                        value = ClimateRandom.nextInt(state, bound);
+                    } while (value == -1);
+                    assertEquals(random.nextInt(bound), value, "nextInt(" + bound + ") #" + j + " of " + seed);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCachedClimateMatchesReference()
+    {
+        final Random random = new Random(seed());
+        for (int seed = 0; seed < 4; seed++)
+        {
+            final Model model = new Model(random.nextLong());
+            for (int i = 0; i < 5_000; i++)
+            {
+                // Revisit a small range of days, in any order, so the caches are both hit and evicted
+                final long calendarTicks = random.nextInt(64 * ICalendar.TICKS_IN_DAY) + (random.nextBoolean() ? 0 : 1_000_000L * ICalendar.TICKS_IN_DAY);
+                final long day = ICalendar.getTotalDays(calendarTicks);
+
+                assertEquals(model.referenceDailyTemperature(calendarTicks), model.dailyTemperature(calendarTicks), "Daily temperature at " + calendarTicks);
+                assertEquals(model.referenceFog(day), model.fog(day), "Fog on day " + day);
+                assertArrayEquals(model.referenceWind(day), model.wind(day), "Wind on day " + day);
+            }
+        }
+    }
+
+    @Test
+    public void testTemperatureMatchesReference()
+    {
+        final Random random = new Random(seed());
+        final Model model = new Model(random.nextLong());
+        final ChunkPos chunkPos = new ChunkPos(-81, 612);
+        final ChunkData data = new ChunkData(chunkPos);
+        data.generatePartial(new LerpFloatLayer(100, 200, 300, 400), new LerpFloatLayer(-8, 2, 21, 30), ForestType.NONE, 0, 0);
+
+        final int daysInMonth = 8;
+        final long[] calendarTicks = new long[64];
+        final float[] temperatures = new float[calendarTicks.length];
+        for (int i = 0; i < 200; i++)
+        {
+            final BlockPos pos = new BlockPos(chunkPos.getMinBlockX() + random.nextInt(16), -64 + random.nextInt(384), chunkPos.getMinBlockZ() + random.nextInt(16));
+            for (int j = 0; j < calendarTicks.length; j++)
+            {
+                calendarTicks[j] = random.nextInt(3) == 0 && j > 0 ? calendarTicks[j - 1] : random.nextLong(100_000_000L);
+            }
+
+            ((OverworldClimateModel.Timeline) model.getTemperatureTimeline(calendarTicks, daysInMonth)).sample(pos, data, temperatures);
+            for (int j = 0; j < calendarTicks.length; j++)
+            {
+                final float expected = model.referenceTemperature(pos, data, calendarTicks[j], daysInMonth);
+                assertEquals(expected, model.getTemperature(null, pos, data, calendarTicks[j], daysInMonth), "Temperature at " + pos + " and " + calendarTicks[j]);
+                assertEquals(expected, temperatures[j], "Timeline temperature at " + pos + " and " + calendarTicks[j]);
+            }
+        }
+    }
+
+    /**
+     * Exposes the cached terms of the model, alongside a reference of how they were computed before caching, with a new {@link Random} for every query.
+     */
+    static class Model extends OverworldClimateModel
+    {
+        Model(long climateSeed)
+        {
+            final FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+            buffer.writeFloat(20_000f);
+            buffer.writeLong(climateSeed);
+            onReceiveOnClient(buffer);
+        }
+
+        float dailyTemperature(long calendarTicks)
+        {
+            return calculateDailyTemperature(calendarTicks);
+        }
+
+        float referenceDailyTemperature(long calendarTicks)
+        {
+            int hourOfDay = ICalendar.getHourOfDay(calendarTicks);
+            if (hourOfDay > 12)
+            {
+                hourOfDay = 24 - hourOfDay;
+            }
+            final float hourModifier = (hourOfDay / 6f) - 1f;
+            final Random random = seededRandom(ICalendar.getTotalDays(calendarTicks), 1986239412341L);
+            return ((random.nextFloat() - random.nextFloat()) + 0.3f * hourModifier) * 3f;
+        }
+
+        float fog(long day)
+        {
+            final Day cached = getDay(day);
+            return cached.foggy ? cached.fogModifier : 0;
+        }
+
+        float referenceFog(long day)
+        {
+            final Random random = seededRandom(day, 129341623413L);
+            return random.nextInt(FOGGY_DAY_RARITY) != 0 ? 0 : random.nextFloat();
+        }
+
+        float[] wind(long day)
+        {
+            final Day cached = getDay(day);
+            return new float[] {0.5f * cached.windiness * cached.preventFrequentWindyDays, cached.windX, cached.windZ};
+        }
+
+        float[] referenceWind(long day)
+        {
+            final Random random = seededRandom(day, 129341623413L);
+            final float preventFrequentWindyDays = random.nextFloat() < 0.1f ? 1f : random.nextFloat();
+            final float windiness = 0.5f * random.nextFloat() * preventFrequentWindyDays;
+            final float angle = random.nextFloat() * Mth.TWO_PI;
+            return new float[] {windiness, Mth.cos(angle), Mth.sin(angle)};
+        }
+
+        float referenceTemperature(BlockPos pos, ChunkData data, long calendarTicks, int daysInMonth)
+        {
+            final Month currentMonth = ICalendar.getMonthOfYear(calendarTicks, daysInMonth);
+            final float delta = ICalendar.getFractionOfMonth(calendarTicks, daysInMonth);
+            final float monthFactor = Mth.lerp(delta, currentMonth.getTemperatureModifier(), currentMonth.next().getTemperatureModifier());
+            final float monthTemperature = calculateMonthlyTemperature(pos.getZ(), monthFactor);
+            return adjustTemperatureByElevation(pos.getY(), data.getAverageTemp(pos), monthTemperature, referenceDailyTemperature(calendarTicks));
+        }
+    }
+}
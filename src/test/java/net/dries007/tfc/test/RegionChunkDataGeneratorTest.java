@@ -6,58 +6,153 @@
 
 package net.dries007.tfc.test;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
 import org.junit.jupiter.api.Test;
 
 import net.dries007.tfc.TestHelper;
-import net.dries007.tfc.world.chunkdata.ChunkRockDataCache;
+import net.dries007.tfc.world.chunkdata.ChunkData;
+import net.dries007.tfc.world.chunkdata.PartialChunkData;
 import net.dries007.tfc.world.chunkdata.RegionChunkDataGenerator;
+import net.dries007.tfc.world.chunkdata.RockLayerTable;
 import net.dries007.tfc.world.layer.framework.Area;
+import net.dries007.tfc.world.layer.framework.TiledArea;
+import net.dries007.tfc.world.noise.OpenSimplex2D;
+import net.dries007.tfc.world.region.RegionGenerator;
 import net.dries007.tfc.world.settings.RockLayerSettings;
 import net.dries007.tfc.world.settings.RockSettings;
+import net.dries007.tfc.world.settings.Settings;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 public class RegionChunkDataGeneratorTest extends TestHelper
 {
     @Test
-    public void testGenerateRockLayerAtExactEdgeOfLayerHeightWithNoCache()
+    public void testGenerateRockLayerAtExactEdgeOfLayerHeight()
     {
-        generator().generateRock(0, 90, 0, 100, null);
+        generator().generateRock(0, 90, 0, 100);
     }
 
     @Test
-    public void testGenerateRockLayerAtExactEdgeOfLayerHeightWithCache()
+    public void testGenerateRockTableAtExactEdgeOfLayerHeight()
     {
-        generator().generateRock(0, 90, 0, 100, new ChunkRockDataCache(new ChunkPos(0, 0)));
+        generator().generateRockTable(new ChunkPos(0, 0), surfaceHeight(100), 90, 91);
     }
 
     @Test
-    public void testGenerateRockLayerAboveSurfaceHeightWithNoCache()
+    public void testGenerateRockLayerAboveSurfaceHeight()
     {
-        generator().generateRock(0, 120, 0, 100, null);
+        generator().generateRock(0, 120, 0, 100);
     }
 
     @Test
-    public void testGenerateRockLayerAboveSurfaceHeightWithCache()
+    public void testGenerateRockTableAboveSurfaceHeight()
     {
-        generator().generateRock(0, 120, 0, 100, new ChunkRockDataCache(new ChunkPos(0, 0)));
+        generator().generateRockTable(new ChunkPos(0, 0), surfaceHeight(100), 120, 121);
+    }
+
+    @Test
+    public void testRockTableMatchesGenerateRock()
+    {
+        final RegionChunkDataGenerator generator = layeredGenerator();
+        final ChunkPos pos = new ChunkPos(-3, 7);
+        final int[] surfaceHeight = new int[16 * 16];
+        for (int i = 0; i < surfaceHeight.length; i++)
+        {
+            surfaceHeight[i] = 60 + (i * 37) % 120; // Including heights above the point where the surface is adjusted
+        }
+
+        final RockLayerTable table = generator.generateRockTable(pos, surfaceHeight, -64, 320);
+        final RockLayerTable copy = RockLayerTable.read(table.write(), generator.rockLayerSettings());
+
+        assertNotNull(copy);
+        assertTrue(table.size() > 256, "Expected more than one run per column");
+        for (int i = 0; i < 16 * 16; i++)
+        {
+            final int x = pos.getMinBlockX() + (i & 15), z = pos.getMinBlockZ() + (i >> 4);
+            for (int y = -64; y < 320; y++)
+            {
+                final RockSettings expected = generator.generateRock(x, y, z, surfaceHeight[i]);
+                assertSame(expected, table.get(x, y, z), "Mismatch at " + x + ", " + y + ", " + z);
+                assertSame(expected, copy.get(x, y, z), "Mismatch after reading at " + x + ", " + y + ", " + z);
+            }
+        }
+    }
+
+    @Test
+    public void testBatchMatchesGenerate()
+    {
+        final RegionGenerator regionGenerator = new RegionGenerator(new Settings(false, 0, 0, 0, 20_000, 0, 20_000, 0, null, 0.5f), new XoroshiroRandomSource(seed()));
+        final RegionChunkDataGenerator generator = RegionChunkDataGenerator.create(seed(), generator().rockLayerSettings(), regionGenerator);
+        final int width = generator.batchWidth();
+
+        for (int batchX = -1; batchX <= 0; batchX++)
+        {
+            final int batchZ = 3;
+            final PartialChunkData[] batch = generator.generateBatch(batchX, batchZ);
+            assertEquals(width * width, batch.length);
+            for (int i = 0; i < batch.length; i++)
+            {
+                final ChunkPos pos = new ChunkPos(batchX * width + (i % width), batchZ * width + (i / width));
+                final ChunkData expected = new ChunkData(generator, pos), actual = new ChunkData(generator, pos);
+                generator.generate(expected);
+                batch[i].applyTo(actual);
+
+                assertEquals(expected.getForestType(), actual.getForestType(), "Forest type at " + pos);
+                assertEquals(expected.getForestWeirdness(), actual.getForestWeirdness(), "Forest weirdness at " + pos);
+                assertEquals(expected.getForestDensity(), actual.getForestDensity(), "Forest density at " + pos);
+                for (int x = 0; x < 16; x += 5)
+                {
+                    for (int z = 0; z < 16; z += 5)
+                    {
+                        assertEquals(expected.getRainfall(x, z), actual.getRainfall(x, z), "Rainfall at " + pos + ", " + x + ", " + z);
+                        assertEquals(expected.getAverageTemp(x, z), actual.getAverageTemp(x, z), "Temperature at " + pos + ", " + x + ", " + z);
+                    }
+                }
+            }
+        }
+    }
+
+    private int[] surfaceHeight(int value)
+    {
+        final int[] surfaceHeight = new int[16 * 16];
+        Arrays.fill(surfaceHeight, value);
+        return surfaceHeight;
     }
 
     private RegionChunkDataGenerator generator()
+    {
+        final RockLayerSettings rockLayerSettings = rockLayerSettings(Map.of("rock", Blocks.STONE), "rock");
+        final TiledArea rockLayerArea = new TiledArea(() -> new Area((x, z) -> 0, 1));
+        return new RegionChunkDataGenerator(null, rockLayerSettings, null, rockLayerArea, (x, z) -> 10, (x, z) -> 1, (x, z) -> 2, (x, z) -> 0, (x, z) -> 0);
+    }
+
+    /**
+     * A generator with several rocks, varied layer heights, and a rock layer area with small cells, so the skew and layer boundaries are all exercised.
+     */
+    private RegionChunkDataGenerator layeredGenerator()
     {
         final RockLayerSettings rockLayerSettings = new RockLayerSettings.Data(
-            Map.of("rock", new RockSettings(Blocks.STONE, Blocks.DEEPSLATE, null, null, null, null, Optional.empty(), Optional.empty(), Optional.empty())),
-            List.of("rock"),
-            List.of(new RockLayerSettings.LayerData("base", Map.of("rock", "bottom"))),
-            List.of("base"),
-            List.of("base"),
-            List.of("base"),
-            List.of("base")
+            Map.of("stone", rock(Blocks.STONE), "granite", rock(Blocks.GRANITE), "diorite", rock(Blocks.DIORITE), "andesite", rock(Blocks.ANDESITE)),
+            List.of("stone", "andesite"),
+            List.of(
+                new RockLayerSettings.LayerData("middle", Map.of("granite", "bottom", "stone", "bottom")),
+                new RockLayerSettings.LayerData("top", Map.of("diorite", "middle", "andesite", "middle", "granite", "bottom"))
+            ),
+            List.of("top"),
+            List.of("top"),
+            List.of("middle"),
+            List.of("top")
         ).parse();
-        final ThreadLocal<Area> rockLayerArea = ThreadLocal.withInitial(() -> new Area((x, z) -> 0, 1));
-        return new RegionChunkDataGenerator(null, rockLayerSettings, null, rockLayerArea, (x, z) -> 10, (x, z) -> 1, (x, z) -> 2, (x, z) -> 0, (x, z) -> 0);
+        final TiledArea rockLayerArea = new TiledArea(() -> new Area((x, z) -> (Math.floorDiv(x, 3) * 31 + Math.floorDiv(z, 5) * 17) << 2, 64));
+        return new RegionChunkDataGenerator(null, rockLayerSettings, null, rockLayerArea,
+            new OpenSimplex2D(1).octaves(3).scaled(23, 43).spread(0.05f),
+            new OpenSimplex2D(2).octaves(2).scaled(-1.8f, 1.8f).spread(0.03f),
+            new OpenSimplex2D(3).octaves(2).scaled(-1.8f, 1.8f).spread(0.03f),
+            (x, z) -> 0, (x, z) -> 0);
     }
 }
@@ -0,0 +1,51 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test;
+
+import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
+import org.junit.jupiter.api.Test;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.region.RegionGenerator;
+import net.dries007.tfc.world.region.RegionStore;
+import net.dries007.tfc.world.settings.Settings;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RegionGeneratorTests extends TestHelper
+{
+    private static final Settings SETTINGS = new Settings(false, 0, 0, 0, 20_000, 0, 20_000, 0, null, 0.5f);
+
+    @Test
+    public void testParallelMatchesSequential()
+    {
+        final RegionGenerator sequential = new RegionGenerator(SETTINGS, new XoroshiroRandomSource(seed()), 256, null, false);
+        final RegionGenerator parallel = new RegionGenerator(SETTINGS, new XoroshiroRandomSource(seed()), 256, null, true);
+        for (int i = 0; i < 12; i++)
+        {
+            // Regions are ~30 grid cells across, so these are all distinct regions
+            final int gridX = (i % 4) * 97 - 150, gridZ = (i / 4) * 89 - 120;
+            assertArrayEquals(RegionStore.encode(sequential.getOrCreateRegion(gridX, gridZ)), RegionStore.encode(parallel.getOrCreateRegion(gridX, gridZ)), "Region at " + gridX + ", " + gridZ);
+        }
+    }
+
+    @Test
+    public void testTaskDependencies()
+    {
+        for (RegionGenerator.Task task : RegionGenerator.Task.values())
+        {
+            for (RegionGenerator.Task dependency : task.dependencies())
+            {
+                assertTrue(dependency.ordinal() < task.ordinal(), task + " depends on later task " + dependency);
+            }
+            if (task.ordinal() > 0)
+            {
+                assertFalse(task.dependencies().isEmpty(), task + " has no dependencies");
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test;
+
+import java.util.List;
+import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
+import org.junit.jupiter.api.Test;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.region.RegionGenerator;
+import net.dries007.tfc.world.region.RegionPartition;
+import net.dries007.tfc.world.region.RiverEdge;
+import net.dries007.tfc.world.river.MidpointFractal;
+import net.dries007.tfc.world.settings.Settings;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RiverSegmentIndexTests extends TestHelper
+{
+    @Test
+    public void testIndexMatchesLinearScan()
+    {
+        final RegionGenerator generator = new RegionGenerator(new Settings(false, 0, 0, 0, 20_000, 0, 20_000, 0, null, 0.5f), new XoroshiroRandomSource(seed()));
+        final double maxDistance = 0.4;
+
+        int nearby = 0;
+        for (int i = 0; i < 4000; i++)
+        {
+            // Sample within, and slightly outside, each partition point
+            final double gridX = (i % 80) * 0.61 - 20, gridZ = (i / 80) * 0.83 - 20;
+            final RegionPartition.Point point = generator.getOrCreatePartitionPoint((int) Math.floor(gridX), (int) Math.floor(gridZ));
+            final List<RiverEdge> rivers = point.rivers();
+            final double[] distances = new double[rivers.size()];
+
+            point.riverDistancesSq(gridX, gridZ, maxDistance, distances);
+            boolean anyWithin = false;
+            for (int j = 0; j < rivers.size(); j++)
+            {
+                final MidpointFractal fractal = rivers.get(j).fractal();
+                final double expected = fractal.intersectDistance(gridX, gridZ);
+                if (expected < maxDistance * maxDistance)
+                {
+                    assertEquals(expected, distances[j], "Distance to river " + j + " at (" + gridX + ", " + gridZ + ")");
+                    nearby++;
+                }
+                else
+                {
+                    assertTrue(distances[j] >= maxDistance * maxDistance);
+                }
+                anyWithin |= fractal.intersect(gridX, gridZ, 0.08f);
+            }
+            assertEquals(anyWithin, point.anyRiverWithin(gridX, gridZ, 0.08f), "Any river at (" + gridX + ", " + gridZ + ")");
+        }
+        assertTrue(nearby > 0, "No rivers were sampled");
+    }
+}
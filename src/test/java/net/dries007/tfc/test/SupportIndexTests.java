@@ -0,0 +1,231 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import com.google.gson.JsonObject;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.material.FluidState;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.util.Support;
+import net.dries007.tfc.util.SupportIndex;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SupportIndexTests extends TestHelper
+{
+    private static final BlockState[] STATES = {Blocks.OAK_LOG.defaultBlockState(), Blocks.OAK_PLANKS.defaultBlockState(), Blocks.STONE.defaultBlockState(), Blocks.AIR.defaultBlockState()};
+    private static final int MIN_CHUNK = -2, MAX_CHUNK = 1, HEIGHT = 48;
+
+    @Test
+    public void testIndexMatchesScan()
+    {
+        final Random random = new Random(seed());
+        final Support log = support("minecraft:oak_log", 1, 1, 4);
+        final Support planks = support("minecraft:oak_planks", 3, 0, 2); // Asymmetric, where up and down matter
+        final Function<BlockState, Support> lookup = state -> state.is(Blocks.OAK_LOG) ? log : state.is(Blocks.OAK_PLANKS) ? planks : null;
+        final Support.SupportRange range = new Support.SupportRange(3, 1, 4);
+
+        for (int layout = 0; layout < 20; layout++)
+        {
+            final World world = new World();
+            for (int i = 0; i < 600; i++)
+            {
+                world.set(randomPos(random), STATES[random.nextInt(3)]);
+            }
+
+            // Index some chunks, and leave the rest to be scanned
+            final SupportIndex index = new SupportIndex(lookup);
+            for (int chunkX = MIN_CHUNK; chunkX <= MAX_CHUNK; chunkX++)
+            {
+                for (int chunkZ = MIN_CHUNK; chunkZ <= MAX_CHUNK; chunkZ++)
+                {
+                    if (random.nextBoolean())
+                    {
+                        index.addChunk(chunkX, chunkZ);
+                        for (Map.Entry<BlockPos, BlockState> entry : world.states.entrySet())
+                        {
+                            final BlockPos pos = entry.getKey();
+                            final Support support = lookup.apply(entry.getValue());
+                            if (support != null && SectionPos.blockToSectionCoord(pos.getX()) == chunkX && SectionPos.blockToSectionCoord(pos.getZ()) == chunkZ)
+                            {
+                                index.add(pos, support);
+                            }
+                        }
+                    }
+                }
+            }
+
+            for (int round = 0; round < 3; round++)
+            {
+                for (int i = 0; i < 300; i++)
+                {
+                    final BlockPos pos = randomPos(random);
+                    assertEquals(Support.isSupported(world, pos, range, lookup), index.isSupported(world, pos, range), "Supported at " + pos);
+                }
+                for (int i = 0; i < 20; i++)
+                {
+                    final BlockPos from = randomPos(random), to = from.offset(random.nextInt(13) - 6, random.nextInt(9) - 4, random.nextInt(13) - 6);
+                    assertEquals(Support.findUnsupportedPositions(world, from, to, range, lookup), index.findUnsupportedPositions(world, from, to, range), "Unsupported between " + from + " and " + to);
+                }
+
+                // Change blocks, as the level would notify the index
+                for (int i = 0; i < 200; i++)
+                {
+                    final BlockPos pos = randomPos(random);
+                    final BlockState state = STATES[random.nextInt(STATES.length)];
+                    world.set(pos, state);
+                    index.update(pos, state);
+                }
+
+                // Unloading a chunk returns it to being scanned
+                index.removeChunk(world, MIN_CHUNK + random.nextInt(MAX_CHUNK - MIN_CHUNK + 1), MIN_CHUNK + random.nextInt(MAX_CHUNK - MIN_CHUNK + 1));
+            }
+        }
+    }
+
+    @Test
+    public void testAddChunkSkipsSectionsWithoutSupports()
+    {
+        final Random random = new Random(seed());
+        final Support log = support("minecraft:oak_log", 1, 1, 4);
+        final int[] lookups = {0};
+        final Function<BlockState, Support> lookup = state -> {
+            lookups[0]++;
+            return state.is(Blocks.OAK_LOG) ? log : null;
+        };
+        final Support.SupportRange range = new Support.SupportRange(1, 1, 4);
+
+        // Section 0 is mixed, 1 has no supports, and 2 is empty
+        final World world = new World();
+        final LevelChunkSection[] sections = new LevelChunkSection[HEIGHT >> 4];
+        for (int i = 0; i < sections.length; i++)
+        {
+            sections[i] = new LevelChunkSection(new PalettedContainer<>(Block.BLOCK_STATE_REGISTRY, Blocks.AIR.defaultBlockState(), PalettedContainer.Strategy.SECTION_STATES), null);
+        }
+        for (int i = 0; i < 1000; i++)
+        {
+            final int x = random.nextInt(16), y = random.nextInt(32), z = random.nextInt(16);
+            final BlockState state = y < 16 && random.nextBoolean() ? Blocks.OAK_LOG.defaultBlockState() : Blocks.STONE.defaultBlockState();
+            sections[y >> 4].setBlockState(x, y & 15, z, state);
+            world.set(new BlockPos(x, y, z), state);
+        }
+
+        final SupportIndex index = new SupportIndex(lookup);
+        index.addChunk(0, 0, sections, 0);
+
+        assertTrue(index.contains(0, 0));
+        assertEquals(world.states.values().stream().filter(state -> state.is(Blocks.OAK_LOG)).count(), index.size());
+        assertTrue(lookups[0] < 2 * 16 * 16 * 16, "Expected only the first section to be scanned by block, but looked up " + lookups[0] + " states");
+        for (int i = 0; i < 300; i++)
+        {
+            final BlockPos pos = new BlockPos(random.nextInt(16), random.nextInt(HEIGHT), random.nextInt(16));
+            assertEquals(Support.isSupported(world, pos, range, lookup), index.isSupported(world, pos, range), "Supported at " + pos);
+        }
+
+        index.removeChunk(world, 0, 0);
+        assertFalse(index.contains(0, 0));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testReloadingSupportsClearsIndex()
+    {
+        final Support log = support("minecraft:oak_log", 1, 1, 4);
+        final SupportIndex index = new SupportIndex(state -> state.is(Blocks.OAK_LOG) ? log : null);
+        index.addChunk(0, 0);
+        index.add(new BlockPos(3, 10, 5), log);
+
+        index.checkGeneration();
+        assertTrue(index.contains(0, 0), "Unchanged supports should not clear the index");
+        assertEquals(1, index.size());
+
+        Support.updateMaximumSupportRange();
+        index.checkGeneration();
+        assertFalse(index.contains(0, 0), "Reloaded supports should clear the index");
+        assertEquals(0, index.size());
+    }
+
+    private static BlockPos randomPos(Random random)
+    {
+        final int size = 16 * (MAX_CHUNK - MIN_CHUNK + 1);
+        return new BlockPos(16 * MIN_CHUNK + random.nextInt(size), random.nextInt(HEIGHT), 16 * MIN_CHUNK + random.nextInt(size));
+    }
+
+    private static Support support(String block, int up, int down, int horizontal)
+    {
+        final JsonObject json = new JsonObject();
+        json.addProperty("ingredient", block);
+        json.addProperty("support_up", up);
+        json.addProperty("support_down", down);
+        json.addProperty("support_horizontal", horizontal);
+        return new Support(new ResourceLocation("tfc", block.replace(':', '_')), json);
+    }
+
+    static class World implements BlockGetter
+    {
+        final Map<BlockPos, BlockState> states = new HashMap<>();
+
+        void set(BlockPos pos, BlockState state)
+        {
+            if (state.isAir())
+            {
+                states.remove(pos);
+            }
+            else
+            {
+                states.put(pos.immutable(), state);
+            }
+        }
+
+        @Nullable
+        @Override
+        public BlockEntity getBlockEntity(BlockPos pos)
+        {
+            return null;
+        }
+
+        @Override
+        public BlockState getBlockState(BlockPos pos)
+        {
+            return states.getOrDefault(pos, Blocks.AIR.defaultBlockState());
+        }
+
+        @Override
+        public FluidState getFluidState(BlockPos pos)
+        {
+            return getBlockState(pos).getFluidState();
+        }
+
+        @Override
+        public int getHeight()
+        {
+            return HEIGHT;
+        }
+
+        @Override
+        public int getMinBuildHeight()
+        {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.IntTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.WorldGenLevel;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.Mirror;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.block.RotatedPillarBlock;
+import net.minecraft.world.level.block.StairBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.level.levelgen.structure.templatesystem.BlockIgnoreProcessor;
+import net.minecraft.world.level.levelgen.structure.templatesystem.BlockRotProcessor;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructurePlaceSettings;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
+import org.junit.jupiter.api.Test;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.feature.tree.CompiledTreeTemplate;
+import net.dries007.tfc.world.feature.tree.TreeHelpers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TreeTemplateTests extends TestHelper
+{
+    private static final BlockPos ORIGIN = new BlockPos(100, 64, -37);
+
+    @Test
+    public void testCompiledMatchesTemplate()
+    {
+        final StructureTemplate template = template();
+        final CompiledTreeTemplate compiled = CompiledTreeTemplate.compile(new ResourceLocation("tfc", "test"), template);
+
+        assertEquals(template.getSize(), compiled.getSize());
+        for (Mirror mirror : Mirror.values())
+        {
+            for (Rotation rotation : Rotation.values())
+            {
+                for (int seed = 0; seed < 4; seed++)
+                {
+                    assertPlacementMatches(template, compiled, mirror, rotation, seed, null);
+                    assertPlacementMatches(template, compiled, mirror, rotation, seed, 0.4f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyTemplate()
+    {
+        assertThrows(IllegalStateException.class, () -> CompiledTreeTemplate.compile(new ResourceLocation("tfc", "empty"), new StructureTemplate()));
+    }
+
+    private void assertPlacementMatches(StructureTemplate template, CompiledTreeTemplate compiled, Mirror mirror, Rotation rotation, long seed, Float integrity)
+    {
+        final String message = mirror + ", " + rotation + ", seed = " + seed + ", integrity = " + integrity;
+        final RandomSource expectedRandom = new XoroshiroRandomSource(seed), actualRandom = new XoroshiroRandomSource(seed);
+        final Map<BlockPos, BlockState> expected = world(), actual = world();
+        final StructurePlaceSettings expectedSettings = settings(expectedRandom, mirror, rotation), actualSettings = settings(actualRandom, mirror, rotation);
+
+        if (integrity != null)
+        {
+            expectedSettings.addProcessor(new BlockRotProcessor(integrity));
+            TreeHelpers.placeTemplate(template, expectedSettings, level(expected), ORIGIN);
+            compiled.place(level(actual), ORIGIN, actualSettings, actualRandom, integrity);
+        }
+        else
+        {
+            TreeHelpers.placeTemplate(template, expectedSettings, level(expected), ORIGIN);
+            compiled.place(level(actual), ORIGIN, actualSettings, actualRandom);
+        }
+
+        assertEquals(expected, actual, message);
+        assertEquals(expectedRandom.nextLong(), actualRandom.nextLong(), "Random was consumed differently: " + message);
+    }
+
+    private StructurePlaceSettings settings(RandomSource random, Mirror mirror, Rotation rotation)
+    {
+        return new StructurePlaceSettings()
+            .setBoundingBox(new BoundingBox(ORIGIN.getX() - 16, 0, ORIGIN.getZ() - 16, ORIGIN.getX() + 1, 256, ORIGIN.getZ() + 16)) // Cuts through the tree
+            .setRandom(random)
+            .addProcessor(BlockIgnoreProcessor.STRUCTURE_AND_AIR)
+            .setRotation(rotation)
+            .setMirror(mirror);
+    }
+
+    /**
+     * @return A world with a few blocks, some of which the tree may replace, some of which it may not.
+     */
+    private Map<BlockPos, BlockState> world()
+    {
+        final Map<BlockPos, BlockState> world = new HashMap<>();
+        for (int i = -4; i <= 4; i++)
+        {
+            world.put(ORIGIN.offset(i, 3, 0), Blocks.STONE.defaultBlockState());
+            world.put(ORIGIN.offset(0, 4, i), Blocks.WATER.defaultBlockState());
+        }
+        return world;
+    }
+
+    /**
+     * A minimal level, backed by {@code world}, which supports just the methods used to place templates.
+     */
+    private WorldGenLevel level(Map<BlockPos, BlockState> world)
+    {
+        return (WorldGenLevel) Proxy.newProxyInstance(WorldGenLevel.class.getClassLoader(), new Class<?>[] {WorldGenLevel.class}, (proxy, method, args) -> switch (method.getName())
+            {
+                case "getBlockState" -> world.getOrDefault((BlockPos) args[0], Blocks.AIR.defaultBlockState());
+                case "setBlock" -> {
+                    world.put(((BlockPos) args[0]).immutable(), (BlockState) args[1]);
+                    yield true;
+                }
+                default -> throw new UnsupportedOperationException(method.toString());
+            });
+    }
+
+    /**
+     * A small, asymmetric tree with two palettes, orientable blocks, and air and structure blocks that should be ignored.
+     */
+    private StructureTemplate template()
+    {
+        final List<BlockState> palette = List.of(
+            Blocks.OAK_LOG.defaultBlockState(),
+            Blocks.OAK_LOG.defaultBlockState().setValue(RotatedPillarBlock.AXIS, Direction.Axis.X),
+            Blocks.OAK_LEAVES.defaultBlockState(),
+            Blocks.OAK_STAIRS.defaultBlockState().setValue(StairBlock.FACING, Direction.EAST),
+            Blocks.AIR.defaultBlockState(),
+            Blocks.STRUCTURE_BLOCK.defaultBlockState()
+        );
+
+        final ListTag blocks = new ListTag();
+        for (int x = 0; x < 5; x++)
+        {
+            for (int y = 0; y < 7; y++)
+            {
+                for (int z = 0; z < 4; z++)
+                {
+                    final int state;
+                    if (x == 2 && z == 1)
+                    {
+                        state = y < 5 ? 0 : 2;
+                    }
+                    else if (y == 2 && z == 1)
+                    {
+                        state = 1;
+                    }
+                    else if (y == 6 && x == 0)
+                    {
+                        state = 3;
+                    }
+                    else if (y >= 3)
+                    {
+                        state = (x + y + z) % 5 == 0 ? 5 : (x * z) % 3 == 0 ? 4 : 2;
+                    }
+                    else
+                    {
+                        continue;
+                    }
+                    final CompoundTag block = new CompoundTag();
+                    block.put("pos", intList(x, y, z));
+                    block.putInt("state", state);
+                    blocks.add(block);
+                }
+            }
+        }
+
+        final ListTag palettes = new ListTag();
+        palettes.add(paletteTag(palette));
+        palettes.add(paletteTag(List.of(palette.get(0), palette.get(1), Blocks.BIRCH_LEAVES.defaultBlockState(), palette.get(3), palette.get(4), palette.get(5))));
+
+        final CompoundTag tag = new CompoundTag();
+        tag.put("size", intList(5, 7, 4));
+        tag.put("palettes", palettes);
+        tag.put("blocks", blocks);
+        tag.put("entities", new ListTag());
+
+        final StructureTemplate template = new StructureTemplate();
+        template.load(BuiltInRegistries.BLOCK.asLookup(), tag);
+        return template;
+    }
+
+    private ListTag paletteTag(List<BlockState> states)
+    {
+        final ListTag tag = new ListTag();
+        for (BlockState state : states)
+        {
+            tag.add(NbtUtils.writeBlockState(state));
+        }
+        return tag;
+    }
+
+    private ListTag intList(int... values)
+    {
+        final ListTag tag = new ListTag();
+        for (int value : values)
+        {
+            tag.add(IntTag.valueOf(value));
+        }
+        return tag;
+    }
+}
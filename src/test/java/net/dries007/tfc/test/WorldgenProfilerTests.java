@@ -0,0 +1,132 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.FastConcurrentCache;
+import net.dries007.tfc.world.WorldgenStage;
+import net.dries007.tfc.world.chunkdata.ChunkData;
+import net.dries007.tfc.world.chunkdata.RegionChunkDataGenerator;
+import net.dries007.tfc.world.profiler.WorldgenProfiler;
+import net.dries007.tfc.world.profiler.WorldgenProfiler.Category;
+import net.dries007.tfc.world.region.RegionGenerator;
+import net.dries007.tfc.world.settings.Settings;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorldgenProfilerTests extends TestHelper
+{
+    @AfterEach
+    public void reset()
+    {
+        WorldgenProfiler.setEnabled(false);
+        WorldgenProfiler.reset();
+    }
+
+    @Test
+    public void testDisabledRecordsNothing()
+    {
+        final long start = WorldgenProfiler.start();
+        WorldgenProfiler.record(Category.FEATURE, "feature", start);
+        WorldgenProfiler.record(Category.FEATURE, () -> fail("Name should not be computed when disabled"), start);
+        WorldgenStage.NOISE.record(System.nanoTime());
+
+        assertEquals(0, start);
+        assertTrue(WorldgenProfiler.snapshot().isEmpty());
+    }
+
+    @Test
+    public void testSyntheticChunksAreRecorded()
+    {
+        WorldgenProfiler.setEnabled(true);
+
+        final RegionGenerator regionGenerator = new RegionGenerator(new Settings(false, 0, 0, 0, 20_000, 0, 20_000, 0, null, 0.5f), new XoroshiroRandomSource(1234));
+        final RegionChunkDataGenerator generator = RegionChunkDataGenerator.create(1234, rockLayerSettings(Map.of("stone", Blocks.STONE, "granite", Blocks.GRANITE), "stone"), regionGenerator);
+        final int[] surfaceHeight = new int[16 * 16];
+        Arrays.fill(surfaceHeight, 80);
+
+        for (int x = 0; x < 3; x++)
+        {
+            for (int z = 0; z < 3; z++)
+            {
+                final ChunkPos pos = new ChunkPos(x, z);
+                final ChunkData data = new ChunkData(generator, pos);
+                generator.generate(data);
+                data.generateFull(surfaceHeight, surfaceHeight);
+                data.getRockData().generateTable(pos, -64, 320);
+            }
+        }
+        WorldgenStage.NOISE.record(System.nanoTime());
+
+        final List<WorldgenProfiler.Timing> timings = WorldgenProfiler.snapshot();
+        for (RegionGenerator.Task task : RegionGenerator.Task.values())
+        {
+            assertTrue(find(timings, Category.REGION_TASK, task.name().toLowerCase(Locale.ROOT)).count() > 0, "Missing task " + task);
+        }
+        assertEquals(9, find(timings, Category.CHUNK_DATA, "partial").count());
+        assertEquals(9, find(timings, Category.CHUNK_DATA, "rock_table").count());
+        assertEquals(1, find(timings, Category.STAGE, "noise").count());
+
+        for (int i = 1; i < timings.size(); i++)
+        {
+            assertTrue(timings.get(i - 1).totalNanos() >= timings.get(i).totalNanos(), "Timings should be sorted by total time");
+        }
+
+        final Map<String, FastConcurrentCache<?>> caches = new LinkedHashMap<>();
+        caches.put("region", regionGenerator.regionCache());
+        caches.put("rock_layer", generator.rockLayerArea().cache());
+        for (WorldgenProfiler.CacheStats cache : WorldgenProfiler.snapshotCaches(caches))
+        {
+            assertTrue(cache.hits() + cache.misses() > 0, "No lookups recorded for " + cache.name());
+            assertTrue(cache.hitRate() >= 0 && cache.hitRate() <= 1);
+        }
+    }
+
+    @Test
+    public void testCsv() throws IOException
+    {
+        WorldgenProfiler.setEnabled(true);
+        WorldgenProfiler.recordElapsed(Category.FEATURE, "tfc:plain", 2_000_000);
+        WorldgenProfiler.recordElapsed(Category.FEATURE, "tfc:plain", 4_000_000);
+        WorldgenProfiler.recordElapsed(Category.STRUCTURE, "a,\"quoted\" name", 1_000_000);
+
+        final FastConcurrentCache<String> cache = new FastConcurrentCache<>(4);
+        cache.computeIfAbsent(0, 0, () -> "value");
+        cache.computeIfAbsent(0, 0, () -> "value");
+
+        final StringWriter writer = new StringWriter();
+        WorldgenProfiler.writeCsv(writer, WorldgenProfiler.snapshot(), WorldgenProfiler.snapshotCaches(Map.of("test", cache)));
+
+        assertEquals("""
+            category,name,count,total_ms,mean_us,max_us,hits,misses,hit_rate
+            feature,tfc:plain,2,6.000,3000.000,4000.000,,,
+            structure,"a,""quoted"" name",1,1.000,1000.000,1000.000,,,
+            cache,test,2,,,,1,1,0.5000
+            """, writer.toString());
+    }
+
+    private WorldgenProfiler.Timing find(List<WorldgenProfiler.Timing> timings, Category category, String name)
+    {
+        return timings.stream()
+            .filter(timing -> timing.category() == category && timing.name().equals(name))
+            .findFirst()
+            .orElseGet(() -> fail("No timing for " + category.getSerializedName() + " " + name));
+    }
+}